@@ -51,6 +51,8 @@ public class Deps {
   public static final String httpcomponentsHttpclient = "org.apache.httpcomponents:httpclient";
   public static final String httpcomponentsHttpmime = "org.apache.httpcomponents:httpmime";
   public static final String httpcomponentsFluenthc = "org.apache.httpcomponents:fluent-hc";
+  public static final String httpcomponentsHttpasyncclient =
+      "org.apache.httpcomponents:httpasyncclient";
 
   // Logging Libraries
   public static final String slf4jApi = "org.slf4j:slf4j-api";
@@ -20,8 +20,10 @@
 
 package org.jodconverter.core;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
 
@@ -64,6 +66,48 @@ public interface DocumentConverter {
   ConversionJobWithOptionalSourceFormatUnspecified convert(
       @NonNull InputStream source, boolean closeStream);
 
+  /**
+   * Converts a source document held in memory. The bytes are not copied and must not be modified
+   * until the conversion terminates.
+   *
+   * <p>The default implementation converts the bytes as an input stream, see {@link
+   * #convert(InputStream)}.
+   *
+   * @param source The conversion input as a byte array.
+   * @return The current conversion specification.
+   */
+  default @NonNull ConversionJobWithOptionalSourceFormatUnspecified convert(
+      final byte @NonNull [] source) {
+
+    return convert(new ByteArrayInputStream(source));
+  }
+
+  /**
+   * Converts a source document held in memory, made of the remaining bytes of the specified
+   * buffer. The bytes are not copied and must not be modified until the conversion terminates.
+   * The position of the buffer is not changed.
+   *
+   * <p>The default implementation converts the bytes as an input stream, see {@link
+   * #convert(InputStream)}.
+   *
+   * @param source The conversion input as a byte buffer.
+   * @return The current conversion specification.
+   */
+  default @NonNull ConversionJobWithOptionalSourceFormatUnspecified convert(
+      final @NonNull ByteBuffer source) {
+
+    if (source.hasArray()) {
+      return convert(
+          new ByteArrayInputStream(
+              source.array(), source.arrayOffset() + source.position(), source.remaining()));
+    }
+
+    // A direct or read-only buffer must be copied.
+    final byte[] bytes = new byte[source.remaining()];
+    source.duplicate().get(bytes);
+    return convert(bytes);
+  }
+
   /**
    * Gets all the {@link DocumentFormat} supported by the converter.
    *
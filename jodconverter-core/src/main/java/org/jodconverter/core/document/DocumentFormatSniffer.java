@@ -0,0 +1,593 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.document;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.core.util.FileUtils;
+
+/**
+ * Recognizes the format of a document from its content, so a conversion does not depend on the
+ * office type detection, which is slow on large documents and misled by renamed files.
+ *
+ * <p>The following documents are recognized:
+ *
+ * <ul>
+ *   <li>OpenDocument packages, from their {@code mimetype} entry;
+ *   <li>Office Open XML packages, from their {@code [Content_Types].xml} entry and part names;
+ *   <li>OLE2 compound files (legacy Word, Excel, PowerPoint and Visio documents), from the names of
+ *       their streams;
+ *   <li>PDF, RTF and HTML documents, from their leading bytes;
+ *   <li>CSV and TSV documents, from the separators of their first lines.
+ * </ul>
+ *
+ * <p>The recognized format is a format of the registry; its load properties are completed with
+ * the {@code FilterName} matching the content, so the office does not have to detect the type of
+ * the document again.
+ */
+public final class DocumentFormatSniffer {
+
+  /** The number of bytes read from the beginning of a document to recognize its format. */
+  public static final int HEAD_LENGTH = 4096;
+
+  private static final String FILTER_NAME = "FilterName";
+
+  private static final int ZIP_LOCAL_HEADER_SIGNATURE = 0x04034b50;
+  private static final int ZIP_LOCAL_HEADER_LENGTH = 30;
+  private static final int ZIP_CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+  private static final int ZIP_CENTRAL_HEADER_LENGTH = 46;
+  private static final int ZIP_END_SIGNATURE = 0x06054b50;
+  private static final int ZIP_END_LENGTH = 22;
+  private static final int ZIP_MAX_COMMENT_LENGTH = 65_535;
+  private static final int ZIP_MAX_CENTRAL_DIRECTORY_SIZE = 16 * 1024 * 1024;
+  private static final String ODF_MIMETYPE_ENTRY = "mimetype";
+  private static final String OOXML_CONTENT_TYPES_ENTRY = "[Content_Types].xml";
+
+  private static final long OLE2_SIGNATURE = 0xE11AB1A1E011CFD0L;
+  private static final int OLE2_HEADER_LENGTH = 512;
+  private static final int OLE2_DIRECTORY_ENTRY_LENGTH = 128;
+
+  private static final int PDF_SIGNATURE_MAX_OFFSET = 1024;
+  private static final int CSV_MIN_LINES = 2;
+
+  // The extensions whose content cannot be told apart, by canonical extension.
+  private static final Map<String, Set<String>> COMPATIBLE_EXTENSIONS;
+  // The load filter names, by extension of the format.
+  private static final Map<String, String> FILTER_NAMES;
+
+  static {
+    final Map<String, Set<String>> compatible = new HashMap<>();
+    compatible.put("docx", set("docx", "docm", "dotx", "dotm"));
+    compatible.put("xlsx", set("xlsx", "xlsm", "xltx", "xltm"));
+    compatible.put("pptx", set("pptx", "pptm", "potx", "potm", "ppsx"));
+    compatible.put("doc", set("doc", "dot"));
+    compatible.put("xls", set("xls", "xlt"));
+    compatible.put("ppt", set("ppt", "pot", "pps"));
+    compatible.put("html", set("html", "htm", "xhtml"));
+    COMPATIBLE_EXTENSIONS = Collections.unmodifiableMap(compatible);
+
+    final Map<String, String> filterNames = new HashMap<>();
+    filterNames.put("odt", "writer8");
+    filterNames.put("ott", "writer8_template");
+    filterNames.put("ods", "calc8");
+    filterNames.put("ots", "calc8_template");
+    filterNames.put("odp", "impress8");
+    filterNames.put("otp", "impress8_template");
+    filterNames.put("odg", "draw8");
+    filterNames.put("otg", "draw8_template");
+    filterNames.put("docx", "MS Word 2007 XML");
+    filterNames.put("dotx", "MS Word 2007 XML Template");
+    filterNames.put("xlsx", "Calc MS Excel 2007 XML");
+    filterNames.put("xltx", "Calc MS Excel 2007 XML Template");
+    filterNames.put("pptx", "Impress MS PowerPoint 2007 XML");
+    filterNames.put("potx", "Impress MS PowerPoint 2007 XML Template");
+    filterNames.put("doc", "MS Word 97");
+    filterNames.put("xls", "MS Excel 97");
+    filterNames.put("ppt", "MS PowerPoint 97");
+    filterNames.put("rtf", "Rich Text Format");
+    filterNames.put("html", "HTML (StarWriter)");
+    filterNames.put("pdf", "draw_pdf_import");
+    FILTER_NAMES = Collections.unmodifiableMap(filterNames);
+  }
+
+  private final DocumentFormatRegistry registry;
+  private final Map<DocumentFormat, DocumentFormat> filteredFormats = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new sniffer recognizing the formats of the specified registry.
+   *
+   * @param registry The registry of the formats to recognize.
+   */
+  public DocumentFormatSniffer(final @NonNull DocumentFormatRegistry registry) {
+
+    AssertUtils.notNull(registry, "registry must not be null");
+    this.registry = registry;
+  }
+
+  /**
+   * Recognizes the format of the specified file. The head of the file is read, and for zip
+   * packages its central directory. When the extension of the file names a format whose content
+   * is the same (e.g. {@code dotx} for a word processing Office Open XML package), this format is
+   * returned; the extension is thus only ignored when it is missing or misleading.
+   *
+   * @param file The file to sniff.
+   * @return The recognized format, or {@code null} if the content is not recognized.
+   * @throws IOException If the file cannot be read.
+   */
+  public @Nullable DocumentFormat sniff(final @NonNull File file) throws IOException {
+
+    final String extension = FileUtils.getExtension(file.getName());
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      final ByteBuffer head = read(channel, 0L, (int) Math.min(HEAD_LENGTH, channel.size()));
+      String detected = detect(head, null);
+      if (detected == null && isZip(head)) {
+        detected = detectZip(readCentralDirectory(channel));
+      }
+      if (detected == null && isOle2(head)) {
+        detected = detectOle2(readOle2Directory(channel, head));
+      }
+      return resolve(detected, extension);
+    }
+  }
+
+  /**
+   * Recognizes the format of a document held in memory.
+   *
+   * @param content The whole content of the document, from its position to its limit. The buffer
+   *     position is not modified.
+   * @return The recognized format, or {@code null} if the content is not recognized.
+   */
+  public @Nullable DocumentFormat sniff(final @NonNull ByteBuffer content) {
+
+    final ByteBuffer buffer = content.slice().order(ByteOrder.LITTLE_ENDIAN);
+    final ByteBuffer head = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    head.limit(Math.min(HEAD_LENGTH, head.limit()));
+    return resolve(detect(head, buffer), null);
+  }
+
+  /**
+   * Recognizes the format of a document from its first bytes only, like the ones read from a
+   * stream. Zip packages are recognized from their leading entries; at least {@link #HEAD_LENGTH}
+   * bytes should be provided if available.
+   *
+   * @param head The first bytes of the document.
+   * @param length The number of bytes of the head.
+   * @return The recognized format, or {@code null} if the content is not recognized.
+   */
+  public @Nullable DocumentFormat sniffHead(final byte @NonNull [] head, final int length) {
+
+    final ByteBuffer buffer = ByteBuffer.wrap(head, 0, length).slice();
+    return resolve(detect(buffer.order(ByteOrder.LITTLE_ENDIAN), null), null);
+  }
+
+  // Returns the canonical extension of the detected format, or of an OpenDocument media type.
+  private @Nullable String detect(final ByteBuffer head, final @Nullable ByteBuffer content) {
+
+    if (isZip(head)) {
+      final String mediaType = readOdfMediaType(head);
+      if (mediaType != null) {
+        return mediaType;
+      }
+      if (content != null) {
+        final int end = findZipEnd(content, content.limit());
+        if (end >= 0) {
+          final ByteBuffer directory = sliceCentralDirectory(content, end);
+          if (directory != null) {
+            return detectZip(directory);
+          }
+        }
+      }
+      return detectZip(readLocalEntryNames(head));
+    }
+    if (isOle2(head)) {
+      if (content != null) {
+        final long offset = ole2DirectoryOffset(content);
+        if (offset >= 0L && offset + OLE2_DIRECTORY_ENTRY_LENGTH <= content.limit()) {
+          final ByteBuffer directory = content.duplicate();
+          directory.position((int) offset);
+          return detectOle2(directory.slice().order(ByteOrder.LITTLE_ENDIAN));
+        }
+      }
+      return null;
+    }
+    return detectText(head);
+  }
+
+  private @Nullable DocumentFormat resolve(
+      final @Nullable String detected, final @Nullable String extension) {
+
+    final DocumentFormat extensionFormat =
+        extension == null || extension.isEmpty() ? null : registry.getFormatByExtension(extension);
+    if (detected == null) {
+      return null;
+    }
+
+    // Text contents can be of many formats; trust the extension when it names one.
+    if (("csv".equals(detected) || "tsv".equals(detected)) && extensionFormat != null) {
+      return withFilterName(extensionFormat);
+    }
+
+    final DocumentFormat format =
+        detected.indexOf('/') < 0
+            ? registry.getFormatByExtension(detected)
+            : registry.getFormatByMediaType(detected);
+    if (format == null) {
+      return null;
+    }
+    if (extensionFormat != null
+        && (extensionFormat.equals(format)
+            || COMPATIBLE_EXTENSIONS
+                .getOrDefault(format.getExtension(), Collections.emptySet())
+                .contains(extension.toLowerCase(Locale.ROOT)))) {
+      return withFilterName(extensionFormat);
+    }
+    return withFilterName(format);
+  }
+
+  // Completes the load properties of a format with its FilterName, if known.
+  private DocumentFormat withFilterName(final DocumentFormat format) {
+
+    final String filterName = FILTER_NAMES.get(format.getExtension());
+    final Map<String, Object> loadProperties = format.getLoadProperties();
+    if (filterName == null || loadProperties != null && loadProperties.containsKey(FILTER_NAME)) {
+      return format;
+    }
+    return filteredFormats.computeIfAbsent(
+        format,
+        f ->
+            DocumentFormat.builder(f)
+                .loadFilterName(filterName)
+                .unmodifiable(true)
+                .build());
+  }
+
+  private static boolean isZip(final ByteBuffer head) {
+    return head.limit() >= ZIP_LOCAL_HEADER_LENGTH && head.getInt(0) == ZIP_LOCAL_HEADER_SIGNATURE;
+  }
+
+  private static boolean isOle2(final ByteBuffer head) {
+    return head.limit() >= OLE2_HEADER_LENGTH && head.getLong(0) == OLE2_SIGNATURE;
+  }
+
+  // OpenDocument packages start with a stored "mimetype" entry holding their media type.
+  private static @Nullable String readOdfMediaType(final ByteBuffer head) {
+
+    final int nameLength = head.getShort(26) & 0xFFFF;
+    final int extraLength = head.getShort(28) & 0xFFFF;
+    final int size = head.getInt(18);
+    final int start = ZIP_LOCAL_HEADER_LENGTH + nameLength + extraLength;
+    if (head.getShort(8) != 0 // Not stored
+        || !ODF_MIMETYPE_ENTRY.equals(string(head, ZIP_LOCAL_HEADER_LENGTH, nameLength))
+        || size <= 0
+        || size > 128
+        || start + size > head.limit()) {
+      return null;
+    }
+    return string(head, start, size).trim();
+  }
+
+  // Reads the names of the entries whose local headers are in the head of a zip package.
+  private static ByteBuffer readLocalEntryNames(final ByteBuffer head) {
+
+    // Rewrite the names as central directory headers so both are detected the same way.
+    final ByteBuffer names = ByteBuffer.allocate(head.limit() * 2).order(ByteOrder.LITTLE_ENDIAN);
+    int offset = 0;
+    while (offset + ZIP_LOCAL_HEADER_LENGTH <= head.limit()
+        && head.getInt(offset) == ZIP_LOCAL_HEADER_SIGNATURE) {
+      final int nameLength = head.getShort(offset + 26) & 0xFFFF;
+      final int extraLength = head.getShort(offset + 28) & 0xFFFF;
+      if (offset + ZIP_LOCAL_HEADER_LENGTH + nameLength > head.limit()
+          || names.remaining() < ZIP_CENTRAL_HEADER_LENGTH + nameLength) {
+        break;
+      }
+      final int start = names.position();
+      names.putInt(ZIP_CENTRAL_HEADER_SIGNATURE);
+      names.position(start + 28);
+      names.putShort((short) nameLength);
+      names.position(start + ZIP_CENTRAL_HEADER_LENGTH);
+      for (int i = 0; i < nameLength; i++) {
+        names.put(head.get(offset + ZIP_LOCAL_HEADER_LENGTH + i));
+      }
+
+      final int dataStart = offset + ZIP_LOCAL_HEADER_LENGTH + nameLength + extraLength;
+      if ((head.getShort(offset + 6) & 0x08) == 0) {
+        offset = (int) Math.min(head.limit(), dataStart + (head.getInt(offset + 18) & 0xFFFFFFFFL));
+      } else {
+        // Entries followed by a data descriptor do not tell their size up front.
+        offset = findLocalHeader(head, dataStart);
+      }
+    }
+    names.flip();
+    return names.order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private static int findLocalHeader(final ByteBuffer head, final int from) {
+
+    for (int offset = Math.max(0, from); offset + 4 <= head.limit(); offset++) {
+      if (head.getInt(offset) == ZIP_LOCAL_HEADER_SIGNATURE) {
+        return offset;
+      }
+    }
+    return head.limit();
+  }
+
+  // Detects an Office Open XML package from the entries of its central directory.
+  private static @Nullable String detectZip(final @Nullable ByteBuffer directory) {
+
+    if (directory == null) {
+      return null;
+    }
+    boolean contentTypes = false;
+    String detected = null;
+    int offset = 0;
+    while (offset + ZIP_CENTRAL_HEADER_LENGTH <= directory.limit()
+        && directory.getInt(offset) == ZIP_CENTRAL_HEADER_SIGNATURE) {
+      final int nameLength = directory.getShort(offset + 28) & 0xFFFF;
+      if (offset + ZIP_CENTRAL_HEADER_LENGTH + nameLength > directory.limit()) {
+        break;
+      }
+      final String name = string(directory, offset + ZIP_CENTRAL_HEADER_LENGTH, nameLength);
+      if (OOXML_CONTENT_TYPES_ENTRY.equals(name)) {
+        contentTypes = true;
+      } else if (detected == null) {
+        detected = detectOoxmlPart(name);
+      }
+      if (contentTypes && detected != null) {
+        return detected;
+      }
+      offset +=
+          ZIP_CENTRAL_HEADER_LENGTH
+              + nameLength
+              + (directory.getShort(offset + 30) & 0xFFFF)
+              + (directory.getShort(offset + 32) & 0xFFFF);
+    }
+    return null;
+  }
+
+  private static @Nullable String detectOoxmlPart(final String name) {
+
+    if (name.startsWith("word/")) {
+      return "docx";
+    }
+    if (name.startsWith("xl/")) {
+      return "xlsx";
+    }
+    if (name.startsWith("ppt/")) {
+      return "pptx";
+    }
+    if (name.startsWith("visio/")) {
+      return "vsdx";
+    }
+    return null;
+  }
+
+  // Finds the end of central directory record of a zip package, searching backward.
+  private static int findZipEnd(final ByteBuffer tail, final int limit) {
+
+    final int lowest = Math.max(0, limit - ZIP_END_LENGTH - ZIP_MAX_COMMENT_LENGTH);
+    for (int offset = limit - ZIP_END_LENGTH; offset >= lowest; offset--) {
+      if (tail.getInt(offset) == ZIP_END_SIGNATURE) {
+        return offset;
+      }
+    }
+    return -1;
+  }
+
+  private static @Nullable ByteBuffer sliceCentralDirectory(
+      final ByteBuffer content, final int end) {
+
+    final long size = content.getInt(end + 12) & 0xFFFFFFFFL;
+    final long offset = content.getInt(end + 16) & 0xFFFFFFFFL;
+    if (offset + size > end) {
+      return null;
+    }
+    final ByteBuffer directory = content.duplicate();
+    directory.position((int) offset).limit((int) (offset + size));
+    return directory.slice().order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private static @Nullable ByteBuffer readCentralDirectory(final FileChannel channel)
+      throws IOException {
+
+    final long fileSize = channel.size();
+    final int tailLength = (int) Math.min(fileSize, ZIP_END_LENGTH + ZIP_MAX_COMMENT_LENGTH);
+    final ByteBuffer tail = read(channel, fileSize - tailLength, tailLength);
+    final int end = findZipEnd(tail, tail.limit());
+    if (end < 0) {
+      return null;
+    }
+    final long size = tail.getInt(end + 12) & 0xFFFFFFFFL;
+    final long offset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+    if (size > ZIP_MAX_CENTRAL_DIRECTORY_SIZE || offset + size > fileSize) {
+      return null;
+    }
+    return read(channel, offset, (int) size);
+  }
+
+  // Gets the offset of the first sector of the directory of an OLE2 compound file.
+  private static long ole2DirectoryOffset(final ByteBuffer header) {
+
+    final int sectorShift = header.getShort(30) & 0xFFFF;
+    final long firstSector = header.getInt(48) & 0xFFFFFFFFL;
+    if (sectorShift != 9 && sectorShift != 12) {
+      return -1L;
+    }
+    return (firstSector + 1L) << sectorShift;
+  }
+
+  private static @Nullable ByteBuffer readOle2Directory(
+      final FileChannel channel, final ByteBuffer header) throws IOException {
+
+    final long offset = ole2DirectoryOffset(header);
+    if (offset < 0L || offset >= channel.size()) {
+      return null;
+    }
+    final int sectorSize = 1 << (header.getShort(30) & 0xFFFF);
+    return read(channel, offset, (int) Math.min(sectorSize, channel.size() - offset));
+  }
+
+  // Detects a legacy document from the stream names of the first directory sector.
+  private static @Nullable String detectOle2(final @Nullable ByteBuffer directory) {
+
+    if (directory == null) {
+      return null;
+    }
+    for (int offset = 0;
+        offset + OLE2_DIRECTORY_ENTRY_LENGTH <= directory.limit();
+        offset += OLE2_DIRECTORY_ENTRY_LENGTH) {
+      final int nameLength = directory.getShort(offset + 64) & 0xFFFF;
+      if (nameLength < 2 || nameLength > 64) {
+        continue;
+      }
+      final byte[] name = new byte[nameLength - 2]; // Without the null terminator
+      for (int i = 0; i < name.length; i++) {
+        name[i] = directory.get(offset + i);
+      }
+      switch (new String(name, StandardCharsets.UTF_16LE)) {
+        case "WordDocument":
+          return "doc";
+        case "Workbook":
+        case "Book":
+          return "xls";
+        case "PowerPoint Document":
+          return "ppt";
+        case "VisioDocument":
+          return "vsd";
+        default:
+          break;
+      }
+    }
+    return null;
+  }
+
+  // Detects a PDF, RTF, HTML or delimited text document from its leading bytes.
+  private static @Nullable String detectText(final ByteBuffer head) {
+
+    final String text = string(head, 0, head.limit());
+    if (text.indexOf("%PDF-") >= 0 && text.indexOf("%PDF-") < PDF_SIGNATURE_MAX_OFFSET) {
+      return "pdf";
+    }
+    if (text.indexOf('\0') >= 0) {
+      return null;
+    }
+
+    // The head is decoded as ISO-8859-1, so an UTF-8 byte order mark is 3 characters long.
+    final String start = text.replaceFirst("^(\u00EF\u00BB\u00BF)?\\s*", "");
+    if (start.startsWith("{\\rtf")) {
+      return "rtf";
+    }
+    final String lower = start.toLowerCase(Locale.ROOT);
+    if (lower.startsWith("<!doctype html")
+        || lower.startsWith("<html")
+        || lower.startsWith("<?xml") && lower.contains("<html")) {
+      return "html";
+    }
+    if (isDelimited(start, ',')) {
+      return "csv";
+    }
+    if (isDelimited(start, '\t')) {
+      return "tsv";
+    }
+    return null;
+  }
+
+  // Checks whether the complete lines of a text have the same number of separators.
+  private static boolean isDelimited(final String text, final char separator) {
+
+    final int lastLineEnd = text.lastIndexOf('\n');
+    if (lastLineEnd < 0) {
+      return false;
+    }
+    final String[] lines = text.substring(0, lastLineEnd).split("\r?\n");
+    if (lines.length < CSV_MIN_LINES) {
+      return false;
+    }
+    final int count = countSeparators(lines[0], separator);
+    if (count == 0) {
+      return false;
+    }
+    for (final String line : lines) {
+      if (countSeparators(line, separator) != count) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int countSeparators(final String line, final char separator) {
+
+    int count = 0;
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      final char c = line.charAt(i);
+      if (c == '"') {
+        quoted = !quoted;
+      } else if (c == separator && !quoted) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static ByteBuffer read(final FileChannel channel, final long position, final int length)
+      throws IOException {
+
+    final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        break;
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  private static String string(final ByteBuffer buffer, final int offset, final int length) {
+
+    final byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = buffer.get(offset + i);
+    }
+    return new String(bytes, StandardCharsets.ISO_8859_1);
+  }
+
+  private static Set<String> set(final String... values) {
+    return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(values)));
+  }
+}
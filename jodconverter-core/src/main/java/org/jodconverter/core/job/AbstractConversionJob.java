@@ -20,10 +20,18 @@
 
 package org.jodconverter.core.job;
 
+import java.io.File;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import org.jodconverter.core.document.DocumentFormat;
 import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.task.OfficeTask;
 import org.jodconverter.core.util.AssertUtils;
 
 /**
@@ -36,6 +44,9 @@ public abstract class AbstractConversionJob
 
   protected final AbstractSourceDocumentSpecs source;
   protected final AbstractTargetDocumentSpecs target;
+  private final List<AbstractTargetDocumentSpecs> targets = new ArrayList<>();
+  // Creates the specifications of the additional targets; set once the job is created.
+  /* default */ AbstractConversionJobWithSourceFormatUnspecified targetFactory;
 
   protected AbstractConversionJob(
       final @NonNull AbstractSourceDocumentSpecs source,
@@ -47,20 +58,167 @@ public abstract class AbstractConversionJob
     AssertUtils.notNull(target, "target must not be null");
     this.source = source;
     this.target = target;
+    this.targets.add(target);
   }
 
   @Override
   public @NonNull AbstractConversionJob as(final @NonNull DocumentFormat format) {
 
-    target.setDocumentFormat(format);
+    // The format applies to the last target added.
+    targets.get(targets.size() - 1).setDocumentFormat(format);
+    return this;
+  }
+
+  @Override
+  public @NonNull AbstractConversionJob and(final @NonNull File target) {
+
+    return andInternal(getTargetFactory().createTarget(target));
+  }
+
+  @Override
+  public @NonNull AbstractConversionJob and(final @NonNull OutputStream target) {
+
+    return and(target, true);
+  }
+
+  @Override
+  public @NonNull AbstractConversionJob and(
+      final @NonNull OutputStream target, final boolean closeStream) {
+
+    return andInternal(getTargetFactory().createTarget(target, closeStream));
+  }
+
+  @Override
+  public @NonNull AbstractConversionJob and(final @NonNull InMemoryTarget target) {
+
+    return and(target.getOutputStream(), false);
+  }
+
+  /* default */ AbstractConversionJob andInternal(final AbstractTargetDocumentSpecs target) {
+
+    targets.add(target);
     return this;
   }
 
+  // Gets the job this job was created by, which creates the specifications of
+  // the additional targets. Every job created by a converter has one, and can
+  // be executed once per target if it does not support additional targets.
+  private AbstractConversionJobWithSourceFormatUnspecified getTargetFactory() {
+
+    if (targetFactory == null
+        || (!supportsAdditionalTargets() && targetFactory.converter == null)) {
+      throw new IllegalStateException(
+          "Additional targets can only be added to a job created by a converter");
+    }
+    return targetFactory;
+  }
+
   @Override
   public final void execute() throws OfficeException {
 
-    AssertUtils.notNull(target.getFormat(), "The target format is missing or not supported");
-    doExecute();
+    for (final AbstractTargetDocumentSpecs specs : targets) {
+      AssertUtils.notNull(specs.getFormat(), "The target format is missing or not supported");
+    }
+    if (targets.size() > 1 && !supportsAdditionalTargets()) {
+      executeEachTarget();
+    } else {
+      doExecute();
+    }
+  }
+
+  // Converts the source once per target, for a job that cannot write the
+  // result of a single conversion to many targets. A target that fails does
+  // not stop the others from being converted; the first failure is thrown.
+  private void executeEachTarget() throws OfficeException {
+
+    // The source is read as many times as there are targets, so it is read from a file.
+    final File sourceFile = source.getFile();
+    OfficeException failure = null;
+    try {
+      for (final AbstractTargetDocumentSpecs specs : targets) {
+        final SourceDocumentSpecsFromFile sourceSpecs = new SourceDocumentSpecsFromFile(sourceFile);
+        final DocumentFormat format = source.getFormat();
+        if (format != null) {
+          sourceSpecs.setDocumentFormat(format);
+        }
+        try {
+          targetFactory.converter.convert(sourceSpecs).to(specs).execute();
+        } catch (OfficeException ex) {
+          if (failure == null) {
+            failure = ex;
+          }
+        }
+      }
+    } finally {
+      source.onConsumed(sourceFile);
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Gets the targets of this job: the target this job was created with, followed by the targets
+   * added using the {@code and} methods.
+   *
+   * @return An unmodifiable list of the targets.
+   */
+  protected @NonNull List<@NonNull AbstractTargetDocumentSpecs> getTargets() {
+    return Collections.unmodifiableList(targets);
+  }
+
+  /**
+   * Gets whether this job can write the result of the conversion to additional targets, see
+   * {@link #getTargets()}. Such a job must write its result to every target when it is executed.
+   * Otherwise, a job created by a converter converts the source again for each additional target.
+   *
+   * <p>The default implementation returns {@code false}.
+   *
+   * @return {@code true} if additional targets are supported, {@code false} otherwise.
+   */
+  protected boolean supportsAdditionalTargets() {
+    return false;
+  }
+
+  /**
+   * Prepares the execution of the task of this job: the source is staged (see {@link
+   * SourceDocumentSpecs#stage()}) and the delivery of every target is deferred (see {@link
+   * TargetDocumentSpecs#deferDelivery()}). This way, the task only holds an office process while
+   * the document is loaded, converted and stored, not while a slow stream is read or written. Once
+   * the task is done, {@link #deliver(OfficeException)} must be called.
+   */
+  protected final void stage() {
+
+    source.stage();
+    targets.forEach(AbstractTargetDocumentSpecs::deferDelivery);
+  }
+
+  /**
+   * Completes the execution of the task of this job, prepared by {@link #stage()}: the staged
+   * source is discarded if the task did not consume it, and the targets the document was stored to
+   * are delivered, even if another target failed.
+   *
+   * @param failure The exception that caused the task to fail, {@code null} if the task completed
+   *     successfully.
+   * @return The exception that caused the task to fail if any, otherwise the exception raised
+   *     while delivering a target, if any.
+   */
+  protected final @Nullable OfficeException deliver(final @Nullable OfficeException failure) {
+
+    // The task consumes the staged document, unless it could not be executed.
+    source.discardStaged();
+
+    OfficeException result = failure;
+    for (final AbstractTargetDocumentSpecs specs : targets) {
+      try {
+        specs.deliver();
+      } catch (DocumentSpecsIOException ex) {
+        if (result == null) {
+          result = new OfficeException("Could not deliver the converted document", ex);
+        }
+      }
+    }
+    return result;
   }
 
   /**
@@ -70,4 +228,20 @@ public abstract class AbstractConversionJob
    * @throws OfficeException If the conversion failed.
    */
   protected abstract void doExecute() throws OfficeException;
+
+  /**
+   * Creates the task that performs the conversion of this job, without executing it. This allows
+   * many jobs to be executed as a single batch, see {@link AbstractConverter#executeBatch}. Both
+   * source and target document formats are known and valid at this point.
+   *
+   * <p>A job whose conversion is not performed by a single task, for instance because it may not
+   * reach the office manager at all, returns {@code null}; it is then executed on its own when it
+   * is part of a batch. The default implementation returns {@code null}.
+   *
+   * @return The task to execute, or {@code null} if the conversion of this job is not performed
+   *     by a single task.
+   */
+  protected @Nullable OfficeTask createTask() {
+    return null;
+  }
 }
@@ -22,6 +22,7 @@ package org.jodconverter.core.job;
 
 import java.io.File;
 import java.io.OutputStream;
+import java.util.List;
 import java.util.Objects;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -47,6 +48,9 @@ public abstract class AbstractConversionJobWithSourceFormatUnspecified
   protected final AbstractSourceDocumentSpecs source;
   protected final OfficeManager officeManager;
   protected final DocumentFormatRegistry formatRegistry;
+  // The converter that created this job, if any, which converts the source
+  // again for each additional target of a job not supporting them.
+  /* default */ AbstractConverter converter;
 
   protected AbstractConversionJobWithSourceFormatUnspecified(
       final @NonNull AbstractSourceDocumentSpecs source,
@@ -74,15 +78,7 @@ public abstract class AbstractConversionJobWithSourceFormatUnspecified
   @Override
   public @NonNull AbstractConversionJob to(final @NonNull File target) {
 
-    final TargetDocumentSpecsFromFile specs = new TargetDocumentSpecsFromFile(target);
-    final DocumentFormat format =
-        formatRegistry.getFormatByExtension(
-            Objects.requireNonNull(FileUtils.getExtension(target.getName())));
-    if (format != null) {
-      specs.setDocumentFormat(format);
-    }
-
-    return toInternal(specs);
+    return toInternal(createTarget(target));
   }
 
   @Override
@@ -95,10 +91,54 @@ public abstract class AbstractConversionJobWithSourceFormatUnspecified
   public @NonNull AbstractConversionJob to(
       final @NonNull OutputStream target, final boolean closeStream) {
 
+    return toInternal(createTarget(target, closeStream));
+  }
+
+  @Override
+  public @NonNull AbstractConversionJob to(final @NonNull InMemoryTarget target) {
+
+    return to(target.getOutputStream(), false);
+  }
+
+  /**
+   * Configures the current conversion to write the result using the specified specifications.
+   *
+   * @param target The target specifications to use for the conversion.
+   * @return The current conversion specification.
+   */
+  protected abstract @NonNull AbstractConversionJob to(@NonNull AbstractTargetDocumentSpecs target);
+
+  /**
+   * Creates the specifications of a target file, whose format is determined by its extension.
+   *
+   * @param target The target file.
+   * @return The target specifications.
+   */
+  /* default */ @NonNull AbstractTargetDocumentSpecs createTarget(final @NonNull File target) {
+
+    final TargetDocumentSpecsFromFile specs = new TargetDocumentSpecsFromFile(target);
+    final DocumentFormat format =
+        formatRegistry.getFormatByExtension(
+            Objects.requireNonNull(FileUtils.getExtension(target.getName())));
+    if (format != null) {
+      specs.setDocumentFormat(format);
+    }
+    return specs;
+  }
+
+  /**
+   * Creates the specifications of a target stream, whose format is not known yet.
+   *
+   * @param target The target stream.
+   * @param closeStream Determines whether the output stream is closed after writing the result.
+   * @return The target specifications.
+   */
+  /* default */ @NonNull AbstractTargetDocumentSpecs createTarget(
+      final @NonNull OutputStream target, final boolean closeStream) {
+
     if (officeManager instanceof TemporaryFileMaker) {
-      return toInternal(
-          new TargetDocumentSpecsFromOutputStream(
-              target, (TemporaryFileMaker) officeManager, closeStream));
+      return new TargetDocumentSpecsFromOutputStream(
+          target, (TemporaryFileMaker) officeManager, closeStream);
     }
     throw new IllegalStateException(
         "An office manager must implements the TemporaryFileMaker "
@@ -106,18 +146,31 @@ public abstract class AbstractConversionJobWithSourceFormatUnspecified
   }
 
   /**
-   * Configures the current conversion to write the result using the specified specifications.
+   * Configures the current conversion to write the result to the specified targets, the first one
+   * being the target of the conversion and the others additional targets.
    *
-   * @param target The target specifications to use for the conversion.
+   * @param targets The targets, at least one.
    * @return The current conversion specification.
    */
-  protected abstract @NonNull AbstractConversionJob to(@NonNull AbstractTargetDocumentSpecs target);
+  /* default */ @NonNull AbstractConversionJob to(
+      final @NonNull List<@NonNull AbstractTargetDocumentSpecs> targets) {
+
+    final AbstractConversionJob job = toInternal(targets.get(0));
+    for (final AbstractTargetDocumentSpecs target : targets.subList(1, targets.size())) {
+      job.andInternal(target);
+    }
+    return job;
+  }
 
   private AbstractConversionJob toInternal(final AbstractTargetDocumentSpecs target) {
 
     // No need to validate that the source format is provided. We will let
     // OOo deal with the detection of the source file format.
 
-    return to(target);
+    final AbstractConversionJob job = to(target);
+
+    // Additional targets are created the same way as the first one.
+    job.targetFactory = this;
+    return job;
   }
 }
@@ -20,17 +20,32 @@
 
 package org.jodconverter.core.job;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import org.jodconverter.core.DocumentConverter;
 import org.jodconverter.core.document.DocumentFormat;
 import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormatSniffer;
+import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.office.OfficeTaskResult;
 import org.jodconverter.core.office.TemporaryFileMaker;
+import org.jodconverter.core.task.OfficeTask;
 import org.jodconverter.core.util.AssertUtils;
 import org.jodconverter.core.util.FileUtils;
 
@@ -42,14 +57,46 @@ import org.jodconverter.core.util.FileUtils;
 public abstract class AbstractConverter implements DocumentConverter {
 
   private static final boolean DEFAULT_CLOSE_STREAM = true;
+  private static final int BUFFER_SIZE = 8192;
+
+  /**
+   * The default size, in bytes, up to which a source input stream is read into memory instead of
+   * a temporary file. 0 means input streams are always spooled to a temporary file.
+   */
+  public static final int DEFAULT_IN_MEMORY_THRESHOLD = 0;
+
+  /**
+   * The default behavior regarding the recognition of the source document format from its content
+   * (see {@link DocumentFormatSniffer}).
+   */
+  public static final boolean DEFAULT_SNIFF_SOURCE_FORMAT = false;
 
   protected final OfficeManager officeManager;
 
   protected final DocumentFormatRegistry formatRegistry;
 
+  private final int inMemoryThreshold;
+
+  private final DocumentFormatSniffer sniffer;
+
   protected AbstractConverter(
       final @NonNull OfficeManager officeManager,
       final @NonNull DocumentFormatRegistry formatRegistry) {
+    this(officeManager, formatRegistry, DEFAULT_IN_MEMORY_THRESHOLD);
+  }
+
+  protected AbstractConverter(
+      final @NonNull OfficeManager officeManager,
+      final @NonNull DocumentFormatRegistry formatRegistry,
+      final int inMemoryThreshold) {
+    this(officeManager, formatRegistry, inMemoryThreshold, DEFAULT_SNIFF_SOURCE_FORMAT);
+  }
+
+  protected AbstractConverter(
+      final @NonNull OfficeManager officeManager,
+      final @NonNull DocumentFormatRegistry formatRegistry,
+      final int inMemoryThreshold,
+      final boolean sniffSourceFormat) {
     super();
 
     // Both arguments are required.
@@ -57,6 +104,8 @@ public abstract class AbstractConverter implements DocumentConverter {
     AssertUtils.notNull(formatRegistry, "formatRegistry must not be null");
     this.officeManager = officeManager;
     this.formatRegistry = formatRegistry;
+    this.inMemoryThreshold = inMemoryThreshold;
+    this.sniffer = sniffSourceFormat ? new DocumentFormatSniffer(formatRegistry) : null;
   }
 
   @Override
@@ -64,14 +113,24 @@ public abstract class AbstractConverter implements DocumentConverter {
       final @NonNull File source) {
 
     final SourceDocumentSpecsFromFile specs = new SourceDocumentSpecsFromFile(source);
-    final DocumentFormat format =
-        formatRegistry.getFormatByExtension(
-            Objects.requireNonNull(FileUtils.getExtension(source.getName())));
+    DocumentFormat format = null;
+    if (sniffer != null) {
+      try {
+        format = sniffer.sniff(source);
+      } catch (IOException ex) {
+        throw new DocumentSpecsIOException("Could not read source file", ex);
+      }
+    }
+    if (format == null) {
+      format =
+          formatRegistry.getFormatByExtension(
+              Objects.requireNonNull(FileUtils.getExtension(source.getName())));
+    }
     if (format != null) {
       specs.setDocumentFormat(format);
     }
 
-    return convert(specs);
+    return createJob(specs);
   }
 
   @Override
@@ -86,15 +145,110 @@ public abstract class AbstractConverter implements DocumentConverter {
       final @NonNull InputStream source, final boolean closeStream) {
 
     if (officeManager instanceof TemporaryFileMaker) {
-      return convert(
-          new SourceDocumentSpecsFromInputStream(
-              source, (TemporaryFileMaker) officeManager, closeStream));
+      final TemporaryFileMaker fileMaker = (TemporaryFileMaker) officeManager;
+      if (inMemoryThreshold == 0 && sniffer == null) {
+        return createJob(new SourceDocumentSpecsFromInputStream(source, fileMaker, closeStream));
+      }
+
+      // Small documents are kept in memory. Larger ones are spooled to a temporary file,
+      // starting with the bytes that have already been read, and sniffed.
+      int headLength = sniffer == null ? 0 : DocumentFormatSniffer.HEAD_LENGTH;
+      if (inMemoryThreshold > 0) {
+        headLength =
+            (int) Math.max(headLength, Math.min(Integer.MAX_VALUE - 8L, inMemoryThreshold + 1L));
+      }
+      final byte[] head = readHead(source, headLength);
+      final AbstractSourceDocumentSpecs specs;
+      if (head.length <= inMemoryThreshold) {
+        closeSource(source, closeStream);
+        specs = new SourceDocumentSpecsFromBytes(head, fileMaker);
+      } else {
+        specs =
+            new SourceDocumentSpecsFromInputStream(
+                new SequenceInputStream(new ByteArrayInputStream(head), source),
+                fileMaker,
+                closeStream);
+      }
+      if (sniffer != null) {
+        final DocumentFormat format = sniffer.sniffHead(head, head.length);
+        if (format != null) {
+          specs.setDocumentFormat(format);
+        }
+      }
+      return createJob(specs);
     }
     throw new IllegalStateException(
         "An office manager must implements the TemporaryFileMaker "
             + "interface in order to be able to convert InputStream");
   }
 
+  @Override
+  public @NonNull ConversionJobWithOptionalSourceFormatUnspecified convert(
+      final byte @NonNull [] source) {
+
+    return convert(ByteBuffer.wrap(source));
+  }
+
+  @Override
+  public @NonNull ConversionJobWithOptionalSourceFormatUnspecified convert(
+      final @NonNull ByteBuffer source) {
+
+    if (officeManager instanceof TemporaryFileMaker) {
+      final SourceDocumentSpecsFromBytes specs =
+          new SourceDocumentSpecsFromBytes(source, (TemporaryFileMaker) officeManager);
+      if (sniffer != null) {
+        final DocumentFormat format = sniffer.sniff(source);
+        if (format != null) {
+          specs.setDocumentFormat(format);
+        }
+      }
+      return createJob(specs);
+    }
+    throw new IllegalStateException(
+        "An office manager must implements the TemporaryFileMaker "
+            + "interface in order to be able to convert bytes");
+  }
+
+  // Reads at most the specified number of bytes from the beginning of a stream.
+  private static byte[] readHead(final InputStream source, final int maxLength) {
+
+    final ByteArrayOutputStream head = new ByteArrayOutputStream(Math.min(maxLength, BUFFER_SIZE));
+    final byte[] buffer = new byte[BUFFER_SIZE];
+    try {
+      while (head.size() < maxLength) {
+        final int read = source.read(buffer, 0, Math.min(buffer.length, maxLength - head.size()));
+        if (read < 0) {
+          break;
+        }
+        head.write(buffer, 0, read);
+      }
+    } catch (IOException ex) {
+      throw new DocumentSpecsIOException("Could not read input stream", ex);
+    }
+    return head.toByteArray();
+  }
+
+  private static void closeSource(final InputStream source, final boolean closeStream) {
+
+    if (closeStream) {
+      try {
+        source.close();
+      } catch (IOException ex) {
+        throw new DocumentSpecsIOException("Could not close input stream", ex);
+      }
+    }
+  }
+
+  // Creates a job converting the specified source, which this converter
+  // converts again for each additional target the job cannot write to.
+  /* default */ AbstractConversionJobWithSourceFormatUnspecified createJob(
+      final AbstractSourceDocumentSpecs source) {
+
+    final AbstractConversionJobWithSourceFormatUnspecified job = convert(source);
+    job.converter = this;
+    return job;
+  }
+
   /**
    * Converts a source document using the given specifications.
    *
@@ -104,11 +258,143 @@ public abstract class AbstractConverter implements DocumentConverter {
   protected abstract @NonNull AbstractConversionJobWithSourceFormatUnspecified convert(
       @NonNull AbstractSourceDocumentSpecs source);
 
+  /**
+   * Executes the specified conversion jobs as a single batch and blocks until all the conversions
+   * terminate. Executing many small conversions as a batch lets the office manager save part of
+   * the per-conversion overhead (see {@link OfficeManager#executeBatch(List)}). A failing
+   * conversion does not prevent the remaining conversions from being executed.
+   *
+   * <p>The jobs must have been created by this converter, for example using {@code
+   * converter.convert(source).to(target)}, and must not be executed individually. A job whose
+   * conversion is not performed by a single task (see {@link AbstractConversionJob#createTask()}),
+   * like a job of a {@link CachingConverter}, is executed on its own once the batch is done; its
+   * result holds no task.
+   *
+   * @param jobs The conversion jobs to execute.
+   * @return The result of each conversion, in the same order as the specified jobs.
+   */
+  public @NonNull List<@NonNull OfficeTaskResult> executeBatch(
+      final @NonNull List<? extends @NonNull ConversionJob> jobs) {
+
+    final List<AbstractConversionJob> conversionJobs = new ArrayList<>(jobs.size());
+    final List<AbstractConversionJob> batchJobs = new ArrayList<>(jobs.size());
+    final List<OfficeTask> tasks = new ArrayList<>(jobs.size());
+    // The task of each job, null for a job executed on its own.
+    final List<OfficeTask> jobTasks = new ArrayList<>(jobs.size());
+    for (final ConversionJob job : jobs) {
+      AssertUtils.isTrue(
+          job instanceof AbstractConversionJob,
+          String.format("Unsupported job for batch execution: %s", job));
+      final AbstractConversionJob conversionJob = (AbstractConversionJob) job;
+      for (final AbstractTargetDocumentSpecs target : conversionJob.getTargets()) {
+        AssertUtils.notNull(target.getFormat(), "The target format is missing or not supported");
+      }
+      conversionJobs.add(conversionJob);
+      final OfficeTask task = conversionJob.createTask();
+      jobTasks.add(task);
+      if (task != null) {
+        AssertUtils.isTrue(
+            conversionJob.getTargets().size() == 1 || conversionJob.supportsAdditionalTargets(),
+            String.format("Unsupported job with additional targets for batch execution: %s", job));
+        batchJobs.add(conversionJob);
+        tasks.add(task);
+      }
+    }
+
+    // Stage the sources before queuing the tasks, and deliver the results once the tasks are
+    // done, so the office processes are only held while the documents are converted.
+    stage(batchJobs);
+    final Iterator<OfficeTaskResult> batchResults =
+        tasks.isEmpty()
+            ? Collections.emptyIterator()
+            : officeManager.executeBatch(tasks).iterator();
+    final List<OfficeTaskResult> results = new ArrayList<>(conversionJobs.size());
+    for (int i = 0; i < conversionJobs.size(); i++) {
+      final AbstractConversionJob conversionJob = conversionJobs.get(i);
+      if (jobTasks.get(i) == null) {
+        results.add(executeAlone(conversionJob));
+        continue;
+      }
+      final OfficeTaskResult result = batchResults.next();
+      final OfficeException failure = conversionJob.deliver(result.getException());
+      results.add(
+          failure == result.getException()
+              ? result
+              : new OfficeTaskResult(result.getTask(), failure, result.getDuration()));
+    }
+    return results;
+  }
+
+  // Stages the specified jobs. If a job cannot be staged, the jobs already staged are discarded,
+  // since none of them will be executed.
+  private static void stage(final List<AbstractConversionJob> jobs) {
+
+    for (int i = 0; i < jobs.size(); i++) {
+      try {
+        jobs.get(i).stage();
+      } catch (RuntimeException ex) {
+        for (final AbstractConversionJob job : jobs.subList(0, i + 1)) {
+          job.source.discardStaged();
+        }
+        throw ex;
+      }
+    }
+  }
+
+  // Executes a job of a batch whose task cannot be created.
+  private static OfficeTaskResult executeAlone(final AbstractConversionJob job) {
+
+    final long startTime = System.nanoTime();
+    OfficeException exception = null;
+    try {
+      job.execute();
+    } catch (OfficeException ex) {
+      exception = ex;
+    } catch (RuntimeException ex) {
+      // The remaining jobs of the batch must still be delivered.
+      exception = new OfficeException(String.format("Job did not complete: %s", job), ex);
+    }
+    return new OfficeTaskResult(
+        null, exception, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+  }
+
   @Override
   public @NonNull DocumentFormatRegistry getFormatRegistry() {
     return formatRegistry;
   }
 
+  /**
+   * Gets a description of everything, besides the source document and the document formats, that
+   * determines the result of a conversion executed by this converter, like the properties applied
+   * when loading or storing documents. Two converters producing the same description must produce
+   * the same result from the same source. {@link CachingConverter} uses this description as part
+   * of its cache key.
+   *
+   * <p>A converter whose configuration cannot be described, for instance because it includes
+   * custom code, returns {@code null}: its results are then never cached nor shared.
+   *
+   * <p>The default implementation returns {@code null}, so the results of a converter are only
+   * cached or shared if the converter describes its whole configuration.
+   *
+   * @return The configuration fingerprint, or {@code null} if the configuration cannot be
+   *     described.
+   */
+  protected @Nullable String getConfigurationFingerprint() {
+    return null;
+  }
+
+  /**
+   * Gets whether each conversion of this converter is performed by a single task (see {@link
+   * AbstractConversionJob#createTask()}). A converter whose conversions are not, for instance
+   * because they may not reach the office manager at all, cannot be wrapped by a {@link
+   * SpilloverConverter}, which routes the task of each conversion.
+   *
+   * @return {@code true} if the jobs of this converter create their task, {@code false} otherwise.
+   */
+  /* default */ boolean createsTasks() {
+    return true;
+  }
+
   /**
    * A builder for constructing an {@link AbstractConverter}.
    *
@@ -119,6 +405,8 @@ public abstract class AbstractConverter implements DocumentConverter {
 
     protected OfficeManager officeManager;
     protected DocumentFormatRegistry formatRegistry;
+    protected int inMemoryThreshold = DEFAULT_IN_MEMORY_THRESHOLD;
+    protected boolean sniffSourceFormat = DEFAULT_SNIFF_SOURCE_FORMAT;
 
     // Protected constructor so only subclasses can initialize an instance of this builder.
     protected AbstractConverterBuilder() {
@@ -158,5 +446,49 @@ public abstract class AbstractConverter implements DocumentConverter {
       this.formatRegistry = formatRegistry;
       return (B) this;
     }
+
+    /**
+     * Specifies the size, in bytes, up to which a source input stream is read into memory instead
+     * of being spooled to a temporary file. A document kept in memory is streamed to office
+     * without touching the disk whenever the conversion uses stream adapters or a remote server;
+     * otherwise it is written to a temporary file in the working directory of the office manager,
+     * which may be a tmpfs mount. 0 means input streams are always spooled to a temporary file.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 0
+     *
+     * @param inMemoryThreshold The threshold, in bytes.
+     * @return This builder instance.
+     */
+    public @NonNull B inMemoryThreshold(final @Nullable Integer inMemoryThreshold) {
+
+      if (inMemoryThreshold != null) {
+        AssertUtils.isTrue(
+            inMemoryThreshold >= 0,
+            String.format(
+                "inMemoryThreshold %s must greater than or equal to 0", inMemoryThreshold));
+        this.inMemoryThreshold = inMemoryThreshold;
+      }
+      return (B) this;
+    }
+
+    /**
+     * Specifies whether the format of a source document is recognized from its content (see
+     * {@link DocumentFormatSniffer}), rather than from its file name extension only. The format of
+     * a source stream is then known up front, and a renamed file is loaded with the filter
+     * matching its actual content. The recognized format also tells office which load filter to
+     * use, sparing its own type detection. A format explicitly set on a conversion job still
+     * prevails.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: false
+     *
+     * @param sniffSourceFormat {@code true} to recognize the source format from the content, {@code
+     *     false} otherwise.
+     * @return This builder instance.
+     */
+    public @NonNull B sniffSourceFormat(final boolean sniffSourceFormat) {
+
+      this.sniffSourceFormat = sniffSourceFormat;
+      return (B) this;
+    }
   }
 }
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jodconverter.core.job;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.util.AssertUtils;
+
+/**
+ * Base class for the converters converting documents using another converter, the wrapped
+ * converter, around which they add their own behavior. The conversions are executed by the office
+ * manager of the wrapped converter, and their results are determined by its configuration.
+ *
+ * <p>A job of a delegating converter may not reach the office manager at all, so it does not
+ * create a task (see {@link AbstractConversionJob#createTask()}) and is executed on its own when it
+ * is part of a batch.
+ */
+public abstract class AbstractDelegatingConverter extends AbstractConverter {
+
+  protected final AbstractConverter converter;
+
+  protected AbstractDelegatingConverter(
+      final @NonNull AbstractConverter converter,
+      final @NonNull DocumentFormatRegistry formatRegistry,
+      final int inMemoryThreshold,
+      final boolean sniffSourceFormat) {
+    super(converter.officeManager, formatRegistry, inMemoryThreshold, sniffSourceFormat);
+
+    this.converter = converter;
+  }
+
+  @Override
+  protected final @NonNull AbstractConversionJobWithSourceFormatUnspecified convert(
+      final @NonNull AbstractSourceDocumentSpecs source) {
+
+    return new DelegatingConversionJobWithSourceFormatUnspecified(source);
+  }
+
+  @Override
+  protected @Nullable String getConfigurationFingerprint() {
+    return converter.getConfigurationFingerprint();
+  }
+
+  @Override
+  /* default */ final boolean createsTasks() {
+    return false;
+  }
+
+  /**
+   * Creates the job converting the specified source to the specified target.
+   *
+   * @param source The source specifications.
+   * @param target The target specifications.
+   * @return The conversion job.
+   */
+  protected abstract @NonNull AbstractDelegatingConversionJob createConversionJob(
+      @NonNull AbstractSourceDocumentSpecs source, @NonNull AbstractTargetDocumentSpecs target);
+
+  /** Reads the staged content of a source document before it is converted. */
+  @FunctionalInterface
+  protected interface SourceInspector<T> {
+
+    /**
+     * Reads the source document.
+     *
+     * @return The result of the inspection.
+     * @throws IOException If the source cannot be read.
+     * @throws OfficeException If the source must not be converted.
+     */
+    T inspect() throws IOException, OfficeException;
+  }
+
+  /** Delegating implementation of a conversion job with source format unspecified. */
+  private class DelegatingConversionJobWithSourceFormatUnspecified
+      extends AbstractConversionJobWithSourceFormatUnspecified {
+
+    private DelegatingConversionJobWithSourceFormatUnspecified(
+        final AbstractSourceDocumentSpecs source) {
+      super(
+          source,
+          AbstractDelegatingConverter.this.officeManager,
+          AbstractDelegatingConverter.this.formatRegistry);
+    }
+
+    @Override
+    protected @NonNull AbstractConversionJob to(final @NonNull AbstractTargetDocumentSpecs target) {
+      return createConversionJob(source, target);
+    }
+  }
+
+  /** Base class of the conversion jobs of a delegating converter. */
+  protected abstract class AbstractDelegatingConversionJob extends AbstractConversionJob {
+
+    protected AbstractDelegatingConversionJob(
+        final @NonNull AbstractSourceDocumentSpecs source,
+        final @NonNull AbstractTargetDocumentSpecs target) {
+      super(source, target);
+    }
+
+    /**
+     * Stages the source document (see {@link SourceDocumentSpecs#stage()}), so its content can be
+     * read before the conversion, and inspects it. If the inspection fails, the source document
+     * will not be converted and the staged document is discarded.
+     *
+     * @param inspector The inspector reading the source document.
+     * @param errorMessage The message of the exception thrown if the source cannot be read.
+     * @param <T> The type of the result of the inspection.
+     * @return The result of the inspection.
+     * @throws OfficeException If the source cannot be read, or must not be converted.
+     */
+    protected final <T> T inspectSource(
+        final @NonNull SourceInspector<T> inspector, final @NonNull String errorMessage)
+        throws OfficeException {
+
+      // The content of a stream can only be read once it is staged.
+      source.stage();
+      try {
+        return inspector.inspect();
+      } catch (OfficeException ex) {
+        source.discardStaged();
+        throw ex;
+      } catch (IOException | RuntimeException ex) {
+        source.discardStaged();
+        throw new OfficeException(errorMessage, ex);
+      }
+    }
+
+    /**
+     * Converts the source document to every target of this job, using the wrapped converter.
+     *
+     * @throws OfficeException If the conversion failed.
+     */
+    protected final void delegate() throws OfficeException {
+      delegate(getTargets());
+    }
+
+    /**
+     * Converts the source document to the specified targets, using the wrapped converter. The
+     * first target is the target of the conversion, the others are additional targets which the
+     * wrapped converter writes the result to, or converts the source again for.
+     *
+     * @param targets The targets, at least one.
+     * @throws OfficeException If the conversion failed.
+     */
+    protected final void delegate(final @NonNull List<@NonNull AbstractTargetDocumentSpecs> targets)
+        throws OfficeException {
+
+      converter.createJob(source).to(targets).execute();
+    }
+  }
+
+  /**
+   * A builder for constructing an {@link AbstractDelegatingConverter}.
+   *
+   * @see AbstractDelegatingConverter
+   */
+  @SuppressWarnings("unchecked")
+  public abstract static class AbstractDelegatingConverterBuilder<
+          B extends AbstractDelegatingConverterBuilder<B>>
+      extends AbstractConverterBuilder<B> {
+
+    protected AbstractConverter converter;
+
+    // Protected constructor so only subclasses can initialize an instance of this builder.
+    protected AbstractDelegatingConverterBuilder() {
+      super();
+    }
+
+    /**
+     * Checks that the wrapped converter is specified, and that the specified office manager, if
+     * any, is the one of the wrapped converter, which executes the conversions.
+     */
+    protected final void checkConverter() {
+
+      AssertUtils.notNull(converter, "converter must not be null");
+      AssertUtils.isTrue(
+          officeManager == null || officeManager == converter.officeManager,
+          "The office manager of a delegating converter must be the one of the wrapped converter");
+    }
+
+    /**
+     * Gets the format registry of the converter to build: the specified one if any, otherwise the
+     * one of the wrapped converter.
+     *
+     * @return The format registry.
+     */
+    protected final @NonNull DocumentFormatRegistry getFormatRegistry() {
+      return formatRegistry == null ? converter.getFormatRegistry() : formatRegistry;
+    }
+
+    /**
+     * Specifies the converter executing the conversions, around which the converter to build adds
+     * its own behavior.
+     *
+     * @param converter The wrapped converter.
+     * @return This builder instance.
+     */
+    public @NonNull B converter(final @NonNull AbstractConverter converter) {
+
+      AssertUtils.notNull(converter, "converter must not be null");
+      this.converter = converter;
+      return (B) this;
+    }
+  }
+}
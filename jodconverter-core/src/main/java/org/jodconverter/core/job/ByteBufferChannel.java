@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/** A read-only channel over the content of a byte buffer, from position 0 to its limit. */
+/* default */ final class ByteBufferChannel implements SeekableByteChannel {
+
+  private final ByteBuffer buffer;
+  private boolean open = true;
+
+  /**
+   * Creates a channel reading the specified buffer.
+   *
+   * @param buffer The buffer to read.
+   */
+  /* default */ ByteBufferChannel(final @NonNull ByteBuffer buffer) {
+    this.buffer = buffer.duplicate();
+    this.buffer.position(0);
+  }
+
+  @Override
+  public int read(final ByteBuffer dst) throws IOException {
+
+    ensureOpen();
+    if (!buffer.hasRemaining()) {
+      return -1;
+    }
+    final int count = Math.min(dst.remaining(), buffer.remaining());
+    final ByteBuffer chunk = buffer.duplicate();
+    chunk.limit(chunk.position() + count);
+    dst.put(chunk);
+    buffer.position(buffer.position() + count);
+    return count;
+  }
+
+  @Override
+  public int write(final ByteBuffer src) {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public long position() throws IOException {
+
+    ensureOpen();
+    return buffer.position();
+  }
+
+  @Override
+  public @NonNull SeekableByteChannel position(final long newPosition) throws IOException {
+
+    ensureOpen();
+    buffer.position((int) Math.min(newPosition, buffer.limit()));
+    return this;
+  }
+
+  @Override
+  public long size() throws IOException {
+
+    ensureOpen();
+    return buffer.limit();
+  }
+
+  @Override
+  public @NonNull SeekableByteChannel truncate(final long size) {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return open;
+  }
+
+  @Override
+  public void close() {
+    open = false;
+  }
+
+  private void ensureOpen() throws ClosedChannelException {
+
+    if (!open) {
+      throw new ClosedChannelException();
+    }
+  }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.util.AssertUtils;
+
+/**
+ * A CachingConverter converts documents using another converter, and keeps the conversion results
+ * in a size-bounded cache. A conversion whose result is cached does not reach the office manager
+ * at all.
+ *
+ * <p>The cache key is a SHA-256 hash of the source document content, of the source and target
+ * document formats, and of the configuration of the converter doing the conversion (see {@link
+ * AbstractConverter#getConfigurationFingerprint()}). Source streams are staged (see {@link
+ * SourceDocumentSpecs#stage()}) so their content can be hashed before the conversion. The results
+ * of a converter whose configuration cannot be described are never cached.
+ */
+public final class CachingConverter extends AbstractDelegatingConverter {
+
+  // The default maximum size of the results kept on disk.
+  public static final long DEFAULT_MAX_DISK_SIZE = 256L * 1024L * 1024L; // 256 MB
+  // The default maximum size of the results kept in memory.
+  public static final long DEFAULT_MAX_MEMORY_SIZE = 0L;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CachingConverter.class);
+
+  private final ConversionResultCache cache;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static @NonNull Builder builder() {
+    return new Builder();
+  }
+
+  private CachingConverter(
+      final AbstractConverter converter,
+      final DocumentFormatRegistry formatRegistry,
+      final ConversionResultCache cache,
+      final int inMemoryThreshold,
+      final boolean sniffSourceFormat) {
+    super(converter, formatRegistry, inMemoryThreshold, sniffSourceFormat);
+
+    this.cache = cache;
+  }
+
+  @Override
+  protected @NonNull AbstractDelegatingConversionJob createConversionJob(
+      final @NonNull AbstractSourceDocumentSpecs source,
+      final @NonNull AbstractTargetDocumentSpecs target) {
+
+    return new CachingConversionJob(source, target);
+  }
+
+  /**
+   * Gets the number of conversions whose result was found in the cache.
+   *
+   * @return The hit count.
+   */
+  public long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  /**
+   * Gets the number of conversions whose result was not found in the cache.
+   *
+   * @return The miss count.
+   */
+  public long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  /**
+   * Gets the ratio of conversions whose result was found in the cache.
+   *
+   * @return The hit ratio, from 0 to 1, or 0 if no conversion was executed yet.
+   */
+  public double getHitRatio() {
+
+    final long hits = cache.getHitCount();
+    final long total = hits + cache.getMissCount();
+    return total == 0L ? 0.0d : (double) hits / total;
+  }
+
+  /**
+   * Gets the total size of the results served from the cache, which did not have to be converted.
+   *
+   * @return The size, in bytes.
+   */
+  public long getBytesSaved() {
+    return cache.getBytesSaved();
+  }
+
+  /**
+   * Gets the number of results evicted from the disk cache to make room for newer ones.
+   *
+   * @return The eviction count.
+   */
+  public long getEvictionCount() {
+    return cache.getEvictionCount();
+  }
+
+  /**
+   * Gets the total size of the results currently kept on disk.
+   *
+   * @return The size, in bytes.
+   */
+  public long getDiskSize() {
+    return cache.getDiskSize();
+  }
+
+  /**
+   * Gets the total size of the results currently kept in memory.
+   *
+   * @return The size, in bytes.
+   */
+  public long getMemorySize() {
+    return cache.getMemorySize();
+  }
+
+  /**
+   * Caching implementation of a conversion job. The result of the conversion to each target is
+   * cached on its own, so a job with additional targets converts the source again for each target
+   * whose result is not cached yet.
+   */
+  private class CachingConversionJob extends AbstractDelegatingConversionJob {
+
+    private CachingConversionJob(
+        final AbstractSourceDocumentSpecs source, final AbstractTargetDocumentSpecs target) {
+      super(source, target);
+    }
+
+    @Override
+    public void doExecute() throws OfficeException {
+
+      // The results of a converter whose configuration is unknown cannot be cached.
+      final String fingerprint = getConfigurationFingerprint();
+      if (fingerprint == null) {
+        delegate();
+        return;
+      }
+
+      final String key =
+          inspectSource(
+              () -> ConversionResults.computeKey(fingerprint, source, target),
+              "Could not look up the conversion result cache");
+      final ConversionResultCache.Hit hit = cache.get(key);
+      if (hit == null) {
+        // Convert the document, storing the result on its way to the target.
+        delegate(
+            Collections.singletonList(
+                new CapturingTargetDocumentSpecs(target, new CacheStore(key))));
+        return;
+      }
+
+      // The source document is not needed anymore.
+      source.discardStaged();
+      try {
+        ConversionResults.deliver(hit, target);
+      } finally {
+        try {
+          hit.close();
+        } catch (IOException ex) {
+          LOGGER.debug("Could not close cached conversion result", ex);
+        }
+      }
+    }
+  }
+
+  /** Stores the captured conversion results into the cache. */
+  private class CacheStore implements CapturingTargetDocumentSpecs.ResultListener {
+
+    private final String key;
+
+    private CacheStore(final String key) {
+      this.key = key;
+    }
+
+    @Override
+    public @NonNull File createCopyFile() throws IOException {
+      return cache.createTemporaryFile();
+    }
+
+    @Override
+    public void onCaptured(final @NonNull File copy) {
+
+      try {
+        cache.commit(key, copy);
+      } catch (IOException ex) {
+        LOGGER.warn("Could not cache the conversion result", ex);
+      }
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link CachingConverter}.
+   *
+   * @see CachingConverter
+   */
+  public static final class Builder extends AbstractDelegatingConverterBuilder<Builder> {
+
+    private File cacheDirectory;
+    private long maxDiskSize = DEFAULT_MAX_DISK_SIZE;
+    private long maxMemorySize = DEFAULT_MAX_MEMORY_SIZE;
+
+    // Private constructor so only CachingConverter can create an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    @Override
+    public @NonNull CachingConverter build() {
+
+      checkConverter();
+      AssertUtils.notNull(cacheDirectory, "cacheDirectory must not be null");
+
+      final ConversionResultCache cache;
+      try {
+        cache = new ConversionResultCache(cacheDirectory, maxDiskSize, maxMemorySize);
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+
+      // Create the converter
+      return new CachingConverter(
+          converter, getFormatRegistry(), cache, inMemoryThreshold, sniffSourceFormat);
+    }
+
+    /**
+     * Specifies the directory where the conversion results are cached. Results already present in
+     * this directory, from a previous run, are reused. The directory must not be shared by caching
+     * converters running at the same time.
+     *
+     * @param cacheDirectory The cache directory.
+     * @return This builder instance.
+     */
+    public @NonNull Builder cacheDirectory(final @NonNull File cacheDirectory) {
+
+      AssertUtils.notNull(cacheDirectory, "cacheDirectory must not be null");
+      this.cacheDirectory = cacheDirectory;
+      return this;
+    }
+
+    /**
+     * Specifies the maximum size, in bytes, of the conversion results kept on disk. The least
+     * recently used results are evicted first.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 268435456 (256 MB)
+     *
+     * @param maxDiskSize The maximum size of the disk cache.
+     * @return This builder instance.
+     */
+    public @NonNull Builder maxDiskSize(final @Nullable Long maxDiskSize) {
+
+      if (maxDiskSize != null) {
+        AssertUtils.isTrue(
+            maxDiskSize >= 0,
+            String.format("maxDiskSize %s must greater than or equal to 0", maxDiskSize));
+        this.maxDiskSize = maxDiskSize;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the maximum size, in bytes, of the conversion results also kept in memory, to
+     * serve the most frequent small results without reading the disk. A result is kept in memory
+     * only if its size does not exceed an eighth of this size.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 0 (no memory cache)
+     *
+     * @param maxMemorySize The maximum size of the memory cache.
+     * @return This builder instance.
+     */
+    public @NonNull Builder maxMemorySize(final @Nullable Long maxMemorySize) {
+
+      if (maxMemorySize != null) {
+        AssertUtils.isTrue(
+            maxMemorySize >= 0,
+            String.format("maxMemorySize %s must greater than or equal to 0", maxMemorySize));
+        this.maxMemorySize = maxMemorySize;
+      }
+      return this;
+    }
+  }
+}
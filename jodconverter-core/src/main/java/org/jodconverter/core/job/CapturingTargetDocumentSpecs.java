@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.util.FileUtils;
+
+/**
+ * Target specifications keeping a copy of the conversion result on its way to other target
+ * specifications. Failing to copy the result never fails the conversion; the copy is then just
+ * not reported.
+ */
+/* default */ final class CapturingTargetDocumentSpecs extends AbstractTargetDocumentSpecs {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CapturingTargetDocumentSpecs.class);
+
+  /** Receives the copies of the conversion results. */
+  /* default */ interface ResultListener {
+
+    /**
+     * Creates the file to which a result is copied.
+     *
+     * @return The file.
+     * @throws IOException If the file cannot be created.
+     */
+    @NonNull
+    File createCopyFile() throws IOException;
+
+    /**
+     * Called once the result is fully copied. The listener owns the copy from now on.
+     *
+     * @param copy The copy of the result.
+     */
+    void onCaptured(@NonNull File copy);
+  }
+
+  private final AbstractTargetDocumentSpecs target;
+  private final ResultListener listener;
+  private CopyingOutputStream copyingStream;
+
+  /**
+   * Creates specs capturing the result written to the specified target.
+   *
+   * @param target The target specifications receiving the result.
+   * @param listener The listener receiving the copy of the result.
+   */
+  /* default */ CapturingTargetDocumentSpecs(
+      final @NonNull AbstractTargetDocumentSpecs target, final @NonNull ResultListener listener) {
+    super();
+
+    this.target = target;
+    this.listener = listener;
+    setDocumentFormat(target.getFormat());
+  }
+
+  @Override
+  public @NonNull File getFile() {
+    return target.getFile();
+  }
+
+  @Override
+  public void onComplete(final @NonNull File file) {
+
+    // Copy the result before the target moves or deletes it.
+    File copy = null;
+    try {
+      copy = listener.createCopyFile();
+      Files.copy(file.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      listener.onCaptured(copy);
+    } catch (IOException ex) {
+      LOGGER.warn("Could not copy the conversion result", ex);
+      FileUtils.deleteQuietly(copy);
+    }
+    target.onComplete(file);
+  }
+
+  @Override
+  public void onFailure(final @NonNull File file, final @NonNull Exception exception) {
+    target.onFailure(file, exception);
+  }
+
+  @Override
+  public @Nullable OutputStream getOutputStream() {
+
+    final OutputStream targetStream = target.getOutputStream();
+    if (targetStream == null) {
+      return null;
+    }
+    try {
+      copyingStream = new CopyingOutputStream(targetStream, listener.createCopyFile());
+      return copyingStream;
+    } catch (IOException ex) {
+      LOGGER.warn("Could not copy the conversion result", ex);
+      return targetStream;
+    }
+  }
+
+  @Override
+  public void onStreamComplete() {
+
+    if (copyingStream != null) {
+      final File copy = copyingStream.closeCopy();
+      if (copy != null) {
+        listener.onCaptured(copy);
+      }
+    }
+    target.onStreamComplete();
+  }
+
+  @Override
+  public void onStreamFailure(final @NonNull Exception exception) {
+
+    if (copyingStream != null) {
+      FileUtils.deleteQuietly(copyingStream.closeCopy());
+    }
+    target.onStreamFailure(exception);
+  }
+
+  @Override
+  public void deferDelivery() {
+    target.deferDelivery();
+  }
+
+  @Override
+  public void deliver() {
+    target.deliver();
+  }
+
+  /** Writes the conversion result to the target stream and to a copy file. */
+  private static final class CopyingOutputStream extends FilterOutputStream {
+
+    private final File copyFile;
+    private OutputStream copy;
+
+    private CopyingOutputStream(final OutputStream out, final File copyFile) throws IOException {
+      super(out);
+
+      this.copyFile = copyFile;
+      this.copy = Files.newOutputStream(copyFile.toPath());
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+
+      out.write(b);
+      if (copy != null) {
+        try {
+          copy.write(b);
+        } catch (IOException ex) {
+          discardCopy(ex);
+        }
+      }
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+
+      out.write(b, off, len);
+      if (copy != null) {
+        try {
+          copy.write(b, off, len);
+        } catch (IOException ex) {
+          discardCopy(ex);
+        }
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      // The target stream belongs to the target specifications.
+      flush();
+    }
+
+    // Closes the copy file and returns it, or null if it could not be written.
+    private @Nullable File closeCopy() {
+
+      if (copy == null) {
+        return null;
+      }
+      try {
+        copy.close();
+        copy = null;
+        return copyFile;
+      } catch (IOException ex) {
+        discardCopy(ex);
+        return null;
+      }
+    }
+
+    private void discardCopy(final IOException ex) {
+
+      LOGGER.warn("Could not copy the conversion result", ex);
+      try {
+        copy.close();
+      } catch (IOException ignored) {
+        // Already failing
+      }
+      copy = null;
+      FileUtils.deleteQuietly(copyFile);
+    }
+  }
+}
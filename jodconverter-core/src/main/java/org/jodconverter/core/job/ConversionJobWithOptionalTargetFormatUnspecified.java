@@ -20,6 +20,69 @@
 
 package org.jodconverter.core.job;
 
-/** A conversion job with optional target format that is not yet applied to the converter. */
+import java.io.File;
+import java.io.OutputStream;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A conversion job with optional target format that is not yet applied to the converter.
+ *
+ * <p>A job may write the result of the conversion to more than one target, each one with its own
+ * format, for example {@code converter.convert(source).to(pdf).and(docx).execute()}. A converter
+ * supporting additional targets loads the source document only once; other converters convert the
+ * source once per target. The {@link #as(org.jodconverter.core.document.DocumentFormat)} method
+ * applies to the last target added.
+ */
 public interface ConversionJobWithOptionalTargetFormatUnspecified
-    extends ConversionJobWithRequiredTargetFormatUnspecified, ConversionJob {}
+    extends ConversionJobWithRequiredTargetFormatUnspecified, ConversionJob {
+
+  /**
+   * Configures the current conversion to also write the result to the specified target.
+   *
+   * @param target The file to which the result of the conversion will also be written.
+   * @return The current conversion specification.
+   */
+  @NonNull
+  ConversionJobWithOptionalTargetFormatUnspecified and(@NonNull File target);
+
+  /**
+   * Configures the current conversion to also write the result to the specified {@link
+   * OutputStream}. The stream will be closed after the conversion is written. The format of this
+   * target must be specified using {@link
+   * #as(org.jodconverter.core.document.DocumentFormat)}.
+   *
+   * @param target The output stream to which the conversion result will also be written.
+   * @return The current conversion specification.
+   */
+  default @NonNull ConversionJobWithOptionalTargetFormatUnspecified and(
+      final @NonNull OutputStream target) {
+    return and(target, true);
+  }
+
+  /**
+   * Configures the current conversion to also write the result to the specified {@link
+   * OutputStream}. The format of this target must be specified using {@link
+   * #as(org.jodconverter.core.document.DocumentFormat)}.
+   *
+   * @param target The output stream to which the conversion result will also be written.
+   * @param closeStream Determines whether the output stream is closed after writing the result.
+   * @return The current conversion specification.
+   */
+  @NonNull
+  ConversionJobWithOptionalTargetFormatUnspecified and(
+      @NonNull OutputStream target, boolean closeStream);
+
+  /**
+   * Configures the current conversion to also keep the result in memory, in the specified target.
+   * The format of this target must be specified using {@link
+   * #as(org.jodconverter.core.document.DocumentFormat)}.
+   *
+   * @param target The target also holding the conversion result once the conversion is executed.
+   * @return The current conversion specification.
+   */
+  default @NonNull ConversionJobWithOptionalTargetFormatUnspecified and(
+      final @NonNull InMemoryTarget target) {
+    return and(target.getOutputStream(), false);
+  }
+}
@@ -60,4 +60,13 @@ public interface ConversionJobWithSourceSpecified {
   @NonNull
   ConversionJobWithRequiredTargetFormatUnspecified to(
       @NonNull OutputStream target, boolean closeStream);
+
+  /**
+   * Configures the current conversion to keep the result in memory, in the specified target.
+   *
+   * @param target The target holding the conversion result once the conversion is executed.
+   * @return The current conversion specification.
+   */
+  @NonNull
+  ConversionJobWithRequiredTargetFormatUnspecified to(@NonNull InMemoryTarget target);
 }
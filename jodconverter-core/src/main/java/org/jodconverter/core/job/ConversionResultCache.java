@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.util.FileUtils;
+import org.jodconverter.core.util.IOUtils;
+
+/**
+ * A size-bounded store of conversion results, keyed by a content hash. Results are kept on disk,
+ * and the smallest ones may also be kept in a heap tier. Both tiers evict their least recently
+ * used entries first.
+ */
+/* default */ final class ConversionResultCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConversionResultCache.class);
+
+  // Name of a cache entry file, which is the hex encoded key.
+  private static final Pattern ENTRY_NAME = Pattern.compile("[0-9a-f]{64}");
+  // Suffix of the files being written, not yet committed.
+  private static final String TEMP_SUFFIX = ".tmp";
+  // Fraction of the heap tier a single entry may use.
+  private static final int MEMORY_ENTRY_RATIO = 8;
+
+  private final File directory;
+  private final long maxDiskSize;
+  private final long maxMemorySize;
+  private final Map<String, Long> diskEntries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, byte[]> memoryEntries = new LinkedHashMap<>(16, 0.75f, true);
+  private long diskSize;
+  private long memorySize;
+  private long hitCount;
+  private long missCount;
+  private long bytesSaved;
+  private long evictionCount;
+
+  /**
+   * Creates a cache storing its entries in the specified directory. Entries already present in
+   * the directory, from a previous run, are reused.
+   *
+   * @param directory The cache directory.
+   * @param maxDiskSize The maximum size, in bytes, of the entries on disk.
+   * @param maxMemorySize The maximum size, in bytes, of the entries in memory.
+   * @throws IOException If the directory cannot be created or read.
+   */
+  /* default */ ConversionResultCache(
+      final @NonNull File directory, final long maxDiskSize, final long maxMemorySize)
+      throws IOException {
+
+    this.directory = directory;
+    this.maxDiskSize = maxDiskSize;
+    this.maxMemorySize = maxMemorySize;
+
+    Files.createDirectories(directory.toPath());
+    final File[] files = directory.listFiles();
+    if (files == null) {
+      throw new IOException("Could not list the content of " + directory);
+    }
+
+    // Reload the existing entries, the least recently modified first.
+    Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+    for (final File file : files) {
+      if (file.getName().endsWith(TEMP_SUFFIX)) {
+        FileUtils.deleteQuietly(file);
+      } else if (file.isFile() && ENTRY_NAME.matcher(file.getName()).matches()) {
+        diskEntries.put(file.getName(), file.length());
+        diskSize += file.length();
+      }
+    }
+    evictDisk();
+  }
+
+  /**
+   * Gets the entry with the specified key, counting a hit or a miss.
+   *
+   * @param key The entry key.
+   * @return The entry, which must be closed once read, or {@code null} if there is no such entry.
+   */
+  /* default */ synchronized @Nullable Hit get(final @NonNull String key) {
+
+    final byte[] bytes = memoryEntries.get(key);
+    if (bytes != null) {
+      diskEntries.get(key); // Keep both tiers in the same order
+      return hit(new Hit(bytes, null, bytes.length));
+    }
+
+    final Long size = diskEntries.get(key);
+    if (size != null) {
+      try {
+        // Once open, the file can be read even if the entry is evicted meanwhile.
+        final FileChannel channel =
+            FileChannel.open(entryFile(key).toPath(), StandardOpenOption.READ);
+        return hit(new Hit(null, channel, size));
+      } catch (IOException ex) {
+        LOGGER.warn("Could not read cached conversion result {}", key, ex);
+        removeDisk(key);
+      }
+    }
+
+    missCount++;
+    return null;
+  }
+
+  private Hit hit(final Hit hit) {
+
+    hitCount++;
+    bytesSaved += hit.size;
+    return hit;
+  }
+
+  /**
+   * Creates a temporary file, in the cache directory, to which a result can be written before
+   * being committed with {@link #commit(String, File)}.
+   *
+   * @return The temporary file.
+   * @throws IOException If the file cannot be created.
+   */
+  /* default */ @NonNull File createTemporaryFile() throws IOException {
+    return Files.createTempFile(directory.toPath(), "result", TEMP_SUFFIX).toFile();
+  }
+
+  /**
+   * Stores the specified temporary file, created by {@link #createTemporaryFile()}, as the entry
+   * with the specified key.
+   *
+   * @param key The entry key.
+   * @param tempFile The temporary file, which is moved into the cache.
+   * @throws IOException If the file cannot be moved.
+   */
+  /* default */ void commit(final @NonNull String key, final @NonNull File tempFile)
+      throws IOException {
+
+    final long size = tempFile.length();
+    if (size > maxDiskSize) {
+      FileUtils.deleteQuietly(tempFile);
+      return;
+    }
+
+    // Read the heap copy before the file is moved, and possibly evicted.
+    final byte[] bytes =
+        size <= maxMemorySize / MEMORY_ENTRY_RATIO ? Files.readAllBytes(tempFile.toPath()) : null;
+
+    synchronized (this) {
+      try {
+        Files.move(
+            tempFile.toPath(),
+            entryFile(key).toPath(),
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException ex) {
+        FileUtils.deleteQuietly(tempFile);
+        throw ex;
+      }
+      final Long previous = diskEntries.put(key, size);
+      diskSize += size - (previous == null ? 0L : previous);
+      if (bytes != null) {
+        final byte[] previousBytes = memoryEntries.put(key, bytes);
+        memorySize += bytes.length - (previousBytes == null ? 0L : previousBytes.length);
+      }
+      evictDisk();
+      evictMemory();
+    }
+  }
+
+  // Removes the least recently used entries until the disk tier fits its maximum size.
+  private void evictDisk() {
+
+    final Iterator<Map.Entry<String, Long>> iterator = diskEntries.entrySet().iterator();
+    while (diskSize > maxDiskSize && iterator.hasNext()) {
+      final Map.Entry<String, Long> entry = iterator.next();
+      iterator.remove();
+      diskSize -= entry.getValue();
+      FileUtils.deleteQuietly(entryFile(entry.getKey()));
+      final byte[] bytes = memoryEntries.remove(entry.getKey());
+      if (bytes != null) {
+        memorySize -= bytes.length;
+      }
+      evictionCount++;
+    }
+  }
+
+  // Removes the least recently used entries until the heap tier fits its maximum size. The
+  // entries remain on disk.
+  private void evictMemory() {
+
+    final Iterator<byte[]> iterator = memoryEntries.values().iterator();
+    while (memorySize > maxMemorySize && iterator.hasNext()) {
+      memorySize -= iterator.next().length;
+      iterator.remove();
+    }
+  }
+
+  private void removeDisk(final String key) {
+
+    final Long size = diskEntries.remove(key);
+    if (size != null) {
+      diskSize -= size;
+    }
+    final byte[] bytes = memoryEntries.remove(key);
+    if (bytes != null) {
+      memorySize -= bytes.length;
+    }
+  }
+
+  private File entryFile(final String key) {
+    return new File(directory, key);
+  }
+
+  /* default */ synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /* default */ synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /* default */ synchronized long getBytesSaved() {
+    return bytesSaved;
+  }
+
+  /* default */ synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /* default */ synchronized long getDiskSize() {
+    return diskSize;
+  }
+
+  /* default */ synchronized long getMemorySize() {
+    return memorySize;
+  }
+
+  /** A cached conversion result, read either from memory or from disk. */
+  /* default */ static final class Hit implements Closeable, ConversionResults.ResultWriter {
+
+    private final byte[] bytes;
+    private final FileChannel channel;
+    private final long size;
+
+    private Hit(final byte[] bytes, final FileChannel channel, final long size) {
+
+      this.bytes = bytes;
+      this.channel = channel;
+      this.size = size;
+    }
+
+    @Override
+    public void writeTo(final @NonNull OutputStream out) throws IOException {
+
+      if (bytes == null) {
+        IOUtils.copy(channel, out);
+      } else {
+        out.write(bytes);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+
+      if (channel != null) {
+        channel.close();
+      }
+    }
+  }
+}
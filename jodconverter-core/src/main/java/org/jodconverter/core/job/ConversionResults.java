@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import org.jodconverter.core.office.OfficeException;
+
+/** Helper functions shared by the converters reusing the result of another conversion. */
+/* default */ final class ConversionResults {
+
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+  private static final int BUFFER_SIZE = 65_536;
+
+  /** Writes a conversion result to a stream. */
+  @FunctionalInterface
+  /* default */ interface ResultWriter {
+
+    /**
+     * Writes the conversion result to the specified stream.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If an IO error occurs.
+     */
+    void writeTo(@NonNull OutputStream out) throws IOException;
+  }
+
+  /**
+   * Computes a key identifying the result of a conversion: a SHA-256 hash of the source content,
+   * of the source and target formats, and of the specified converter configuration. The source
+   * must have been staged if it is a stream that can only be read once.
+   *
+   * @param fingerprint The configuration fingerprint of the converter.
+   * @param source The source specifications.
+   * @param target The target specifications.
+   * @return The hex encoded key.
+   * @throws IOException If the source cannot be read.
+   */
+  /* default */ static @NonNull String computeKey(
+      final @NonNull String fingerprint,
+      final @NonNull SourceDocumentSpecs source,
+      final @NonNull TargetDocumentSpecs target)
+      throws IOException {
+
+    return hash(fingerprint + '\n' + source.getFormat() + '\n' + target.getFormat(), source);
+  }
+
+  /**
+   * Computes a hash identifying the content of a source document: a SHA-256 hash of its bytes
+   * only, whatever its name or format. The source must have been staged if it is a stream that
+   * can only be read once.
+   *
+   * @param source The source specifications.
+   * @return The hex encoded hash.
+   * @throws IOException If the source cannot be read.
+   */
+  /* default */ static @NonNull String computeContentHash(final @NonNull SourceDocumentSpecs source)
+      throws IOException {
+
+    return hash("", source);
+  }
+
+  private static String hash(final String prefix, final SourceDocumentSpecs source)
+      throws IOException {
+
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (NoSuchAlgorithmException ex) {
+      // Every java platform must support SHA-256
+      throw new IllegalStateException(ex);
+    }
+    digest.update(prefix.getBytes(StandardCharsets.UTF_8));
+
+    final InputStream sourceStream = source.getInputStream();
+    try (InputStream in =
+        sourceStream == null ? Files.newInputStream(source.getFile().toPath()) : sourceStream) {
+      final byte[] buffer = new byte[BUFFER_SIZE];
+      int n;
+      while ((n = in.read(buffer)) > 0) { // NOPMD - Allow assignment here
+        digest.update(buffer, 0, n);
+      }
+    }
+
+    final StringBuilder key = new StringBuilder();
+    for (final byte b : digest.digest()) {
+      key.append(String.format("%02x", b));
+    }
+    return key.toString();
+  }
+
+  /**
+   * Delivers an existing conversion result to a target, as a conversion task would.
+   *
+   * @param writer The writer of the result.
+   * @param target The target specifications.
+   * @throws OfficeException If the result cannot be written.
+   */
+  /* default */ static void deliver(
+      final @NonNull ResultWriter writer, final @NonNull TargetDocumentSpecs target)
+      throws OfficeException {
+
+    final OutputStream targetStream = target.getOutputStream();
+    if (targetStream != null) {
+      try {
+        writer.writeTo(targetStream);
+      } catch (IOException ex) {
+        final OfficeException officeEx =
+            new OfficeException("Could not write the conversion result", ex);
+        target.onStreamFailure(officeEx);
+        throw officeEx;
+      }
+      target.onStreamComplete();
+      return;
+    }
+
+    final File targetFile = target.getFile();
+    try (OutputStream out = new FileOutputStream(targetFile)) {
+      writer.writeTo(out);
+    } catch (IOException ex) {
+      final OfficeException officeEx =
+          new OfficeException("Could not write the conversion result", ex);
+      target.onFailure(targetFile, officeEx);
+      throw officeEx;
+    }
+    target.onComplete(targetFile);
+  }
+
+  // Suppresses default constructor, ensuring non-instantiability.
+  private ConversionResults() {
+    throw new AssertionError("Utility class must not be instantiated");
+  }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.document.DocumentFormat;
+
+/**
+ * The default {@link DocumentValidator}. It checks the structure of the containers office would
+ * otherwise fail to load after a costly attempt, reading only their headers and directories:
+ *
+ * <ul>
+ *   <li>empty documents are rejected;
+ *   <li>zip packages (OpenDocument, Office Open XML) are rejected when their central directory is
+ *       missing or does not match their entries, which is the case of truncated files, and when
+ *       their entries or their OpenDocument manifest are encrypted;
+ *   <li>OLE2 compound files are rejected when their sectors lie beyond the end of the file, and
+ *       when they hold an encrypted Office Open XML package;
+ *   <li>PDF documents are rejected when their end of file marker is missing.
+ * </ul>
+ *
+ * <p>Other documents are accepted as is.
+ */
+public class DefaultDocumentValidator implements DocumentValidator {
+
+  private static final int ZIP_LOCAL_HEADER_SIGNATURE = 0x04034b50;
+  private static final int ZIP_LOCAL_HEADER_LENGTH = 30;
+  private static final int ZIP_CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+  private static final int ZIP_CENTRAL_HEADER_LENGTH = 46;
+  private static final int ZIP_END_SIGNATURE = 0x06054b50;
+  private static final int ZIP_END_LENGTH = 22;
+  private static final int ZIP_MAX_COMMENT_LENGTH = 65_535;
+  private static final int ZIP_MAX_CENTRAL_DIRECTORY_SIZE = 64 * 1024 * 1024;
+  private static final int ZIP_ENCRYPTED_FLAG = 0x01;
+  private static final int ZIP_DEFLATED = 8;
+  private static final String ODF_MANIFEST_ENTRY = "META-INF/manifest.xml";
+  private static final int ODF_MAX_MANIFEST_SIZE = 1024 * 1024;
+
+  private static final long OLE2_SIGNATURE = 0xE11AB1A1E011CFD0L;
+  private static final int OLE2_HEADER_LENGTH = 512;
+  private static final int OLE2_DIFAT_OFFSET = 76;
+  private static final int OLE2_DIFAT_LENGTH = 109;
+  private static final int OLE2_DIRECTORY_ENTRY_LENGTH = 128;
+  private static final int OLE2_FREE_SECTOR = 0xFFFFFFFF;
+
+  private static final byte[] PDF_SIGNATURE = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+  private static final int PDF_MARKER_MAX_DISTANCE = 1024;
+
+  @Override
+  public void validate(
+      final @NonNull SeekableByteChannel content, final @Nullable DocumentFormat format)
+      throws InvalidDocumentException, IOException {
+
+    final long size = content.size();
+    if (size == 0L) {
+      throw new InvalidDocumentException("The document is empty");
+    }
+
+    final ByteBuffer head = read(content, 0L, (int) Math.min(size, OLE2_HEADER_LENGTH));
+    if (head.limit() >= 4 && head.getInt(0) == ZIP_LOCAL_HEADER_SIGNATURE) {
+      validateZip(content, size);
+    } else if (head.limit() >= 8 && head.getLong(0) == OLE2_SIGNATURE) {
+      validateOle2(content, size, head);
+    } else if (startsWith(head, PDF_SIGNATURE)) {
+      validatePdf(content, size);
+    }
+  }
+
+  private static void validateZip(final SeekableByteChannel content, final long size)
+      throws InvalidDocumentException, IOException {
+
+    // The central directory is written last; it is missing from truncated files.
+    final int tailLength = (int) Math.min(size, ZIP_END_LENGTH + ZIP_MAX_COMMENT_LENGTH);
+    final ByteBuffer tail = read(content, size - tailLength, tailLength);
+    int end = -1;
+    for (int offset = tail.limit() - ZIP_END_LENGTH; offset >= 0 && end < 0; offset--) {
+      if (tail.getInt(offset) == ZIP_END_SIGNATURE) {
+        end = offset;
+      }
+    }
+    if (end < 0) {
+      throw new InvalidDocumentException(
+          "The zip container is truncated: its central directory is missing");
+    }
+
+    final int entryCount = tail.getShort(end + 10) & 0xFFFF;
+    final long directorySize = tail.getInt(end + 12) & 0xFFFFFFFFL;
+    final long directoryOffset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+    if (entryCount == 0xFFFF || directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL) {
+      // Zip64 container; its extended records are not checked.
+      return;
+    }
+    if (directoryOffset + directorySize > size - tailLength + end) {
+      throw new InvalidDocumentException(
+          "The zip container is corrupted: its central directory lies beyond its end");
+    }
+    if (directorySize > ZIP_MAX_CENTRAL_DIRECTORY_SIZE) {
+      return;
+    }
+
+    final ByteBuffer directory = read(content, directoryOffset, (int) directorySize);
+    long manifestOffset = -1L;
+    long manifestSize = 0L;
+    int offset = 0;
+    for (int i = 0; i < entryCount; i++) {
+      if (offset + ZIP_CENTRAL_HEADER_LENGTH > directory.limit()
+          || directory.getInt(offset) != ZIP_CENTRAL_HEADER_SIGNATURE) {
+        throw new InvalidDocumentException(
+            "The zip container is corrupted: its central directory does not match its entries");
+      }
+      final int nameLength = directory.getShort(offset + 28) & 0xFFFF;
+      final long localOffset = directory.getInt(offset + 42) & 0xFFFFFFFFL;
+      if ((directory.getShort(offset + 8) & ZIP_ENCRYPTED_FLAG) != 0) {
+        throw new EncryptedDocumentException("The zip container holds encrypted entries");
+      }
+      if (localOffset + ZIP_LOCAL_HEADER_LENGTH > directoryOffset
+          || read(content, localOffset, 4).getInt(0) != ZIP_LOCAL_HEADER_SIGNATURE) {
+        throw new InvalidDocumentException(
+            "The zip container is corrupted: an entry is missing from its expected position");
+      }
+      if (offset + ZIP_CENTRAL_HEADER_LENGTH + nameLength <= directory.limit()
+          && ODF_MANIFEST_ENTRY.equals(
+              string(directory, offset + ZIP_CENTRAL_HEADER_LENGTH, nameLength))) {
+        manifestOffset = localOffset;
+        manifestSize = directory.getInt(offset + 20) & 0xFFFFFFFFL;
+      }
+      offset +=
+          ZIP_CENTRAL_HEADER_LENGTH
+              + nameLength
+              + (directory.getShort(offset + 30) & 0xFFFF)
+              + (directory.getShort(offset + 32) & 0xFFFF);
+    }
+
+    if (manifestOffset >= 0L) {
+      validateOdfManifest(content, manifestOffset, manifestSize);
+    }
+  }
+
+  // An encrypted OpenDocument package lists the encryption data of its entries in its manifest.
+  private static void validateOdfManifest(
+      final SeekableByteChannel content, final long localOffset, final long compressedSize)
+      throws InvalidDocumentException, IOException {
+
+    if (compressedSize == 0L || compressedSize > ODF_MAX_MANIFEST_SIZE) {
+      return;
+    }
+    final ByteBuffer header = read(content, localOffset, ZIP_LOCAL_HEADER_LENGTH);
+    final int method = header.getShort(8) & 0xFFFF;
+    final long dataOffset =
+        localOffset
+            + ZIP_LOCAL_HEADER_LENGTH
+            + (header.getShort(26) & 0xFFFF)
+            + (header.getShort(28) & 0xFFFF);
+
+    final ByteBuffer data = read(content, dataOffset, (int) compressedSize);
+    final String manifest;
+    if (method == ZIP_DEFLATED) {
+      final byte[] compressed = new byte[data.limit()];
+      data.get(compressed);
+      final Inflater inflater = new Inflater(true);
+      try {
+        inflater.setInput(compressed);
+        final byte[] inflated = new byte[ODF_MAX_MANIFEST_SIZE];
+        final int length = inflater.inflate(inflated);
+        manifest = new String(inflated, 0, length, StandardCharsets.UTF_8);
+      } catch (DataFormatException ex) {
+        throw new InvalidDocumentException(
+            "The zip container is corrupted: its manifest cannot be read", ex);
+      } finally {
+        inflater.end();
+      }
+    } else {
+      manifest = string(data, 0, data.limit());
+    }
+    if (manifest.contains("encryption-data")) {
+      throw new EncryptedDocumentException("The OpenDocument package is encrypted");
+    }
+  }
+
+  private static void validateOle2(
+      final SeekableByteChannel content, final long size, final ByteBuffer header)
+      throws InvalidDocumentException, IOException {
+
+    if (header.limit() < OLE2_HEADER_LENGTH) {
+      throw new InvalidDocumentException("The compound file is truncated: its header is missing");
+    }
+    final int sectorShift = header.getShort(30) & 0xFFFF;
+    if (sectorShift != 9 && sectorShift != 12) {
+      throw new InvalidDocumentException(
+          "The compound file is corrupted: its sector size is invalid");
+    }
+
+    // The header lists the first sectors of the allocation table.
+    for (int i = 0; i < OLE2_DIFAT_LENGTH; i++) {
+      final int sector = header.getInt(OLE2_DIFAT_OFFSET + i * 4);
+      if (sector != OLE2_FREE_SECTOR && sectorOffset(sector, sectorShift) >= size) {
+        throw new InvalidDocumentException(
+            "The compound file is truncated: its allocation table lies beyond its end");
+      }
+    }
+    final long directoryOffset = sectorOffset(header.getInt(48), sectorShift);
+    if (directoryOffset + OLE2_DIRECTORY_ENTRY_LENGTH > size) {
+      throw new InvalidDocumentException(
+          "The compound file is truncated: its directory lies beyond its end");
+    }
+
+    // Encrypted Office Open XML packages are stored in a compound file.
+    final ByteBuffer directory =
+        read(content, directoryOffset, (int) Math.min(1 << sectorShift, size - directoryOffset));
+    for (int offset = 0;
+        offset + OLE2_DIRECTORY_ENTRY_LENGTH <= directory.limit();
+        offset += OLE2_DIRECTORY_ENTRY_LENGTH) {
+      final int nameLength = directory.getShort(offset + 64) & 0xFFFF;
+      if (nameLength >= 2 && nameLength <= 64) {
+        final byte[] name = new byte[nameLength - 2]; // Without the null terminator
+        for (int i = 0; i < name.length; i++) {
+          name[i] = directory.get(offset + i);
+        }
+        final String streamName = new String(name, StandardCharsets.UTF_16LE);
+        if ("EncryptedPackage".equals(streamName) || "EncryptionInfo".equals(streamName)) {
+          throw new EncryptedDocumentException(
+              "The document is an encrypted Office Open XML package");
+        }
+      }
+    }
+  }
+
+  private static long sectorOffset(final int sector, final int sectorShift) {
+    return ((sector & 0xFFFFFFFFL) + 1L) << sectorShift;
+  }
+
+  private static void validatePdf(final SeekableByteChannel content, final long size)
+      throws InvalidDocumentException, IOException {
+
+    final int tailLength = (int) Math.min(size, PDF_MARKER_MAX_DISTANCE);
+    final ByteBuffer tail = read(content, size - tailLength, tailLength);
+    if (!string(tail, 0, tail.limit()).contains("%%EOF")) {
+      throw new InvalidDocumentException(
+          "The PDF document is truncated: its end of file marker is missing");
+    }
+  }
+
+  private static boolean startsWith(final ByteBuffer buffer, final byte[] prefix) {
+
+    if (buffer.limit() < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (buffer.get(i) != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static ByteBuffer read(
+      final SeekableByteChannel content, final long position, final int length)
+      throws IOException {
+
+    final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+    content.position(position);
+    while (buffer.hasRemaining()) {
+      if (content.read(buffer) < 0) {
+        break;
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  private static String string(final ByteBuffer buffer, final int offset, final int length) {
+
+    final byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = buffer.get(offset + i);
+    }
+    return new String(bytes, StandardCharsets.ISO_8859_1);
+  }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.util.FileUtils;
+
+/**
+ * A bounded record of the source documents whose conversion made office crash or hang, keyed by
+ * a content hash. A document is quarantined once it reaches the maximum number of strikes, until
+ * its last strike expires. The least recently used entries are evicted first when the record is
+ * full, whatever their strikes. The record may be persisted to a file so it survives a restart.
+ */
+/* default */ final class DocumentQuarantine {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DocumentQuarantine.class);
+
+  private final int maxStrikes;
+  private final int maxEntries;
+  private final long timeToLive;
+  private final File file;
+  private final Map<String, Strikes> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** The strikes of a document. */
+  private static final class Strikes {
+
+    private final int count;
+    private final long lastStrikeTime;
+
+    private Strikes(final int count, final long lastStrikeTime) {
+      this.count = count;
+      this.lastStrikeTime = lastStrikeTime;
+    }
+  }
+
+  /**
+   * Creates a quarantine, reloading the entries persisted in the specified file, if any.
+   *
+   * @param maxStrikes The number of strikes after which a document is quarantined.
+   * @param maxEntries The maximum number of documents remembered.
+   * @param timeToLive The time, in milliseconds, after which the strikes of a document expire.
+   * @param file The file where the entries are persisted, may be {@code null}.
+   * @throws IOException If the file exists but cannot be read.
+   */
+  /* default */ DocumentQuarantine(
+      final int maxStrikes, final int maxEntries, final long timeToLive, final @Nullable File file)
+      throws IOException {
+
+    this.maxStrikes = maxStrikes;
+    this.maxEntries = maxEntries;
+    this.timeToLive = timeToLive;
+    this.file = file;
+
+    if (file != null && file.isFile()) {
+      final long now = System.currentTimeMillis();
+      final List<String> lines = Files.readAllLines(file.toPath(), UTF_8);
+      for (final String line : lines) {
+        final String[] fields = line.split(" ");
+        if (fields.length != 3) {
+          continue;
+        }
+        try {
+          final Strikes strikes =
+              new Strikes(Integer.parseInt(fields[1]), Long.parseLong(fields[2]));
+          if (!isExpired(strikes, now)) {
+            entries.put(fields[0], strikes);
+          }
+        } catch (NumberFormatException ex) {
+          LOGGER.warn("Ignoring invalid quarantine entry: {}", line);
+        }
+      }
+      evict(now);
+    }
+  }
+
+  /**
+   * Gets the number of strikes after which a document is quarantined.
+   *
+   * @return The maximum number of strikes.
+   */
+  /* default */ int getMaxStrikes() {
+    return maxStrikes;
+  }
+
+  /**
+   * Gets the number of unexpired strikes of the specified document.
+   *
+   * @param hash The content hash of the document.
+   * @return The strike count.
+   */
+  /* default */ synchronized int getStrikes(final @NonNull String hash) {
+
+    final Strikes strikes = entries.get(hash);
+    if (strikes == null) {
+      return 0;
+    }
+    if (isExpired(strikes, System.currentTimeMillis())) {
+      entries.remove(hash);
+      return 0;
+    }
+    return strikes.count;
+  }
+
+  /**
+   * Gets whether the specified document is quarantined.
+   *
+   * @param hash The content hash of the document.
+   * @return {@code true} if the document reached the maximum number of strikes.
+   */
+  /* default */ boolean isQuarantined(final @NonNull String hash) {
+    return getStrikes(hash) >= maxStrikes;
+  }
+
+  /**
+   * Records a strike against the specified document.
+   *
+   * @param hash The content hash of the document.
+   * @return The strike count of the document, this strike included.
+   */
+  /* default */ synchronized int strike(final @NonNull String hash) {
+
+    final int count = getStrikes(hash) + 1;
+    final long now = System.currentTimeMillis();
+    entries.put(hash, new Strikes(count, now));
+    evict(now);
+    save();
+    return count;
+  }
+
+  /**
+   * Forgets the strikes of the specified document, once it has been converted successfully.
+   *
+   * @param hash The content hash of the document.
+   */
+  /* default */ synchronized void clear(final @NonNull String hash) {
+
+    if (entries.remove(hash) != null) {
+      save();
+    }
+  }
+
+  /**
+   * Gets the number of documents currently remembered, quarantined or not.
+   *
+   * @return The entry count.
+   */
+  /* default */ synchronized int size() {
+    return entries.size();
+  }
+
+  private boolean isExpired(final Strikes strikes, final long now) {
+    return now - strikes.lastStrikeTime >= timeToLive;
+  }
+
+  private void evict(final long now) {
+
+    final Iterator<Strikes> iterator = entries.values().iterator();
+    while (iterator.hasNext()) {
+      final Strikes strikes = iterator.next();
+      if (entries.size() > maxEntries || isExpired(strikes, now)) {
+        iterator.remove();
+      }
+    }
+  }
+
+  private void save() {
+
+    if (file == null) {
+      return;
+    }
+
+    // Write a temporary file first, so a crash never leaves a partial record.
+    final Path path = file.toPath();
+    Path tempFile = null;
+    try {
+      tempFile = Files.createTempFile(path.toAbsolutePath().getParent(), file.getName(), ".tmp");
+      try (BufferedWriter writer = Files.newBufferedWriter(tempFile, UTF_8)) {
+        for (final Map.Entry<String, Strikes> entry : entries.entrySet()) {
+          writer
+              .append(entry.getKey())
+              .append(' ')
+              .append(String.valueOf(entry.getValue().count))
+              .append(' ')
+              .append(String.valueOf(entry.getValue().lastStrikeTime));
+          writer.newLine();
+        }
+      }
+      Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException ex) {
+      LOGGER.warn("Could not persist the quarantine to {}", file, ex);
+      if (tempFile != null) {
+        FileUtils.deleteQuietly(tempFile.toFile());
+      }
+    }
+  }
+}
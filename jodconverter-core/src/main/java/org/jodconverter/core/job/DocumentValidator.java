@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.document.DocumentFormat;
+
+/**
+ * Validates a source document before its conversion, so a document that office would fail to load
+ * is rejected without occupying an office process.
+ *
+ * @see ValidatingConverter
+ * @see DefaultDocumentValidator
+ */
+@FunctionalInterface
+public interface DocumentValidator {
+
+  /**
+   * Validates the specified document content. Validation must be cheap compared to a conversion;
+   * it should read as little of the content as possible.
+   *
+   * @param content A read-only channel over the document content. It is closed by the caller.
+   * @param format The format of the document, if known.
+   * @throws InvalidDocumentException If the document must be rejected.
+   * @throws IOException If the content cannot be read.
+   */
+  void validate(@NonNull SeekableByteChannel content, @Nullable DocumentFormat format)
+      throws InvalidDocumentException, IOException;
+}
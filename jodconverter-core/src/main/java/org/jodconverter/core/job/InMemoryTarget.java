@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Holds the result of a conversion in memory. Pass an instance to {@link
+ * ConversionJobWithSourceSpecified#to(InMemoryTarget)}, execute the conversion, and then read the
+ * converted document from this target.
+ */
+public final class InMemoryTarget {
+
+  // Initial capacity of the buffer holding the converted document.
+  private static final int INITIAL_CAPACITY = 32 * 1024;
+
+  private final Buffer buffer = new Buffer();
+
+  /**
+   * Gets the size of the converted document, in bytes.
+   *
+   * @return The document size.
+   */
+  public int size() {
+    return buffer.size();
+  }
+
+  /**
+   * Gets a copy of the converted document.
+   *
+   * @return The converted document.
+   */
+  public byte[] toByteArray() {
+    return buffer.toByteArray();
+  }
+
+  /**
+   * Gets a read-only buffer over the converted document, without copying it.
+   *
+   * @return The converted document.
+   */
+  public @NonNull ByteBuffer toByteBuffer() {
+    return buffer.toByteBuffer();
+  }
+
+  /* default */ @NonNull OutputStream getOutputStream() {
+    return buffer;
+  }
+
+  // A byte array stream exposing its internal array without copying it.
+  private static final class Buffer extends ByteArrayOutputStream {
+
+    private Buffer() {
+      super(INITIAL_CAPACITY);
+    }
+
+    private synchronized ByteBuffer toByteBuffer() {
+      return ByteBuffer.wrap(buf, 0, count).asReadOnlyBuffer();
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Exceptions thrown when a source document is rejected before its conversion, because previous
+ * conversions of the same content made office crash or hang.
+ *
+ * @see QuarantiningConverter
+ */
+public class QuarantinedDocumentException extends InvalidDocumentException {
+  private static final long serialVersionUID = 7061289418843604155L;
+
+  /**
+   * Constructs a new exception with the specified detail message.
+   *
+   * @param message The detail message. The detail message is saved for later retrieval by the
+   *     {@link #getMessage()} method.
+   */
+  public QuarantinedDocumentException(final @NonNull String message) {
+    super(message);
+  }
+}
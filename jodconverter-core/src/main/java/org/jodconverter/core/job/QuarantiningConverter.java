@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeTaskAbortedException;
+import org.jodconverter.core.util.AssertUtils;
+
+/**
+ * A QuarantiningConverter remembers the source documents whose conversion, using another
+ * converter, made office hang or crash. Each such failure costs a task timeout and an office
+ * process restart, and a client retrying the same document can keep knocking office processes
+ * offline. Once a document reached the maximum number of strikes, its conversions are rejected
+ * right away with a {@link QuarantinedDocumentException}, until its strikes expire.
+ *
+ * <p>A conversion failing with an {@link OfficeTaskAbortedException}, thrown when the task timed
+ * out and office was restarted, or when the task lost its office connection, is a strike.
+ * Documents are identified by a hash of their content, so a renamed copy of a document is
+ * quarantined too. A successful conversion clears the strikes of the document.
+ */
+public final class QuarantiningConverter extends AbstractDelegatingConverter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(QuarantiningConverter.class);
+
+  /** The default number of strikes after which a document is quarantined. */
+  public static final int DEFAULT_MAX_STRIKES = 2;
+
+  /** The default maximum number of documents remembered by the quarantine. */
+  public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+  /** The default time, in milliseconds, after which the strikes of a document expire. */
+  public static final long DEFAULT_TIME_TO_LIVE = 86_400_000L; // 24 hours
+
+  private final DocumentQuarantine quarantine;
+  private final AtomicLong strikeCount = new AtomicLong();
+  private final AtomicLong rejectedCount = new AtomicLong();
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static @NonNull Builder builder() {
+    return new Builder();
+  }
+
+  private QuarantiningConverter(
+      final AbstractConverter converter,
+      final DocumentFormatRegistry formatRegistry,
+      final DocumentQuarantine quarantine,
+      final int inMemoryThreshold,
+      final boolean sniffSourceFormat) {
+    super(converter, formatRegistry, inMemoryThreshold, sniffSourceFormat);
+
+    this.quarantine = quarantine;
+  }
+
+  @Override
+  protected @NonNull AbstractDelegatingConversionJob createConversionJob(
+      final @NonNull AbstractSourceDocumentSpecs source,
+      final @NonNull AbstractTargetDocumentSpecs target) {
+
+    return new QuarantiningConversionJob(source, target);
+  }
+
+  /**
+   * Gets the number of strikes recorded, which is the number of conversions that made office hang
+   * or crash.
+   *
+   * @return The strike count.
+   */
+  public long getStrikeCount() {
+    return strikeCount.get();
+  }
+
+  /**
+   * Gets the number of conversions rejected because their source document was quarantined.
+   *
+   * @return The rejected count.
+   */
+  public long getRejectedCount() {
+    return rejectedCount.get();
+  }
+
+  /**
+   * Gets the number of documents currently remembered by the quarantine, whether they reached the
+   * maximum number of strikes or not.
+   *
+   * @return The quarantine size.
+   */
+  public int getQuarantineSize() {
+    return quarantine.size();
+  }
+
+  /**
+   * Gets whether the specified failure means that the conversion made office hang or crash.
+   *
+   * @param failure The failure of a conversion.
+   * @return {@code true} if the failure is a strike against the source document.
+   */
+  /* default */ static boolean isStrike(final @NonNull Throwable failure) {
+
+    for (Throwable ex = failure; ex != null; ex = ex.getCause()) {
+      if (ex instanceof OfficeTaskAbortedException) {
+        return true;
+      }
+      if (ex.getCause() == ex) {
+        break;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Quarantining implementation of a conversion job. The source is checked once, then converted
+   * to every target of the job.
+   */
+  private class QuarantiningConversionJob extends AbstractDelegatingConversionJob {
+
+    private QuarantiningConversionJob(
+        final AbstractSourceDocumentSpecs source, final AbstractTargetDocumentSpecs target) {
+      super(source, target);
+    }
+
+    @Override
+    protected boolean supportsAdditionalTargets() {
+      return true;
+    }
+
+    @Override
+    public void doExecute() throws OfficeException {
+
+      final String hash =
+          inspectSource(this::checkQuarantine, "Could not read the source document");
+      try {
+        delegate();
+      } catch (OfficeException | RuntimeException ex) {
+        if (isStrike(ex)) {
+          strikeCount.incrementAndGet();
+          final int count = quarantine.strike(hash);
+          LOGGER.warn("Strike {} recorded against source document {}", count, hash);
+        }
+        throw ex;
+      }
+      quarantine.clear(hash);
+    }
+
+    // Gets the content hash of the source document, rejecting the document if it is quarantined.
+    private String checkQuarantine() throws IOException, QuarantinedDocumentException {
+
+      final String hash = ConversionResults.computeContentHash(source);
+      final int strikes = quarantine.getStrikes(hash);
+      if (strikes >= quarantine.getMaxStrikes()) {
+        rejectedCount.incrementAndGet();
+        LOGGER.info("Source document {} rejected: quarantined after {} strikes", hash, strikes);
+        throw new QuarantinedDocumentException(
+            String.format(
+                "The source document is quarantined: its last %d conversions made office hang or"
+                    + " crash",
+                strikes));
+      }
+      return hash;
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link QuarantiningConverter}.
+   *
+   * @see QuarantiningConverter
+   */
+  public static final class Builder extends AbstractDelegatingConverterBuilder<Builder> {
+
+    private int maxStrikes = DEFAULT_MAX_STRIKES;
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private long timeToLive = DEFAULT_TIME_TO_LIVE;
+    private File quarantineFile;
+
+    // Private constructor so only QuarantiningConverter can create an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    @Override
+    public @NonNull QuarantiningConverter build() {
+
+      checkConverter();
+
+      final DocumentQuarantine quarantine;
+      try {
+        quarantine = new DocumentQuarantine(maxStrikes, maxEntries, timeToLive, quarantineFile);
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+
+      // Create the converter
+      return new QuarantiningConverter(
+          converter, getFormatRegistry(), quarantine, inMemoryThreshold, sniffSourceFormat);
+    }
+
+    /**
+     * Specifies the number of conversions making office hang or crash after which a document is
+     * quarantined.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 2
+     *
+     * @param maxStrikes The maximum number of strikes.
+     * @return This builder instance.
+     */
+    public @NonNull Builder maxStrikes(final @Nullable Integer maxStrikes) {
+
+      if (maxStrikes != null) {
+        AssertUtils.isTrue(
+            maxStrikes > 0, String.format("maxStrikes %s must be greater than 0", maxStrikes));
+        this.maxStrikes = maxStrikes;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the maximum number of documents remembered by the quarantine. The least recently
+     * used documents are forgotten first.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 10000
+     *
+     * @param maxEntries The maximum number of entries.
+     * @return This builder instance.
+     */
+    public @NonNull Builder maxEntries(final @Nullable Integer maxEntries) {
+
+      if (maxEntries != null) {
+        AssertUtils.isTrue(
+            maxEntries > 0, String.format("maxEntries %s must be greater than 0", maxEntries));
+        this.maxEntries = maxEntries;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the time, in milliseconds, after which the strikes of a document expire, counted
+     * from its last strike.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 86400000 (24 hours)
+     *
+     * @param timeToLive The time to live of the strikes.
+     * @return This builder instance.
+     */
+    public @NonNull Builder timeToLive(final @Nullable Long timeToLive) {
+
+      if (timeToLive != null) {
+        AssertUtils.isTrue(
+            timeToLive > 0, String.format("timeToLive %s must be greater than 0", timeToLive));
+        this.timeToLive = timeToLive;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the file where the quarantine is persisted, so the strikes survive a restart.
+     * Strikes already present in this file, from a previous run, are reloaded.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: null (the quarantine is only kept in memory)
+     *
+     * @param quarantineFile The quarantine file, may be null.
+     * @return This builder instance.
+     */
+    public @NonNull Builder quarantineFile(final @Nullable File quarantineFile) {
+
+      this.quarantineFile = quarantineFile;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.TemporaryFileMaker;
+import org.jodconverter.core.util.FileUtils;
+import org.jodconverter.core.util.IOUtils;
+
+/**
+ * A SingleFlightConverter converts documents using another converter, making sure identical
+ * conversions running at the same time are executed only once. The first of them is executed by
+ * the wrapped converter, and the others wait for it and receive a copy of its result. If this
+ * conversion fails, they fail as well.
+ *
+ * <p>Conversions are identical when they have the same key, computed like the one of a {@link
+ * CachingConverter}: a SHA-256 hash of the source document content, of the source and target
+ * document formats, and of the configuration of the converter doing the conversion. Nothing is
+ * kept once the conversions are done; a single-flight converter can wrap a caching converter to
+ * also reuse the results of past conversions.
+ */
+public final class SingleFlightConverter extends AbstractDelegatingConverter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SingleFlightConverter.class);
+
+  private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+  private final AtomicLong executionCount = new AtomicLong();
+  private final AtomicLong sharedCount = new AtomicLong();
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static @NonNull Builder builder() {
+    return new Builder();
+  }
+
+  private SingleFlightConverter(
+      final AbstractConverter converter,
+      final DocumentFormatRegistry formatRegistry,
+      final int inMemoryThreshold,
+      final boolean sniffSourceFormat) {
+    super(converter, formatRegistry, inMemoryThreshold, sniffSourceFormat);
+  }
+
+  @Override
+  protected @NonNull AbstractDelegatingConversionJob createConversionJob(
+      final @NonNull AbstractSourceDocumentSpecs source,
+      final @NonNull AbstractTargetDocumentSpecs target) {
+
+    return new SingleFlightConversionJob(source, target);
+  }
+
+  /**
+   * Gets the number of conversions executed by the wrapped converter.
+   *
+   * @return The execution count.
+   */
+  public long getExecutionCount() {
+    return executionCount.get();
+  }
+
+  /**
+   * Gets the number of conversions which received the result of an identical conversion running
+   * at the same time, instead of being executed.
+   *
+   * @return The shared count.
+   */
+  public long getSharedCount() {
+    return sharedCount.get();
+  }
+
+  /**
+   * Gets the number of distinct conversions currently running.
+   *
+   * @return The in-flight count.
+   */
+  public int getInFlightCount() {
+    return flights.size();
+  }
+
+  // Creates the file holding the result shared by a flight.
+  private File createResultFile() throws IOException {
+
+    if (officeManager instanceof TemporaryFileMaker) {
+      return ((TemporaryFileMaker) officeManager).makeTemporaryFile("tmp");
+    }
+    return Files.createTempFile("jodconverter_", ".tmp").toFile();
+  }
+
+  /**
+   * A conversion running for all the identical conversions requested meanwhile. The result file
+   * is deleted once the leading conversion and all the conversions waiting for it are done.
+   */
+  private final class Flight implements CapturingTargetDocumentSpecs.ResultListener {
+
+    private final CompletableFuture<File> result = new CompletableFuture<>();
+    private int users = 1; // The leading conversion
+    private boolean landed;
+
+    @Override
+    public @NonNull File createCopyFile() throws IOException {
+      return createResultFile();
+    }
+
+    @Override
+    public void onCaptured(final @NonNull File copy) {
+
+      if (!result.complete(copy)) {
+        FileUtils.deleteQuietly(copy);
+      }
+    }
+
+    // Registers a waiting conversion, unless the flight has already landed.
+    private synchronized boolean join() {
+
+      if (landed) {
+        return false;
+      }
+      users++;
+      return true;
+    }
+
+    private void release() {
+
+      synchronized (this) {
+        if (--users > 0) {
+          return;
+        }
+        landed = true;
+      }
+      if (result.isDone() && !result.isCompletedExceptionally()) {
+        FileUtils.deleteQuietly(result.join());
+      }
+    }
+  }
+
+  /**
+   * Single-flight implementation of a conversion job. Conversions to each target are shared on
+   * their own, so a job with additional targets converts the source again for each target.
+   */
+  private class SingleFlightConversionJob extends AbstractDelegatingConversionJob {
+
+    private SingleFlightConversionJob(
+        final AbstractSourceDocumentSpecs source, final AbstractTargetDocumentSpecs target) {
+      super(source, target);
+    }
+
+    @Override
+    public void doExecute() throws OfficeException {
+
+      // The results of a converter whose configuration is unknown cannot be shared.
+      final String fingerprint = getConfigurationFingerprint();
+      if (fingerprint == null) {
+        delegate();
+        return;
+      }
+
+      final String key =
+          inspectSource(
+              () -> ConversionResults.computeKey(fingerprint, source, target),
+              "Could not compute the conversion key");
+
+      while (true) {
+        final Flight flight = new Flight();
+        final Flight running = flights.putIfAbsent(key, flight);
+        if (running == null) {
+          lead(key, flight);
+          return;
+        }
+        if (running.join()) {
+          follow(running);
+          return;
+        }
+        // The running flight landed meanwhile; it is about to leave the map.
+        flights.remove(key, running);
+      }
+    }
+
+    // Executes the conversion, sharing its result with the conversions waiting for it.
+    private void lead(final String key, final Flight flight) throws OfficeException {
+
+      executionCount.incrementAndGet();
+      try {
+        delegate(Collections.singletonList(new CapturingTargetDocumentSpecs(target, flight)));
+        if (!flight.result.isDone()) {
+          flight.result.completeExceptionally(
+              new OfficeException("Could not copy the conversion result"));
+        }
+      } catch (OfficeException | RuntimeException ex) {
+        flight.result.completeExceptionally(ex);
+        throw ex;
+      } finally {
+        flights.remove(key, flight);
+        flight.release();
+      }
+    }
+
+    // Waits for an identical conversion and writes its result to the target.
+    private void follow(final Flight flight) throws OfficeException {
+
+      // The source document is not needed anymore.
+      source.discardStaged();
+      try {
+        final File file;
+        try {
+          file = flight.result.get();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new OfficeException("Interrupted while waiting for an identical conversion", ex);
+        } catch (ExecutionException ex) {
+          throw new OfficeException("The identical conversion failed", ex.getCause());
+        }
+
+        LOGGER.debug("Sharing the result of an identical conversion");
+        sharedCount.incrementAndGet();
+        ConversionResults.deliver(
+            out -> {
+              try (FileChannel channel =
+                  FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                IOUtils.copy(channel, out);
+              }
+            },
+            target);
+      } finally {
+        flight.release();
+      }
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link SingleFlightConverter}.
+   *
+   * @see SingleFlightConverter
+   */
+  public static final class Builder extends AbstractDelegatingConverterBuilder<Builder> {
+
+    // Private constructor so only SingleFlightConverter can create an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    @Override
+    public @NonNull SingleFlightConverter build() {
+
+      checkConverter();
+
+      // Create the converter
+      return new SingleFlightConverter(
+          converter, getFormatRegistry(), inMemoryThreshold, sniffSourceFormat);
+    }
+  }
+}
@@ -21,8 +21,10 @@
 package org.jodconverter.core.job;
 
 import java.io.File;
+import java.io.InputStream;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * An interface that provides the behavior to apply when a source file is no longer required by a
@@ -39,4 +41,43 @@ public interface SourceDocumentSpecs extends DocumentSpecs {
   default void onConsumed(final @NonNull File file) {
     // Default behavior is to do nothing
   }
+
+  /**
+   * Gets a stream from which the source document can be read directly, without creating a file.
+   * Only tasks able to stream a document, like remote conversions, use this stream; such a task
+   * must then call {@link #onStreamConsumed()} instead of {@link #getFile()} and {@link
+   * #onConsumed(File)}.
+   *
+   * @return The stream, or {@code null} if the document must be read from a file.
+   */
+  default @Nullable InputStream getInputStream() {
+    // Default behavior is to read the document from a file
+    return null;
+  }
+
+  /**
+   * Called when the stream returned by {@link #getInputStream()} was consumed and is no longer
+   * required by the converter.
+   */
+  default void onStreamConsumed() {
+    // Default behavior is to do nothing
+  }
+
+  /**
+   * Stages the source document before the conversion is queued, so that an office process is not
+   * held while the document is being made available as a file. For instance, a stream is spooled
+   * to a temporary file that is then returned by {@link #getFile()}. Calling this method more than
+   * once has no effect.
+   */
+  default void stage() {
+    // Default behavior is to do nothing
+  }
+
+  /**
+   * Discards the staged document, if any, when it was not consumed by a conversion, for instance
+   * because the conversion could not be queued.
+   */
+  default void discardStaged() {
+    // Default behavior is to do nothing
+  }
 }
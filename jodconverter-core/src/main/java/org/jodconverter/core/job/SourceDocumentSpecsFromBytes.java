@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Optional;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.office.TemporaryFileMaker;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.core.util.FileUtils;
+
+/**
+ * Source document specifications for a document already held in memory. Tasks able to stream a
+ * document read it straight from memory; other tasks get a temporary file written on demand.
+ */
+public class SourceDocumentSpecsFromBytes extends AbstractSourceDocumentSpecs
+    implements SourceDocumentSpecs {
+
+  private final ByteBuffer bytes;
+  private final byte @Nullable [] array;
+  private final TemporaryFileMaker fileMaker;
+
+  /**
+   * Creates specs from the specified bytes. The bytes are not copied and must not be modified
+   * until the conversion terminates.
+   *
+   * @param bytes The source document content.
+   * @param fileMaker Temporary file maker.
+   */
+  public SourceDocumentSpecsFromBytes(
+      final byte[] bytes, final @NonNull TemporaryFileMaker fileMaker) {
+    this(ByteBuffer.wrap(bytes), fileMaker);
+  }
+
+  /**
+   * Creates specs from the remaining bytes of the specified buffer. The bytes are not copied and
+   * must not be modified until the conversion terminates; the position of the buffer is left
+   * untouched.
+   *
+   * @param bytes The source document content.
+   * @param fileMaker Temporary file maker.
+   */
+  public SourceDocumentSpecsFromBytes(
+      final @NonNull ByteBuffer bytes, final @NonNull TemporaryFileMaker fileMaker) {
+    super();
+
+    AssertUtils.notNull(bytes, "bytes must not be null");
+    AssertUtils.notNull(fileMaker, "fileMaker must not be null");
+    this.bytes = bytes.asReadOnlyBuffer();
+    this.array =
+        bytes.hasArray()
+                && bytes.arrayOffset() == 0
+                && bytes.position() == 0
+                && bytes.remaining() == bytes.array().length
+            ? bytes.array()
+            : null;
+    this.fileMaker = fileMaker;
+  }
+
+  /**
+   * Gets the size of the source document, in bytes.
+   *
+   * @return The document size.
+   */
+  public int getSize() {
+    return bytes.remaining();
+  }
+
+  /**
+   * Gets the source document content, from position 0 to the limit of the returned buffer.
+   *
+   * @return A read-only view of the content.
+   */
+  /* default */ @NonNull ByteBuffer getBytes() {
+    return bytes.slice();
+  }
+
+  /**
+   * Gets the source document content as an array. The array backing the buffer the specs were
+   * created from is returned when it holds exactly the document content; otherwise, the content
+   * is copied. The returned array must not be modified.
+   *
+   * @return The document content.
+   */
+  public byte @NonNull [] toByteArray() {
+
+    if (array != null) {
+      return array;
+    }
+    final byte[] copy = new byte[bytes.remaining()];
+    bytes.duplicate().get(copy);
+    return copy;
+  }
+
+  @Override
+  public @NonNull File getFile() {
+
+    // Write the bytes to a temp file.
+    final File tempFile =
+        Optional.ofNullable(getFormat())
+            .map(format -> fileMaker.makeTemporaryFile(format.getExtension()))
+            .orElse(fileMaker.makeTemporaryFile());
+    try (FileOutputStream outputStream = new FileOutputStream(tempFile);
+        FileChannel channel = outputStream.getChannel()) {
+      final ByteBuffer buffer = bytes.duplicate();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      return tempFile;
+    } catch (IOException ex) {
+      throw new DocumentSpecsIOException(
+          String.format("Could not write bytes to file '%s'", tempFile), ex);
+    }
+  }
+
+  @Override
+  public void onConsumed(final @NonNull File tempFile) {
+
+    // The temporary file must be deleted
+    FileUtils.deleteQuietly(tempFile);
+  }
+
+  @Override
+  public @NonNull InputStream getInputStream() {
+    return new ByteBufferInputStream(bytes.duplicate());
+  }
+
+  // An input stream reading the remaining bytes of a buffer.
+  private static final class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    private ByteBufferInputStream(final ByteBuffer buffer) {
+      super();
+
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) {
+
+      if (len == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      final int count = Math.min(len, buffer.remaining());
+      buffer.get(b, off, count);
+      return count;
+    }
+
+    @Override
+    public long skip(final long n) {
+
+      final int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+      buffer.position(buffer.position() + count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+}
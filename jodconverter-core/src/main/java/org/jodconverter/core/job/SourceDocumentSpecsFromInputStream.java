@@ -21,14 +21,14 @@
 package org.jodconverter.core.job;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.channels.FileChannel;
-import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import org.jodconverter.core.office.TemporaryFileMaker;
 import org.jodconverter.core.util.AssertUtils;
@@ -42,6 +42,7 @@ public class SourceDocumentSpecsFromInputStream extends AbstractSourceDocumentSp
   private final InputStream inputStream;
   private final TemporaryFileMaker fileMaker;
   private final boolean closeStream;
+  private volatile File stagedFile;
 
   /**
    * Creates specs from the specified stream.
@@ -66,15 +67,26 @@ public class SourceDocumentSpecsFromInputStream extends AbstractSourceDocumentSp
   @Override
   public @NonNull File getFile() {
 
+    // The stream may already have been written to a file.
+    final File file = stagedFile;
+    return file == null ? writeTemporaryFile() : file;
+  }
+
+  private File writeTemporaryFile() {
+
     // Write the InputStream to the temp file.
     final File tempFile =
         Optional.ofNullable(getFormat())
             .map(format -> fileMaker.makeTemporaryFile(format.getExtension()))
             .orElse(fileMaker.makeTemporaryFile());
-    try (FileOutputStream outputStream = new FileOutputStream(tempFile);
-        FileChannel channel = outputStream.getChannel();
-        FileLock ignored = channel.lock()) {
-      IOUtils.copy(inputStream, outputStream);
+    // The temporary file is only known by this JVM, so it does not need to be locked.
+    try (FileChannel channel =
+        FileChannel.open(
+            tempFile.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      IOUtils.copy(inputStream, channel);
       return tempFile;
     } catch (IOException ex) {
       throw new DocumentSpecsIOException(
@@ -87,6 +99,43 @@ public class SourceDocumentSpecsFromInputStream extends AbstractSourceDocumentSp
 
     // The temporary file must be deleted
     FileUtils.deleteQuietly(tempFile);
+    stagedFile = null;
+
+    closeStream();
+  }
+
+  @Override
+  public @Nullable InputStream getInputStream() {
+
+    // Once staged, the stream has been read and the document must be read from the file.
+    return stagedFile == null ? inputStream : null;
+  }
+
+  @Override
+  public void stage() {
+
+    if (stagedFile == null) {
+      stagedFile = writeTemporaryFile();
+    }
+  }
+
+  @Override
+  public void discardStaged() {
+
+    final File file = stagedFile;
+    if (file != null) {
+      stagedFile = null;
+      FileUtils.deleteQuietly(file);
+      closeStream();
+    }
+  }
+
+  @Override
+  public void onStreamConsumed() {
+    closeStream();
+  }
+
+  private void closeStream() {
 
     if (closeStream) {
       try {
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.office.InstalledOfficeManagerHolder;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.office.SpilloverOfficeManager;
+import org.jodconverter.core.task.OfficeTask;
+import org.jodconverter.core.util.AssertUtils;
+
+/**
+ * A SpilloverConverter converts documents using a primary converter, usually a {@code
+ * LocalConverter}, and spills over to a secondary converter, usually a {@code RemoteConverter},
+ * when the primary office manager is too busy. The routing decision is made by the {@link
+ * SpilloverOfficeManager} of the converter, which must combine the office managers of both the
+ * primary and secondary converters. Both converters must perform each conversion by a single task,
+ * so a converter wrapping another one, like a {@link CachingConverter}, must rather wrap the
+ * spillover converter.
+ *
+ * @see SpilloverOfficeManager
+ */
+public final class SpilloverConverter extends AbstractConverter {
+
+  private final AbstractConverter primaryConverter;
+  private final AbstractConverter secondaryConverter;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static @NonNull Builder builder() {
+    return new Builder();
+  }
+
+  private SpilloverConverter(
+      final SpilloverOfficeManager officeManager,
+      final DocumentFormatRegistry formatRegistry,
+      final AbstractConverter primaryConverter,
+      final AbstractConverter secondaryConverter,
+      final int inMemoryThreshold,
+      final boolean sniffSourceFormat) {
+    super(officeManager, formatRegistry, inMemoryThreshold, sniffSourceFormat);
+
+    this.primaryConverter = primaryConverter;
+    this.secondaryConverter = secondaryConverter;
+  }
+
+  @Override
+  protected @Nullable String getConfigurationFingerprint() {
+
+    // A conversion is executed by either converter, so both must be described.
+    final String primaryFingerprint = primaryConverter.getConfigurationFingerprint();
+    final String secondaryFingerprint = secondaryConverter.getConfigurationFingerprint();
+    if (primaryFingerprint == null || secondaryFingerprint == null) {
+      return null;
+    }
+    return getClass().getName()
+        + "{"
+        + "primary="
+        + primaryFingerprint
+        + ", secondary="
+        + secondaryFingerprint
+        + '}';
+  }
+
+  @Override
+  /* default */ boolean createsTasks() {
+    // The task of a conversion is chosen when the conversion is executed.
+    return false;
+  }
+
+  @Override
+  protected @NonNull AbstractConversionJobWithSourceFormatUnspecified convert(
+      final @NonNull AbstractSourceDocumentSpecs source) {
+
+    return new SpilloverConversionJobWithSourceFormatUnspecified(source);
+  }
+
+  /** Spillover implementation of a conversion job with source format unspecified. */
+  private class SpilloverConversionJobWithSourceFormatUnspecified
+      extends AbstractConversionJobWithSourceFormatUnspecified {
+
+    private SpilloverConversionJobWithSourceFormatUnspecified(
+        final AbstractSourceDocumentSpecs source) {
+      super(source, SpilloverConverter.this.officeManager, SpilloverConverter.this.formatRegistry);
+    }
+
+    @Override
+    protected @NonNull AbstractConversionJob to(final @NonNull AbstractTargetDocumentSpecs target) {
+      return new SpilloverConversionJob(source, target);
+    }
+  }
+
+  /** Spillover implementation of a conversion job. */
+  private class SpilloverConversionJob extends AbstractConversionJob {
+
+    private SpilloverConversionJob(
+        final AbstractSourceDocumentSpecs source, final AbstractTargetDocumentSpecs target) {
+      super(source, target);
+    }
+
+    @Override
+    public void doExecute() throws OfficeException {
+
+      // Both converters share the same source and target specifications, so only the task that
+      // will actually be executed performs the conversion.
+      stage();
+      OfficeException failure = null;
+      try {
+        ((SpilloverOfficeManager) officeManager)
+            .execute(createTask(primaryConverter), () -> createTask(secondaryConverter));
+      } catch (OfficeException ex) {
+        failure = ex;
+      }
+      failure = deliver(failure);
+      if (failure != null) {
+        throw failure;
+      }
+    }
+
+    // Creates the task converting the source of this job using the specified converter.
+    private OfficeTask createTask(final AbstractConverter converter) {
+
+      final AbstractConversionJob job = converter.convert(source).to(target);
+      final OfficeTask task = job.createTask();
+      if (task == null) {
+        throw new IllegalStateException(
+            String.format("The job of a spillover converter creates no task: %s", job));
+      }
+      return task;
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link SpilloverConverter}.
+   *
+   * @see SpilloverConverter
+   */
+  public static final class Builder extends AbstractConverterBuilder<Builder> {
+
+    private AbstractConverter primaryConverter;
+    private AbstractConverter secondaryConverter;
+
+    // Private constructor so only SpilloverConverter can create an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    @Override
+    public @NonNull SpilloverConverter build() {
+
+      AssertUtils.notNull(primaryConverter, "primaryConverter must not be null");
+      AssertUtils.notNull(secondaryConverter, "secondaryConverter must not be null");
+
+      // The spillover office manager routes the task of each conversion.
+      AssertUtils.isTrue(
+          primaryConverter.createsTasks(),
+          "primaryConverter must perform each conversion by a single task");
+      AssertUtils.isTrue(
+          secondaryConverter.createsTasks(),
+          "secondaryConverter must perform each conversion by a single task");
+
+      // A spillover office manager is required.
+      OfficeManager manager = officeManager;
+      if (manager == null) {
+        manager = InstalledOfficeManagerHolder.getInstance();
+      }
+      if (!(manager instanceof SpilloverOfficeManager)) {
+        throw new IllegalStateException(
+            "A spillover office manager is required in order to build a spillover converter.");
+      }
+
+      // The converters must use the managers the spillover manager routes the tasks to.
+      final SpilloverOfficeManager spilloverManager = (SpilloverOfficeManager) manager;
+      AssertUtils.isTrue(
+          primaryConverter.officeManager == spilloverManager.getPrimaryManager(),
+          "primaryConverter must use the primary manager of the spillover office manager");
+      AssertUtils.isTrue(
+          secondaryConverter.officeManager == spilloverManager.getSecondaryManager(),
+          "secondaryConverter must use the secondary manager of the spillover office manager");
+
+      // Create the converter
+      return new SpilloverConverter(
+          spilloverManager,
+          formatRegistry == null ? primaryConverter.getFormatRegistry() : formatRegistry,
+          primaryConverter,
+          secondaryConverter,
+          inMemoryThreshold,
+          sniffSourceFormat);
+    }
+
+    /**
+     * Specifies the converter used whenever the primary office manager is able to accept the
+     * conversion.
+     *
+     * @param primaryConverter The primary converter.
+     * @return This builder instance.
+     */
+    public @NonNull Builder primaryConverter(final @NonNull AbstractConverter primaryConverter) {
+
+      AssertUtils.notNull(primaryConverter, "primaryConverter must not be null");
+      this.primaryConverter = primaryConverter;
+      return this;
+    }
+
+    /**
+     * Specifies the converter used when a conversion spills over to the secondary office manager.
+     *
+     * @param secondaryConverter The secondary converter.
+     * @return This builder instance.
+     */
+    public @NonNull Builder secondaryConverter(
+        final @NonNull AbstractConverter secondaryConverter) {
+
+      AssertUtils.notNull(secondaryConverter, "secondaryConverter must not be null");
+      this.secondaryConverter = secondaryConverter;
+      return this;
+    }
+  }
+}
@@ -21,8 +21,10 @@
 package org.jodconverter.core.job;
 
 import java.io.File;
+import java.io.OutputStream;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import org.jodconverter.core.util.FileUtils;
 
@@ -51,4 +53,53 @@ public interface TargetDocumentSpecs extends DocumentSpecs {
     // Ensure the created file is deleted
     FileUtils.deleteQuietly(file);
   }
+
+  /**
+   * Gets a stream to which the conversion result can be written directly, without creating a file.
+   * Only tasks able to stream a document, like remote conversions, use this stream; such a task
+   * must then call {@link #onStreamComplete()} or {@link #onStreamFailure(Exception)} instead of
+   * {@link #getFile()} and {@link #onComplete(File)} or {@link #onFailure(File, Exception)}.
+   *
+   * @return The stream, or {@code null} if the result must be written to a file.
+   */
+  default @Nullable OutputStream getOutputStream() {
+    // Default behavior is to write the result to a file
+    return null;
+  }
+
+  /**
+   * Called if the conversion result was successfully written to the stream returned by {@link
+   * #getOutputStream()}.
+   */
+  default void onStreamComplete() {
+    // Default behavior is to do nothing
+  }
+
+  /**
+   * Called if the conversion, writing to the stream returned by {@link #getOutputStream()},
+   * finished with an exception.
+   *
+   * @param exception An exception representing the reason for the failed conversion.
+   */
+  default void onStreamFailure(final @NonNull Exception exception) {
+    // Default behavior is to do nothing
+  }
+
+  /**
+   * Defers the delivery of the conversion result. Once called, {@link #onComplete(File)} only
+   * keeps the result file, and the result is delivered by {@link #deliver()}, which the converter
+   * calls once the office process that converted the document is released. This way, the office
+   * process is not held while the result is copied to a slow destination.
+   */
+  default void deferDelivery() {
+    // Default behavior is to do nothing
+  }
+
+  /**
+   * Delivers the conversion result whose delivery was deferred by {@link #deferDelivery()}, if
+   * any. Does nothing if there is no pending result.
+   */
+  default void deliver() {
+    // Default behavior is to do nothing
+  }
 }
@@ -23,7 +23,8 @@ package org.jodconverter.core.job;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.file.Files;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -31,6 +32,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.jodconverter.core.office.TemporaryFileMaker;
 import org.jodconverter.core.util.AssertUtils;
 import org.jodconverter.core.util.FileUtils;
+import org.jodconverter.core.util.IOUtils;
 
 /** Target document specifications for from an input stream. */
 public class TargetDocumentSpecsFromOutputStream extends AbstractTargetDocumentSpecs
@@ -39,6 +41,8 @@ public class TargetDocumentSpecsFromOutputStream extends AbstractTargetDocumentS
   private final OutputStream outputStream;
   private final boolean closeStream;
   private final TemporaryFileMaker fileMaker;
+  private volatile boolean deliveryDeferred;
+  private volatile File pendingFile;
 
   /**
    * Creates specs for the specified output stream.
@@ -71,13 +75,36 @@ public class TargetDocumentSpecsFromOutputStream extends AbstractTargetDocumentS
   @Override
   public void onComplete(final @NonNull File tempFile) {
 
+    // The result is copied to the stream later on if the delivery is deferred.
+    if (deliveryDeferred) {
+      pendingFile = tempFile;
+      return;
+    }
+    copyToStream(tempFile);
+  }
+
+  @Override
+  public void deferDelivery() {
+    deliveryDeferred = true;
+  }
+
+  @Override
+  public void deliver() {
+
+    final File tempFile = pendingFile;
+    if (tempFile != null) {
+      pendingFile = null;
+      copyToStream(tempFile);
+    }
+  }
+
+  private void copyToStream(final File tempFile) {
+
     // Copy the content of the tempFile, which is the result
     // of the conversion, to the outputStream
-    try {
-      Files.copy(tempFile.toPath(), outputStream);
-      if (closeStream) {
-        outputStream.close();
-      }
+    try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.READ)) {
+      IOUtils.copy(channel, outputStream);
+      closeStream();
     } catch (IOException ex) {
       throw new DocumentSpecsIOException(
           String.format("Could not write file '%s' to stream", tempFile), ex);
@@ -86,4 +113,26 @@ public class TargetDocumentSpecsFromOutputStream extends AbstractTargetDocumentS
       FileUtils.deleteQuietly(tempFile);
     }
   }
+
+  @Override
+  public @NonNull OutputStream getOutputStream() {
+    return outputStream;
+  }
+
+  @Override
+  public void onStreamComplete() {
+
+    try {
+      closeStream();
+    } catch (IOException ex) {
+      throw new DocumentSpecsIOException("Could not close output stream", ex);
+    }
+  }
+
+  private void closeStream() throws IOException {
+
+    if (closeStream) {
+      outputStream.close();
+    }
+  }
 }
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.util.AssertUtils;
+
+/**
+ * A ValidatingConverter validates source documents before converting them using another
+ * converter. A document rejected by the {@link DocumentValidator} never reaches the office
+ * manager: the conversion fails right away with an {@link InvalidDocumentException}, instead of
+ * occupying an office process until office fails to load the document, or until the task times
+ * out and the process is restarted.
+ */
+public final class ValidatingConverter extends AbstractDelegatingConverter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ValidatingConverter.class);
+
+  private final DocumentValidator validator;
+  private final AtomicLong validatedCount = new AtomicLong();
+  private final AtomicLong rejectedCount = new AtomicLong();
+  private final AtomicLong encryptedCount = new AtomicLong();
+  private final AtomicLong validationTime = new AtomicLong();
+  private final AtomicLong failedConversionCount = new AtomicLong();
+  private final AtomicLong failedConversionTime = new AtomicLong();
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static @NonNull Builder builder() {
+    return new Builder();
+  }
+
+  private ValidatingConverter(
+      final AbstractConverter converter,
+      final DocumentFormatRegistry formatRegistry,
+      final DocumentValidator validator,
+      final int inMemoryThreshold,
+      final boolean sniffSourceFormat) {
+    super(converter, formatRegistry, inMemoryThreshold, sniffSourceFormat);
+
+    this.validator = validator;
+  }
+
+  @Override
+  protected @NonNull AbstractDelegatingConversionJob createConversionJob(
+      final @NonNull AbstractSourceDocumentSpecs source,
+      final @NonNull AbstractTargetDocumentSpecs target) {
+
+    return new ValidatingConversionJob(source, target);
+  }
+
+  /**
+   * Gets the number of source documents validated.
+   *
+   * @return The validated count.
+   */
+  public long getValidatedCount() {
+    return validatedCount.get();
+  }
+
+  /**
+   * Gets the number of source documents rejected, encrypted ones included.
+   *
+   * @return The rejected count.
+   */
+  public long getRejectedCount() {
+    return rejectedCount.get();
+  }
+
+  /**
+   * Gets the number of source documents rejected because they are encrypted.
+   *
+   * @return The encrypted count.
+   */
+  public long getEncryptedCount() {
+    return encryptedCount.get();
+  }
+
+  /**
+   * Gets the total time spent validating source documents.
+   *
+   * @return The validation time, in milliseconds.
+   */
+  public long getValidationTime() {
+    return TimeUnit.NANOSECONDS.toMillis(validationTime.get());
+  }
+
+  /**
+   * Gets the number of validated documents whose conversion failed anyway.
+   *
+   * @return The failed conversion count.
+   */
+  public long getFailedConversionCount() {
+    return failedConversionCount.get();
+  }
+
+  /**
+   * Gets an estimate of the office time saved by rejecting documents: the number of rejected
+   * documents multiplied by the average duration of the conversions that failed anyway. It is 0
+   * until a conversion fails.
+   *
+   * @return The saved time, in milliseconds.
+   */
+  public long getEstimatedTimeSaved() {
+
+    final long failures = failedConversionCount.get();
+    if (failures == 0L) {
+      return 0L;
+    }
+    final long averageFailureTime = failedConversionTime.get() / failures;
+    return TimeUnit.NANOSECONDS.toMillis(averageFailureTime * rejectedCount.get());
+  }
+
+  /**
+   * Validating implementation of a conversion job. The source is validated once, then converted
+   * to every target of the job.
+   */
+  private class ValidatingConversionJob extends AbstractDelegatingConversionJob {
+
+    private ValidatingConversionJob(
+        final AbstractSourceDocumentSpecs source, final AbstractTargetDocumentSpecs target) {
+      super(source, target);
+    }
+
+    @Override
+    protected boolean supportsAdditionalTargets() {
+      return true;
+    }
+
+    @Override
+    public void doExecute() throws OfficeException {
+
+      final long validationStart = System.nanoTime();
+      try {
+        inspectSource(this::validate, "Could not validate the source document");
+      } catch (InvalidDocumentException ex) {
+        rejectedCount.incrementAndGet();
+        if (ex instanceof EncryptedDocumentException) {
+          encryptedCount.incrementAndGet();
+        }
+        LOGGER.info("Source document rejected: {}", ex.getMessage());
+        throw ex;
+      } finally {
+        validatedCount.incrementAndGet();
+        validationTime.addAndGet(System.nanoTime() - validationStart);
+      }
+
+      final long conversionStart = System.nanoTime();
+      try {
+        delegate();
+      } catch (OfficeException | RuntimeException ex) {
+        failedConversionCount.incrementAndGet();
+        failedConversionTime.addAndGet(System.nanoTime() - conversionStart);
+        throw ex;
+      }
+    }
+
+    private @Nullable Void validate() throws IOException, InvalidDocumentException {
+
+      try (SeekableByteChannel content = openContent()) {
+        validator.validate(content, source.getFormat());
+      }
+      return null;
+    }
+
+    private SeekableByteChannel openContent() throws IOException {
+
+      // Documents held in memory are validated without being written to a file.
+      if (source instanceof SourceDocumentSpecsFromBytes) {
+        return new ByteBufferChannel(((SourceDocumentSpecsFromBytes) source).getBytes());
+      }
+      return FileChannel.open(source.getFile().toPath(), StandardOpenOption.READ);
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link ValidatingConverter}.
+   *
+   * @see ValidatingConverter
+   */
+  public static final class Builder extends AbstractDelegatingConverterBuilder<Builder> {
+
+    private DocumentValidator validator;
+
+    // Private constructor so only ValidatingConverter can create an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    @Override
+    public @NonNull ValidatingConverter build() {
+
+      checkConverter();
+
+      // Create the converter
+      return new ValidatingConverter(
+          converter,
+          getFormatRegistry(),
+          validator == null ? new DefaultDocumentValidator() : validator,
+          inMemoryThreshold,
+          sniffSourceFormat);
+    }
+
+    /**
+     * Specifies the validator of the source documents.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: A {@link DefaultDocumentValidator}
+     *
+     * @param validator The validator.
+     * @return This builder instance.
+     */
+    public @NonNull Builder validator(final @NonNull DocumentValidator validator) {
+
+      AssertUtils.notNull(validator, "validator must not be null");
+      this.validator = validator;
+      return this;
+    }
+  }
+}
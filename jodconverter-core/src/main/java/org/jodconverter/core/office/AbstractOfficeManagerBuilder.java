@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.office;
+
+import java.io.File;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.core.util.StringUtils;
+
+/**
+ * A builder for constructing an {@link OfficeManager}, holding the options shared by all the
+ * office managers executing tasks on their own.
+ *
+ * @see AbstractOfficeManagerPool.AbstractOfficeManagerPoolBuilder
+ */
+@SuppressWarnings("unchecked")
+public abstract class AbstractOfficeManagerBuilder<B extends AbstractOfficeManagerBuilder<B>> {
+
+  protected boolean install;
+  protected File workingDir = OfficeUtils.getDefaultWorkingDir();
+  protected long taskExecutionTimeout = AbstractOfficeManagerPool.DEFAULT_TASK_EXECUTION_TIMEOUT;
+  protected long taskQueueTimeout = AbstractOfficeManagerPool.DEFAULT_TASK_QUEUE_TIMEOUT;
+
+  // Protected constructor so only subclasses can initialize an instance of this builder.
+  protected AbstractOfficeManagerBuilder() {
+    super();
+  }
+
+  /**
+   * Creates the manager that is specified by this builder.
+   *
+   * @return The manager that is specified by this builder.
+   */
+  protected abstract @NonNull OfficeManager build();
+
+  /**
+   * Specifies whether the office manager that will be created by this builder will then set the
+   * unique instance of the {@link InstalledOfficeManagerHolder} class. Note that if the {@code
+   * InstalledOfficeManagerHolder} class already holds an {@code OfficeManager} instance, the owner
+   * of this existing manager is responsible to stopped it.
+   *
+   * <p>&nbsp; <b><i>Default</i></b>: false
+   *
+   * @return This builder instance.
+   */
+  public @NonNull B install() {
+
+    this.install = true;
+    return (B) this;
+  }
+
+  /**
+   * Specifies the directory where temporary files and directories are created.
+   *
+   * <p>&nbsp; <b><i>Default</i></b>: The system temporary directory as specified by the <code>
+   * java.io.tmpdir</code> system property.
+   *
+   * @param workingDir The new working directory to set.
+   * @return This builder instance.
+   */
+  public @NonNull B workingDir(final @Nullable File workingDir) {
+
+    if (workingDir != null) {
+      this.workingDir = workingDir;
+    }
+    return (B) this;
+  }
+
+  /**
+   * Specifies the directory where temporary files and directories are created.
+   *
+   * <p>&nbsp; <b><i>Default</i></b>: The system temporary directory as specified by the <code>
+   * java.io.tmpdir</code> system property.
+   *
+   * @param workingDir The new working directory to set.
+   * @return This builder instance.
+   */
+  public @NonNull B workingDir(final @Nullable String workingDir) {
+
+    return StringUtils.isBlank(workingDir) ? (B) this : workingDir(new File(workingDir));
+  }
+
+  /**
+   * Specifies the maximum time allowed to process a task. If the processing time of a task is
+   * longer than this timeout, this task will be aborted and the next task is processed.
+   *
+   * <p>&nbsp; <b><i>Default</i></b>: 120000 (2 minutes)
+   *
+   * @param taskExecutionTimeout The task execution timeout, in milliseconds.
+   * @return This builder instance.
+   */
+  @NonNull
+  public B taskExecutionTimeout(final @Nullable Long taskExecutionTimeout) {
+
+    if (taskExecutionTimeout != null) {
+      AssertUtils.isTrue(
+          taskExecutionTimeout >= 0,
+          String.format(
+              "taskExecutionTimeout %s must greater than or equal to 0", taskExecutionTimeout));
+      this.taskExecutionTimeout = taskExecutionTimeout;
+    }
+    return (B) this;
+  }
+
+  /**
+   * Specifies the maximum living time of a task in the conversion queue. The task will be removed
+   * from the queue if the waiting time is longer than this timeout.
+   *
+   * <p>&nbsp; <b><i>Default</i></b>: 30000 (30 seconds)
+   *
+   * @param taskQueueTimeout The task queue timeout, in milliseconds.
+   * @return This builder instance.
+   */
+  public @NonNull B taskQueueTimeout(final @Nullable Long taskQueueTimeout) {
+
+    if (taskQueueTimeout != null) {
+      AssertUtils.isTrue(
+          taskQueueTimeout >= 0,
+          String.format("taskQueueTimeout %s must greater than or equal to 0", taskQueueTimeout));
+      this.taskQueueTimeout = taskQueueTimeout;
+    }
+    return (B) this;
+  }
+}
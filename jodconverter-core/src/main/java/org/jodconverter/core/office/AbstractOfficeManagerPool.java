@@ -21,11 +21,17 @@
 package org.jodconverter.core.office;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -59,12 +65,18 @@ public abstract class AbstractOfficeManagerPool<E extends AbstractOfficeManagerP
   public static final long DEFAULT_TASK_QUEUE_TIMEOUT = 30_000L; // 30 seconds
   // The default timeout when executing a task
   public static final long DEFAULT_TASK_EXECUTION_TIMEOUT = 120_000L; // 2 minutes
+  // The default maximum number of tasks of a batch executed by an entry before it is released
+  public static final int DEFAULT_MAX_BATCH_SIZE = 50;
 
   private final AtomicInteger poolState = new AtomicInteger(POOL_STOPPED);
   private final File tempDir;
   private final AtomicLong tempFileCounter;
   private final long taskQueueTimeout;
+  private final int maxBatchSize;
   private final BlockingQueue<E> pool;
+  private final AtomicInteger pendingTaskCount = new AtomicInteger(0);
+  private final ExecutorService batchExecutor;
+  private final ConversionCostModel costModel;
   private List<E> entries;
 
   /**
@@ -77,10 +89,33 @@ public abstract class AbstractOfficeManagerPool<E extends AbstractOfficeManagerP
    */
   protected AbstractOfficeManagerPool(
       final int poolSize, final @NonNull File workingDir, final long taskQueueTimeout) {
+    this(poolSize, workingDir, taskQueueTimeout, DEFAULT_MAX_BATCH_SIZE, null);
+  }
+
+  /**
+   * Constructs a new instance of the class with the specified settings.
+   *
+   * @param poolSize The pool size.
+   * @param workingDir The directory where temporary files and directories are created.
+   * @param taskQueueTimeout The maximum living time of a task in the conversion queue. The task
+   *     will be removed from the queue if the waiting time is longer than this timeout.
+   * @param maxBatchSize The maximum number of tasks of a batch an entry executes before being
+   *     returned to the pool.
+   * @param costModel The model used to record the duration of the executed tasks and to compute
+   *     their execution timeout, may be {@code null}.
+   */
+  protected AbstractOfficeManagerPool(
+      final int poolSize,
+      final @NonNull File workingDir,
+      final long taskQueueTimeout,
+      final int maxBatchSize,
+      final @Nullable ConversionCostModel costModel) {
     super();
     AssertUtils.notNull(workingDir, "workingDir must not be null");
 
     this.taskQueueTimeout = taskQueueTimeout;
+    this.maxBatchSize = maxBatchSize;
+    this.costModel = costModel;
 
     // Initialize the temp directory
     tempDir = new File(workingDir, ".jodconverter_" + UUID.randomUUID());
@@ -90,6 +125,14 @@ public abstract class AbstractOfficeManagerPool<E extends AbstractOfficeManagerP
 
     // Create the pool
     pool = new ArrayBlockingQueue<>(poolSize);
+
+    // Create the executor used to spread the tasks of a batch over the entries. The calling
+    // thread always takes part in the execution of a batch, so one thread less is required.
+    batchExecutor =
+        poolSize > 1
+            ? Executors.newFixedThreadPool(
+                poolSize - 1, new NamedThreadFactory("jodconverter-batch", true))
+            : null;
   }
 
   /**
@@ -99,6 +142,17 @@ public abstract class AbstractOfficeManagerPool<E extends AbstractOfficeManagerP
    */
   protected void setEntries(final @NonNull List<@NonNull E> entries) {
     this.entries = Collections.unmodifiableList(entries);
+    entries.forEach(entry -> entry.setCostModel(costModel));
+  }
+
+  /**
+   * Gets the model that records the duration of the tasks executed by this manager. Scheduling or
+   * admission policies may use this model to estimate the duration of a task before submitting it.
+   *
+   * @return The cost model, or {@code null} if this manager does not use a cost model.
+   */
+  public @Nullable ConversionCostModel getCostModel() {
+    return costModel;
   }
 
   @Override
@@ -113,6 +167,11 @@ public abstract class AbstractOfficeManagerPool<E extends AbstractOfficeManagerP
         throw new IllegalStateException("This office manager is already running.");
       }
 
+      // Restore the durations recorded by a previous run, if any.
+      if (costModel != null) {
+        costModel.restore();
+      }
+
       // Start all entries and make them available to execute tasks.
       for (final E manager : entries) {
         manager.start();
@@ -122,6 +181,9 @@ public abstract class AbstractOfficeManagerPool<E extends AbstractOfficeManagerP
       // Create the temporary dir if the pool has successfully started
       prepareTempDir();
 
+      // Execute the subclass implementation
+      doStart();
+
       poolState.set(POOL_STARTED);
     }
   }
@@ -140,6 +202,12 @@ public abstract class AbstractOfficeManagerPool<E extends AbstractOfficeManagerP
       try {
         LOGGER.info("Stopping the office manager pool...");
         pool.clear();
+        if (batchExecutor != null) {
+          batchExecutor.shutdownNow();
+        }
+
+        // Execute the subclass implementation
+        doStop();
 
         // Stop all the managers.
         for (final E manager : entries) {
@@ -148,6 +216,11 @@ public abstract class AbstractOfficeManagerPool<E extends AbstractOfficeManagerP
 
       } finally {
         deleteTempDir();
+
+        // Save the recorded durations for a next run, if required.
+        if (costModel != null) {
+          costModel.persist();
+        }
       }
     }
   }
@@ -157,6 +230,30 @@ public abstract class AbstractOfficeManagerPool<E extends AbstractOfficeManagerP
     return poolState.get() == POOL_STARTED;
   }
 
+  /**
+   * Allow subclasses to perform operation when the office manager is started. This function is
+   * called once all the entries have been started.
+   *
+   * <p>The default implementation does nothing.
+   *
+   * @throws OfficeException If an error occurred while starting the manager.
+   */
+  protected void doStart() throws OfficeException {
+    // Nothing to do by default.
+  }
+
+  /**
+   * Allow subclasses to perform operation when the office manager is stopped. This function is
+   * called before the entries are stopped.
+   *
+   * <p>The default implementation does nothing.
+   *
+   * @throws OfficeException If an error occurred while stopping the manager.
+   */
+  protected void doStop() throws OfficeException {
+    // Nothing to do by default.
+  }
+
   /**
    * Acquires a manager, waiting the configured timeout for an entry to become available.
    *
@@ -164,16 +261,8 @@ public abstract class AbstractOfficeManagerPool<E extends AbstractOfficeManagerP
    * @throws OfficeException If we are unable to acquire a manager.
    */
   private E acquireManager() throws OfficeException {
-    LOGGER.debug("Acquiring an office manager from the pool...");
-
-    E manager;
-    try {
-      manager = pool.poll(taskQueueTimeout, TimeUnit.MILLISECONDS);
-    } catch (InterruptedException ex) {
-      Thread.currentThread().interrupt();
-      throw new OfficeException("Interruption while acquiring manager", ex);
-    }
 
+    final E manager = pollManager(taskQueueTimeout);
     if (manager == null) {
       throw new OfficeException(
           String.format("No office manager available after %d millisec", taskQueueTimeout));
@@ -182,6 +271,28 @@ public abstract class AbstractOfficeManagerPool<E extends AbstractOfficeManagerP
     return manager;
   }
 
+  /**
+   * Acquires a manager, waiting the specified timeout for an entry to become available.
+   *
+   * @param timeout How long to wait before giving up, in milliseconds.
+   * @return A manager that was available, or {@code null} if no manager became available within the
+   *     specified timeout.
+   * @throws OfficeException If the current thread is interrupted while waiting.
+   */
+  private @Nullable E pollManager(final long timeout) throws OfficeException {
+    LOGGER.debug("Acquiring an office manager from the pool...");
+
+    pendingTaskCount.incrementAndGet();
+    try {
+      return pool.poll(timeout, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new OfficeException("Interruption while acquiring manager", ex);
+    } finally {
+      pendingTaskCount.decrementAndGet();
+    }
+  }
+
   /**
    * Make the given manager available to executes tasks.
    *
@@ -221,6 +332,246 @@ public abstract class AbstractOfficeManagerPool<E extends AbstractOfficeManagerP
     }
   }
 
+  /**
+   * Executes the specified task if an office manager entry becomes available within the specified
+   * timeout, and blocks until the task terminates. Contrary to {@link #execute(OfficeTask)}, this
+   * function does not fail when no entry is available, which lets the caller execute the task
+   * elsewhere.
+   *
+   * @param task The task to execute.
+   * @param acquireTimeout How long to wait for an entry to become available, in milliseconds.
+   * @return {@code true} if the task was executed, {@code false} if no entry became available
+   *     within the specified timeout, in which case the task was not executed.
+   * @throws OfficeException If an error occurs while executing the task.
+   */
+  public final boolean tryExecute(final @NonNull OfficeTask task, final long acquireTimeout)
+      throws OfficeException {
+
+    if (!isRunning()) {
+      throw new IllegalStateException("This office manager is not running.");
+    }
+
+    final E entry = pollManager(acquireTimeout);
+    if (entry == null) {
+      LOGGER.debug("No office manager available after {} millisec", acquireTimeout);
+      return false;
+    }
+
+    try {
+      entry.execute(task);
+      return true;
+    } finally {
+      releaseManager(entry);
+    }
+  }
+
+  /**
+   * Gets the number of tasks currently waiting for an office manager entry to become available.
+   *
+   * @return The number of waiting tasks.
+   */
+  public int getPendingTaskCount() {
+    return pendingTaskCount.get();
+  }
+
+  /**
+   * Gets the average time an office manager entry, and thus an office process, is held per
+   * executed task. This is the time from the submission of a task to the entry until the task
+   * terminates, whatever the task does meanwhile. Reading a slow source stream, or writing a slow
+   * target stream, within a task makes this time longer; staging the source and deferring the
+   * delivery of the targets outside the task (see {@link
+   * org.jodconverter.core.job.SourceDocumentSpecs#stage()}) makes it shorter, leaving the entry
+   * free for the next task sooner.
+   *
+   * @return The average hold time, in milliseconds, or 0 if no task was executed yet.
+   */
+  public long getAverageTaskHoldTime() {
+
+    final long taskCount =
+        entries.stream().mapToLong(AbstractOfficeManagerPoolEntry::getExecutedTaskCount).sum();
+    if (taskCount == 0L) {
+      return 0L;
+    }
+    final long busyTime =
+        entries.stream().mapToLong(AbstractOfficeManagerPoolEntry::getBusyTime).sum();
+    return busyTime / taskCount;
+  }
+
+  /**
+   * Gets the number of office manager entries that are currently idle, ready to execute a task.
+   *
+   * @return The number of available entries.
+   */
+  public int getAvailableEntryCount() {
+    return pool.size();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>An acquired entry executes up to the configured maximum batch size of tasks before being
+   * returned to the pool, which saves the acquisition and release of an entry for each task. When
+   * several entries are available, the tasks are spread over them and executed in parallel. The
+   * execution timeout still applies to each task individually: each task is still submitted to the
+   * thread of its entry and awaited on its own, so that a task timing out can be cancelled, and
+   * its office process restarted, without failing the following tasks of the batch.
+   */
+  @Override
+  public final @NonNull List<@NonNull OfficeTaskResult> executeBatch(
+      final @NonNull List<? extends @NonNull OfficeTask> tasks) {
+
+    if (!isRunning()) {
+      throw new IllegalStateException("This office manager is not running.");
+    }
+
+    if (tasks.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    // Split the batch so all the entries can share the work, without exceeding the maximum batch
+    // size per acquired entry.
+    final int entryCount = Math.max(1, entries.size());
+    final int chunkSize =
+        Math.max(1, Math.min(maxBatchSize, (tasks.size() + entryCount - 1) / entryCount));
+    final int chunkCount = (tasks.size() + chunkSize - 1) / chunkSize;
+    final BatchExecution batch = new BatchExecution(tasks, chunkSize);
+
+    // Helpers only use entries that are immediately available, the calling thread waits for an
+    // entry like a regular execution.
+    final List<Future<?>> helpers = new ArrayList<>();
+    if (batchExecutor != null) {
+      for (int i = 1; i < Math.min(entryCount, chunkCount); i++) {
+        helpers.add(batchExecutor.submit(() -> executeBatchChunks(batch, false)));
+      }
+    }
+    executeBatchChunks(batch, true);
+
+    // Wait for the helpers to complete the chunks they claimed.
+    for (final Future<?> helper : helpers) {
+      try {
+        helper.get();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        batch.fail(new OfficeException("Interruption while executing batch", ex));
+        break;
+      } catch (ExecutionException ex) {
+        LOGGER.error("Unexpected error while executing batch", ex.getCause());
+      }
+    }
+
+    return batch.getResults();
+  }
+
+  private void executeBatchChunks(final BatchExecution batch, final boolean waitForEntry) {
+
+    while (batch.hasRemainingTasks()) {
+
+      // Acquire an entry for the next chunks.
+      E entry;
+      if (waitForEntry) {
+        try {
+          entry = acquireManager();
+        } catch (OfficeException ex) {
+          batch.fail(ex);
+          return;
+        }
+      } else {
+        entry = pool.poll();
+        if (entry == null) {
+          return;
+        }
+      }
+
+      try {
+        final int start = batch.claimChunk();
+        if (start >= 0) {
+          final int end = Math.min(start + batch.chunkSize, batch.tasks.size());
+          for (int i = start; i < end; i++) {
+            batch.execute(entry, i);
+          }
+        }
+      } finally {
+        try {
+          releaseManager(entry);
+        } catch (OfficeException ex) {
+          LOGGER.error("Unable to release office manager", ex);
+        }
+      }
+    }
+  }
+
+  /** Holds the state of a batch execution shared by the threads executing the batch. */
+  private static final class BatchExecution {
+
+    private final List<? extends OfficeTask> tasks;
+    private final int chunkSize;
+    private final OfficeTaskResult[] results;
+    private final AtomicInteger cursor = new AtomicInteger(0);
+
+    /* default */ BatchExecution(final List<? extends OfficeTask> tasks, final int chunkSize) {
+      this.tasks = tasks;
+      this.chunkSize = chunkSize;
+      this.results = new OfficeTaskResult[tasks.size()];
+    }
+
+    /* default */ boolean hasRemainingTasks() {
+      return cursor.get() < tasks.size();
+    }
+
+    /* default */ int claimChunk() {
+      final int start = cursor.getAndAdd(chunkSize);
+      return start < tasks.size() ? start : -1;
+    }
+
+    /* default */ void execute(final OfficeManager entry, final int index) {
+
+      final OfficeTask task = tasks.get(index);
+      final long startTime = System.nanoTime();
+      OfficeException exception = null;
+      try {
+        entry.execute(task);
+      } catch (OfficeException ex) {
+        exception = ex;
+      } catch (RuntimeException ex) {
+        exception = new OfficeException(String.format("Task did not complete: %s", task), ex);
+      }
+      setResult(
+          index,
+          new OfficeTaskResult(
+              task, exception, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)));
+    }
+
+    // Fails all the tasks that have not been claimed yet.
+    /* default */ void fail(final OfficeException exception) {
+
+      final int start = cursor.getAndSet(tasks.size());
+      for (int i = Math.max(0, start); i < tasks.size(); i++) {
+        setResult(i, new OfficeTaskResult(tasks.get(i), exception, 0L));
+      }
+    }
+
+    private void setResult(final int index, final OfficeTaskResult result) {
+      synchronized (results) {
+        results[index] = result;
+      }
+    }
+
+    /* default */ List<OfficeTaskResult> getResults() {
+
+      synchronized (results) {
+        // Any task that was not executed (e.g. interruption) is reported as failed.
+        for (int i = 0; i < results.length; i++) {
+          if (results[i] == null) {
+            results[i] =
+                new OfficeTaskResult(
+                    tasks.get(i), new OfficeException("Task was not executed"), 0L);
+          }
+        }
+        return Collections.unmodifiableList(Arrays.asList(results.clone()));
+      }
+    }
+  }
+
   /**
    * Prepares directory of this manager, under the working directory.
    *
@@ -267,111 +618,55 @@ public abstract class AbstractOfficeManagerPool<E extends AbstractOfficeManagerP
    */
   @SuppressWarnings("unchecked")
   public abstract static class AbstractOfficeManagerPoolBuilder<
-      B extends AbstractOfficeManagerPoolBuilder<B>> {
+          B extends AbstractOfficeManagerPoolBuilder<B>>
+      extends AbstractOfficeManagerBuilder<B> {
 
-    protected boolean install;
-    protected File workingDir = OfficeUtils.getDefaultWorkingDir();
-    protected long taskExecutionTimeout = DEFAULT_TASK_EXECUTION_TIMEOUT;
-    protected long taskQueueTimeout = DEFAULT_TASK_QUEUE_TIMEOUT;
+    protected int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    protected ConversionCostModel costModel;
 
     // Protected constructor so only subclasses can initialize an instance of this builder.
     protected AbstractOfficeManagerPoolBuilder() {
       super();
     }
 
-    /**
-     * Creates the manager that is specified by this builder.
-     *
-     * @return The manager that is specified by this builder.
-     */
+    @Override
     protected abstract @NonNull AbstractOfficeManagerPool build();
 
     /**
-     * Specifies whether the office manager that will be created by this builder will then set the
-     * unique instance of the {@link InstalledOfficeManagerHolder} class. Note that if the {@code
-     * InstalledOfficeManagerHolder} class already holds an {@code OfficeManager} instance, the
-     * owner of this existing manager is responsible to stopped it.
+     * Specifies the maximum number of tasks of a batch an office manager entry executes before it
+     * is returned to the pool. Larger values reduce the per-task overhead of a batch while smaller
+     * values let other submitters access the entry sooner.
      *
-     * <p>&nbsp; <b><i>Default</i></b>: false
+     * <p>&nbsp; <b><i>Default</i></b>: 50
      *
+     * @param maxBatchSize The maximum batch size.
      * @return This builder instance.
      */
-    public @NonNull B install() {
+    public @NonNull B maxBatchSize(final @Nullable Integer maxBatchSize) {
 
-      this.install = true;
-      return (B) this;
-    }
-
-    /**
-     * Specifies the directory where temporary files and directories are created.
-     *
-     * <p>&nbsp; <b><i>Default</i></b>: The system temporary directory as specified by the <code>
-     * java.io.tmpdir</code> system property.
-     *
-     * @param workingDir The new working directory to set.
-     * @return This builder instance.
-     */
-    public @NonNull B workingDir(final @Nullable File workingDir) {
-
-      if (workingDir != null) {
-        this.workingDir = workingDir;
-      }
-      return (B) this;
-    }
-
-    /**
-     * Specifies the directory where temporary files and directories are created.
-     *
-     * <p>&nbsp; <b><i>Default</i></b>: The system temporary directory as specified by the <code>
-     * java.io.tmpdir</code> system property.
-     *
-     * @param workingDir The new working directory to set.
-     * @return This builder instance.
-     */
-    public @NonNull B workingDir(final @Nullable String workingDir) {
-
-      return StringUtils.isBlank(workingDir) ? (B) this : workingDir(new File(workingDir));
-    }
-
-    /**
-     * Specifies the maximum time allowed to process a task. If the processing time of a task is
-     * longer than this timeout, this task will be aborted and the next task is processed.
-     *
-     * <p>&nbsp; <b><i>Default</i></b>: 120000 (2 minutes)
-     *
-     * @param taskExecutionTimeout The task execution timeout, in milliseconds.
-     * @return This builder instance.
-     */
-    @NonNull
-    public B taskExecutionTimeout(final @Nullable Long taskExecutionTimeout) {
-
-      if (taskExecutionTimeout != null) {
+      if (maxBatchSize != null) {
         AssertUtils.isTrue(
-            taskExecutionTimeout >= 0,
-            String.format(
-                "taskExecutionTimeout %s must greater than or equal to 0", taskExecutionTimeout));
-        this.taskExecutionTimeout = taskExecutionTimeout;
+            maxBatchSize > 0,
+            String.format("maxBatchSize %s must be greater than 0", maxBatchSize));
+        this.maxBatchSize = maxBatchSize;
       }
       return (B) this;
     }
 
     /**
-     * Specifies the maximum living time of a task in the conversion queue. The task will be removed
-     * from the queue if the waiting time is longer than this timeout.
+     * Specifies the model used to learn the duration of the conversions executed by the manager.
+     * When the model is configured to compute adaptive timeouts, the execution timeout of a task is
+     * computed from the recorded durations of similar conversions instead of using the {@link
+     * #taskExecutionTimeout(Long)}, which is then only used until the model has enough samples.
      *
-     * <p>&nbsp; <b><i>Default</i></b>: 30000 (30 seconds)
+     * <p>&nbsp; <b><i>Default</i></b>: null (no cost model)
      *
-     * @param taskQueueTimeout The task queue timeout, in milliseconds.
+     * @param costModel The cost model.
      * @return This builder instance.
      */
-    public @NonNull B taskQueueTimeout(final @Nullable Long taskQueueTimeout) {
+    public @NonNull B costModel(final @Nullable ConversionCostModel costModel) {
 
-      if (taskQueueTimeout != null) {
-        AssertUtils.isTrue(
-            taskQueueTimeout >= 0,
-            String.format("taskQueueTimeout %s must greater than or equal to 0", taskQueueTimeout));
-        this.taskQueueTimeout = taskQueueTimeout;
-      }
+      this.costModel = costModel;
       return (B) this;
     }
   }
@@ -25,6 +25,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.slf4j.Logger;
@@ -49,7 +50,10 @@ public abstract class AbstractOfficeManagerPoolEntry implements OfficeManager {
 
   private final long taskExecutionTimeout;
   private final SuspendableThreadPoolExecutor taskExecutor;
+  private final AtomicLong busyTime = new AtomicLong(0);
+  private final AtomicLong executedTaskCount = new AtomicLong(0);
   private Future<?> currentFuture;
+  private ConversionCostModel costModel;
 
   /**
    * Initializes a new pool entry with the specified configuration.
@@ -74,31 +78,48 @@ public abstract class AbstractOfficeManagerPoolEntry implements OfficeManager {
     // TODO: Maybe we should check if the taskExecutor was made available
     // at least once, meaning that the entry has been started.
 
-    // Submit the task to the executor
-    currentFuture =
-        taskExecutor.submit(
-            () -> {
-              doExecute(task);
-              return null;
-            });
+    // The cost model, if any, may adapt the timeout to the task.
+    final ConversionCostModel model = costModel;
+    final long timeout =
+        model == null ? taskExecutionTimeout : model.getTaskTimeout(task, taskExecutionTimeout);
+    final long startTime = System.nanoTime();
 
-    // Wait for completion of the task.
-    waitTaskCompletion(task);
+    try {
+      // Submit the task to the executor
+      currentFuture =
+          taskExecutor.submit(
+              () -> {
+                doExecute(task);
+                return null;
+              });
+
+      // Wait for completion of the task.
+      waitTaskCompletion(task, timeout);
+    } finally {
+      busyTime.addAndGet(System.nanoTime() - startTime);
+      executedTaskCount.incrementAndGet();
+    }
+
+    // Only successful executions are recorded.
+    if (model != null) {
+      model.record(task, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    }
   }
 
-  private void waitTaskCompletion(final OfficeTask task) throws OfficeException {
+  private void waitTaskCompletion(final OfficeTask task, final long timeout)
+      throws OfficeException {
 
     // Wait for completion of the task, (maximum wait time is the configured task execution
-    // timeout).
+    // timeout, or the adaptive timeout of the task).
     try {
-      LOGGER.debug("Waiting {} ms for task to complete: {}", taskExecutionTimeout, task);
-      currentFuture.get(taskExecutionTimeout, TimeUnit.MILLISECONDS);
+      LOGGER.debug("Waiting {} ms for task to complete: {}", timeout, task);
+      currentFuture.get(timeout, TimeUnit.MILLISECONDS);
       LOGGER.debug("Task executed successfully: {}", task);
 
     } catch (CancellationException ex) {
 
-      // The task was cancelled...
-      throw new OfficeException(String.format("Task was cancelled: %s", task), ex);
+      // The task was cancelled, because the connection to office was lost...
+      throw new OfficeTaskAbortedException(String.format("Task was cancelled: %s", task), ex);
 
     } catch (ExecutionException ex) {
 
@@ -114,12 +135,15 @@ public abstract class AbstractOfficeManagerPoolEntry implements OfficeManager {
 
     } catch (TimeoutException ex) {
 
-      // The task did not complete within the configured timeout...
-      handleExecuteTimeoutException(ex);
-      throw new OfficeException(
-          String.format(
-              "Task did not complete within timeout (%s ms): %s", taskExecutionTimeout, task),
-          ex);
+      // The task did not complete within the configured timeout. Office is only deemed to have
+      // stopped responding if it had to be restarted after the full configured timeout; a timeout
+      // shortened by the cost model may just be a task slower than usual.
+      final String message =
+          String.format("Task did not complete within timeout (%s ms): %s", timeout, task);
+      if (handleExecuteTimeoutException(ex) && timeout >= taskExecutionTimeout) {
+        throw new OfficeTaskAbortedException(message, ex);
+      }
+      throw new OfficeException(message, ex);
 
     } finally {
       currentFuture = null;
@@ -129,13 +153,46 @@ public abstract class AbstractOfficeManagerPoolEntry implements OfficeManager {
   private OfficeException handleTaskExecutionException(
       final OfficeTask task, final ExecutionException executionException) {
 
+    final Throwable cause = executionException.getCause();
+    if (isConnectionLost(cause)) {
+      return new OfficeTaskAbortedException(
+          String.format("Connection to office lost while executing task: %s", task), cause);
+    }
+
     // Rethrow the original (cause) exception
-    if (executionException.getCause() instanceof OfficeException) {
-      return (OfficeException) executionException.getCause();
+    if (cause instanceof OfficeException) {
+      return (OfficeException) cause;
     }
 
-    return new OfficeException(
-        String.format("Task did not complete: %s", task), executionException.getCause());
+    return new OfficeException(String.format("Task did not complete: %s", task), cause);
+  }
+
+  /**
+   * Gets the total time this entry spent executing tasks, successfully or not.
+   *
+   * @return The busy time, in milliseconds.
+   */
+  public long getBusyTime() {
+    return TimeUnit.NANOSECONDS.toMillis(busyTime.get());
+  }
+
+  /**
+   * Gets the number of tasks this entry executed, successfully or not.
+   *
+   * @return The executed task count.
+   */
+  public long getExecutedTaskCount() {
+    return executedTaskCount.get();
+  }
+
+  /**
+   * Sets the model used to record the duration of the executed tasks and to compute their
+   * execution timeout.
+   *
+   * @param costModel The cost model, may be {@code null}.
+   */
+  /* default */ void setCostModel(final ConversionCostModel costModel) {
+    this.costModel = costModel;
   }
 
   /**
@@ -146,15 +203,33 @@ public abstract class AbstractOfficeManagerPoolEntry implements OfficeManager {
    */
   protected abstract void doExecute(@NonNull OfficeTask task) throws OfficeException;
 
+  /**
+   * Gets whether the specified failure of a task is due to the connection to office having been
+   * lost while the task was executing.
+   *
+   * <p>The default implementation returns {@code false}.
+   *
+   * @param failure The exception thrown by the task.
+   * @return {@code true} if the connection to office was lost, {@code false} otherwise.
+   */
+  protected boolean isConnectionLost(final @NonNull Throwable failure) {
+    return false;
+  }
+
   /**
    * Handles a timeout exception raised while executing a task.
    *
+   * <p>The default implementation does nothing and returns {@code false}.
+   *
    * @param timeoutEx the exception thrown.
+   * @return {@code true} if the office process was restarted because of the timeout, in which case
+   *     the task fails with an {@link OfficeTaskAbortedException}, {@code false} otherwise.
    */
-  protected void handleExecuteTimeoutException(final @NonNull TimeoutException timeoutEx) {
+  protected boolean handleExecuteTimeoutException(final @NonNull TimeoutException timeoutEx) {
 
     // The default behavior is to do nothing
     LOGGER.debug("Handling task execution timeout.", timeoutEx);
+    return false;
   }
 
   @Override
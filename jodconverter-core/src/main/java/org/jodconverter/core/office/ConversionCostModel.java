@@ -0,0 +1,668 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.office;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.job.DocumentSpecs;
+import org.jodconverter.core.job.SourceDocumentSpecsFromFile;
+import org.jodconverter.core.task.ConversionTask;
+import org.jodconverter.core.task.OfficeTask;
+import org.jodconverter.core.util.AssertUtils;
+
+/**
+ * A ConversionCostModel learns how long conversions take. The duration of every successful {@link
+ * ConversionTask} is recorded in a compact logarithmic histogram keyed by the source format, the
+ * target format and the size bucket of the source document. The model can then give the expected
+ * duration of a new task and compute an adaptive execution timeout for it, based on a high
+ * percentile of the recorded durations.
+ *
+ * <p>When the model does not have enough samples for a given key, it falls back to the histogram
+ * of the same conversion (source and target formats) regardless of the size of the source. If
+ * there are still not enough samples, no estimation is made and the configured task execution
+ * timeout of the office manager is used.
+ *
+ * <p>The model can optionally be persisted to disk (when the office manager is stopped) and
+ * restored from disk (when the office manager is started for the first time). A model can thus be
+ * shared by several office managers, or by successive office managers, without recording the
+ * persisted durations more than once.
+ */
+public final class ConversionCostModel {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConversionCostModel.class);
+
+  // The default percentile of recorded durations used to compute an adaptive timeout.
+  public static final double DEFAULT_TIMEOUT_PERCENTILE = 0.999d;
+  // The default factor applied to the percentile in order to compute an adaptive timeout.
+  public static final double DEFAULT_TIMEOUT_MARGIN = 2.0d;
+  // The default minimum number of samples required before the model makes estimations.
+  public static final int DEFAULT_MIN_SAMPLES = 50;
+  // The default minimum value of an adaptive timeout.
+  public static final long DEFAULT_MIN_TASK_TIMEOUT = 10_000L; // 10 seconds
+  // The default maximum value of an adaptive timeout.
+  public static final long DEFAULT_MAX_TASK_TIMEOUT = 600_000L; // 10 minutes
+
+  // Number of histogram buckets per power of 2.
+  private static final int BUCKETS_PER_OCTAVE = 4;
+  // Number of histogram buckets. The last bucket holds durations of about 40 days and more.
+  private static final int BUCKET_COUNT = 128;
+  // Size bucket used when the size of the source document is unknown.
+  private static final String ANY_SIZE = "*";
+  // Extension used when the format of a document is unknown.
+  private static final String UNKNOWN_FORMAT = "?";
+
+  private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+  private final boolean adaptiveTimeout;
+  private final double timeoutPercentile;
+  private final double timeoutMargin;
+  private final int minSamples;
+  private final long minTaskTimeout;
+  private final long maxTaskTimeout;
+  private final File persistenceFile;
+  private final AtomicBoolean restored = new AtomicBoolean();
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static @NonNull Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a new {@link ConversionCostModel} with default configuration.
+   *
+   * @return A {@link ConversionCostModel} with default configuration.
+   */
+  public static @NonNull ConversionCostModel make() {
+    return builder().build();
+  }
+
+  private ConversionCostModel(
+      final boolean adaptiveTimeout,
+      final double timeoutPercentile,
+      final double timeoutMargin,
+      final int minSamples,
+      final long minTaskTimeout,
+      final long maxTaskTimeout,
+      final File persistenceFile) {
+
+    this.adaptiveTimeout = adaptiveTimeout;
+    this.timeoutPercentile = timeoutPercentile;
+    this.timeoutMargin = timeoutMargin;
+    this.minSamples = minSamples;
+    this.minTaskTimeout = minTaskTimeout;
+    this.maxTaskTimeout = maxTaskTimeout;
+    this.persistenceFile = persistenceFile;
+  }
+
+  /**
+   * Records the duration of a successful execution of the specified task. Only {@link
+   * ConversionTask} are recorded, other tasks are ignored.
+   *
+   * @param task The task that was executed.
+   * @param duration The duration of the execution, in milliseconds.
+   */
+  public void record(final @NonNull OfficeTask task, final long duration) {
+
+    if (task instanceof ConversionTask) {
+      final ConversionTask conversionTask = (ConversionTask) task;
+      record(
+          getExtension(conversionTask.getSource()),
+          getExtension(conversionTask.getTarget()),
+          getSize(conversionTask),
+          duration);
+    }
+  }
+
+  /**
+   * Records the duration of a conversion.
+   *
+   * @param sourceExtension The extension of the source format.
+   * @param targetExtension The extension of the target format.
+   * @param sourceSize The size of the source document, in bytes, or a negative value if unknown.
+   * @param duration The duration of the conversion, in milliseconds.
+   */
+  public void record(
+      final @NonNull String sourceExtension,
+      final @NonNull String targetExtension,
+      final long sourceSize,
+      final long duration) {
+
+    final String conversion = conversionKey(sourceExtension, targetExtension);
+    histograms.computeIfAbsent(key(conversion, ANY_SIZE), k -> new Histogram()).add(duration);
+    if (sourceSize >= 0) {
+      histograms
+          .computeIfAbsent(key(conversion, sizeBucket(sourceSize)), k -> new Histogram())
+          .add(duration);
+    }
+  }
+
+  /**
+   * Gets the expected (mean) duration of the specified task.
+   *
+   * @param task The task.
+   * @return The expected duration of the task, in milliseconds, or an empty optional if the model
+   *     cannot estimate the duration of the task.
+   */
+  public @NonNull OptionalLong getExpectedDuration(final @NonNull OfficeTask task) {
+
+    return findHistogram(task)
+        .map(histogram -> OptionalLong.of(histogram.mean()))
+        .orElse(OptionalLong.empty());
+  }
+
+  /**
+   * Gets the specified percentile of the recorded durations of the specified task.
+   *
+   * @param task The task.
+   * @param percentile The percentile, between 0 and 1 (e.g. 0.99 for the 99th percentile).
+   * @return The percentile of the durations, in milliseconds, or an empty optional if the model
+   *     cannot estimate the duration of the task.
+   */
+  public @NonNull OptionalLong getDurationPercentile(
+      final @NonNull OfficeTask task, final double percentile) {
+
+    AssertUtils.isTrue(
+        percentile > 0 && percentile <= 1, "percentile must be greater than 0 and at most 1");
+    return findHistogram(task)
+        .map(histogram -> OptionalLong.of(histogram.percentile(percentile)))
+        .orElse(OptionalLong.empty());
+  }
+
+  /**
+   * Gets the execution timeout to apply to the specified task. If adaptive timeouts are enabled and
+   * the model has enough samples for the task, the timeout is the configured percentile of the
+   * recorded durations multiplied by the configured margin, bounded by the configured minimum and
+   * maximum timeouts. Otherwise, the specified default timeout is returned.
+   *
+   * @param task The task.
+   * @param defaultTimeout The timeout to use when no adaptive timeout can be computed.
+   * @return The timeout, in milliseconds.
+   */
+  public long getTaskTimeout(final @NonNull OfficeTask task, final long defaultTimeout) {
+
+    if (!adaptiveTimeout) {
+      return defaultTimeout;
+    }
+
+    return findHistogram(task)
+        .map(
+            histogram -> {
+              final long timeout =
+                  (long) Math.ceil(histogram.percentile(timeoutPercentile) * timeoutMargin);
+              return Math.min(maxTaskTimeout, Math.max(minTaskTimeout, timeout));
+            })
+        .orElse(defaultTimeout);
+  }
+
+  /**
+   * Gets the number of recorded samples for the specified task.
+   *
+   * @param task The task.
+   * @return The number of samples that would be used to estimate the duration of the task.
+   */
+  public long getSampleCount(final @NonNull OfficeTask task) {
+
+    return findHistogram(task, 1).map(Histogram::count).orElse(0L);
+  }
+
+  /** Removes all the recorded durations from this model. */
+  public void clear() {
+    histograms.clear();
+  }
+
+  /**
+   * Loads the durations saved in the persistence file of this model, if any, replacing the
+   * durations recorded by this model. The file is only loaded the first time this method is
+   * called: the durations it contains are then already recorded by this model. Any error is logged
+   * and ignored.
+   */
+  public void restore() {
+
+    if (persistenceFile != null
+        && restored.compareAndSet(false, true)
+        && persistenceFile.isFile()) {
+      try {
+        load(persistenceFile);
+      } catch (IOException | RuntimeException ex) {
+        LOGGER.warn("Could not load conversion cost model from '{}'", persistenceFile, ex);
+      }
+    }
+  }
+
+  /**
+   * Saves the recorded durations into the persistence file of this model, if any. Any error is
+   * logged and ignored.
+   */
+  public void persist() {
+
+    if (persistenceFile != null) {
+      try {
+        save(persistenceFile);
+      } catch (IOException ex) {
+        LOGGER.warn("Could not save conversion cost model to '{}'", persistenceFile, ex);
+      }
+    }
+  }
+
+  /**
+   * Loads the durations saved in the specified file, replacing the durations recorded by this
+   * model.
+   *
+   * @param file The file to load.
+   * @throws IOException If an I/O error occurs.
+   */
+  public void load(final @NonNull File file) throws IOException {
+    AssertUtils.notNull(file, "file must not be null");
+
+    final Map<String, long[]> snapshot = read(file);
+    histograms.clear();
+    add(snapshot);
+  }
+
+  /**
+   * Loads the durations saved in the specified file, adding them to the durations already recorded
+   * by this model. The file must not contain durations already recorded by this model, like those
+   * of a file this model was loaded from or saved to, otherwise they are counted twice.
+   *
+   * @param file The file to load.
+   * @throws IOException If an I/O error occurs.
+   */
+  public void merge(final @NonNull File file) throws IOException {
+    AssertUtils.notNull(file, "file must not be null");
+
+    add(read(file));
+  }
+
+  /**
+   * Saves the recorded durations into the specified file.
+   *
+   * @param file The file to write.
+   * @throws IOException If an I/O error occurs.
+   */
+  public void save(final @NonNull File file) throws IOException {
+    AssertUtils.notNull(file, "file must not be null");
+
+    final Map<String, long[]> snapshot = new HashMap<>();
+    histograms.forEach((key, histogram) -> snapshot.put(key, histogram.toArray()));
+    try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      new Gson().toJson(snapshot, writer);
+    }
+  }
+
+  private static Map<String, long[]> read(final File file) throws IOException {
+
+    final Type mapType = new TypeToken<Map<String, long[]>>() {}.getType();
+    final Map<String, long[]> snapshot;
+    try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      snapshot = new Gson().fromJson(reader, mapType);
+    }
+    return snapshot == null ? new HashMap<>() : snapshot;
+  }
+
+  private void add(final Map<String, long[]> snapshot) {
+    snapshot.forEach(
+        (key, values) -> histograms.computeIfAbsent(key, k -> new Histogram()).merge(values));
+  }
+
+  private Optional<Histogram> findHistogram(final OfficeTask task) {
+    return findHistogram(task, minSamples);
+  }
+
+  private Optional<Histogram> findHistogram(final OfficeTask task, final int requiredSamples) {
+
+    if (!(task instanceof ConversionTask)) {
+      return Optional.empty();
+    }
+
+    final ConversionTask conversionTask = (ConversionTask) task;
+    final String conversion =
+        conversionKey(
+            getExtension(conversionTask.getSource()), getExtension(conversionTask.getTarget()));
+    final long size = getSize(conversionTask);
+    if (size >= 0) {
+      final Histogram histogram = histograms.get(key(conversion, sizeBucket(size)));
+      if (histogram != null && histogram.count() >= requiredSamples) {
+        return Optional.of(histogram);
+      }
+    }
+    return Optional.ofNullable(histograms.get(key(conversion, ANY_SIZE)))
+        .filter(histogram -> histogram.count() >= requiredSamples);
+  }
+
+  private static String getExtension(final DocumentSpecs specs) {
+    return Optional.ofNullable(specs.getFormat())
+        .map(DocumentFormat::getExtension)
+        .orElse(UNKNOWN_FORMAT);
+  }
+
+  private static long getSize(final ConversionTask task) {
+
+    // Only the size of a file source can be known without consuming the source.
+    final DocumentSpecs source = task.getSource();
+    return source instanceof SourceDocumentSpecsFromFile ? source.getFile().length() : -1L;
+  }
+
+  private static String conversionKey(final String sourceExtension, final String targetExtension) {
+    return sourceExtension.toLowerCase(Locale.ROOT)
+        + ">"
+        + targetExtension.toLowerCase(Locale.ROOT);
+  }
+
+  private static String key(final String conversion, final String sizeBucket) {
+    return conversion + "#" + sizeBucket;
+  }
+
+  // Size buckets are powers of 2 of the size in kilobytes (0: < 1KB, 1: < 2KB, 2: < 4KB, ...).
+  private static String sizeBucket(final long size) {
+    return String.valueOf(Long.SIZE - Long.numberOfLeadingZeros(size >> 10));
+  }
+
+  @Override
+  public @NonNull String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "adaptiveTimeout="
+        + adaptiveTimeout
+        + ", timeoutPercentile="
+        + timeoutPercentile
+        + ", timeoutMargin="
+        + timeoutMargin
+        + ", minSamples="
+        + minSamples
+        + ", histograms="
+        + histograms.size()
+        + '}';
+  }
+
+  /** A thread-safe histogram of durations using logarithmic buckets. */
+  private static final class Histogram {
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+
+    private static int bucketIndex(final long duration) {
+
+      if (duration <= 1L) {
+        return 0;
+      }
+      final int index =
+          (int) Math.ceil(Math.log((double) duration) / Math.log(2.0d) * BUCKETS_PER_OCTAVE);
+      return Math.min(index, BUCKET_COUNT - 1);
+    }
+
+    private static long bucketUpperBound(final int index) {
+      return (long) Math.ceil(Math.pow(2.0d, (double) index / BUCKETS_PER_OCTAVE));
+    }
+
+    /* default */ void add(final long duration) {
+
+      final long value = Math.max(0L, duration);
+      buckets.incrementAndGet(bucketIndex(value));
+      sum.addAndGet(value);
+      count.incrementAndGet();
+    }
+
+    /* default */ long count() {
+      return count.get();
+    }
+
+    /* default */ long mean() {
+
+      final long total = count.get();
+      return total == 0L ? 0L : sum.get() / total;
+    }
+
+    /* default */ long percentile(final double percentile) {
+
+      final long rank = (long) Math.ceil(percentile * count.get());
+      long cumulative = 0L;
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        cumulative += buckets.get(i);
+        if (cumulative >= rank) {
+          return bucketUpperBound(i);
+        }
+      }
+      return bucketUpperBound(BUCKET_COUNT - 1);
+    }
+
+    // The array contains the count, the sum and then the buckets.
+    /* default */ long[] toArray() {
+
+      final long[] values = new long[BUCKET_COUNT + 2];
+      values[0] = count.get();
+      values[1] = sum.get();
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        values[i + 2] = buckets.get(i);
+      }
+      return values;
+    }
+
+    /* default */ void merge(final long[] values) {
+
+      if (values == null || values.length != BUCKET_COUNT + 2) {
+        return;
+      }
+      count.addAndGet(values[0]);
+      sum.addAndGet(values[1]);
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        buckets.addAndGet(i, values[i + 2]);
+      }
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link ConversionCostModel}.
+   *
+   * @see ConversionCostModel
+   */
+  public static final class Builder {
+
+    private boolean adaptiveTimeout = true;
+    private double timeoutPercentile = DEFAULT_TIMEOUT_PERCENTILE;
+    private double timeoutMargin = DEFAULT_TIMEOUT_MARGIN;
+    private int minSamples = DEFAULT_MIN_SAMPLES;
+    private long minTaskTimeout = DEFAULT_MIN_TASK_TIMEOUT;
+    private long maxTaskTimeout = DEFAULT_MAX_TASK_TIMEOUT;
+    private File persistenceFile;
+
+    // Private constructor so only ConversionCostModel can initialize an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the model that is specified by this builder.
+     *
+     * @return The model that is specified by this builder.
+     */
+    public @NonNull ConversionCostModel build() {
+
+      AssertUtils.isTrue(
+          minTaskTimeout <= maxTaskTimeout,
+          String.format(
+              "minTaskTimeout %s must be less than or equal to maxTaskTimeout %s",
+              minTaskTimeout, maxTaskTimeout));
+
+      return new ConversionCostModel(
+          adaptiveTimeout,
+          timeoutPercentile,
+          timeoutMargin,
+          minSamples,
+          minTaskTimeout,
+          maxTaskTimeout,
+          persistenceFile);
+    }
+
+    /**
+     * Specifies whether the model is used to compute an adaptive execution timeout for each task.
+     * When disabled, the model only records durations and gives estimations.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: true
+     *
+     * @param adaptiveTimeout {@code true} to compute adaptive timeouts, {@code false} otherwise.
+     * @return This builder instance.
+     */
+    public @NonNull Builder adaptiveTimeout(final boolean adaptiveTimeout) {
+
+      this.adaptiveTimeout = adaptiveTimeout;
+      return this;
+    }
+
+    /**
+     * Specifies the percentile of the recorded durations used to compute an adaptive timeout.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 0.999
+     *
+     * @param timeoutPercentile The percentile, greater than 0 and at most 1.
+     * @return This builder instance.
+     */
+    public @NonNull Builder timeoutPercentile(final @Nullable Double timeoutPercentile) {
+
+      if (timeoutPercentile != null) {
+        AssertUtils.isTrue(
+            timeoutPercentile > 0 && timeoutPercentile <= 1,
+            String.format(
+                "timeoutPercentile %s must be greater than 0 and at most 1", timeoutPercentile));
+        this.timeoutPercentile = timeoutPercentile;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the factor applied to the percentile of the recorded durations in order to compute
+     * an adaptive timeout.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 2.0
+     *
+     * @param timeoutMargin The margin, greater than or equal to 1.
+     * @return This builder instance.
+     */
+    public @NonNull Builder timeoutMargin(final @Nullable Double timeoutMargin) {
+
+      if (timeoutMargin != null) {
+        AssertUtils.isTrue(
+            timeoutMargin >= 1,
+            String.format("timeoutMargin %s must be greater than or equal to 1", timeoutMargin));
+        this.timeoutMargin = timeoutMargin;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the minimum number of samples the model must have recorded for a conversion before
+     * estimating the duration of this conversion.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 50
+     *
+     * @param minSamples The minimum number of samples.
+     * @return This builder instance.
+     */
+    public @NonNull Builder minSamples(final @Nullable Integer minSamples) {
+
+      if (minSamples != null) {
+        AssertUtils.isTrue(
+            minSamples > 0, String.format("minSamples %s must be greater than 0", minSamples));
+        this.minSamples = minSamples;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the minimum value of an adaptive timeout.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 10000 (10 seconds)
+     *
+     * @param minTaskTimeout The minimum timeout, in milliseconds.
+     * @return This builder instance.
+     */
+    public @NonNull Builder minTaskTimeout(final @Nullable Long minTaskTimeout) {
+
+      if (minTaskTimeout != null) {
+        AssertUtils.isTrue(
+            minTaskTimeout >= 0,
+            String.format("minTaskTimeout %s must greater than or equal to 0", minTaskTimeout));
+        this.minTaskTimeout = minTaskTimeout;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the maximum value of an adaptive timeout.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 600000 (10 minutes)
+     *
+     * @param maxTaskTimeout The maximum timeout, in milliseconds.
+     * @return This builder instance.
+     */
+    public @NonNull Builder maxTaskTimeout(final @Nullable Long maxTaskTimeout) {
+
+      if (maxTaskTimeout != null) {
+        AssertUtils.isTrue(
+            maxTaskTimeout >= 0,
+            String.format("maxTaskTimeout %s must greater than or equal to 0", maxTaskTimeout));
+        this.maxTaskTimeout = maxTaskTimeout;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the file where the model is saved when the office manager is stopped, and from
+     * which the model is loaded when the office manager is started.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: null (no persistence)
+     *
+     * @param persistenceFile The persistence file.
+     * @return This builder instance.
+     */
+    public @NonNull Builder persistenceFile(final @Nullable File persistenceFile) {
+
+      this.persistenceFile = persistenceFile;
+      return this;
+    }
+  }
+}
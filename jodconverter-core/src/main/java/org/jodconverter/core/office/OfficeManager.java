@@ -20,6 +20,10 @@
 
 package org.jodconverter.core.office;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import org.jodconverter.core.task.OfficeTask;
@@ -39,6 +43,37 @@ public interface OfficeManager {
    */
   void execute(@NonNull OfficeTask task) throws OfficeException;
 
+  /**
+   * Executes the specified tasks and blocks until all the tasks terminate. A failing task does not
+   * prevent the remaining tasks from being executed; the outcome of each task is reported in the
+   * returned list, in the same order as the specified tasks.
+   *
+   * <p>The default implementation executes the tasks one after the other using {@link
+   * #execute(OfficeTask)}. Implementations may override this method to reduce the per-task
+   * overhead or to execute the tasks in parallel.
+   *
+   * @param tasks The tasks to execute.
+   * @return The result of each task.
+   */
+  default @NonNull List<@NonNull OfficeTaskResult> executeBatch(
+      final @NonNull List<? extends @NonNull OfficeTask> tasks) {
+
+    final List<OfficeTaskResult> results = new ArrayList<>(tasks.size());
+    for (final OfficeTask task : tasks) {
+      final long startTime = System.nanoTime();
+      OfficeException exception = null;
+      try {
+        execute(task);
+      } catch (OfficeException ex) {
+        exception = ex;
+      }
+      results.add(
+          new OfficeTaskResult(
+              task, exception, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)));
+    }
+    return results;
+  }
+
   /**
    * Gets whether the manager is running.
    *
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.office;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * An {@code OfficeTaskAbortedException} is thrown by an office manager pool entry when office
+ * stopped responding while executing a task: the task did not complete within the configured
+ * execution timeout and the office process had to be restarted, or the connection to office was
+ * lost while the task was running. Such a failure may be caused by the document the task was
+ * processing.
+ */
+public class OfficeTaskAbortedException extends OfficeException {
+  private static final long serialVersionUID = 4178652103965498713L;
+
+  /**
+   * Constructs a new exception with the specified detail message and cause.
+   *
+   * @param message The detail message.
+   * @param cause The cause.
+   */
+  public OfficeTaskAbortedException(final @NonNull String message, final @NonNull Throwable cause) {
+    super(message, cause);
+  }
+}
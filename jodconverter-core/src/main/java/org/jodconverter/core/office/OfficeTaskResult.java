@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.office;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.task.OfficeTask;
+
+/**
+ * Holds the outcome of a task executed as part of a batch, see {@link
+ * OfficeManager#executeBatch(java.util.List)}. The outcome of a conversion job executed on its own
+ * as part of a batch of jobs, see {@code AbstractConverter#executeBatch(java.util.List)}, holds no
+ * task.
+ */
+public final class OfficeTaskResult {
+
+  private final OfficeTask task;
+  private final OfficeException exception;
+  private final long duration;
+
+  /**
+   * Creates a new result for the specified task.
+   *
+   * @param task The executed task, {@code null} for a conversion job executed on its own.
+   * @param exception The exception that caused the task to fail, {@code null} if the task
+   *     completed successfully.
+   * @param duration The time spent executing the task, in milliseconds.
+   */
+  public OfficeTaskResult(
+      final @Nullable OfficeTask task,
+      final @Nullable OfficeException exception,
+      final long duration) {
+
+    this.task = task;
+    this.exception = exception;
+    this.duration = duration;
+  }
+
+  /**
+   * Gets the executed task.
+   *
+   * @return The task, or {@code null} for a conversion job executed on its own.
+   */
+  public @Nullable OfficeTask getTask() {
+    return task;
+  }
+
+  /**
+   * Gets the exception that caused the task to fail.
+   *
+   * @return The exception, or {@code null} if the task completed successfully.
+   */
+  public @Nullable OfficeException getException() {
+    return exception;
+  }
+
+  /**
+   * Gets the time spent executing the task.
+   *
+   * @return The duration, in milliseconds.
+   */
+  public long getDuration() {
+    return duration;
+  }
+
+  /**
+   * Gets whether the task completed successfully.
+   *
+   * @return {@code true} if the task completed successfully, {@code false} otherwise.
+   */
+  public boolean isSuccessful() {
+    return exception == null;
+  }
+
+  @Override
+  public @NonNull String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "task="
+        + task
+        + ", successful="
+        + isSuccessful()
+        + ", duration="
+        + duration
+        + '}';
+  }
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.office;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.task.OfficeTask;
+import org.jodconverter.core.util.AssertUtils;
+
+/**
+ * A SpilloverOfficeManager combines a primary office manager pool, usually a pool of local office
+ * processes, with a secondary office manager, usually a remote office server, used as burst
+ * capacity. Tasks are executed by the primary pool whenever possible; a task spills over to the
+ * secondary manager when too many tasks are already waiting for the primary pool or when no entry
+ * of the primary pool becomes available within the configured spillover timeout.
+ *
+ * <p>Since a task is usually bound to a specific kind of office manager, routing a task requires
+ * to be able to create the task for both managers, see {@link #execute(OfficeTask, Supplier)}.
+ * The {@code SpilloverConverter} class takes care of this when converting documents.
+ *
+ * <p>Starting or stopping this manager starts or stops both the primary and secondary managers.
+ */
+public final class SpilloverOfficeManager implements OfficeManager, TemporaryFileMaker {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SpilloverOfficeManager.class);
+
+  // The default time to wait for an entry of the primary pool before spilling over.
+  public static final long DEFAULT_SPILLOVER_TIMEOUT = 1_000L; // 1 second
+  // The default maximum number of tasks waiting for the primary pool, 0 meaning no limit.
+  public static final int DEFAULT_MAX_PENDING_TASKS = 0;
+
+  private final AbstractOfficeManagerPool<?> primaryManager;
+  private final OfficeManager secondaryManager;
+  private final long spilloverTimeout;
+  private final int maxPendingTasks;
+  private final AtomicLong primaryTaskCount = new AtomicLong(0);
+  private final AtomicLong pendingLimitSpilloverCount = new AtomicLong(0);
+  private final AtomicLong timeoutSpilloverCount = new AtomicLong(0);
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static @NonNull Builder builder() {
+    return new Builder();
+  }
+
+  private SpilloverOfficeManager(
+      final AbstractOfficeManagerPool<?> primaryManager,
+      final OfficeManager secondaryManager,
+      final long spilloverTimeout,
+      final int maxPendingTasks) {
+    super();
+
+    this.primaryManager = primaryManager;
+    this.secondaryManager = secondaryManager;
+    this.spilloverTimeout = spilloverTimeout;
+    this.maxPendingTasks = maxPendingTasks;
+  }
+
+  /**
+   * Executes the specified task using the primary manager, whatever the load of the primary
+   * manager. Use {@link #execute(OfficeTask, Supplier)} for a task to be able to spill over.
+   *
+   * @param task The task to execute.
+   * @throws OfficeException If an error occurs.
+   */
+  @Override
+  public void execute(final @NonNull OfficeTask task) throws OfficeException {
+
+    primaryManager.execute(task);
+    primaryTaskCount.incrementAndGet();
+  }
+
+  /**
+   * Executes a task using the primary manager if it is able to accept the task, or using the
+   * secondary manager otherwise, and blocks until the task terminates.
+   *
+   * @param primaryTask The task to execute if the primary manager is chosen.
+   * @param secondaryTask Supplies the task to execute if the task spills over to the secondary
+   *     manager.
+   * @throws OfficeException If an error occurs.
+   */
+  public void execute(
+      final @NonNull OfficeTask primaryTask,
+      final @NonNull Supplier<@NonNull OfficeTask> secondaryTask)
+      throws OfficeException {
+
+    // Spill over immediately if too many tasks are already waiting for the primary manager.
+    if (maxPendingTasks > 0 && primaryManager.getPendingTaskCount() >= maxPendingTasks) {
+      LOGGER.debug(
+          "Limit of {} tasks waiting for the primary office manager reached; spilling over",
+          maxPendingTasks);
+      pendingLimitSpilloverCount.incrementAndGet();
+      secondaryManager.execute(secondaryTask.get());
+      return;
+    }
+
+    // Otherwise, give the primary manager a chance to execute the task.
+    if (primaryManager.tryExecute(primaryTask, spilloverTimeout)) {
+      primaryTaskCount.incrementAndGet();
+      return;
+    }
+
+    LOGGER.debug(
+        "No primary office manager available after {} millisec; spilling over", spilloverTimeout);
+    timeoutSpilloverCount.incrementAndGet();
+    secondaryManager.execute(secondaryTask.get());
+  }
+
+  /**
+   * Gets the primary manager.
+   *
+   * @return The primary manager.
+   */
+  public @NonNull AbstractOfficeManagerPool<?> getPrimaryManager() {
+    return primaryManager;
+  }
+
+  /**
+   * Gets the secondary manager.
+   *
+   * @return The secondary manager.
+   */
+  public @NonNull OfficeManager getSecondaryManager() {
+    return secondaryManager;
+  }
+
+  /**
+   * Gets the number of tasks executed by the primary manager.
+   *
+   * @return The number of tasks.
+   */
+  public long getPrimaryTaskCount() {
+    return primaryTaskCount.get();
+  }
+
+  /**
+   * Gets the number of tasks that spilled over to the secondary manager.
+   *
+   * @return The number of tasks.
+   */
+  public long getSpilloverTaskCount() {
+    return pendingLimitSpilloverCount.get() + timeoutSpilloverCount.get();
+  }
+
+  /**
+   * Gets the number of tasks that spilled over to the secondary manager because the maximum number
+   * of tasks waiting for the primary manager was reached.
+   *
+   * @return The number of tasks.
+   */
+  public long getPendingLimitSpilloverCount() {
+    return pendingLimitSpilloverCount.get();
+  }
+
+  /**
+   * Gets the number of tasks that spilled over to the secondary manager because no entry of the
+   * primary manager became available within the spillover timeout.
+   *
+   * @return The number of tasks.
+   */
+  public long getTimeoutSpilloverCount() {
+    return timeoutSpilloverCount.get();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return primaryManager.isRunning() && secondaryManager.isRunning();
+  }
+
+  @Override
+  public void start() throws OfficeException {
+
+    primaryManager.start();
+    try {
+      secondaryManager.start();
+    } catch (OfficeException | RuntimeException ex) {
+      primaryManager.stop();
+      throw ex;
+    }
+  }
+
+  @Override
+  public void stop() throws OfficeException {
+
+    try {
+      secondaryManager.stop();
+    } finally {
+      primaryManager.stop();
+    }
+  }
+
+  @Override
+  public @NonNull File makeTemporaryFile() {
+    return primaryManager.makeTemporaryFile();
+  }
+
+  @Override
+  public @NonNull File makeTemporaryFile(final @Nullable String extension) {
+    return primaryManager.makeTemporaryFile(extension);
+  }
+
+  /**
+   * A builder for constructing a {@link SpilloverOfficeManager}.
+   *
+   * @see SpilloverOfficeManager
+   */
+  public static final class Builder {
+
+    private boolean install;
+    private AbstractOfficeManagerPool<?> primaryManager;
+    private OfficeManager secondaryManager;
+    private long spilloverTimeout = DEFAULT_SPILLOVER_TIMEOUT;
+    private int maxPendingTasks = DEFAULT_MAX_PENDING_TASKS;
+
+    // Private constructor so only SpilloverOfficeManager can initialize an instance of this
+    // builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the manager that is specified by this builder.
+     *
+     * @return The manager that is specified by this builder.
+     */
+    public @NonNull SpilloverOfficeManager build() {
+
+      AssertUtils.notNull(primaryManager, "primaryManager must not be null");
+      AssertUtils.notNull(secondaryManager, "secondaryManager must not be null");
+
+      final SpilloverOfficeManager manager =
+          new SpilloverOfficeManager(
+              primaryManager, secondaryManager, spilloverTimeout, maxPendingTasks);
+      if (install) {
+        InstalledOfficeManagerHolder.setInstance(manager);
+      }
+      return manager;
+    }
+
+    /**
+     * Specifies whether the office manager that will be created by this builder will then set the
+     * unique instance of the {@link InstalledOfficeManagerHolder} class. Note that if the {@code
+     * InstalledOfficeManagerHolder} class already holds an {@code OfficeManager} instance, the
+     * owner of this existing manager is responsible to stopped it.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: false
+     *
+     * @return This builder instance.
+     */
+    public @NonNull Builder install() {
+
+      this.install = true;
+      return this;
+    }
+
+    /**
+     * Specifies the manager that executes the tasks whenever possible.
+     *
+     * @param primaryManager The primary manager.
+     * @return This builder instance.
+     */
+    public @NonNull Builder primaryManager(
+        final @NonNull AbstractOfficeManagerPool<?> primaryManager) {
+
+      AssertUtils.notNull(primaryManager, "primaryManager must not be null");
+      this.primaryManager = primaryManager;
+      return this;
+    }
+
+    /**
+     * Specifies the manager that executes the tasks the primary manager is not able to accept.
+     *
+     * @param secondaryManager The secondary manager.
+     * @return This builder instance.
+     */
+    public @NonNull Builder secondaryManager(final @NonNull OfficeManager secondaryManager) {
+
+      AssertUtils.notNull(secondaryManager, "secondaryManager must not be null");
+      this.secondaryManager = secondaryManager;
+      return this;
+    }
+
+    /**
+     * Specifies how long a task waits for an entry of the primary manager to become available
+     * before spilling over to the secondary manager.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 1000 (1 second)
+     *
+     * @param spilloverTimeout The spillover timeout, in milliseconds.
+     * @return This builder instance.
+     */
+    public @NonNull Builder spilloverTimeout(final @Nullable Long spilloverTimeout) {
+
+      if (spilloverTimeout != null) {
+        AssertUtils.isTrue(
+            spilloverTimeout >= 0,
+            String.format("spilloverTimeout %s must greater than or equal to 0", spilloverTimeout));
+        this.spilloverTimeout = spilloverTimeout;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the maximum number of tasks that can wait for an entry of the primary manager. When
+     * this limit is reached, new tasks spill over to the secondary manager immediately. 0 means no
+     * limit.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 0 (no limit)
+     *
+     * @param maxPendingTasks The maximum number of waiting tasks.
+     * @return This builder instance.
+     */
+    public @NonNull Builder maxPendingTasks(final @Nullable Integer maxPendingTasks) {
+
+      if (maxPendingTasks != null) {
+        AssertUtils.isTrue(
+            maxPendingTasks >= 0,
+            String.format("maxPendingTasks %s must greater than or equal to 0", maxPendingTasks));
+        this.maxPendingTasks = maxPendingTasks;
+      }
+      return this;
+    }
+  }
+}
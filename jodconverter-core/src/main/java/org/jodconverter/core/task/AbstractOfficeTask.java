@@ -44,6 +44,15 @@ public abstract class AbstractOfficeTask implements OfficeTask {
     this.source = source;
   }
 
+  /**
+   * Gets the source specifications of the document of this task.
+   *
+   * @return The source specifications.
+   */
+  public @NonNull SourceDocumentSpecs getSource() {
+    return source;
+  }
+
   @Override
   public @NonNull String toString() {
     return getClass().getSimpleName() + "{" + "source=" + source + '}';
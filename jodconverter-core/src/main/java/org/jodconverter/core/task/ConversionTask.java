@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.task;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.job.TargetDocumentSpecs;
+
+/**
+ * Represents an {@link OfficeTask} that converts a source document into a target document. Office
+ * managers may use the specifications of the documents to make decisions about the task (e.g.
+ * estimating its duration).
+ */
+public interface ConversionTask extends OfficeTask {
+
+  /**
+   * Gets the source specifications of the document to convert.
+   *
+   * @return The source specifications.
+   */
+  @NonNull
+  SourceDocumentSpecs getSource();
+
+  /**
+   * Gets the target specifications of the converted document.
+   *
+   * @return The target specifications.
+   */
+  @NonNull
+  TargetDocumentSpecs getTarget();
+}
@@ -21,20 +21,30 @@
 package org.jodconverter.core.util;
 
 import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /** Contains IO helper functions. */
 public final class IOUtils {
 
   // buffer size used for reading and writing
   private static final int BUFFER_SIZE = 8192;
+  // maximum number of bytes transferred by a single channel transfer call
+  private static final long TRANSFER_CHUNK_SIZE = 8L * 1024L * 1024L;
 
   /**
    * Reads all char from an input stream and writes them to a string.
@@ -68,7 +78,9 @@ public final class IOUtils {
 
   // Taken from private java.nio.file.Files.copy(InputStream, OutputStream)
   /**
-   * Reads all bytes from an input stream and writes them to an output stream.
+   * Reads all bytes from an input stream and writes them to an output stream. When both streams
+   * are plain file streams and the input stream reads a regular file, the bytes are transferred
+   * between their channels without being copied into the java heap.
    *
    * @param in The input stream to read from, must not be {@code null}.
    * @param out The output stream to write to, must not be {@code null}.
@@ -80,6 +92,12 @@ public final class IOUtils {
     AssertUtils.notNull(in, "in must not be null");
     AssertUtils.notNull(out, "out must not be null");
 
+    final FileChannel inChannel = getRegularFileChannel(in);
+    if (inChannel != null && out.getClass() == FileOutputStream.class) {
+      final WritableByteChannel outChannel = ((FileOutputStream) out).getChannel();
+      return copy(inChannel, outChannel);
+    }
+
     long nread = 0L;
     final byte[] buf = new byte[BUFFER_SIZE];
     int n;
@@ -90,6 +108,139 @@ public final class IOUtils {
     return nread;
   }
 
+  /**
+   * Reads all bytes from an input stream and writes them to a file channel, starting at the
+   * current position of the channel. The bytes are transferred directly from the channel of the
+   * input stream when it is a plain file stream reading a regular file. Neither the stream nor the
+   * channel is closed.
+   *
+   * @param in The input stream to read from, must not be {@code null}.
+   * @param out The file channel to write to, must not be {@code null}.
+   * @return The number of bytes read or written.
+   * @throws IOException If an IO error occurs.
+   */
+  public static long copy(final @NonNull InputStream in, final @NonNull FileChannel out)
+      throws IOException {
+    AssertUtils.notNull(in, "in must not be null");
+    AssertUtils.notNull(out, "out must not be null");
+
+    final ReadableByteChannel inChannel = getRegularFileChannel(in);
+    if (inChannel != null) {
+      return copy(inChannel, out);
+    }
+
+    // Channels.newChannel would return the channel of a plain file
+    // stream, so the bytes are read from the stream itself.
+    long nread = 0L;
+    final byte[] buf = new byte[BUFFER_SIZE];
+    final ByteBuffer buffer = ByteBuffer.wrap(buf);
+    int n;
+    while ((n = in.read(buf)) > 0) { // NOPMD - Allow assignment here
+      buffer.clear();
+      buffer.limit(n);
+      while (buffer.hasRemaining()) {
+        out.write(buffer);
+      }
+      nread += n;
+    }
+    return nread;
+  }
+
+  // Gets the channel of the specified input stream if it is a plain file stream
+  // reading a regular file. A channel transfer copies as many bytes as the size
+  // of the file, which pipes (a piped stdin included), devices and files
+  // like those under /proc report as 0: such streams must be read until they end.
+  // The path of a file stream being unknown, a regular file is recognized by the
+  // size it reports, an empty regular file being read just as well by a stream.
+  private static @Nullable FileChannel getRegularFileChannel(final InputStream in) {
+
+    if (in.getClass() != FileInputStream.class) {
+      return null;
+    }
+    final FileChannel channel = ((FileInputStream) in).getChannel();
+    try {
+      return channel.size() > 0 ? channel : null;
+    } catch (IOException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Reads all bytes from a channel and writes them to a file channel, starting at the current
+   * position of the file channel, using {@link FileChannel#transferFrom(ReadableByteChannel, long,
+   * long)}. Neither channel is closed.
+   *
+   * @param in The channel to read from, must not be {@code null}.
+   * @param out The file channel to write to, must not be {@code null}.
+   * @return The number of bytes read or written.
+   * @throws IOException If an IO error occurs.
+   */
+  public static long copy(final @NonNull ReadableByteChannel in, final @NonNull FileChannel out)
+      throws IOException {
+    AssertUtils.notNull(in, "in must not be null");
+    AssertUtils.notNull(out, "out must not be null");
+
+    final long position = out.position();
+    long nread = 0L;
+    long n;
+    while ((n = out.transferFrom(in, position + nread, TRANSFER_CHUNK_SIZE)) > 0) { // NOPMD
+      nread += n;
+    }
+    out.position(position + nread);
+    return nread;
+  }
+
+  /**
+   * Reads all bytes from a file channel, starting at its current position, and writes them to an
+   * output stream. The bytes are transferred directly to the channel of the output stream when it
+   * is a plain file stream. Neither the channel nor the stream is closed.
+   *
+   * @param in The file channel to read from, must not be {@code null}.
+   * @param out The output stream to write to, must not be {@code null}.
+   * @return The number of bytes read or written.
+   * @throws IOException If an IO error occurs.
+   */
+  public static long copy(final @NonNull FileChannel in, final @NonNull OutputStream out)
+      throws IOException {
+    AssertUtils.notNull(out, "out must not be null");
+
+    return copy(
+        in,
+        out.getClass() == FileOutputStream.class
+            ? ((FileOutputStream) out).getChannel()
+            : Channels.newChannel(out));
+  }
+
+  /**
+   * Reads all bytes from a file channel, starting at its current position, and writes them to a
+   * channel, using {@link FileChannel#transferTo(long, long, WritableByteChannel)}. Neither channel
+   * is closed.
+   *
+   * @param in The file channel to read from, must not be {@code null}.
+   * @param out The channel to write to, must not be {@code null}.
+   * @return The number of bytes read or written.
+   * @throws IOException If an IO error occurs.
+   */
+  public static long copy(final @NonNull FileChannel in, final @NonNull WritableByteChannel out)
+      throws IOException {
+    AssertUtils.notNull(in, "in must not be null");
+    AssertUtils.notNull(out, "out must not be null");
+
+    final long position = in.position();
+    final long size = in.size();
+    long current = position;
+    while (current < size) {
+      final long n = in.transferTo(current, Math.min(size - current, TRANSFER_CHUNK_SIZE), out);
+      if (n <= 0) {
+        // The file has been truncated meanwhile.
+        break;
+      }
+      current += n;
+    }
+    in.position(current);
+    return current - position;
+  }
+
   // Suppresses default constructor, ensuring non-instantiability.
   private IOUtils() {
     throw new AssertionError("Utility class must not be instantiated");
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.job.ConversionJobWithOptionalSourceFormatUnspecified;
+import org.jodconverter.core.util.IOUtils;
+
+/** Contains tests for the default methods of the {@link DocumentConverter} interface. */
+class DocumentConverterTest {
+
+  @Nested
+  class Convert {
+
+    @Test
+    void withBytes_ShouldConvertBytesAsInputStream() {
+
+      final StreamConverter converter = new StreamConverter();
+      converter.convert("Test".getBytes(UTF_8));
+
+      assertThat(converter.content).isEqualTo("Test");
+    }
+
+    @Test
+    void withDirectByteBuffer_ShouldConvertRemainingBytesAsInputStream() {
+
+      final ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+      buffer.put("My Test".getBytes(UTF_8)).flip().position(3);
+
+      final StreamConverter converter = new StreamConverter();
+      converter.convert(buffer);
+
+      assertThat(converter.content).isEqualTo("Test");
+      assertThat(buffer.position()).isEqualTo(3);
+    }
+
+    @Test
+    void withHeapByteBuffer_ShouldConvertRemainingBytesAsInputStream() {
+
+      final ByteBuffer buffer = ByteBuffer.wrap("My Test!".getBytes(UTF_8), 3, 4);
+
+      final StreamConverter converter = new StreamConverter();
+      converter.convert(buffer);
+
+      assertThat(converter.content).isEqualTo("Test");
+      assertThat(buffer.position()).isEqualTo(3);
+    }
+  }
+
+  /** A converter only implementing the abstract methods, reading the converted stream. */
+  private static final class StreamConverter implements DocumentConverter {
+
+    private String content;
+
+    @Override
+    public ConversionJobWithOptionalSourceFormatUnspecified convert(final File source) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ConversionJobWithOptionalSourceFormatUnspecified convert(final InputStream source) {
+      return convert(source, true);
+    }
+
+    @Override
+    public ConversionJobWithOptionalSourceFormatUnspecified convert(
+        final InputStream source, final boolean closeStream) {
+
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try {
+        IOUtils.copy(source, out);
+      } catch (IOException ex) {
+        throw new IllegalStateException(ex);
+      }
+      content = new String(out.toByteArray(), UTF_8);
+      return null;
+    }
+
+    @Override
+    public DocumentFormatRegistry getFormatRegistry() {
+      return DefaultDocumentFormatRegistry.getInstance();
+    }
+  }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.document;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Contains tests for the {@link DocumentFormatSniffer} class. */
+class DocumentFormatSnifferTest {
+
+  private static final DocumentFormatSniffer SNIFFER =
+      new DocumentFormatSniffer(DefaultDocumentFormatRegistry.getInstance());
+
+  private static byte[] odf(final String mediaType) throws IOException {
+
+    final byte[] mimetype = mediaType.getBytes(StandardCharsets.US_ASCII);
+    final CRC32 crc = new CRC32();
+    crc.update(mimetype);
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+      final ZipEntry entry = new ZipEntry("mimetype");
+      entry.setMethod(ZipEntry.STORED);
+      entry.setSize(mimetype.length);
+      entry.setCrc(crc.getValue());
+      zip.putNextEntry(entry);
+      zip.write(mimetype);
+      zip.putNextEntry(new ZipEntry("content.xml"));
+      zip.write("<office:document-content/>".getBytes(UTF_8));
+    }
+    return bytes.toByteArray();
+  }
+
+  private static byte[] ooxml(final String partFolder, final int paddingLength)
+      throws IOException {
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+      zip.putNextEntry(new ZipEntry("[Content_Types].xml"));
+      zip.write("<Types/>".getBytes(UTF_8));
+
+      // Stored entry pushing the parts out of the head of the package.
+      final byte[] padding = new byte[paddingLength];
+      final CRC32 crc = new CRC32();
+      crc.update(padding);
+      final ZipEntry entry = new ZipEntry("docProps/thumbnail.bin");
+      entry.setMethod(ZipEntry.STORED);
+      entry.setSize(padding.length);
+      entry.setCrc(crc.getValue());
+      zip.putNextEntry(entry);
+      zip.write(padding);
+
+      zip.putNextEntry(new ZipEntry(partFolder + "document.xml"));
+      zip.write("<document/>".getBytes(UTF_8));
+    }
+    return bytes.toByteArray();
+  }
+
+  private static byte[] ole2(final String streamName) {
+
+    final ByteBuffer buffer = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putLong(0, 0xE11AB1A1E011CFD0L);
+    buffer.putShort(30, (short) 9); // 512 bytes sectors
+    buffer.putInt(48, 0); // The directory starts at the first sector
+    putDirectoryEntry(buffer, 512, "Root Entry");
+    putDirectoryEntry(buffer, 512 + 128, streamName);
+    return buffer.array();
+  }
+
+  private static void putDirectoryEntry(
+      final ByteBuffer buffer, final int offset, final String name) {
+
+    final byte[] chars = name.getBytes(StandardCharsets.UTF_16LE);
+    for (int i = 0; i < chars.length; i++) {
+      buffer.put(offset + i, chars[i]);
+    }
+    buffer.putShort(offset + 64, (short) (chars.length + 2));
+  }
+
+  private static File write(final File folder, final String name, final byte[] content)
+      throws IOException {
+
+    final File file = new File(folder, name);
+    Files.write(file.toPath(), content);
+    return file;
+  }
+
+  @Nested
+  class SniffBytes {
+
+    @Test
+    void withOdfPackage_ShouldReturnFormatOfMimetypeEntry() throws IOException {
+
+      final DocumentFormat format =
+          SNIFFER.sniff(ByteBuffer.wrap(odf("application/vnd.oasis.opendocument.spreadsheet")));
+
+      assertThat(format).isNotNull();
+      assertThat(format.getExtension()).isEqualTo("ods");
+      assertThat(format.getLoadProperties()).containsEntry("FilterName", "calc8");
+    }
+
+    @Test
+    void withOoxmlPackage_ShouldReturnFormatOfParts() throws IOException {
+
+      final DocumentFormat format = SNIFFER.sniff(ByteBuffer.wrap(ooxml("xl/", 10_000)));
+
+      assertThat(format).isNotNull();
+      assertThat(format.getExtension()).isEqualTo("xlsx");
+      assertThat(format.getLoadProperties())
+          .containsEntry("FilterName", "Calc MS Excel 2007 XML");
+    }
+
+    @Test
+    void withOle2File_ShouldReturnFormatOfStreams() {
+
+      assertThat(SNIFFER.sniff(ByteBuffer.wrap(ole2("WordDocument"))))
+          .extracting(DocumentFormat::getExtension)
+          .isEqualTo("doc");
+      assertThat(SNIFFER.sniff(ByteBuffer.wrap(ole2("Workbook"))))
+          .extracting(DocumentFormat::getExtension)
+          .isEqualTo("xls");
+      assertThat(SNIFFER.sniff(ByteBuffer.wrap(ole2("PowerPoint Document"))))
+          .extracting(DocumentFormat::getExtension)
+          .isEqualTo("ppt");
+    }
+
+    @Test
+    void withTextDocuments_ShouldReturnFormatOfLeadingBytes() {
+
+      assertThat(sniffText("%PDF-1.7\n%\u00e2\u00e3")).isEqualTo("pdf");
+      assertThat(sniffText("{\\rtf1\\ansi Test}")).isEqualTo("rtf");
+      assertThat(sniffText("\ufeff  <!DOCTYPE html><html></html>")).isEqualTo("html");
+      assertThat(sniffText("a,b,\"c,d\"\n1,2,3\n4,5,6\n7,8")).isEqualTo("csv");
+      assertThat(sniffText("a\tb\n1\t2\n")).isEqualTo("tsv");
+    }
+
+    @Test
+    void withUnknownContent_ShouldReturnNull() {
+
+      assertThat(SNIFFER.sniff(ByteBuffer.wrap("Just some text\n".getBytes(UTF_8)))).isNull();
+      assertThat(SNIFFER.sniff(ByteBuffer.wrap(new byte[] {1, 0, 2, 0}))).isNull();
+      assertThat(SNIFFER.sniff(ByteBuffer.wrap(ole2("Unknown")))).isNull();
+    }
+
+    private String sniffText(final String text) {
+
+      final DocumentFormat format = SNIFFER.sniff(ByteBuffer.wrap(text.getBytes(UTF_8)));
+      return format == null ? null : format.getExtension();
+    }
+  }
+
+  @Nested
+  class SniffHead {
+
+    @Test
+    void withOoxmlPartInHead_ShouldReturnFormatOfParts() throws IOException {
+
+      final byte[] content = ooxml("word/", 100);
+
+      final DocumentFormat format = SNIFFER.sniffHead(content, content.length);
+
+      assertThat(format).isNotNull();
+      assertThat(format.getExtension()).isEqualTo("docx");
+    }
+
+    @Test
+    void withOoxmlPartOutOfHead_ShouldReturnNull() throws IOException {
+
+      final byte[] content = ooxml("word/", 10_000);
+
+      assertThat(SNIFFER.sniffHead(content, DocumentFormatSniffer.HEAD_LENGTH)).isNull();
+    }
+  }
+
+  @Nested
+  class SniffFile {
+
+    @Test
+    void withMisleadingExtension_ShouldReturnFormatOfContent(@TempDir final File testFolder)
+        throws IOException {
+
+      final DocumentFormat format = SNIFFER.sniff(write(testFolder, "test.doc", ooxml("ppt/", 0)));
+
+      assertThat(format).isNotNull();
+      assertThat(format.getExtension()).isEqualTo("pptx");
+    }
+
+    @Test
+    void withCompatibleExtension_ShouldReturnFormatOfExtension(@TempDir final File testFolder)
+        throws IOException {
+
+      final DocumentFormat format =
+          SNIFFER.sniff(write(testFolder, "test.dotx", ooxml("word/", 10_000)));
+
+      assertThat(format).isNotNull();
+      assertThat(format.getExtension()).isEqualTo("dotx");
+      assertThat(format.getLoadProperties())
+          .containsEntry("FilterName", "MS Word 2007 XML Template");
+    }
+
+    @Test
+    void withMissingExtension_ShouldReturnFormatOfContent(@TempDir final File testFolder)
+        throws IOException {
+
+      final DocumentFormat format = SNIFFER.sniff(write(testFolder, "test", ole2("Book")));
+
+      assertThat(format).isNotNull();
+      assertThat(format.getExtension()).isEqualTo("xls");
+    }
+
+    @Test
+    void withTextContentAndKnownExtension_ShouldReturnFormatOfExtension(
+        @TempDir final File testFolder) throws IOException {
+
+      final DocumentFormat format =
+          SNIFFER.sniff(write(testFolder, "test.txt", "a,b\n1,2\n".getBytes(UTF_8)));
+
+      assertThat(format).isEqualTo(DefaultDocumentFormatRegistry.TXT);
+    }
+  }
+}
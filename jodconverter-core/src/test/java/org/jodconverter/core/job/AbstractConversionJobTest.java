@@ -22,10 +22,17 @@ package org.jodconverter.core.job;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -112,9 +119,86 @@ class AbstractConversionJobTest {
     }
   }
 
+  @Nested
+  class And {
+
+    @Test
+    void whenJobNotCreatedByConverter_ShouldThrowIllegalStateException(
+        @TempDir final File testFolder) throws IOException {
+
+      final File sourceFile = new File(testFolder, "source.txt");
+      assertThat(sourceFile.createNewFile()).isTrue();
+
+      final ConversionJobWithOptionalTargetFormatUnspecified job =
+          new SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified(
+                  new SourceDocumentSpecsFromFile(sourceFile),
+                  SimpleOfficeManager.make(),
+                  DefaultDocumentFormatRegistry.getInstance())
+              .to(new File(testFolder, "target.pdf"));
+      assertThatExceptionOfType(IllegalStateException.class)
+          .isThrownBy(() -> job.and(new File(testFolder, "target.docx")));
+    }
+
+    @Test
+    void whenAdditionalTargetsSupported_ShouldAddTargets(@TempDir final File testFolder)
+        throws IOException {
+
+      final File sourceFile = new File(testFolder, "source.txt");
+      assertThat(sourceFile.createNewFile()).isTrue();
+
+      final AbstractConversionJob job =
+          new SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified(
+                  new SourceDocumentSpecsFromFile(sourceFile),
+                  SimpleOfficeManager.make(),
+                  DefaultDocumentFormatRegistry.getInstance()) {
+                @Override
+                protected AbstractConversionJob to(final AbstractTargetDocumentSpecs target) {
+                  return new SimpleConverter.SimpleConversionJob(officeManager, source, target) {
+                    @Override
+                    protected boolean supportsAdditionalTargets() {
+                      return true;
+                    }
+                  };
+                }
+              }
+              .to(new File(testFolder, "target.pdf"))
+              .and(new File(testFolder, "target.docx"))
+              .and(new ByteArrayOutputStream())
+              .as(DefaultDocumentFormatRegistry.PNG);
+
+      assertThat(job.getTargets())
+          .extracting(DocumentSpecs::getFormat)
+          .containsExactly(
+              DefaultDocumentFormatRegistry.PDF,
+              DefaultDocumentFormatRegistry.DOCX,
+              DefaultDocumentFormatRegistry.PNG);
+    }
+  }
+
   @Nested
   class Execute {
 
+    @Test
+    void whenAdditionalTargetsNotSupported_ShouldConvertSourceOncePerTarget(
+        @TempDir final File testFolder) throws OfficeException {
+
+      final OfficeManager manager = SimpleOfficeManager.make();
+      try {
+        manager.start();
+        final RecordingConverter converter = new RecordingConverter(manager);
+        converter
+            .convert(new ByteArrayInputStream("Test".getBytes(StandardCharsets.UTF_8)))
+            .as(DefaultDocumentFormatRegistry.TXT)
+            .to(new File(testFolder, "target.pdf"))
+            .and(new File(testFolder, "target.docx"))
+            .execute();
+
+        assertThat(converter.conversions).containsExactly("Test -> pdf", "Test -> docx");
+      } finally {
+        OfficeUtils.stopQuietly(manager);
+      }
+    }
+
     @Test
     void withUnknownTargetFormat_ShouldThrowNullPointerException(@TempDir final File testFolder)
         throws IOException {
@@ -154,4 +238,46 @@ class AbstractConversionJobTest {
       }
     }
   }
+
+  /** A converter recording the content of the source and the target format of each conversion. */
+  private static final class RecordingConverter extends AbstractConverter {
+
+    private final List<String> conversions = new ArrayList<>();
+
+    private RecordingConverter(final OfficeManager officeManager) {
+      super(officeManager, DefaultDocumentFormatRegistry.getInstance());
+    }
+
+    @Override
+    protected AbstractConversionJobWithSourceFormatUnspecified convert(
+        final AbstractSourceDocumentSpecs source) {
+
+      return new AbstractConversionJobWithSourceFormatUnspecified(
+          source, officeManager, formatRegistry) {
+
+        @Override
+        protected AbstractConversionJob to(final AbstractTargetDocumentSpecs target) {
+
+          return new AbstractConversionJob(source, target) {
+
+            @Override
+            protected void doExecute() {
+
+              final File sourceFile = source.getFile();
+              try {
+                conversions.add(
+                    new String(Files.readAllBytes(sourceFile.toPath()), StandardCharsets.UTF_8)
+                        + " -> "
+                        + target.getFormat().getExtension());
+              } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+              } finally {
+                source.onConsumed(sourceFile);
+              }
+            }
+          };
+        }
+      };
+    }
+  }
 }
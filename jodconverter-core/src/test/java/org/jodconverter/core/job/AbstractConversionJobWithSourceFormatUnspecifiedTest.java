@@ -251,4 +251,33 @@ class AbstractConversionJobWithSourceFormatUnspecifiedTest {
       }
     }
   }
+
+  @Nested
+  class ToInMemoryTarget {
+
+    @Test
+    void shouldCreateJobWritingToTargetWithoutClosingIt(@TempDir final File testFolder)
+        throws IOException {
+
+      final File sourceFile = new File(testFolder, "source.txt");
+      assertThat(sourceFile.createNewFile()).isTrue();
+
+      final InMemoryTarget target = new InMemoryTarget();
+      final AbstractConversionJob job =
+          new SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified(
+                  new SourceDocumentSpecsFromFile(sourceFile),
+                  SimpleOfficeManager.make(),
+                  DefaultDocumentFormatRegistry.getInstance())
+              .to(target);
+      assertThat(job.target).hasFieldOrPropertyWithValue("closeStream", false);
+
+      final OutputStream outputStream = job.target.getOutputStream();
+      assertThat(outputStream).isNotNull();
+      outputStream.write(new byte[] {1, 2, 3});
+      assertThat(target.size()).isEqualTo(3);
+      assertThat(target.toByteArray()).containsExactly(1, 2, 3);
+      assertThat(target.toByteBuffer().isReadOnly()).isTrue();
+      assertThat(target.toByteBuffer().remaining()).isEqualTo(3);
+    }
+  }
 }
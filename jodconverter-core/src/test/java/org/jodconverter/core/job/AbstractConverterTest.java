@@ -21,13 +21,20 @@
 package org.jodconverter.core.job;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -35,8 +42,10 @@ import org.junit.jupiter.api.io.TempDir;
 
 import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
 import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.office.OfficeTaskResult;
 import org.jodconverter.core.office.SimpleOfficeManager;
 import org.jodconverter.core.task.OfficeTask;
+import org.jodconverter.core.task.SimpleOfficeTask;
 
 /** Contains tests for the {@link AbstractConverter} class. */
 class AbstractConverterTest {
@@ -177,6 +186,327 @@ class AbstractConverterTest {
     }
   }
 
+  @Nested
+  class ConvertStreamWithInMemoryThreshold {
+
+    @Test
+    void whenStreamFitsThreshold_ShouldCreateJobWithBytesSource() throws IOException {
+
+      final SimpleConverter converter =
+          SimpleConverter.builder()
+              .officeManager(SimpleOfficeManager.make())
+              .formatRegistry(DefaultDocumentFormatRegistry.getInstance())
+              .inMemoryThreshold(4)
+              .build();
+      final SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified job =
+          (SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified)
+              converter.convert(new ByteArrayInputStream(new byte[] {1, 2, 3, 4}));
+
+      assertThat(job.source).isInstanceOf(SourceDocumentSpecsFromBytes.class);
+      assertThat(((SourceDocumentSpecsFromBytes) job.source).getSize()).isEqualTo(4);
+    }
+
+    @Test
+    void whenStreamExceedsThreshold_ShouldCreateJobWithStreamSourceStartingWithReadBytes()
+        throws IOException {
+
+      final SimpleConverter converter =
+          SimpleConverter.builder()
+              .officeManager(SimpleOfficeManager.make())
+              .formatRegistry(DefaultDocumentFormatRegistry.getInstance())
+              .inMemoryThreshold(4)
+              .build();
+      final SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified job =
+          (SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified)
+              converter.convert(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6}));
+
+      assertThat(job.source).isInstanceOf(SourceDocumentSpecsFromInputStream.class);
+      try (InputStream inputStream = job.source.getInputStream()) {
+        assertThat(inputStream).hasBinaryContent(new byte[] {1, 2, 3, 4, 5, 6});
+      }
+    }
+
+    @Test
+    void whenNegativeThreshold_ShouldThrowIllegalArgumentException() {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(() -> SimpleConverter.builder().inMemoryThreshold(-1));
+    }
+  }
+
+  @Nested
+  class ConvertBytes {
+
+    @Test
+    void withByteArray_ShouldCreateJobWithBytesSource() {
+
+      final SimpleConverter converter = SimpleConverter.make();
+      final SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified job =
+          (SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified)
+              converter.convert(new byte[] {1, 2, 3});
+
+      assertThat(job.source).isInstanceOf(SourceDocumentSpecsFromBytes.class);
+      assertThat(((SourceDocumentSpecsFromBytes) job.source).getSize()).isEqualTo(3);
+    }
+
+    @Test
+    void withByteBuffer_ShouldCreateJobWithRemainingBytes() {
+
+      final ByteBuffer buffer = ByteBuffer.wrap(new byte[] {1, 2, 3});
+      buffer.get();
+
+      final SimpleConverter converter = SimpleConverter.make();
+      final SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified job =
+          (SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified)
+              converter.convert(buffer);
+
+      assertThat(((SourceDocumentSpecsFromBytes) job.source).getSize()).isEqualTo(2);
+    }
+  }
+
+  @Nested
+  class ConvertWithSniffSourceFormat {
+
+    private final byte[] pdf = "%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII);
+
+    private SimpleConverter converter() {
+
+      return SimpleConverter.builder()
+          .officeManager(SimpleOfficeManager.make())
+          .formatRegistry(DefaultDocumentFormatRegistry.getInstance())
+          .sniffSourceFormat(true)
+          .build();
+    }
+
+    @Test
+    void withStream_ShouldCreateJobWithSniffedFormatAndWholeContent() throws IOException {
+
+      final SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified job =
+          (SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified)
+              converter().convert(new ByteArrayInputStream(pdf));
+
+      assertThat(job.source.getFormat()).isNotNull();
+      assertThat(job.source.getFormat().getExtension()).isEqualTo("pdf");
+      try (InputStream inputStream = job.source.getInputStream()) {
+        assertThat(inputStream).hasBinaryContent(pdf);
+      }
+    }
+
+    @Test
+    void withMisleadingExtension_ShouldCreateJobWithSniffedFormat(@TempDir final File testFolder)
+        throws IOException {
+
+      final File sourceFile = new File(testFolder, "source.txt");
+      Files.write(sourceFile.toPath(), pdf);
+
+      final SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified job =
+          (SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified)
+              converter().convert(sourceFile);
+
+      assertThat(job.source.getFormat()).isNotNull();
+      assertThat(job.source.getFormat().getExtension()).isEqualTo("pdf");
+    }
+
+    @Test
+    void withUnknownContent_ShouldCreateJobWithExtensionFormat(@TempDir final File testFolder)
+        throws IOException {
+
+      final File sourceFile = new File(testFolder, "source.txt");
+      Files.write(sourceFile.toPath(), "Test".getBytes(StandardCharsets.US_ASCII));
+
+      final SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified job =
+          (SimpleConverter.SimpleConversionJobWithSourceFormatUnspecified)
+              converter().convert(sourceFile);
+
+      assertThat(job.source.getFormat()).isEqualTo(DefaultDocumentFormatRegistry.TXT);
+    }
+  }
+
+  @Nested
+  class ExecuteBatch {
+
+    @Test
+    void withJobs_ShouldExecuteTaskOfEachJob(@TempDir final File testFolder) throws Exception {
+
+      final File sourceFile = new File(testFolder, "source.txt");
+      assertThat(sourceFile.createNewFile()).isTrue();
+
+      final SimpleOfficeManager manager = SimpleOfficeManager.make();
+      manager.start();
+      try {
+        final SimpleConverter converter =
+            SimpleConverter.builder()
+                .officeManager(manager)
+                .formatRegistry(DefaultDocumentFormatRegistry.getInstance())
+                .build();
+
+        final List<OfficeTaskResult> results =
+            converter.executeBatch(
+                Arrays.asList(
+                    converter.convert(sourceFile).to(new File(testFolder, "target1.pdf")),
+                    converter.convert(sourceFile).to(new File(testFolder, "target2.pdf"))));
+
+        assertThat(results)
+            .hasSize(2)
+            .allMatch(OfficeTaskResult::isSuccessful)
+            .extracting(OfficeTaskResult::getTask)
+            .allMatch(task -> ((SimpleOfficeTask) task).isCompleted());
+      } finally {
+        manager.stop();
+      }
+    }
+
+    @Test
+    void withStreamSource_ShouldStageSourceBeforeExecutingTask(@TempDir final File testFolder)
+        throws Exception {
+
+      final SimpleOfficeManager manager = SimpleOfficeManager.make();
+      manager.start();
+      try {
+        final SimpleConverter converter =
+            SimpleConverter.builder()
+                .officeManager(manager)
+                .formatRegistry(DefaultDocumentFormatRegistry.getInstance())
+                .build();
+        final InputStream source =
+            new ByteArrayInputStream("Hello".getBytes(StandardCharsets.UTF_8));
+
+        final List<OfficeTaskResult> results =
+            converter.executeBatch(
+                Collections.singletonList(
+                    converter
+                        .convert(source, false)
+                        .as(DefaultDocumentFormatRegistry.TXT)
+                        .to(new File(testFolder, "target.pdf"))));
+
+        assertThat(results).hasSize(1).allMatch(OfficeTaskResult::isSuccessful);
+        // The stream was entirely read to stage the source.
+        assertThat(source.available()).isZero();
+      } finally {
+        manager.stop();
+      }
+    }
+
+    @Test
+    void withJobNotCreatingTask_ShouldExecuteJobAlone(@TempDir final File testFolder)
+        throws Exception {
+
+      final File sourceFile = new File(testFolder, "source.txt");
+      assertThat(sourceFile.createNewFile()).isTrue();
+
+      final SimpleOfficeManager manager = SimpleOfficeManager.make();
+      manager.start();
+      try {
+        final SimpleConverter simpleConverter =
+            SimpleConverter.builder()
+                .officeManager(manager)
+                .formatRegistry(DefaultDocumentFormatRegistry.getInstance())
+                .build();
+        final ValidatingConverter converter =
+            ValidatingConverter.builder()
+                .converter(simpleConverter)
+                .validator((content, format) -> {})
+                .build();
+
+        final List<OfficeTaskResult> results =
+            converter.executeBatch(
+                Arrays.asList(
+                    converter.convert(sourceFile).to(new File(testFolder, "target1.pdf")),
+                    converter.convert(sourceFile).to(new File(testFolder, "target2.pdf"))));
+
+        assertThat(results)
+            .hasSize(2)
+            .allMatch(OfficeTaskResult::isSuccessful)
+            .extracting(OfficeTaskResult::getTask)
+            .containsOnlyNulls();
+        assertThat(converter.getValidatedCount()).isEqualTo(2L);
+      } finally {
+        manager.stop();
+      }
+    }
+
+    @Test
+    void whenJobAloneThrowsRuntimeException_ShouldReportFailureAndExecuteOtherJobs(
+        @TempDir final File testFolder) throws Exception {
+
+      final File sourceFile = new File(testFolder, "source.txt");
+      assertThat(sourceFile.createNewFile()).isTrue();
+
+      final SimpleOfficeManager manager = SimpleOfficeManager.make();
+      manager.start();
+      try {
+        final SimpleConverter converter =
+            SimpleConverter.builder()
+                .officeManager(manager)
+                .formatRegistry(DefaultDocumentFormatRegistry.getInstance())
+                .build();
+        final ConversionJob failingJob =
+            new AbstractConversionJob(
+                new SourceDocumentSpecsFromFile(sourceFile),
+                pdfTarget(new File(testFolder, "failing.pdf"))) {
+              @Override
+              protected void doExecute() {
+                throw new IllegalStateException("Unexpected failure");
+              }
+            };
+
+        final List<OfficeTaskResult> results =
+            converter.executeBatch(
+                Arrays.asList(
+                    failingJob,
+                    converter.convert(sourceFile).to(new File(testFolder, "target.pdf"))));
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).getException())
+            .hasCauseExactlyInstanceOf(IllegalStateException.class);
+        assertThat(results.get(1).isSuccessful()).isTrue();
+      } finally {
+        manager.stop();
+      }
+    }
+
+    @Test
+    void whenStagingFails_ShouldDiscardStagedSources(@TempDir final File testFolder)
+        throws Exception {
+
+      final File sourceFile = new File(testFolder, "source.txt");
+      assertThat(sourceFile.createNewFile()).isTrue();
+
+      final SimpleOfficeManager manager = SimpleOfficeManager.make();
+      manager.start();
+      try {
+        final SimpleConverter converter =
+            SimpleConverter.builder()
+                .officeManager(manager)
+                .formatRegistry(DefaultDocumentFormatRegistry.getInstance())
+                .build();
+        final StagingSourceSpecs staged = new StagingSourceSpecs(sourceFile, false);
+        final StagingSourceSpecs failing = new StagingSourceSpecs(sourceFile, true);
+        final List<ConversionJob> jobs =
+            Arrays.asList(
+                new SimpleConverter.SimpleConversionJob(
+                    manager, staged, pdfTarget(new File(testFolder, "target1.pdf"))),
+                new SimpleConverter.SimpleConversionJob(
+                    manager, failing, pdfTarget(new File(testFolder, "target2.pdf"))));
+
+        assertThatIllegalStateException().isThrownBy(() -> converter.executeBatch(jobs));
+        assertThat(staged.discarded).isTrue();
+        assertThat(failing.discarded).isTrue();
+      } finally {
+        manager.stop();
+      }
+    }
+
+    @Test
+    void withUnsupportedJob_ShouldThrowIllegalArgumentException() {
+
+      final SimpleConverter converter = SimpleConverter.make();
+      final List<ConversionJob> jobs = Collections.singletonList(() -> {});
+
+      assertThatIllegalArgumentException().isThrownBy(() -> converter.executeBatch(jobs));
+    }
+  }
+
   @Nested
   class GetFormatRegistry {
 
@@ -186,4 +516,36 @@ class AbstractConverterTest {
           .isEqualTo(DefaultDocumentFormatRegistry.getInstance());
     }
   }
+
+  private static TargetDocumentSpecsFromFile pdfTarget(final File file) {
+
+    final TargetDocumentSpecsFromFile target = new TargetDocumentSpecsFromFile(file);
+    target.setDocumentFormat(DefaultDocumentFormatRegistry.PDF);
+    return target;
+  }
+
+  /** A source whose staging can fail, remembering whether it was discarded. */
+  private static final class StagingSourceSpecs extends AbstractSourceDocumentSpecs {
+
+    private final boolean failStaging;
+    private boolean discarded;
+
+    private StagingSourceSpecs(final File file, final boolean failStaging) {
+      super(file);
+
+      this.failStaging = failStaging;
+    }
+
+    @Override
+    public void stage() {
+      if (failStaging) {
+        throw new IllegalStateException("Could not stage the source");
+      }
+    }
+
+    @Override
+    public void discardStaged() {
+      discarded = true;
+    }
+  }
 }
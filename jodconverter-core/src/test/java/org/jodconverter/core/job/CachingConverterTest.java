@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.jodconverter.core.job.FakeConverter.write;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.office.SimpleOfficeManager;
+import org.jodconverter.core.office.SpilloverOfficeManager;
+
+/** Contains tests for the {@link CachingConverter} class. */
+class CachingConverterTest {
+
+  @Nested
+  class Build {
+
+    @Test
+    void withoutConverter_ShouldThrowNullPointerException(@TempDir final File testFolder) {
+
+      assertThatNullPointerException()
+          .isThrownBy(() -> CachingConverter.builder().cacheDirectory(testFolder).build());
+    }
+
+    @Test
+    void withoutCacheDirectory_ShouldThrowNullPointerException() {
+
+      assertThatNullPointerException()
+          .isThrownBy(() -> CachingConverter.builder().converter(FakeConverter.make()).build());
+    }
+  }
+
+  @Nested
+  class Convert {
+
+    @Test
+    void whenSameSourceConvertedTwice_ShouldConvertOnlyOnce(@TempDir final File testFolder)
+        throws Exception {
+
+      final FakeConverter fakeConverter = FakeConverter.make();
+      final CachingConverter converter =
+          CachingConverter.builder()
+              .converter(fakeConverter)
+              .cacheDirectory(new File(testFolder, "cache"))
+              .build();
+      final File source = write(testFolder, "source.txt", "Test");
+      final File target1 = new File(testFolder, "target1.txt");
+      final File target2 = new File(testFolder, "target2.txt");
+
+      converter.convert(source).to(target1).execute();
+      converter.convert(source).to(target2).execute();
+
+      assertThat(fakeConverter.getConversionCount()).isEqualTo(1);
+      assertThat(target1).hasContent("converted Test");
+      assertThat(target2).hasContent("converted Test");
+      assertThat(converter.getHitCount()).isEqualTo(1L);
+      assertThat(converter.getMissCount()).isEqualTo(1L);
+      assertThat(converter.getHitRatio()).isEqualTo(0.5d);
+      assertThat(converter.getBytesSaved()).isEqualTo("converted Test".length());
+    }
+
+    @Test
+    void whenConfigurationCannotBeDescribed_ShouldConvertEachTime(@TempDir final File testFolder)
+        throws Exception {
+
+      final FakeConverter fakeConverter = FakeConverter.builder().fingerprint(null).build();
+      final CachingConverter converter =
+          CachingConverter.builder()
+              .converter(fakeConverter)
+              .cacheDirectory(new File(testFolder, "cache"))
+              .build();
+      final File source = write(testFolder, "source.txt", "Test");
+      final File target = new File(testFolder, "target.txt");
+
+      converter.convert(source).to(target).execute();
+      converter.convert(source).to(target).execute();
+
+      assertThat(fakeConverter.getConversionCount()).isEqualTo(2);
+      assertThat(target).hasContent("converted Test");
+      assertThat(converter.getHitCount()).isZero();
+    }
+
+    @Test
+    void whenSourceContentDiffers_ShouldConvertEachSource(@TempDir final File testFolder)
+        throws Exception {
+
+      final FakeConverter fakeConverter = FakeConverter.make();
+      final CachingConverter converter =
+          CachingConverter.builder()
+              .converter(fakeConverter)
+              .cacheDirectory(new File(testFolder, "cache"))
+              .build();
+      final File target = new File(testFolder, "target.txt");
+
+      converter.convert(write(testFolder, "source1.txt", "Test1")).to(target).execute();
+      converter.convert(write(testFolder, "source2.txt", "Test2")).to(target).execute();
+
+      assertThat(fakeConverter.getConversionCount()).isEqualTo(2);
+      assertThat(target).hasContent("converted Test2");
+    }
+
+    @Test
+    void withSpilloverOfConvertersNotDescribed_ShouldConvertEachTime(
+        @TempDir final File testFolder) throws Exception {
+
+      final SimpleOfficeManager primaryManager = SimpleOfficeManager.make();
+      final SimpleOfficeManager secondaryManager = SimpleOfficeManager.make();
+      final SpilloverOfficeManager manager =
+          SpilloverOfficeManager.builder()
+              .primaryManager(primaryManager)
+              .secondaryManager(secondaryManager)
+              .build();
+
+      // Like converters applying a custom filter chain, the wrapped
+      // converters cannot describe their configuration.
+      final FakeConverter primaryConverter =
+          FakeConverter.builder().officeManager(primaryManager).fingerprint(null).build();
+      final FakeConverter secondaryConverter =
+          FakeConverter.builder().officeManager(secondaryManager).fingerprint(null).build();
+      final CachingConverter converter =
+          CachingConverter.builder()
+              .converter(
+                  SpilloverConverter.builder()
+                      .officeManager(manager)
+                      .primaryConverter(primaryConverter)
+                      .secondaryConverter(secondaryConverter)
+                      .build())
+              .cacheDirectory(new File(testFolder, "cache"))
+              .build();
+      final File source = write(testFolder, "source.txt", "Test");
+      final File target = new File(testFolder, "target.txt");
+
+      manager.start();
+      try {
+        converter.convert(source).to(target).execute();
+        converter.convert(source).to(target).execute();
+      } finally {
+        manager.stop();
+      }
+
+      assertThat(primaryConverter.getConversionCount() + secondaryConverter.getConversionCount())
+          .isEqualTo(2);
+      assertThat(target).hasContent("converted Test");
+      assertThat(converter.getHitCount()).isZero();
+    }
+
+    @Test
+    void whenTargetFormatDiffers_ShouldConvertEachTarget(@TempDir final File testFolder)
+        throws Exception {
+
+      final FakeConverter fakeConverter = FakeConverter.make();
+      final CachingConverter converter =
+          CachingConverter.builder()
+              .converter(fakeConverter)
+              .cacheDirectory(new File(testFolder, "cache"))
+              .build();
+      final File source = write(testFolder, "source.txt", "Test");
+
+      converter.convert(source).to(new File(testFolder, "target.txt")).execute();
+      converter.convert(source).to(new File(testFolder, "target.csv")).execute();
+
+      assertThat(fakeConverter.getConversionCount()).isEqualTo(2);
+    }
+  }
+
+  @Nested
+  class GetConfigurationFingerprint {
+
+    private SpilloverConverter spillover(
+        final String primaryFingerprint, final String secondaryFingerprint) {
+
+      final SimpleOfficeManager primaryManager = SimpleOfficeManager.make();
+      final SimpleOfficeManager secondaryManager = SimpleOfficeManager.make();
+      return SpilloverConverter.builder()
+          .officeManager(
+              SpilloverOfficeManager.builder()
+                  .primaryManager(primaryManager)
+                  .secondaryManager(secondaryManager)
+                  .build())
+          .primaryConverter(
+              FakeConverter.builder()
+                  .officeManager(primaryManager)
+                  .fingerprint(primaryFingerprint)
+                  .build())
+          .secondaryConverter(
+              FakeConverter.builder()
+                  .officeManager(secondaryManager)
+                  .fingerprint(secondaryFingerprint)
+                  .build())
+          .build();
+    }
+
+    @Test
+    void withSpilloverOfConverterNotDescribed_ShouldReturnNull() {
+
+      assertThat(spillover("primary", null).getConfigurationFingerprint()).isNull();
+      assertThat(spillover(null, "secondary").getConfigurationFingerprint()).isNull();
+    }
+
+    @Test
+    void withSpilloverOfDifferentConverters_ShouldReturnDifferentFingerprints() {
+
+      assertThat(spillover("primary", "secondary1").getConfigurationFingerprint())
+          .isNotNull()
+          .isNotEqualTo(spillover("primary", "secondary2").getConfigurationFingerprint());
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Contains tests for the {@link ConversionResultCache} class. */
+class ConversionResultCacheTest {
+
+  private static final String KEY1 = repeat('1');
+  private static final String KEY2 = repeat('2');
+  private static final String KEY3 = repeat('3');
+
+  private static String repeat(final char c) {
+
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 64; i++) {
+      builder.append(c);
+    }
+    return builder.toString();
+  }
+
+  private static void put(final ConversionResultCache cache, final String key, final int size)
+      throws IOException {
+
+    final File tempFile = cache.createTemporaryFile();
+    Files.write(tempFile.toPath(), new byte[size]);
+    cache.commit(key, tempFile);
+  }
+
+  private static byte[] read(final ConversionResultCache.Hit hit) throws IOException {
+
+    try (ConversionResultCache.Hit ignored = hit;
+        ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+      hit.writeTo(out);
+      return out.toByteArray();
+    }
+  }
+
+  @Nested
+  class Get {
+
+    @Test
+    void whenPut_ShouldReturnResultAndCountHit(@TempDir final File testFolder)
+        throws IOException {
+
+      final ConversionResultCache cache =
+          new ConversionResultCache(new File(testFolder, "cache"), 1000L, 0L);
+      assertThat(cache.get(KEY1)).isNull();
+
+      put(cache, KEY1, 10);
+      final ConversionResultCache.Hit hit = cache.get(KEY1);
+
+      assertThat(hit).isNotNull();
+      assertThat(read(hit)).hasSize(10);
+      assertThat(cache.getHitCount()).isEqualTo(1L);
+      assertThat(cache.getMissCount()).isEqualTo(1L);
+      assertThat(cache.getBytesSaved()).isEqualTo(10L);
+      assertThat(cache.getDiskSize()).isEqualTo(10L);
+    }
+
+    @Test
+    void withMemoryTier_ShouldKeepSmallResultsInMemory(@TempDir final File testFolder)
+        throws IOException {
+
+      final ConversionResultCache cache =
+          new ConversionResultCache(new File(testFolder, "cache"), 1000L, 800L);
+      put(cache, KEY1, 100);
+      put(cache, KEY2, 101);
+
+      assertThat(cache.getMemorySize()).isEqualTo(100L);
+      assertThat(cache.getDiskSize()).isEqualTo(201L);
+    }
+  }
+
+  @Nested
+  class Evict {
+
+    @Test
+    void whenFull_ShouldEvictLeastRecentlyUsedResult(@TempDir final File testFolder)
+        throws IOException {
+
+      final ConversionResultCache cache =
+          new ConversionResultCache(new File(testFolder, "cache"), 25L, 0L);
+      put(cache, KEY1, 10);
+      put(cache, KEY2, 10);
+      read(cache.get(KEY1));
+      put(cache, KEY3, 10);
+
+      assertThat(cache.get(KEY2)).isNull();
+      assertThat(read(cache.get(KEY1))).hasSize(10);
+      assertThat(read(cache.get(KEY3))).hasSize(10);
+      assertThat(cache.getEvictionCount()).isEqualTo(1L);
+      assertThat(cache.getDiskSize()).isEqualTo(20L);
+    }
+
+    @Test
+    void whenResultTooLarge_ShouldNotCacheIt(@TempDir final File testFolder) throws IOException {
+
+      final ConversionResultCache cache =
+          new ConversionResultCache(new File(testFolder, "cache"), 5L, 0L);
+      put(cache, KEY1, 10);
+
+      assertThat(cache.get(KEY1)).isNull();
+      assertThat(cache.getDiskSize()).isZero();
+    }
+  }
+
+  @Nested
+  class Reload {
+
+    @Test
+    void whenCreatedOnExistingDirectory_ShouldReuseEntries(@TempDir final File testFolder)
+        throws IOException {
+
+      final File directory = new File(testFolder, "cache");
+      put(new ConversionResultCache(directory, 1000L, 0L), KEY1, 10);
+      assertThat(new File(directory, "leftover.tmp").createNewFile()).isTrue();
+
+      final ConversionResultCache cache = new ConversionResultCache(directory, 1000L, 0L);
+
+      assertThat(cache.getDiskSize()).isEqualTo(10L);
+      assertThat(read(cache.get(KEY1))).hasSize(10);
+      assertThat(new File(directory, "leftover.tmp")).doesNotExist();
+    }
+  }
+}
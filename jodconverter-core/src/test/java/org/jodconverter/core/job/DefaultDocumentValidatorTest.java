@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/** Contains tests for the {@link DefaultDocumentValidator} class. */
+class DefaultDocumentValidatorTest {
+
+  private static final DefaultDocumentValidator VALIDATOR = new DefaultDocumentValidator();
+
+  private static void validate(final byte[] content) throws IOException, InvalidDocumentException {
+    VALIDATOR.validate(new ByteBufferChannel(ByteBuffer.wrap(content)), null);
+  }
+
+  private static byte[] zip(final String... entries) throws IOException {
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+      for (int i = 0; i < entries.length; i += 2) {
+        zip.putNextEntry(new ZipEntry(entries[i]));
+        zip.write(entries[i + 1].getBytes(UTF_8));
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static byte[] ole2(final String streamName, final int length) {
+
+    final ByteBuffer buffer = ByteBuffer.allocate(1536).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putLong(0, 0xE11AB1A1E011CFD0L);
+    buffer.putShort(30, (short) 9); // 512 bytes sectors
+    buffer.putInt(48, 1); // The directory is in the second sector
+    for (int i = 0; i < 109; i++) {
+      buffer.putInt(76 + i * 4, 0xFFFFFFFF);
+    }
+    buffer.putInt(76, 0); // The allocation table is in the first sector
+    final byte[] name = streamName.getBytes(StandardCharsets.UTF_16LE);
+    for (int i = 0; i < name.length; i++) {
+      buffer.put(1024 + i, name[i]);
+    }
+    buffer.putShort(1024 + 64, (short) (name.length + 2));
+    return Arrays.copyOf(buffer.array(), length);
+  }
+
+  @Nested
+  class Validate {
+
+    @Test
+    void withEmptyDocument_ShouldThrowInvalidDocumentException() {
+
+      assertThatExceptionOfType(InvalidDocumentException.class)
+          .isThrownBy(() -> validate(new byte[0]))
+          .withMessageContaining("empty");
+    }
+
+    @Test
+    void withUnknownDocument_ShouldAcceptDocument() {
+
+      assertThatCode(() -> validate("Test".getBytes(UTF_8))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void withValidZip_ShouldAcceptDocument() {
+
+      assertThatCode(
+              () ->
+                  validate(
+                      zip("[Content_Types].xml", "<Types/>", "word/document.xml", "<document/>")))
+          .doesNotThrowAnyException();
+    }
+
+    @Test
+    void withTruncatedZip_ShouldThrowInvalidDocumentException() throws IOException {
+
+      final byte[] content = zip("[Content_Types].xml", "<Types/>", "word/document.xml", "<d/>");
+
+      assertThatExceptionOfType(InvalidDocumentException.class)
+          .isThrownBy(() -> validate(Arrays.copyOf(content, content.length - 30)))
+          .withMessageContaining("truncated");
+    }
+
+    @Test
+    void withZipEntriesOverwritten_ShouldThrowInvalidDocumentException() throws IOException {
+
+      final byte[] content = zip("[Content_Types].xml", "<Types/>", "word/document.xml", "<d/>");
+      // Overwrite the signature of the second entry, located after the first one.
+      for (int i = 4; i < content.length - 4; i++) {
+        if (content[i] == 'P' && content[i + 1] == 'K' && content[i + 2] == 3) {
+          content[i] = 0;
+          break;
+        }
+      }
+
+      assertThatExceptionOfType(InvalidDocumentException.class)
+          .isThrownBy(() -> validate(content))
+          .withMessageContaining("corrupted");
+    }
+
+    @Test
+    void withEncryptedOdfManifest_ShouldThrowEncryptedDocumentException() {
+
+      assertThatExceptionOfType(EncryptedDocumentException.class)
+          .isThrownBy(
+              () ->
+                  validate(
+                      zip(
+                          "mimetype",
+                          "application/vnd.oasis.opendocument.text",
+                          "META-INF/manifest.xml",
+                          "<manifest:manifest><manifest:file-entry><manifest:encryption-data/>"
+                              + "</manifest:file-entry></manifest:manifest>")));
+    }
+
+    @Test
+    void withEncryptedOoxml_ShouldThrowEncryptedDocumentException() {
+
+      assertThatExceptionOfType(EncryptedDocumentException.class)
+          .isThrownBy(() -> validate(ole2("EncryptedPackage", 1536)));
+    }
+
+    @Test
+    void withValidCompoundFile_ShouldAcceptDocument() {
+
+      assertThatCode(() -> validate(ole2("WordDocument", 1536))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void withTruncatedCompoundFile_ShouldThrowInvalidDocumentException() {
+
+      assertThatExceptionOfType(InvalidDocumentException.class)
+          .isThrownBy(() -> validate(ole2("WordDocument", 1024)))
+          .withMessageContaining("truncated");
+    }
+
+    @Test
+    void withTruncatedPdf_ShouldThrowInvalidDocumentException() {
+
+      assertThatCode(() -> validate("%PDF-1.7\n1 0 obj\n%%EOF\n".getBytes(UTF_8)))
+          .doesNotThrowAnyException();
+      assertThatExceptionOfType(InvalidDocumentException.class)
+          .isThrownBy(() -> validate("%PDF-1.7\n1 0 obj\n".getBytes(UTF_8)))
+          .withMessageContaining("truncated");
+    }
+  }
+}
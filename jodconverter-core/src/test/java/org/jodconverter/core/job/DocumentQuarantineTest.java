@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Contains tests for the {@link DocumentQuarantine} class. */
+class DocumentQuarantineTest {
+
+  private static final long ONE_HOUR = 3_600_000L;
+
+  @Nested
+  class Strike {
+
+    @Test
+    void whenMaxStrikesReached_ShouldQuarantineDocument() throws Exception {
+
+      final DocumentQuarantine quarantine = new DocumentQuarantine(2, 10, ONE_HOUR, null);
+
+      assertThat(quarantine.strike("a")).isEqualTo(1);
+      assertThat(quarantine.isQuarantined("a")).isFalse();
+      assertThat(quarantine.strike("a")).isEqualTo(2);
+      assertThat(quarantine.isQuarantined("a")).isTrue();
+      assertThat(quarantine.isQuarantined("b")).isFalse();
+    }
+
+    @Test
+    void whenFull_ShouldForgetLeastRecentlyUsedDocument() throws Exception {
+
+      final DocumentQuarantine quarantine = new DocumentQuarantine(1, 2, ONE_HOUR, null);
+      quarantine.strike("a");
+      quarantine.strike("b");
+      quarantine.isQuarantined("a");
+      quarantine.strike("c");
+
+      assertThat(quarantine.size()).isEqualTo(2);
+      assertThat(quarantine.isQuarantined("a")).isTrue();
+      assertThat(quarantine.isQuarantined("b")).isFalse();
+      assertThat(quarantine.isQuarantined("c")).isTrue();
+    }
+
+    @Test
+    void whenStrikesExpired_ShouldReleaseDocument() throws Exception {
+
+      final DocumentQuarantine quarantine = new DocumentQuarantine(1, 10, 50L, null);
+      quarantine.strike("a");
+      assertThat(quarantine.isQuarantined("a")).isTrue();
+
+      Thread.sleep(100L);
+
+      assertThat(quarantine.isQuarantined("a")).isFalse();
+      assertThat(quarantine.size()).isZero();
+    }
+  }
+
+  @Nested
+  class Clear {
+
+    @Test
+    void shouldForgetStrikes() throws Exception {
+
+      final DocumentQuarantine quarantine = new DocumentQuarantine(2, 10, ONE_HOUR, null);
+      quarantine.strike("a");
+      quarantine.clear("a");
+
+      assertThat(quarantine.getStrikes("a")).isZero();
+      assertThat(quarantine.size()).isZero();
+    }
+  }
+
+  @Nested
+  class Persist {
+
+    @Test
+    void withFile_ShouldReloadStrikes(@TempDir final File testFolder) throws Exception {
+
+      final File file = new File(testFolder, "quarantine.txt");
+      final DocumentQuarantine quarantine = new DocumentQuarantine(2, 10, ONE_HOUR, file);
+      quarantine.strike("a");
+      quarantine.strike("a");
+      quarantine.strike("b");
+
+      final DocumentQuarantine reloaded = new DocumentQuarantine(2, 10, ONE_HOUR, file);
+
+      assertThat(reloaded.isQuarantined("a")).isTrue();
+      assertThat(reloaded.getStrikes("b")).isEqualTo(1);
+      assertThat(testFolder.listFiles()).hasSize(1);
+    }
+
+    @Test
+    void withInvalidEntries_ShouldIgnoreThem(@TempDir final File testFolder) throws Exception {
+
+      final File file = new File(testFolder, "quarantine.txt");
+      Files.write(
+          file.toPath(),
+          String.format("a 2 x%nb 1%nc 2 %d%n", System.currentTimeMillis()).getBytes(UTF_8));
+
+      final DocumentQuarantine quarantine = new DocumentQuarantine(2, 10, ONE_HOUR, file);
+
+      assertThat(quarantine.size()).isEqualTo(1);
+      assertThat(quarantine.isQuarantined("c")).isTrue();
+    }
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.office.SimpleOfficeManager;
+import org.jodconverter.core.task.OfficeTask;
+
+/**
+ * Converter for testing purposes, writing the source file content, prefixed by "converted ", to
+ * the target file. It can be configured to fail, to take time before failing, or to wait until its
+ * gate is opened before converting.
+ */
+public final class FakeConverter extends AbstractConverter {
+
+  private final String fingerprint;
+  private final long failureDuration;
+  private final CountDownLatch started = new CountDownLatch(1);
+  private final CountDownLatch gate;
+  private final AtomicInteger conversionCount = new AtomicInteger();
+  private volatile OfficeException failure;
+
+  /** Builder for our fake converter. */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Make for our fake converter with default values. */
+  public static FakeConverter make() {
+    return new Builder().build();
+  }
+
+  /** Writes the specified content to a new file of the specified folder. */
+  public static File write(final File folder, final String name, final String content)
+      throws IOException {
+
+    final File file = new File(folder, name);
+    Files.write(file.toPath(), content.getBytes(UTF_8));
+    return file;
+  }
+
+  private FakeConverter(
+      final OfficeManager officeManager,
+      final DocumentFormatRegistry formatRegistry,
+      final String fingerprint,
+      final OfficeException failure,
+      final long failureDuration,
+      final boolean gated) {
+    super(officeManager, formatRegistry);
+
+    this.fingerprint = fingerprint;
+    this.failure = failure;
+    this.failureDuration = failureDuration;
+    this.gate = new CountDownLatch(gated ? 1 : 0);
+  }
+
+  /** Gets the number of conversions started by this converter. */
+  public int getConversionCount() {
+    return conversionCount.get();
+  }
+
+  /** Sets the exception the next conversions will fail with, {@code null} to succeed. */
+  public void setFailure(final OfficeException failure) {
+    this.failure = failure;
+  }
+
+  /** Waits until a conversion is started by this converter. */
+  public void awaitStarted() throws InterruptedException {
+    started.await();
+  }
+
+  /** Opens the gate of this converter, letting the started conversions complete. */
+  public void openGate() {
+    gate.countDown();
+  }
+
+  @Override
+  protected String getConfigurationFingerprint() {
+    return fingerprint;
+  }
+
+  @Override
+  protected AbstractConversionJobWithSourceFormatUnspecified convert(
+      final AbstractSourceDocumentSpecs source) {
+    return new FakeConversionJobWithSourceFormatUnspecified(source, officeManager, formatRegistry);
+  }
+
+  private void doConvert(
+      final AbstractSourceDocumentSpecs source, final AbstractTargetDocumentSpecs target)
+      throws OfficeException {
+
+    conversionCount.incrementAndGet();
+    started.countDown();
+    try {
+      gate.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new OfficeException("Interrupted", ex);
+    }
+
+    final OfficeException currentFailure = failure;
+    if (currentFailure != null) {
+      try {
+        Thread.sleep(failureDuration);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      throw currentFailure;
+    }
+
+    final File targetFile = target.getFile();
+    try {
+      Files.write(
+          targetFile.toPath(),
+          ("converted " + new String(Files.readAllBytes(source.getFile().toPath()), UTF_8))
+              .getBytes(UTF_8));
+    } catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+    target.onComplete(targetFile);
+  }
+
+  /** Fake implementation of a conversion job with source format unspecified. */
+  private final class FakeConversionJobWithSourceFormatUnspecified
+      extends AbstractConversionJobWithSourceFormatUnspecified {
+
+    private FakeConversionJobWithSourceFormatUnspecified(
+        final AbstractSourceDocumentSpecs source,
+        final OfficeManager officeManager,
+        final DocumentFormatRegistry formatRegistry) {
+      super(source, officeManager, formatRegistry);
+    }
+
+    @Override
+    protected AbstractConversionJob to(final AbstractTargetDocumentSpecs target) {
+
+      return new AbstractConversionJob(source, target) {
+
+        @Override
+        protected void doExecute() throws OfficeException {
+          doConvert(source, target);
+        }
+
+        @Override
+        protected OfficeTask createTask() {
+          return context -> doConvert(source, target);
+        }
+      };
+    }
+  }
+
+  /** Builder for our fake converter. */
+  public static final class Builder extends AbstractConverterBuilder<Builder> {
+
+    private String fingerprint = FakeConverter.class.getName();
+    private OfficeException failure;
+    private long failureDuration;
+    private boolean gated;
+
+    private Builder() {
+      super();
+    }
+
+    /** Specifies the configuration fingerprint of the converter, {@code null} for none. */
+    public Builder fingerprint(final String fingerprint) {
+      this.fingerprint = fingerprint;
+      return this;
+    }
+
+    /** Specifies the exception the conversions will fail with. */
+    public Builder failure(final OfficeException failure) {
+      this.failure = failure;
+      return this;
+    }
+
+    /** Specifies how long, in milliseconds, a conversion takes before failing. */
+    public Builder failureDuration(final long failureDuration) {
+      this.failureDuration = failureDuration;
+      return this;
+    }
+
+    /** Specifies that the conversions wait until the gate of the converter is opened. */
+    public Builder gated() {
+      this.gated = true;
+      return this;
+    }
+
+    @Override
+    public FakeConverter build() {
+      return new FakeConverter(
+          officeManager == null ? SimpleOfficeManager.make() : officeManager,
+          formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry,
+          fingerprint,
+          failure,
+          failureDuration,
+          gated);
+    }
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.jodconverter.core.job.FakeConverter.write;
+
+import java.io.File;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeTaskAbortedException;
+
+/** Contains tests for the {@link QuarantiningConverter} class. */
+class QuarantiningConverterTest {
+
+  private static OfficeException timeout() {
+    return new OfficeTaskAbortedException(
+        "Task did not complete within timeout", new TimeoutException());
+  }
+
+  @Nested
+  class Build {
+
+    @Test
+    void withoutConverter_ShouldThrowNullPointerException() {
+
+      assertThatNullPointerException().isThrownBy(() -> QuarantiningConverter.builder().build());
+    }
+
+    @Test
+    void withZeroMaxStrikes_ShouldThrowIllegalArgumentException() {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(() -> QuarantiningConverter.builder().maxStrikes(0))
+          .withMessage("maxStrikes 0 must be greater than 0");
+    }
+  }
+
+  @Nested
+  class IsStrike {
+
+    @Test
+    void whenTaskTimedOut_ShouldReturnTrue() {
+
+      assertThat(QuarantiningConverter.isStrike(timeout())).isTrue();
+    }
+
+    @Test
+    void whenTaskCancelled_ShouldReturnTrue() {
+
+      assertThat(
+              QuarantiningConverter.isStrike(
+                  new OfficeTaskAbortedException(
+                      "Task was cancelled", new CancellationException())))
+          .isTrue();
+    }
+
+    @Test
+    void whenTaskAbortedIsCause_ShouldReturnTrue() {
+
+      assertThat(
+              QuarantiningConverter.isStrike(
+                  new IllegalStateException("Conversion failed", timeout())))
+          .isTrue();
+    }
+
+    @Test
+    void whenTimeoutNotReportedByOfficeManager_ShouldReturnFalse() {
+
+      assertThat(
+              QuarantiningConverter.isStrike(
+                  new OfficeException("Could not load document", new TimeoutException())))
+          .isFalse();
+    }
+
+    @Test
+    void whenConversionFailed_ShouldReturnFalse() {
+
+      assertThat(
+              QuarantiningConverter.isStrike(
+                  new OfficeException("Could not load document", new IOException())))
+          .isFalse();
+    }
+  }
+
+  @Nested
+  class Convert {
+
+    @Test
+    void whenMaxStrikesReached_ShouldRejectDocumentWithoutConvertingIt(
+        @TempDir final File testFolder) throws Exception {
+
+      final FakeConverter fakeConverter = FakeConverter.builder().failure(timeout()).build();
+      final QuarantiningConverter converter =
+          QuarantiningConverter.builder().converter(fakeConverter).maxStrikes(2).build();
+      final File target = new File(testFolder, "target.txt");
+
+      for (int i = 0; i < 2; i++) {
+        assertThatExceptionOfType(OfficeException.class)
+            .isThrownBy(
+                () -> converter.convert(write(testFolder, "a.txt", "Bad")).to(target).execute())
+            .withCauseExactlyInstanceOf(TimeoutException.class);
+      }
+      // A renamed copy is quarantined too.
+      assertThatExceptionOfType(QuarantinedDocumentException.class)
+          .isThrownBy(
+              () -> converter.convert(write(testFolder, "b.txt", "Bad")).to(target).execute());
+
+      assertThat(fakeConverter.getConversionCount()).isEqualTo(2);
+      assertThat(converter.getStrikeCount()).isEqualTo(2L);
+      assertThat(converter.getRejectedCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void whenConversionFailsWithoutHanging_ShouldNotStrikeDocument(
+        @TempDir final File testFolder) throws Exception {
+
+      final FakeConverter fakeConverter =
+          FakeConverter.builder().failure(new OfficeException("Could not load document")).build();
+      final QuarantiningConverter converter =
+          QuarantiningConverter.builder().converter(fakeConverter).maxStrikes(1).build();
+      final File target = new File(testFolder, "target.txt");
+
+      for (int i = 0; i < 2; i++) {
+        assertThatExceptionOfType(OfficeException.class)
+            .isThrownBy(
+                () -> converter.convert(write(testFolder, "a.txt", "Bad")).to(target).execute())
+            .withMessage("Could not load document");
+      }
+
+      assertThat(fakeConverter.getConversionCount()).isEqualTo(2);
+      assertThat(converter.getStrikeCount()).isZero();
+      assertThat(converter.getQuarantineSize()).isZero();
+    }
+
+    @Test
+    void whenConversionSucceeds_ShouldClearStrikes(@TempDir final File testFolder)
+        throws Exception {
+
+      final FakeConverter fakeConverter = FakeConverter.builder().failure(timeout()).build();
+      final QuarantiningConverter converter =
+          QuarantiningConverter.builder().converter(fakeConverter).maxStrikes(2).build();
+      final File target = new File(testFolder, "target.txt");
+
+      assertThatExceptionOfType(OfficeException.class)
+          .isThrownBy(
+              () -> converter.convert(write(testFolder, "a.txt", "Test")).to(target).execute());
+      assertThat(converter.getQuarantineSize()).isEqualTo(1);
+
+      fakeConverter.setFailure(null);
+      converter.convert(write(testFolder, "a.txt", "Test")).to(target).execute();
+
+      assertThat(target).hasContent("converted Test");
+      assertThat(converter.getQuarantineSize()).isZero();
+    }
+
+    @Test
+    void withQuarantineFile_ShouldRememberStrikesAcrossConverters(
+        @TempDir final File testFolder) throws Exception {
+
+      final File quarantineFile = new File(testFolder, "quarantine.txt");
+      final File target = new File(testFolder, "target.txt");
+      final QuarantiningConverter converter =
+          QuarantiningConverter.builder()
+              .converter(FakeConverter.builder().failure(timeout()).build())
+              .maxStrikes(1)
+              .quarantineFile(quarantineFile)
+              .build();
+      assertThatExceptionOfType(OfficeException.class)
+          .isThrownBy(
+              () -> converter.convert(write(testFolder, "a.txt", "Bad")).to(target).execute());
+
+      final FakeConverter fakeConverter = FakeConverter.make();
+      final QuarantiningConverter restarted =
+          QuarantiningConverter.builder()
+              .converter(fakeConverter)
+              .maxStrikes(1)
+              .quarantineFile(quarantineFile)
+              .build();
+
+      assertThatExceptionOfType(QuarantinedDocumentException.class)
+          .isThrownBy(
+              () -> restarted.convert(write(testFolder, "a.txt", "Bad")).to(target).execute());
+      assertThat(fakeConverter.getConversionCount()).isZero();
+    }
+  }
+}
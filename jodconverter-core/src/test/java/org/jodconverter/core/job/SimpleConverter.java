@@ -44,8 +44,11 @@ public final class SimpleConverter extends AbstractConverter {
   }
 
   private SimpleConverter(
-      final OfficeManager officeManager, final DocumentFormatRegistry formatRegistry) {
-    super(officeManager, formatRegistry);
+      final OfficeManager officeManager,
+      final DocumentFormatRegistry formatRegistry,
+      final int inMemoryThreshold,
+      final boolean sniffSourceFormat) {
+    super(officeManager, formatRegistry, inMemoryThreshold, sniffSourceFormat);
   }
 
   @Override
@@ -92,8 +95,12 @@ public final class SimpleConverter extends AbstractConverter {
     public void doExecute() throws OfficeException {
 
       // Create a default conversion task and execute it
-      final SimpleOfficeTask task = new SimpleOfficeTask();
-      officeManager.execute(task);
+      officeManager.execute(createTask());
+    }
+
+    @Override
+    protected SimpleOfficeTask createTask() {
+      return new SimpleOfficeTask();
     }
   }
 
@@ -106,7 +113,8 @@ public final class SimpleConverter extends AbstractConverter {
 
     @Override
     public SimpleConverter build() {
-      return new SimpleConverter(officeManager, formatRegistry);
+      return new SimpleConverter(
+          officeManager, formatRegistry, inMemoryThreshold, sniffSourceFormat);
     }
   }
 }
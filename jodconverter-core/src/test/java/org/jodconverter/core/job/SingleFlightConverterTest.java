@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.jodconverter.core.job.FakeConverter.write;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.office.SimpleOfficeManager;
+
+/** Contains tests for the {@link SingleFlightConverter} class. */
+class SingleFlightConverterTest {
+
+  private OfficeManager manager;
+
+  @BeforeEach
+  void setUp() throws OfficeException {
+
+    // The result shared by identical conversions is stored in the manager temporary directory.
+    manager = SimpleOfficeManager.make();
+    manager.start();
+  }
+
+  @AfterEach
+  void tearDown() throws OfficeException {
+    manager.stop();
+  }
+
+  // Waits until the specified thread waits for an identical conversion.
+  private static void awaitWaiting(final Thread thread) throws InterruptedException {
+
+    while (thread.getState() != Thread.State.WAITING) {
+      Thread.sleep(10L);
+    }
+  }
+
+  @Nested
+  class Build {
+
+    @Test
+    void withoutConverter_ShouldThrowNullPointerException() {
+
+      assertThatNullPointerException().isThrownBy(() -> SingleFlightConverter.builder().build());
+    }
+  }
+
+  @Nested
+  class Convert {
+
+    @Test
+    void whenIdenticalConversionsRunConcurrently_ShouldConvertOnlyOnce(
+        @TempDir final File testFolder) throws Exception {
+
+      final FakeConverter gatedConverter =
+          FakeConverter.builder().officeManager(manager).gated().build();
+      final SingleFlightConverter converter =
+          SingleFlightConverter.builder().converter(gatedConverter).build();
+      final File source = write(testFolder, "source.txt", "Test");
+      final File target = new File(testFolder, "target.txt");
+      final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+      final ExecutorService executor = Executors.newFixedThreadPool(2);
+      try {
+        final Future<?> leader =
+            executor.submit(
+                () -> {
+                  converter.convert(source).to(target).execute();
+                  return null;
+                });
+        gatedConverter.awaitStarted();
+
+        final Thread[] followerThread = new Thread[1];
+        final CountDownLatch followerStarted = new CountDownLatch(1);
+        final Future<?> follower =
+            executor.submit(
+                () -> {
+                  followerThread[0] = Thread.currentThread();
+                  followerStarted.countDown();
+                  converter
+                      .convert(Files.newInputStream(source.toPath()))
+                      .as(DefaultDocumentFormatRegistry.TXT)
+                      .to(stream)
+                      .as(DefaultDocumentFormatRegistry.TXT)
+                      .execute();
+                  return null;
+                });
+        followerStarted.await();
+        awaitWaiting(followerThread[0]);
+
+        gatedConverter.openGate();
+        leader.get(10L, TimeUnit.SECONDS);
+        follower.get(10L, TimeUnit.SECONDS);
+      } finally {
+        executor.shutdownNow();
+      }
+
+      assertThat(gatedConverter.getConversionCount()).isEqualTo(1);
+      assertThat(target).hasContent("converted Test");
+      assertThat(new String(stream.toByteArray(), UTF_8)).isEqualTo("converted Test");
+      assertThat(converter.getExecutionCount()).isEqualTo(1L);
+      assertThat(converter.getSharedCount()).isEqualTo(1L);
+      assertThat(converter.getInFlightCount()).isZero();
+    }
+
+    @Test
+    void whenIdenticalConversionFails_ShouldFailWaitingConversion(@TempDir final File testFolder)
+        throws Exception {
+
+      final FakeConverter gatedConverter =
+          FakeConverter.builder()
+              .officeManager(manager)
+              .failure(new OfficeException("Conversion failed"))
+              .gated()
+              .build();
+      final SingleFlightConverter converter =
+          SingleFlightConverter.builder().converter(gatedConverter).build();
+      final File source = write(testFolder, "source.txt", "Test");
+
+      final ExecutorService executor = Executors.newFixedThreadPool(2);
+      try {
+        final Future<?> leader =
+            executor.submit(
+                () -> {
+                  converter.convert(source).to(new File(testFolder, "target1.txt")).execute();
+                  return null;
+                });
+        gatedConverter.awaitStarted();
+
+        final Thread[] followerThread = new Thread[1];
+        final CountDownLatch followerStarted = new CountDownLatch(1);
+        final Future<?> follower =
+            executor.submit(
+                () -> {
+                  followerThread[0] = Thread.currentThread();
+                  followerStarted.countDown();
+                  converter.convert(source).to(new File(testFolder, "target2.txt")).execute();
+                  return null;
+                });
+        followerStarted.await();
+        awaitWaiting(followerThread[0]);
+
+        gatedConverter.openGate();
+        assertThatExceptionOfType(ExecutionException.class)
+            .isThrownBy(() -> leader.get(10L, TimeUnit.SECONDS))
+            .withCauseExactlyInstanceOf(OfficeException.class);
+        assertThatExceptionOfType(ExecutionException.class)
+            .isThrownBy(() -> follower.get(10L, TimeUnit.SECONDS))
+            .withCauseExactlyInstanceOf(OfficeException.class);
+      } finally {
+        executor.shutdownNow();
+      }
+
+      assertThat(gatedConverter.getConversionCount()).isEqualTo(1);
+      assertThat(converter.getInFlightCount()).isZero();
+    }
+
+    @Test
+    void whenIdenticalConversionsRunSequentially_ShouldConvertEachTime(
+        @TempDir final File testFolder) throws Exception {
+
+      final FakeConverter gatedConverter =
+          FakeConverter.builder().officeManager(manager).gated().build();
+      gatedConverter.openGate();
+      final SingleFlightConverter converter =
+          SingleFlightConverter.builder().converter(gatedConverter).build();
+      final File source = write(testFolder, "source.txt", "Test");
+      final File target = new File(testFolder, "target.txt");
+
+      converter.convert(source).to(target).execute();
+      converter.convert(source).to(target).execute();
+
+      assertThat(gatedConverter.getConversionCount()).isEqualTo(2);
+      assertThat(converter.getSharedCount()).isZero();
+      assertThat(target).hasContent("converted Test");
+    }
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.office.TemporaryFileMaker;
+
+/** Contains tests for the {@link SourceDocumentSpecsFromBytes} class. */
+class SourceDocumentSpecsFromBytesTest {
+
+  private static final byte[] CONTENT = {1, 2, 3, 4, 5};
+
+  @Nested
+  class GetFile {
+
+    @Test
+    void withFormat_ShouldWriteBytesToTempFileWithExtension(@TempDir final File testFolder) {
+
+      final File tempFile = new File(testFolder, "temp.txt");
+      final TemporaryFileMaker fileMaker = mock(TemporaryFileMaker.class);
+      given(fileMaker.makeTemporaryFile("txt")).willReturn(tempFile);
+
+      final SourceDocumentSpecsFromBytes specs =
+          new SourceDocumentSpecsFromBytes(CONTENT, fileMaker);
+      specs.setDocumentFormat(DefaultDocumentFormatRegistry.TXT);
+
+      assertThat(specs.getFile()).isEqualTo(tempFile).hasBinaryContent(CONTENT);
+    }
+
+    @Test
+    void withBufferPosition_ShouldWriteRemainingBytesOnly(@TempDir final File testFolder) {
+
+      final File tempFile = new File(testFolder, "temp");
+      final TemporaryFileMaker fileMaker = mock(TemporaryFileMaker.class);
+      given(fileMaker.makeTemporaryFile()).willReturn(tempFile);
+
+      final ByteBuffer buffer = ByteBuffer.wrap(CONTENT);
+      buffer.position(3);
+      final SourceDocumentSpecsFromBytes specs =
+          new SourceDocumentSpecsFromBytes(buffer, fileMaker);
+
+      assertThat(specs.getFile()).hasBinaryContent(new byte[] {4, 5});
+      assertThat(buffer.position()).isEqualTo(3);
+    }
+
+    @Test
+    void whenIoExceptionOccurs_ShouldThrowDocumentSpecsIoException(
+        @TempDir final File testFolder) {
+
+      // FileOutputStream will fail with an IOException
+      final TemporaryFileMaker fileMaker = mock(TemporaryFileMaker.class);
+      given(fileMaker.makeTemporaryFile()).willReturn(testFolder);
+
+      final SourceDocumentSpecsFromBytes specs =
+          new SourceDocumentSpecsFromBytes(CONTENT, fileMaker);
+
+      assertThatExceptionOfType(DocumentSpecsIOException.class)
+          .isThrownBy(specs::getFile)
+          .withMessageStartingWith("Could not write bytes to file")
+          .withCauseInstanceOf(IOException.class);
+    }
+  }
+
+  @Nested
+  class OnConsumed {
+
+    @Test
+    void shouldDeleteTempFile(@TempDir final File testFolder) {
+
+      final File tempFile = new File(testFolder, "temp");
+      final TemporaryFileMaker fileMaker = mock(TemporaryFileMaker.class);
+      given(fileMaker.makeTemporaryFile()).willReturn(tempFile);
+
+      final SourceDocumentSpecsFromBytes specs =
+          new SourceDocumentSpecsFromBytes(CONTENT, fileMaker);
+      specs.onConsumed(specs.getFile());
+
+      assertThat(tempFile).doesNotExist();
+    }
+  }
+
+  @Nested
+  class GetInputStream {
+
+    @Test
+    void shouldReadBytesFromMemory() throws IOException {
+
+      final TemporaryFileMaker fileMaker = mock(TemporaryFileMaker.class);
+      final SourceDocumentSpecsFromBytes specs =
+          new SourceDocumentSpecsFromBytes(CONTENT, fileMaker);
+
+      try (InputStream inputStream = specs.getInputStream()) {
+        assertThat(inputStream).hasBinaryContent(CONTENT);
+      }
+      // Each call returns a new stream reading the whole document.
+      try (InputStream inputStream = specs.getInputStream()) {
+        assertThat(inputStream.skip(4)).isEqualTo(4L);
+        assertThat(inputStream.read()).isEqualTo(5);
+        assertThat(inputStream.read()).isEqualTo(-1);
+      }
+    }
+  }
+
+  @Nested
+  class ToByteArray {
+
+    @Test
+    void whenCreatedFromArray_ShouldReturnSameArray() {
+
+      final SourceDocumentSpecsFromBytes specs =
+          new SourceDocumentSpecsFromBytes(CONTENT, mock(TemporaryFileMaker.class));
+
+      assertThat(specs.toByteArray()).isSameAs(CONTENT);
+    }
+
+    @Test
+    void withBufferPosition_ShouldReturnCopyOfRemainingBytes() {
+
+      final ByteBuffer buffer = ByteBuffer.wrap(CONTENT);
+      buffer.position(3);
+      final SourceDocumentSpecsFromBytes specs =
+          new SourceDocumentSpecsFromBytes(buffer, mock(TemporaryFileMaker.class));
+
+      assertThat(specs.toByteArray()).containsExactly(4, 5);
+      assertThat(buffer.position()).isEqualTo(3);
+    }
+  }
+}
@@ -20,12 +20,16 @@
 
 package org.jodconverter.core.job;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -179,4 +183,98 @@ class SourceDocumentSpecsFromInputStreamTest {
       }
     }
   }
+
+  @Nested
+  class OnStreamConsumed {
+
+    @Test
+    void whenCloseStreamIsTrue_ShouldCloseInputStream() throws IOException {
+
+      final InputStream inputStream = mock(InputStream.class);
+      final SourceDocumentSpecsFromInputStream specs =
+          new SourceDocumentSpecsFromInputStream(
+              inputStream, mock(TemporaryFileMaker.class), true);
+
+      assertThat(specs.getInputStream()).isSameAs(inputStream);
+      specs.onStreamConsumed();
+
+      verify(inputStream).close();
+    }
+
+    @Test
+    void whenCloseStreamIsFalse_ShouldNotCloseInputStream() throws IOException {
+
+      final InputStream inputStream = mock(InputStream.class);
+      final SourceDocumentSpecsFromInputStream specs =
+          new SourceDocumentSpecsFromInputStream(
+              inputStream, mock(TemporaryFileMaker.class), false);
+
+      specs.onStreamConsumed();
+
+      verify(inputStream, never()).close();
+    }
+  }
+
+  @Nested
+  class Stage {
+
+    @Test
+    void shouldWriteStreamToFileOnlyOnce(@TempDir final File testFolder) throws IOException {
+
+      final File tempFile = new File(testFolder, "temp.txt");
+      final TemporaryFileMaker fileMaker = mock(TemporaryFileMaker.class);
+      given(fileMaker.makeTemporaryFile("txt")).willReturn(tempFile);
+
+      try (InputStream inputStream = new ByteArrayInputStream("Test".getBytes(UTF_8))) {
+        final SourceDocumentSpecsFromInputStream specs =
+            new SourceDocumentSpecsFromInputStream(inputStream, fileMaker, false);
+        specs.setDocumentFormat(DefaultDocumentFormatRegistry.TXT);
+        specs.stage();
+        specs.stage();
+
+        assertThat(specs.getInputStream()).isNull();
+        assertThat(specs.getFile()).isEqualTo(tempFile).hasContent("Test");
+        verify(fileMaker).makeTemporaryFile("txt");
+      }
+    }
+
+    @Test
+    void whenNotConsumed_DiscardStagedShouldDeleteFileAndCloseStream(
+        @TempDir final File testFolder) throws IOException {
+
+      final File tempFile = new File(testFolder, "temp");
+      final TemporaryFileMaker fileMaker = mock(TemporaryFileMaker.class);
+      given(fileMaker.makeTemporaryFile()).willReturn(tempFile);
+
+      final InputStream inputStream = mock(InputStream.class);
+      final SourceDocumentSpecsFromInputStream specs =
+          new SourceDocumentSpecsFromInputStream(inputStream, fileMaker, true);
+      specs.stage();
+      assertThat(tempFile).exists();
+
+      specs.discardStaged();
+
+      assertThat(tempFile).doesNotExist();
+      assertThat(specs.getInputStream()).isSameAs(inputStream);
+      verify(inputStream).close();
+    }
+
+    @Test
+    void whenConsumed_DiscardStagedShouldDoNothing(@TempDir final File testFolder)
+        throws IOException {
+
+      final File tempFile = new File(testFolder, "temp");
+      final TemporaryFileMaker fileMaker = mock(TemporaryFileMaker.class);
+      given(fileMaker.makeTemporaryFile()).willReturn(tempFile);
+
+      final InputStream inputStream = mock(InputStream.class);
+      final SourceDocumentSpecsFromInputStream specs =
+          new SourceDocumentSpecsFromInputStream(inputStream, fileMaker, true);
+      specs.stage();
+      specs.onConsumed(specs.getFile());
+      specs.discardStaged();
+
+      verify(inputStream).close();
+    }
+  }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.office.SimpleOfficeManager;
+import org.jodconverter.core.office.SpilloverOfficeManager;
+
+/** Contains tests for the {@link SpilloverConverter} class. */
+class SpilloverConverterTest {
+
+  @Nested
+  class Build {
+
+    @Test
+    void withConverterCreatingNoTask_ShouldThrowIllegalArgumentException() {
+
+      final SimpleOfficeManager primaryManager = SimpleOfficeManager.make();
+      final SimpleOfficeManager secondaryManager = SimpleOfficeManager.make();
+      final SpilloverOfficeManager manager =
+          SpilloverOfficeManager.builder()
+              .primaryManager(primaryManager)
+              .secondaryManager(secondaryManager)
+              .build();
+      final ValidatingConverter primaryConverter =
+          ValidatingConverter.builder()
+              .converter(
+                  SimpleConverter.builder()
+                      .officeManager(primaryManager)
+                      .formatRegistry(DefaultDocumentFormatRegistry.getInstance())
+                      .build())
+              .build();
+      final SimpleConverter secondaryConverter =
+          SimpleConverter.builder()
+              .officeManager(secondaryManager)
+              .formatRegistry(DefaultDocumentFormatRegistry.getInstance())
+              .build();
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(
+              () ->
+                  SpilloverConverter.builder()
+                      .officeManager(manager)
+                      .primaryConverter(primaryConverter)
+                      .secondaryConverter(secondaryConverter)
+                      .build())
+          .withMessage("primaryConverter must perform each conversion by a single task");
+    }
+  }
+}
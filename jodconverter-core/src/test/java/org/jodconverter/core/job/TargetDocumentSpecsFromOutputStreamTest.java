@@ -20,16 +20,22 @@
 
 package org.jodconverter.core.job;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -204,4 +210,77 @@ class TargetDocumentSpecsFromOutputStreamTest {
       }
     }
   }
+
+  @Nested
+  class OnStreamComplete {
+
+    @Test
+    void whenCloseStreamIsTrue_ShouldCloseOutputStream() throws IOException {
+
+      final OutputStream outputStream = mock(OutputStream.class);
+      final TargetDocumentSpecsFromOutputStream specs =
+          new TargetDocumentSpecsFromOutputStream(
+              outputStream, mock(TemporaryFileMaker.class), true);
+
+      assertThat(specs.getOutputStream()).isSameAs(outputStream);
+      specs.onStreamComplete();
+
+      verify(outputStream).close();
+    }
+
+    @Test
+    void whenIoExceptionOccurs_ShouldThrowDocumentSpecsIoException() throws IOException {
+
+      final OutputStream outputStream = mock(OutputStream.class);
+      doThrow(IOException.class).when(outputStream).close();
+      final TargetDocumentSpecsFromOutputStream specs =
+          new TargetDocumentSpecsFromOutputStream(
+              outputStream, mock(TemporaryFileMaker.class), true);
+
+      assertThatExceptionOfType(DocumentSpecsIOException.class)
+          .isThrownBy(specs::onStreamComplete)
+          .withMessage("Could not close output stream")
+          .withCauseInstanceOf(IOException.class);
+    }
+  }
+
+  @Nested
+  class DeferDelivery {
+
+    @Test
+    void whenDeferred_OnCompleteShouldOnlyCopyOnDelivery(@TempDir final File testFolder)
+        throws IOException {
+
+      final File tempFile = new File(testFolder, "temp.txt");
+      Files.write(tempFile.toPath(), "Test".getBytes(UTF_8));
+
+      final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      final TargetDocumentSpecsFromOutputStream specs =
+          new TargetDocumentSpecsFromOutputStream(
+              outputStream, mock(TemporaryFileMaker.class), false);
+      specs.deferDelivery();
+
+      specs.onComplete(tempFile);
+      assertThat(outputStream.size()).isZero();
+      assertThat(tempFile).exists();
+
+      specs.deliver();
+      assertThat(outputStream.toString("UTF-8")).isEqualTo("Test");
+      assertThat(tempFile).doesNotExist();
+    }
+
+    @Test
+    void whenNothingPending_DeliverShouldDoNothing() throws IOException {
+
+      final OutputStream outputStream = mock(OutputStream.class);
+      final TargetDocumentSpecsFromOutputStream specs =
+          new TargetDocumentSpecsFromOutputStream(
+              outputStream, mock(TemporaryFileMaker.class), true);
+      specs.deferDelivery();
+
+      specs.deliver();
+
+      verify(outputStream, never()).close();
+    }
+  }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.jodconverter.core.job.FakeConverter.write;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.SimpleOfficeManager;
+
+/** Contains tests for the {@link ValidatingConverter} class. */
+class ValidatingConverterTest {
+
+  private static final long FAILURE_DURATION = 20L;
+
+  @Nested
+  class Build {
+
+    @Test
+    void withoutConverter_ShouldThrowNullPointerException() {
+
+      assertThatNullPointerException().isThrownBy(() -> ValidatingConverter.builder().build());
+    }
+
+    @Test
+    void withOtherOfficeManager_ShouldThrowIllegalArgumentException() {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(
+              () ->
+                  ValidatingConverter.builder()
+                      .converter(FakeConverter.make())
+                      .officeManager(SimpleOfficeManager.make())
+                      .build())
+          .withMessage(
+              "The office manager of a delegating converter must be the one of the wrapped"
+                  + " converter");
+    }
+  }
+
+  @Nested
+  class Convert {
+
+    @Test
+    void whenDocumentValid_ShouldConvertDocument(@TempDir final File testFolder)
+        throws Exception {
+
+      final FakeConverter fakeConverter = FakeConverter.make();
+      final ValidatingConverter converter =
+          ValidatingConverter.builder().converter(fakeConverter).build();
+      final File target = new File(testFolder, "target.txt");
+
+      converter.convert(write(testFolder, "source.txt", "Test")).to(target).execute();
+
+      assertThat(fakeConverter.getConversionCount()).isEqualTo(1);
+      assertThat(target).hasContent("converted Test");
+      assertThat(converter.getValidatedCount()).isEqualTo(1L);
+      assertThat(converter.getRejectedCount()).isZero();
+    }
+
+    @Test
+    void withAdditionalTarget_ShouldValidateOnceAndConvertToEveryTarget(
+        @TempDir final File testFolder) throws Exception {
+
+      final FakeConverter fakeConverter = FakeConverter.make();
+      final ValidatingConverter converter =
+          ValidatingConverter.builder().converter(fakeConverter).build();
+      final File first = new File(testFolder, "first.txt");
+      final File second = new File(testFolder, "second.txt");
+
+      converter.convert(write(testFolder, "source.txt", "Test")).to(first).and(second).execute();
+
+      assertThat(fakeConverter.getConversionCount()).isEqualTo(2);
+      assertThat(first).hasContent("converted Test");
+      assertThat(second).hasContent("converted Test");
+      assertThat(converter.getValidatedCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void whenDocumentInvalid_ShouldRejectDocumentWithoutConvertingIt(
+        @TempDir final File testFolder) throws Exception {
+
+      final FakeConverter fakeConverter = FakeConverter.make();
+      final ValidatingConverter converter =
+          ValidatingConverter.builder().converter(fakeConverter).build();
+
+      assertThatExceptionOfType(InvalidDocumentException.class)
+          .isThrownBy(
+              () ->
+                  converter
+                      .convert(write(testFolder, "source.pdf", "%PDF-1.7\n"))
+                      .to(new File(testFolder, "target.txt"))
+                      .execute());
+
+      assertThat(fakeConverter.getConversionCount()).isZero();
+      assertThat(converter.getRejectedCount()).isEqualTo(1L);
+      assertThat(converter.getEncryptedCount()).isZero();
+    }
+
+    @Test
+    void withCustomValidator_ShouldUseValidator(@TempDir final File testFolder) throws Exception {
+
+      final ValidatingConverter converter =
+          ValidatingConverter.builder()
+              .converter(FakeConverter.make())
+              .validator(
+                  (content, format) -> {
+                    throw new EncryptedDocumentException("Encrypted");
+                  })
+              .build();
+
+      assertThatExceptionOfType(EncryptedDocumentException.class)
+          .isThrownBy(
+              () ->
+                  converter
+                      .convert(write(testFolder, "source.txt", "Test"))
+                      .to(new File(testFolder, "target.txt"))
+                      .execute());
+
+      assertThat(converter.getRejectedCount()).isEqualTo(1L);
+      assertThat(converter.getEncryptedCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void whenValidDocumentFails_ShouldEstimateTimeSavedByRejections(
+        @TempDir final File testFolder) throws Exception {
+
+      final ValidatingConverter converter =
+          ValidatingConverter.builder()
+              .converter(
+                  FakeConverter.builder()
+                      .failure(new OfficeException("Conversion failed"))
+                      .failureDuration(FAILURE_DURATION)
+                      .build())
+              .build();
+      final File target = new File(testFolder, "target.txt");
+
+      assertThatExceptionOfType(OfficeException.class)
+          .isThrownBy(
+              () -> converter.convert(write(testFolder, "a.txt", "Test")).to(target).execute());
+      assertThatExceptionOfType(InvalidDocumentException.class)
+          .isThrownBy(
+              () -> converter.convert(write(testFolder, "b.txt", "")).to(target).execute());
+
+      assertThat(converter.getFailedConversionCount()).isEqualTo(1L);
+      assertThat(converter.getEstimatedTimeSaved())
+          .isGreaterThanOrEqualTo(FAILURE_DURATION);
+    }
+  }
+}
@@ -72,6 +72,7 @@ class AbstractOfficeManagerPoolEntryTest {
         final SimpleOfficeTask task = new SimpleOfficeTask(1_000L);
         assertThatExceptionOfType(OfficeException.class)
             .isThrownBy(() -> entry.execute(task))
+            .isNotInstanceOf(OfficeTaskAbortedException.class)
             .withCauseExactlyInstanceOf(TimeoutException.class)
             .withMessageStartingWith("Task did not complete within timeout");
 
@@ -81,6 +82,31 @@ class AbstractOfficeManagerPoolEntryTest {
       }
     }
 
+    @Test
+    void whenTaskExecutionTimeoutRestartsOffice_ShouldThrowOfficeTaskAbortedException()
+        throws OfficeException {
+
+      final SimpleOfficeManagerPoolEntry entry =
+          new SimpleOfficeManagerPoolEntry(500L) {
+            @Override
+            protected boolean handleExecuteTimeoutException(final TimeoutException timeoutEx) {
+              return true;
+            }
+          };
+      try {
+        entry.start();
+
+        final SimpleOfficeTask task = new SimpleOfficeTask(1_000L);
+        assertThatExceptionOfType(OfficeTaskAbortedException.class)
+            .isThrownBy(() -> entry.execute(task))
+            .withCauseExactlyInstanceOf(TimeoutException.class)
+            .withMessageStartingWith("Task did not complete within timeout");
+
+      } finally {
+        entry.stop();
+      }
+    }
+
     @Test
     void whenExecutionExceptionIsOfficeException_ShouldThrowSameOfficeException()
         throws OfficeException {
@@ -128,6 +154,30 @@ class AbstractOfficeManagerPoolEntryTest {
       }
     }
 
+    @Test
+    void whenConnectionLost_ShouldThrowOfficeTaskAbortedException() throws OfficeException {
+
+      final SimpleOfficeManagerPoolEntry entry =
+          new SimpleOfficeManagerPoolEntry(DEFAULT_TASK_EXECUTION_TIMEOUT) {
+            @Override
+            protected boolean isConnectionLost(final Throwable failure) {
+              return failure.getCause() instanceof IllegalStateException;
+            }
+          };
+      try {
+        entry.start();
+
+        final SimpleOfficeTask task = new SimpleOfficeTask(new IllegalStateException("Lost"));
+        assertThatExceptionOfType(OfficeTaskAbortedException.class)
+            .isThrownBy(() -> entry.execute(task))
+            .withMessageStartingWith("Connection to office lost while executing task")
+            .withCauseExactlyInstanceOf(OfficeException.class);
+
+      } finally {
+        entry.stop();
+      }
+    }
+
     @Test
     void whenEntryNotStarted_ShouldThrowOfficeExceptionAfterExecutionTimeout()
         throws OfficeException {
@@ -303,7 +353,7 @@ class AbstractOfficeManagerPoolEntryTest {
             .doesNotThrowAnyException();
 
         assertThat(ex.get())
-            .isExactlyInstanceOf(OfficeException.class)
+            .isExactlyInstanceOf(OfficeTaskAbortedException.class)
             .hasMessageStartingWith("Task was cancelled")
             .hasCauseExactlyInstanceOf(CancellationException.class);
 
@@ -25,13 +25,19 @@ import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -40,6 +46,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import org.jodconverter.core.task.OfficeTask;
 import org.jodconverter.core.task.SimpleOfficeTask;
 
 /** Contains tests for the {@link AbstractOfficeManagerPool} class. */
@@ -203,6 +210,14 @@ class AbstractOfficeManagerPoolTest {
           .isThrownBy(() -> SimpleOfficeManager.builder().taskQueueTimeout(-1L).build())
           .withMessage("taskQueueTimeout -1 must greater than or equal to 0");
     }
+
+    @Test
+    void withZeroMaxBatchSize_ShouldThrowIllagalArgumentException() {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(() -> SimpleOfficeManager.builder().maxBatchSize(0).build())
+          .withMessage("maxBatchSize 0 must be greater than 0");
+    }
   }
 
   @Nested
@@ -514,6 +529,131 @@ class AbstractOfficeManagerPoolTest {
     }
   }
 
+  @Nested
+  class ExecuteBatch {
+
+    @Test
+    void whenNotStartedYet_ShouldThrowIllegalStateException() {
+
+      final SimpleOfficeManager manager = SimpleOfficeManager.make();
+      final List<OfficeTask> tasks = Collections.singletonList(new SimpleOfficeTask());
+
+      assertThatIllegalStateException().isThrownBy(() -> manager.executeBatch(tasks));
+    }
+
+    @Test
+    void withFailingTask_ShouldReportResultOfEachTask() throws OfficeException {
+
+      final SimpleOfficeManager manager = SimpleOfficeManager.builder().maxBatchSize(2).build();
+      try {
+        manager.start();
+
+        final SimpleOfficeTask task1 = new SimpleOfficeTask();
+        final SimpleOfficeTask task2 = new SimpleOfficeTask(new IllegalStateException("Failed"));
+        final SimpleOfficeTask task3 = new SimpleOfficeTask();
+        final List<OfficeTaskResult> results =
+            manager.executeBatch(Arrays.asList(task1, task2, task3));
+
+        assertThat(results)
+            .extracting(OfficeTaskResult::getTask, OfficeTaskResult::isSuccessful)
+            .containsExactly(tuple(task1, true), tuple(task2, false), tuple(task3, true));
+        assertThat(results.get(1).getException())
+            .isExactlyInstanceOf(OfficeException.class)
+            .hasCauseExactlyInstanceOf(IllegalStateException.class);
+        assertThat(task1.isCompleted()).isTrue();
+        assertThat(task3.isCompleted()).isTrue();
+
+      } finally {
+        manager.stop();
+      }
+    }
+
+    @Test
+    void withSeveralEntries_ShouldExecuteAllTasks() throws OfficeException {
+
+      final SimpleOfficeManager manager =
+          SimpleOfficeManager.builder().poolSize(3).maxBatchSize(4).build();
+      try {
+        manager.start();
+
+        final List<OfficeTask> tasks =
+            IntStream.range(0, 25)
+                .mapToObj(i -> new SimpleOfficeTask(10L))
+                .collect(Collectors.toList());
+        final List<OfficeTaskResult> results = manager.executeBatch(tasks);
+
+        assertThat(results)
+            .hasSize(25)
+            .allMatch(OfficeTaskResult::isSuccessful)
+            .extracting(OfficeTaskResult::getTask)
+            .containsExactlyElementsOf(tasks);
+        assertThat(tasks).allMatch(task -> ((SimpleOfficeTask) task).isCompleted());
+
+      } finally {
+        manager.stop();
+      }
+    }
+
+    @Test
+    void whenNoEntryAvailable_ShouldReportFailedTasks() throws OfficeException {
+
+      final SimpleOfficeManager manager =
+          SimpleOfficeManager.builder().taskQueueTimeout(500L).build();
+      try {
+        manager.start();
+
+        final SleepyOfficeTaskRunner runner = new SleepyOfficeTaskRunner(manager, 2_000L);
+        final Thread thread = new Thread(runner);
+        thread.start();
+        Thread.sleep(100L);
+
+        final List<OfficeTaskResult> results =
+            manager.executeBatch(Arrays.asList(new SimpleOfficeTask(), new SimpleOfficeTask()));
+        thread.join();
+
+        assertThat(results)
+            .hasSize(2)
+            .allSatisfy(
+                result ->
+                    assertThat(result.getException())
+                        .isExactlyInstanceOf(OfficeException.class)
+                        .hasMessageMatching("^No office manager available after .* millisec$"));
+
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new OfficeException("Interrupted", ex);
+      } finally {
+        manager.stop();
+      }
+    }
+  }
+
+  @Nested
+  class GetAverageTaskHoldTime {
+
+    @Test
+    void whenNoTaskExecutedYet_ShouldReturnZero() {
+
+      assertThat(SimpleOfficeManager.make().getAverageTaskHoldTime()).isZero();
+    }
+
+    @Test
+    void whenTasksExecuted_ShouldReturnAverageTaskDuration() throws OfficeException {
+
+      final SimpleOfficeManager manager = SimpleOfficeManager.make();
+      try {
+        manager.start();
+        manager.execute(new SimpleOfficeTask(300L));
+        manager.execute(new SimpleOfficeTask(100L));
+
+        // Each task held the single entry about as long as it ran.
+        assertThat(manager.getAverageTaskHoldTime()).isBetween(200L, 400L);
+      } finally {
+        manager.stop();
+      }
+    }
+  }
+
   @Nested
   class MakeTemporaryFile {
 
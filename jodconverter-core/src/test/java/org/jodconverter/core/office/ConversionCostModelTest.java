@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.office;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.job.TargetDocumentSpecs;
+import org.jodconverter.core.task.ConversionTask;
+import org.jodconverter.core.task.SimpleOfficeTask;
+
+/** Contains tests for the {@link ConversionCostModel} class. */
+class ConversionCostModelTest {
+
+  private static ConversionTask task(final DocumentFormat source, final DocumentFormat target) {
+
+    final SourceDocumentSpecs sourceSpecs = mock(SourceDocumentSpecs.class);
+    given(sourceSpecs.getFormat()).willReturn(source);
+    final TargetDocumentSpecs targetSpecs = mock(TargetDocumentSpecs.class);
+    given(targetSpecs.getFormat()).willReturn(target);
+    final ConversionTask task = mock(ConversionTask.class);
+    given(task.getSource()).willReturn(sourceSpecs);
+    given(task.getTarget()).willReturn(targetSpecs);
+    return task;
+  }
+
+  @Nested
+  class Build {
+
+    @Test
+    void withInvalidPercentile_ShouldThrowIllegalArgumentException() {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(() -> ConversionCostModel.builder().timeoutPercentile(1.5d));
+    }
+
+    @Test
+    void withMinTimeoutGreaterThanMaxTimeout_ShouldThrowIllegalArgumentException() {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(
+              () -> ConversionCostModel.builder().minTaskTimeout(10L).maxTaskTimeout(5L).build());
+    }
+  }
+
+  @Nested
+  class GetTaskTimeout {
+
+    @Test
+    void whenNotEnoughSamples_ShouldReturnDefaultTimeout() {
+
+      final ConversionCostModel model = ConversionCostModel.builder().minSamples(10).build();
+      final ConversionTask task =
+          task(DefaultDocumentFormatRegistry.DOCX, DefaultDocumentFormatRegistry.PDF);
+      model.record(task, 100L);
+
+      assertThat(model.getTaskTimeout(task, 5_000L)).isEqualTo(5_000L);
+      assertThat(model.getExpectedDuration(task)).isEmpty();
+    }
+
+    @Test
+    void whenEnoughSamples_ShouldReturnAdaptiveTimeout() {
+
+      final ConversionCostModel model =
+          ConversionCostModel.builder()
+              .minSamples(10)
+              .timeoutPercentile(0.9d)
+              .timeoutMargin(2.0d)
+              .minTaskTimeout(0L)
+              .build();
+      final ConversionTask task =
+          task(DefaultDocumentFormatRegistry.DOCX, DefaultDocumentFormatRegistry.PDF);
+      for (int i = 0; i < 10; i++) {
+        model.record(task, 1_000L);
+      }
+
+      assertThat(model.getExpectedDuration(task)).hasValue(1_000L);
+      // Durations are bucketed, so the percentile is an approximation (upper bound).
+      assertThat(model.getTaskTimeout(task, 120_000L)).isBetween(2_000L, 2_400L);
+    }
+
+    @Test
+    void whenAdaptiveTimeoutDisabled_ShouldReturnDefaultTimeout() {
+
+      final ConversionCostModel model =
+          ConversionCostModel.builder().adaptiveTimeout(false).minSamples(1).build();
+      final ConversionTask task =
+          task(DefaultDocumentFormatRegistry.DOCX, DefaultDocumentFormatRegistry.PDF);
+      model.record(task, 1_000L);
+
+      assertThat(model.getExpectedDuration(task)).hasValue(1_000L);
+      assertThat(model.getTaskTimeout(task, 5_000L)).isEqualTo(5_000L);
+    }
+
+    @Test
+    void withAdaptiveTimeout_ShouldBeBoundedByMinAndMaxTimeout() {
+
+      final ConversionCostModel model =
+          ConversionCostModel.builder()
+              .minSamples(1)
+              .minTaskTimeout(3_000L)
+              .maxTaskTimeout(60_000L)
+              .build();
+      final ConversionTask small =
+          task(DefaultDocumentFormatRegistry.TXT, DefaultDocumentFormatRegistry.PDF);
+      final ConversionTask large =
+          task(DefaultDocumentFormatRegistry.PPTX, DefaultDocumentFormatRegistry.PDF);
+      model.record(small, 10L);
+      model.record(large, 100_000L);
+
+      assertThat(model.getTaskTimeout(small, 120_000L)).isEqualTo(3_000L);
+      assertThat(model.getTaskTimeout(large, 120_000L)).isEqualTo(60_000L);
+    }
+
+    @Test
+    void withTaskThatIsNotConversionTask_ShouldReturnDefaultTimeout() {
+
+      final ConversionCostModel model = ConversionCostModel.builder().minSamples(1).build();
+      final SimpleOfficeTask task = new SimpleOfficeTask();
+      model.record(task, 1_000L);
+
+      assertThat(model.getTaskTimeout(task, 5_000L)).isEqualTo(5_000L);
+      assertThat(model.getSampleCount(task)).isZero();
+    }
+  }
+
+  @Nested
+  class Persistence {
+
+    @Test
+    void whenSavedAndLoaded_ShouldRestoreSamples(final @TempDir File testFolder)
+        throws IOException {
+
+      final File file = new File(testFolder, "model.json");
+      final ConversionTask task =
+          task(DefaultDocumentFormatRegistry.XLSX, DefaultDocumentFormatRegistry.PDF);
+
+      final ConversionCostModel model = ConversionCostModel.builder().minSamples(2).build();
+      model.record(task, 500L);
+      model.record(task, 1_500L);
+      model.save(file);
+
+      final ConversionCostModel restored = ConversionCostModel.builder().minSamples(2).build();
+      restored.load(file);
+
+      assertThat(restored.getSampleCount(task)).isEqualTo(2L);
+      assertThat(restored.getExpectedDuration(task)).hasValue(1_000L);
+    }
+
+    @Test
+    void whenPersistenceFileConfigured_ShouldPersistAndRestore(final @TempDir File testFolder) {
+
+      final File file = new File(testFolder, "model.json");
+      final ConversionTask task =
+          task(DefaultDocumentFormatRegistry.ODT, DefaultDocumentFormatRegistry.DOC);
+
+      final ConversionCostModel model =
+          ConversionCostModel.builder().persistenceFile(file).build();
+      model.record(task, 200L);
+      model.persist();
+      assertThat(file).isFile();
+
+      final ConversionCostModel restored =
+          ConversionCostModel.builder().persistenceFile(file).build();
+      restored.restore();
+      assertThat(restored.getSampleCount(task)).isEqualTo(1L);
+    }
+
+    @Test
+    void whenLoadedThenMerged_ShouldReplaceThenAddSamples(final @TempDir File testFolder)
+        throws IOException {
+
+      final File file = new File(testFolder, "model.json");
+      final ConversionTask task =
+          task(DefaultDocumentFormatRegistry.XLSX, DefaultDocumentFormatRegistry.PDF);
+
+      final ConversionCostModel model = ConversionCostModel.builder().build();
+      model.record(task, 500L);
+      model.save(file);
+      model.load(file);
+      assertThat(model.getSampleCount(task)).isEqualTo(1L);
+
+      model.merge(file);
+      assertThat(model.getSampleCount(task)).isEqualTo(2L);
+    }
+
+    @Test
+    void whenManagersStoppedAndStarted_ShouldRestoreSamplesOnce(final @TempDir File testFolder)
+        throws OfficeException {
+
+      final File file = new File(testFolder, "model.json");
+      final ConversionTask task =
+          task(DefaultDocumentFormatRegistry.ODT, DefaultDocumentFormatRegistry.DOC);
+      final ConversionCostModel model =
+          ConversionCostModel.builder().persistenceFile(file).build();
+
+      final SimpleOfficeManager first = SimpleOfficeManager.builder().costModel(model).build();
+      first.start();
+      model.record(task, 200L);
+      first.stop();
+
+      final SimpleOfficeManager second = SimpleOfficeManager.builder().costModel(model).build();
+      second.start();
+      second.stop();
+      assertThat(model.getSampleCount(task)).isEqualTo(1L);
+
+      final ConversionCostModel restored =
+          ConversionCostModel.builder().persistenceFile(file).build();
+      restored.restore();
+      restored.restore();
+      assertThat(restored.getSampleCount(task)).isEqualTo(1L);
+    }
+  }
+}
@@ -73,8 +73,10 @@ public final class SimpleOfficeManager
       final File workingDir,
       final int poolSize,
       final long taskExecutionTimeout,
-      final long taskQueueTimeout) {
-    super(poolSize, workingDir, taskQueueTimeout);
+      final long taskQueueTimeout,
+      final int maxBatchSize,
+      final ConversionCostModel costModel) {
+    super(poolSize, workingDir, taskQueueTimeout, maxBatchSize, costModel);
 
     setEntries(
         IntStream.range(0, poolSize)
@@ -106,7 +108,13 @@ public final class SimpleOfficeManager
     public SimpleOfficeManager build() {
 
       final SimpleOfficeManager manager =
-          new SimpleOfficeManager(workingDir, poolSize, taskExecutionTimeout, taskQueueTimeout);
+          new SimpleOfficeManager(
+              workingDir,
+              poolSize,
+              taskExecutionTimeout,
+              taskQueueTimeout,
+              maxBatchSize,
+              costModel);
       if (install) {
         InstalledOfficeManagerHolder.setInstance(manager);
       }
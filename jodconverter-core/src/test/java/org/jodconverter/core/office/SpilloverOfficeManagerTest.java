@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.office;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import org.jodconverter.core.task.SimpleOfficeTask;
+
+/** Contains tests for the {@link SpilloverOfficeManager} class. */
+class SpilloverOfficeManagerTest {
+
+  @Nested
+  class Build {
+
+    @Test
+    void withoutSecondaryManager_ShouldThrowNullPointerException() {
+
+      assertThatNullPointerException()
+          .isThrownBy(
+              () ->
+                  SpilloverOfficeManager.builder()
+                      .primaryManager(SimpleOfficeManager.make())
+                      .build());
+    }
+
+    @Test
+    void withNegativeSpilloverTimeout_ShouldThrowIllegalArgumentException() {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(() -> SpilloverOfficeManager.builder().spilloverTimeout(-1L))
+          .withMessage("spilloverTimeout -1 must greater than or equal to 0");
+    }
+  }
+
+  @Nested
+  class Start {
+
+    @Test
+    void shouldStartAndStopBothManagers() throws OfficeException {
+
+      final SimpleOfficeManager primary = SimpleOfficeManager.make();
+      final SimpleOfficeManager secondary = SimpleOfficeManager.make();
+      final SpilloverOfficeManager manager =
+          SpilloverOfficeManager.builder()
+              .primaryManager(primary)
+              .secondaryManager(secondary)
+              .build();
+
+      manager.start();
+      assertThat(primary.isRunning()).isTrue();
+      assertThat(secondary.isRunning()).isTrue();
+      assertThat(manager.isRunning()).isTrue();
+
+      manager.stop();
+      assertThat(primary.isRunning()).isFalse();
+      assertThat(secondary.isRunning()).isFalse();
+      assertThat(manager.isRunning()).isFalse();
+    }
+  }
+
+  @Nested
+  class Execute {
+
+    @Test
+    void whenPrimaryAvailable_ShouldExecuteOnPrimary() throws OfficeException {
+
+      final SpilloverOfficeManager manager =
+          SpilloverOfficeManager.builder()
+              .primaryManager(SimpleOfficeManager.make())
+              .secondaryManager(SimpleOfficeManager.make())
+              .build();
+      try {
+        manager.start();
+
+        final SimpleOfficeTask primaryTask = new SimpleOfficeTask();
+        final SimpleOfficeTask secondaryTask = new SimpleOfficeTask();
+        manager.execute(primaryTask, () -> secondaryTask);
+
+        assertThat(primaryTask.isCompleted()).isTrue();
+        assertThat(secondaryTask.isCompleted()).isFalse();
+        assertThat(manager.getPrimaryTaskCount()).isEqualTo(1L);
+        assertThat(manager.getSpilloverTaskCount()).isZero();
+
+      } finally {
+        manager.stop();
+      }
+    }
+
+    @Test
+    void whenPrimaryBusy_ShouldSpillOverToSecondary() throws Exception {
+
+      final SimpleOfficeManager primary = SimpleOfficeManager.make();
+      final SpilloverOfficeManager manager =
+          SpilloverOfficeManager.builder()
+              .primaryManager(primary)
+              .secondaryManager(SimpleOfficeManager.make())
+              .spilloverTimeout(100L)
+              .build();
+      try {
+        manager.start();
+
+        // Keep the only entry of the primary manager busy.
+        final Thread thread =
+            new Thread(
+                () -> {
+                  try {
+                    primary.execute(new SimpleOfficeTask(1_000L));
+                  } catch (OfficeException ignored) {
+                    // Ignore
+                  }
+                });
+        thread.start();
+        Thread.sleep(100L);
+
+        final SimpleOfficeTask primaryTask = new SimpleOfficeTask();
+        final SimpleOfficeTask secondaryTask = new SimpleOfficeTask();
+        manager.execute(primaryTask, () -> secondaryTask);
+        thread.join();
+
+        assertThat(primaryTask.isCompleted()).isFalse();
+        assertThat(secondaryTask.isCompleted()).isTrue();
+        assertThat(manager.getPrimaryTaskCount()).isZero();
+        assertThat(manager.getTimeoutSpilloverCount()).isEqualTo(1L);
+        assertThat(manager.getSpilloverTaskCount()).isEqualTo(1L);
+
+      } finally {
+        manager.stop();
+      }
+    }
+  }
+}
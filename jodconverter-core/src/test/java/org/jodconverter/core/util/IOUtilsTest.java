@@ -21,19 +21,29 @@
 package org.jodconverter.core.util;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import org.jodconverter.core.test.util.AssertUtil;
 
 /** Contains tests for the {@link IOUtils} class. */
+@SuppressWarnings("PMD.AvoidFileStream")
 class IOUtilsTest {
 
   @Test
@@ -71,5 +81,79 @@ class IOUtilsTest {
         assertThat(out.toString(encoding.name())).isEqualTo(test);
       }
     }
+
+    @Test
+    void withFileStreams_ShouldCopyWholeFile(@TempDir final File testFolder) throws IOException {
+
+      final byte[] content = new byte[100_000];
+      new Random(1).nextBytes(content);
+      final File source = new File(testFolder, "source");
+      final File target = new File(testFolder, "target");
+      Files.write(source.toPath(), content);
+
+      try (FileInputStream in = new FileInputStream(source);
+          FileOutputStream out = new FileOutputStream(target)) {
+        assertThat(IOUtils.copy(in, out)).isEqualTo(content.length);
+      }
+      assertThat(target).hasBinaryContent(content);
+    }
+
+    @Test
+    void withFileStreamReportingNoSize_ShouldReadStreamUntilItEnds(@TempDir final File testFolder)
+        throws IOException {
+
+      // Files under /proc report a size of 0, like pipes do.
+      final File source = new File("/proc/version");
+      assumeTrue(OSUtils.IS_OS_LINUX && source.canRead());
+
+      final File target = new File(testFolder, "target");
+      try (FileInputStream in = new FileInputStream(source);
+          FileOutputStream out = new FileOutputStream(target)) {
+        assertThat(IOUtils.copy(in, out)).isPositive();
+      }
+      assertThat(target).hasBinaryContent(Files.readAllBytes(source.toPath()));
+
+      final File channelTarget = new File(testFolder, "channelTarget");
+      try (FileInputStream in = new FileInputStream(source);
+          FileChannel out =
+              FileChannel.open(
+                  channelTarget.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+        assertThat(IOUtils.copy(in, out)).isPositive();
+      }
+      assertThat(channelTarget).hasBinaryContent(Files.readAllBytes(source.toPath()));
+    }
+
+    @Test
+    void withInputStreamToFileChannel_ShouldWriteFromChannelPosition(
+        @TempDir final File testFolder) throws IOException {
+
+      final File target = new File(testFolder, "target");
+      Files.write(target.toPath(), "AB".getBytes(StandardCharsets.UTF_8));
+
+      try (ByteArrayInputStream in =
+              new ByteArrayInputStream("CDE".getBytes(StandardCharsets.UTF_8));
+          FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.WRITE)) {
+        out.position(2);
+        assertThat(IOUtils.copy(in, out)).isEqualTo(3);
+        assertThat(out.position()).isEqualTo(5);
+      }
+      assertThat(target).hasContent("ABCDE");
+    }
+
+    @Test
+    void withFileChannelToOutputStream_ShouldCopyFromChannelPosition(
+        @TempDir final File testFolder) throws IOException {
+
+      final File source = new File(testFolder, "source");
+      Files.write(source.toPath(), "ABCDE".getBytes(StandardCharsets.UTF_8));
+
+      try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+          ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        in.position(1);
+        assertThat(IOUtils.copy(in, out)).isEqualTo(4);
+        assertThat(in.position()).isEqualTo(5);
+        assertThat(out.toString("UTF-8")).isEqualTo("BCDE");
+      }
+    }
   }
 }
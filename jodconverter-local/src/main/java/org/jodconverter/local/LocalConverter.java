@@ -22,6 +22,7 @@ package org.jodconverter.local;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.sun.star.document.UpdateDocMode;
@@ -43,8 +44,10 @@ import org.jodconverter.local.filter.DefaultFilterChain;
 import org.jodconverter.local.filter.Filter;
 import org.jodconverter.local.filter.FilterChain;
 import org.jodconverter.local.office.ExternalOfficeManager;
+import org.jodconverter.local.task.AbstractLocalOfficeTask;
 import org.jodconverter.local.task.LoadDocumentMode;
 import org.jodconverter.local.task.LocalConversionTask;
+import org.jodconverter.local.task.LocalMultiTargetConversionTask;
 
 /**
  * Default implementation of a document converter. This implementation will use a provided office
@@ -69,6 +72,9 @@ public final class LocalConverter extends AbstractConverter {
   /** The default behavior regarding the loading of a document. */
   public static final LoadDocumentMode DEFAULT_LOAD_DOCUMENT_MODE = LoadDocumentMode.AUTO;
 
+  /** The default behavior regarding the storing of a document directly to an output stream. */
+  public static final boolean DEFAULT_DIRECT_OUTPUT_STREAM = false;
+
   /**
    * The properties which are applied by default when loading a document if not manually overridden.
    */
@@ -78,6 +84,7 @@ public final class LocalConverter extends AbstractConverter {
   private final Map<String, Object> loadProperties;
   private final Map<String, Object> storeProperties;
   private final FilterChain filterChain;
+  private final boolean directOutputStream;
 
   static {
     final Map<String, Object> loadProperties = new HashMap<>();
@@ -126,13 +133,36 @@ public final class LocalConverter extends AbstractConverter {
       final LoadDocumentMode loadDocumentMode,
       final Map<String, Object> loadProperties,
       final Map<String, Object> storeProperties,
-      final FilterChain filterChain) {
-    super(officeManager, formatRegistry);
+      final FilterChain filterChain,
+      final boolean directOutputStream,
+      final int inMemoryThreshold,
+      final boolean sniffSourceFormat) {
+    super(officeManager, formatRegistry, inMemoryThreshold, sniffSourceFormat);
 
     this.loadDocumentMode = loadDocumentMode;
     this.loadProperties = loadProperties;
     this.storeProperties = storeProperties;
     this.filterChain = filterChain;
+    this.directOutputStream = directOutputStream;
+  }
+
+  @Override
+  protected @Nullable String getConfigurationFingerprint() {
+
+    // What a custom filter chain does to a document cannot be described,
+    // so the results of a converter using one must not be cached.
+    if (filterChain != null) {
+      return null;
+    }
+    return getClass().getName()
+        + "{"
+        + "loadDocumentMode="
+        + loadDocumentMode
+        + ", loadProperties="
+        + loadProperties
+        + ", storeProperties="
+        + storeProperties
+        + '}';
   }
 
   @Override
@@ -165,20 +195,55 @@ public final class LocalConverter extends AbstractConverter {
       super(source, target);
     }
 
+    @Override
+    protected boolean supportsAdditionalTargets() {
+      return true;
+    }
+
     @Override
     public void doExecute() throws OfficeException {
 
+      // Stage the source before queuing the task, and deliver the result once the task is done,
+      // so an office process is only held while the document is loaded, converted and stored, not
+      // while a slow stream is read or written.
+      stage();
+      OfficeException failure = null;
+      try {
+        // Create a conversion task and execute it.
+        officeManager.execute(createTask());
+      } catch (OfficeException ex) {
+        failure = ex;
+      }
+      failure = deliver(failure);
+      if (failure != null) {
+        throw failure;
+      }
+    }
+
+    @Override
+    protected @NonNull AbstractLocalOfficeTask createTask() {
+
       // Determine whether we must use stream adapters.
       final boolean useStreamAdapters =
           loadDocumentMode == LoadDocumentMode.REMOTE
               || loadDocumentMode == LoadDocumentMode.AUTO
                   && officeManager instanceof ExternalOfficeManager;
 
-      // Create a conversion task and execute it.
-      final LocalConversionTask task =
-          new LocalConversionTask(
-              source, target, useStreamAdapters, loadProperties, storeProperties, filterChain);
-      officeManager.execute(task);
+      // Additional targets are stored from the same loaded document.
+      final List<AbstractTargetDocumentSpecs> targets = getTargets();
+      if (targets.size() > 1) {
+        return new LocalMultiTargetConversionTask(
+            source, targets, useStreamAdapters, loadProperties, storeProperties, filterChain);
+      }
+
+      return new LocalConversionTask(
+          source,
+          target,
+          useStreamAdapters,
+          loadProperties,
+          storeProperties,
+          filterChain,
+          directOutputStream);
     }
   }
 
@@ -192,6 +257,7 @@ public final class LocalConverter extends AbstractConverter {
     private boolean applyDefaultLoadProperties = DEFAULT_APPLY_DEFAULT_LOAD_PROPS;
     private boolean useUnsafeQuietUpdate = DEFAULT_USE_UNSAFE_QUIET_UPDATE;
     private LoadDocumentMode loadDocumentMode = DEFAULT_LOAD_DOCUMENT_MODE;
+    private boolean directOutputStream = DEFAULT_DIRECT_OUTPUT_STREAM;
     private FilterChain filterChain;
     private Map<String, Object> loadProperties;
     private Map<String, Object> storeProperties;
@@ -232,7 +298,10 @@ public final class LocalConverter extends AbstractConverter {
           loadDocumentMode,
           loadProperties,
           storeProperties,
-          filterChain);
+          filterChain,
+          directOutputStream,
+          inMemoryThreshold,
+          sniffSourceFormat);
     }
 
     /**
@@ -304,6 +373,27 @@ public final class LocalConverter extends AbstractConverter {
       return this;
     }
 
+    /**
+     * Specifies whether a document converted to an output stream is stored directly to that stream
+     * when the conversion process uses stream adapters (see {@link
+     * #loadDocumentMode(LoadDocumentMode)}), instead of being stored to a temporary file that is
+     * then copied to the stream. The client then receives the converted document as office
+     * produces it, but the office process is held until the whole document is written to the
+     * stream. If the conversion fails after some bytes were written, the thrown exception states
+     * that the output is incomplete.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: false
+     *
+     * @param directOutputStream {@code true} to store documents directly to output streams, {@code
+     *     false} otherwise.
+     * @return This builder instance.
+     */
+    public @NonNull Builder directOutputStream(final boolean directOutputStream) {
+
+      this.directOutputStream = directOutputStream;
+      return this;
+    }
+
     /**
      * Specifies a property, for this converter, that will be applied when a document is loaded
      * during a conversion task, regardless of the input format of the document.
@@ -362,7 +452,8 @@ public final class LocalConverter extends AbstractConverter {
     /**
      * Specifies the filters to apply when converting a document. Filter may be used to modify the
      * document before the conversion (after it has been loaded). Filters are applied in the same
-     * order they appear as arguments.
+     * order they appear as arguments. The results of a converter applying filters are never cached
+     * by a {@link org.jodconverter.core.job.CachingConverter}.
      *
      * @param filters The filters to be applied after the document is loaded and before it is stored
      *     (converted) in the new document format.
@@ -378,7 +469,8 @@ public final class LocalConverter extends AbstractConverter {
     /**
      * Specifies the whole filter chain to apply when converting a document. A FilterChain is used
      * to modify the document before the conversion (after it has been loaded). Filters are applied
-     * in the same order they appear in the chain.
+     * in the same order they appear in the chain. The results of a converter applying a filter
+     * chain are never cached by a {@link org.jodconverter.core.job.CachingConverter}.
      *
      * @param filterChain The FilterChain to be applied after the document is loaded and before it
      *     is stored (converted) in the new document format.
@@ -29,6 +29,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import org.jodconverter.core.office.AbstractOfficeManagerPool;
+import org.jodconverter.core.office.ConversionCostModel;
 import org.jodconverter.core.office.InstalledOfficeManagerHolder;
 import org.jodconverter.core.office.OfficeUtils;
 import org.jodconverter.core.task.OfficeTask;
@@ -111,8 +112,10 @@ public final class ExternalOfficeManager
       final boolean connectFailFast,
       final int maxTasksPerConnection,
       final long taskExecutionTimeout,
-      final long taskQueueTimeout) {
-    super(officeUrls.size(), workingDir, taskQueueTimeout);
+      final long taskQueueTimeout,
+      final int maxBatchSize,
+      final ConversionCostModel costModel) {
+    super(officeUrls.size(), workingDir, taskQueueTimeout, maxBatchSize, costModel);
 
     setEntries(
         officeUrls.stream()
@@ -169,7 +172,9 @@ public final class ExternalOfficeManager
               connectFailFast,
               maxTasksPerConnection,
               taskExecutionTimeout,
-              taskQueueTimeout);
+              taskQueueTimeout,
+              maxBatchSize,
+              costModel);
       if (install) {
         InstalledOfficeManagerHolder.setInstance(manager);
       }
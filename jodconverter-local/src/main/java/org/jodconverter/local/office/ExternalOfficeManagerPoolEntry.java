@@ -137,10 +137,20 @@ class ExternalOfficeManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
   }
 
   @Override
-  protected void handleExecuteTimeoutException(final @NonNull TimeoutException timeoutEx) {
+  protected boolean isConnectionLost(final @NonNull Throwable failure) {
 
-    // Is the task did not complete within the configured timeout, we must reconnect
+    // The objects used by a task are disposed of when the connection is lost,
+    // which the task may notice before the connection listener does.
+    return LocalOfficeUtils.isCausedByDisposal(failure);
+  }
+
+  @Override
+  protected boolean handleExecuteTimeoutException(final @NonNull TimeoutException timeoutEx) {
+
+    // Is the task did not complete within the configured timeout, we must reconnect. The
+    // external office process itself is not restarted.
     reconnect();
+    return false;
   }
 
   @Override
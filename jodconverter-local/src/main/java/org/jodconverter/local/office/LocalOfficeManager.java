@@ -33,6 +33,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.jodconverter.core.office.AbstractOfficeManagerPool;
+import org.jodconverter.core.office.ConversionCostModel;
 import org.jodconverter.core.office.InstalledOfficeManagerHolder;
 import org.jodconverter.core.office.OfficeUtils;
 import org.jodconverter.core.util.AssertUtils;
@@ -126,8 +127,10 @@ public final class LocalOfficeManager
       final boolean disableOpengl,
       final int maxTasksPerProcess,
       final long taskExecutionTimeout,
-      final long taskQueueTimeout) {
-    super(officeUrls.size(), workingDir, taskQueueTimeout);
+      final long taskQueueTimeout,
+      final int maxBatchSize,
+      final ConversionCostModel costModel) {
+    super(officeUrls.size(), workingDir, taskQueueTimeout, maxBatchSize, costModel);
 
     setEntries(
         officeUrls.stream()
@@ -221,7 +224,9 @@ public final class LocalOfficeManager
               disableOpengl,
               maxTasksPerProcess,
               taskExecutionTimeout,
-              taskQueueTimeout);
+              taskQueueTimeout,
+              maxBatchSize,
+              costModel);
       if (install) {
         InstalledOfficeManagerHolder.setInstance(manager);
       }
@@ -30,6 +30,7 @@ import java.util.Map;
 import java.util.stream.Stream;
 
 import com.sun.star.beans.PropertyValue;
+import com.sun.star.lang.DisposedException;
 import com.sun.star.lang.XComponent;
 import com.sun.star.lang.XServiceInfo;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -281,6 +282,26 @@ public final class LocalOfficeUtils {
     return family;
   }
 
+  /**
+   * Gets whether the specified exception, or one of its causes, is a {@link DisposedException},
+   * which is thrown when an office object is used after the connection to office was lost.
+   *
+   * @param failure The exception to inspect.
+   * @return {@code true} if the exception is due to a disposed office object.
+   */
+  /* default */ static boolean isCausedByDisposal(final @NonNull Throwable failure) {
+
+    for (Throwable ex = failure; ex != null; ex = ex.getCause()) {
+      if (ex instanceof DisposedException) {
+        return true;
+      }
+      if (ex.getCause() == ex) {
+        break;
+      }
+    }
+    return false;
+  }
+
   /**
    * Gets the office executable within an office installation.
    *
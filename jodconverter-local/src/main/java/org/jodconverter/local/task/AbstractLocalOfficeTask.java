@@ -24,14 +24,19 @@ import static org.jodconverter.local.office.LocalOfficeUtils.toUnoProperties;
 import static org.jodconverter.local.office.LocalOfficeUtils.toUrl;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
 import com.sun.star.frame.XComponentLoader;
+import com.sun.star.frame.XStorable;
+import com.sun.star.io.XInputStream;
 import com.sun.star.lang.XComponent;
 import com.sun.star.lib.uno.adapter.ByteArrayToXInputStreamAdapter;
+import com.sun.star.lib.uno.adapter.InputStreamToXInputStreamAdapter;
+import com.sun.star.lib.uno.adapter.OutputStreamToXOutputStreamAdapter;
 import com.sun.star.task.DocumentMSPasswordRequest;
 import com.sun.star.task.DocumentPasswordRequest;
 import com.sun.star.task.ErrorCodeIOException;
@@ -46,6 +51,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.job.SourceDocumentSpecsFromBytes;
 import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.core.task.AbstractOfficeTask;
 import org.jodconverter.core.util.AssertUtils;
@@ -63,8 +69,65 @@ public abstract class AbstractLocalOfficeTask extends AbstractOfficeTask {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractLocalOfficeTask.class);
   private static final String ERROR_MESSAGE_LOAD = "Could not open document: ";
+  private static final String ERROR_MESSAGE_STORE = "Could not store document: ";
   protected final Map<String, Object> loadProperties;
   protected final boolean useStreamAdapters;
+  private @Nullable FileChannelToXInputStreamAdapter sourceStream;
+
+  /** Loads a document using a component loader and the given load properties. */
+  @FunctionalInterface
+  private interface DocumentLoader {
+
+    XComponent load(XComponentLoader loader, Map<String, Object> loadProps)
+        throws com.sun.star.uno.Exception, OfficeException;
+  }
+
+  /** Loads the source document of a task. */
+  @FunctionalInterface
+  protected interface SourceLoader {
+
+    /**
+     * Loads the source document.
+     *
+     * @return The loaded document.
+     * @throws OfficeException If the document cannot be loaded.
+     */
+    @NonNull
+    XComponent load() throws OfficeException;
+  }
+
+  /** Processes the source document of a task, loading it when required. */
+  @FunctionalInterface
+  protected interface SourceProcessor {
+
+    /**
+     * Processes the source document, using the specified loader to load it.
+     *
+     * @param sourceLoader The loader of the source document.
+     * @throws OfficeException If the source document cannot be processed.
+     */
+    void process(@NonNull SourceLoader sourceLoader) throws OfficeException;
+  }
+
+  /** Reads a source document other than the source of a task. */
+  @FunctionalInterface
+  protected interface SourceReader {
+
+    /**
+     * Reads the source document from the specified URL, using the specified load properties.
+     *
+     * @param documentName The name of the document, to be used in error messages.
+     * @param url The URL office reads the document from.
+     * @param loadProps The load properties, including the stream office reads the document
+     *     through when stream adapters are used.
+     * @throws Exception If the document cannot be read.
+     */
+    void read(
+        @NonNull String documentName,
+        @NonNull String url,
+        @NonNull Map<@NonNull String, @NonNull Object> loadProps)
+        throws Exception;
+  }
 
   /** Handler used to detect password-protected file. */
   private static class PasswordInteractionHandler implements XInteractionHandler {
@@ -190,33 +253,147 @@ public abstract class AbstractLocalOfficeTask extends AbstractOfficeTask {
     return loadProps;
   }
 
+  // Processes the source document of the task using the specified processor, then
+  // releases the source, whether the processing succeeded or not.
+  protected void processSource(
+      final @NonNull LocalOfficeContext context, final @NonNull SourceProcessor processor)
+      throws OfficeException {
+
+    // When stream adapters are used, a source that can be streamed, like a
+    // document held in memory, is loaded by office without any file.
+    final InputStream stream = useStreamAdapters ? source.getInputStream() : null;
+    if (stream != null) {
+      try {
+        processor.process(() -> loadDocument(context, source, stream));
+      } finally {
+        source.onStreamConsumed();
+      }
+      return;
+    }
+
+    // Obtain a source file that can be loaded by office. If the source
+    // is an input stream, then a temporary file will be created from the
+    // stream. The temporary file will be deleted once the task is done.
+    final File sourceFile = source.getFile();
+    if (LOGGER.isTraceEnabled()) {
+      LOGGER.trace("Local task source file: {}", sourceFile.getAbsolutePath());
+    }
+    try {
+      processor.process(() -> loadDocument(context, sourceFile));
+
+    } finally {
+
+      // Here the source file is no longer required, so we can delete
+      // any temporary file that has been created if required.
+      source.onConsumed(sourceFile);
+    }
+  }
+
   // Loads the document from the specified source file.
   protected @NonNull XComponent loadDocument(
       final @NonNull LocalOfficeContext context, final @NonNull File sourceFile)
       throws OfficeException {
 
+    return loadDocument(
+        context,
+        sourceFile.getName(),
+        (loader, loadProps) -> loadDocumentFromURL(loader, sourceFile, loadProps));
+  }
+
+  // Loads the document from the specified source stream, which is read
+  // by office through a stream adapter, without creating any file. A
+  // document held in memory is given to office as a seekable stream.
+  protected @NonNull XComponent loadDocument(
+      final @NonNull LocalOfficeContext context,
+      final @NonNull SourceDocumentSpecs source,
+      final @NonNull InputStream sourceStream)
+      throws OfficeException {
+
+    return loadDocument(
+        context,
+        "stream",
+        (loader, loadProps) -> {
+          loadProps.put("InputStream", toInputStreamAdapter(source, sourceStream));
+          return loader.loadComponentFromURL(
+              "private:stream", "_blank", 0, toUnoProperties(loadProps));
+        });
+  }
+
+  // Reads the specified document, other than the source of the task, using the specified
+  // reader, then releases the document, whether it was read or not. When stream adapters
+  // are used, office reads the document through a stream, closed once it has been read.
+  protected void readSource(
+      final @NonNull SourceDocumentSpecs otherSource,
+      final @NonNull Map<@NonNull String, @NonNull Object> loadProps,
+      final @NonNull SourceReader reader)
+      throws Exception {
+
+    final InputStream stream = useStreamAdapters ? otherSource.getInputStream() : null;
+    if (stream != null) {
+      try {
+        loadProps.put("InputStream", toInputStreamAdapter(otherSource, stream));
+        reader.read("stream", "private:stream", loadProps);
+      } finally {
+        otherSource.onStreamConsumed();
+      }
+      return;
+    }
+
+    final File file = otherSource.getFile();
+    try {
+      if (useStreamAdapters) {
+        final FileChannelToXInputStreamAdapter adapter = new FileChannelToXInputStreamAdapter(file);
+        try {
+          loadProps.put("InputStream", adapter);
+          reader.read(file.getName(), "private:stream", loadProps);
+        } finally {
+          adapter.closeInput();
+        }
+      } else {
+        reader.read(file.getName(), toUrl(file), loadProps);
+      }
+    } finally {
+      otherSource.onConsumed(file);
+    }
+  }
+
+  // Gets the stream adapter office reads the specified source stream through.
+  // A document held in memory is given to office as a seekable stream.
+  private static XInputStream toInputStreamAdapter(
+      final SourceDocumentSpecs source, final InputStream stream) {
+
+    return source instanceof SourceDocumentSpecsFromBytes
+        ? new ByteArrayToXInputStreamAdapter(((SourceDocumentSpecsFromBytes) source).toByteArray())
+        : new InputStreamToXInputStreamAdapter(stream);
+  }
+
+  private XComponent loadDocument(
+      final LocalOfficeContext context,
+      final String documentName,
+      final DocumentLoader documentLoader)
+      throws OfficeException {
+
     final XComponentLoader loader = context.getComponentLoader();
 
     AssertUtils.notNull(loader, "Context component loader must not be null");
 
     try {
       final Map<String, Object> loadProps = getLoadProperties();
-      final XComponent document = loadDocumentFromURL(loader, sourceFile, loadProps);
+      final XComponent document = documentLoader.load(loader, loadProps);
 
       // Handle password protection request to throw a meaningful exception, if required.
       handlePasswordProtection(document, loadProps);
 
       // The document cannot be null
-      AssertUtils.notNull(document, ERROR_MESSAGE_LOAD + sourceFile.getName());
+      AssertUtils.notNull(document, ERROR_MESSAGE_LOAD + documentName);
 
       return document;
 
     } catch (ErrorCodeIOException exception) {
       throw new OfficeException(
-          ERROR_MESSAGE_LOAD + sourceFile.getName() + "; errorCode: " + exception.ErrCode,
-          exception);
+          ERROR_MESSAGE_LOAD + documentName + "; errorCode: " + exception.ErrCode, exception);
     } catch (com.sun.star.uno.Exception exception) {
-      throw new OfficeException(ERROR_MESSAGE_LOAD + sourceFile.getName(), exception);
+      throw new OfficeException(ERROR_MESSAGE_LOAD + documentName, exception);
     }
   }
 
@@ -225,21 +402,59 @@ public abstract class AbstractLocalOfficeTask extends AbstractOfficeTask {
       throws com.sun.star.uno.Exception, OfficeException {
 
     if (useStreamAdapters) {
+      // Office reads the document through a seekable channel, on demand,
+      // instead of having the whole file copied into the java heap first.
       try {
-        final byte[] bytes = Files.readAllBytes(sourceFile.toPath());
-        loadProps.put("InputStream", new ByteArrayToXInputStreamAdapter(bytes));
+        sourceStream = new FileChannelToXInputStreamAdapter(sourceFile);
+      } catch (IOException exception) {
+        throw new OfficeException(ERROR_MESSAGE_LOAD + sourceFile.getName(), exception);
+      }
+      loadProps.put("InputStream", sourceStream);
 
+      try {
         return loader.loadComponentFromURL(
             "private:stream", "_blank", 0, toUnoProperties(loadProps));
-
-      } catch (IOException exception) {
-        throw new OfficeException(ERROR_MESSAGE_LOAD + sourceFile.getName(), exception);
+      } catch (com.sun.star.uno.Exception | RuntimeException exception) {
+        closeSourceStream();
+        throw exception;
       }
     }
 
     return loader.loadComponentFromURL(toUrl(sourceFile), "_blank", 0, toUnoProperties(loadProps));
   }
 
+  // Stores the specified document as the specified target file, using the given store
+  // properties, which must include a filter name.
+  protected void storeDocument(
+      final @NonNull XComponent document,
+      final @NonNull Map<@NonNull String, @NonNull Object> storeProps,
+      final @NonNull File targetFile)
+      throws OfficeException {
+
+    // FilterName must be specified.
+    AssertUtils.isTrue(storeProps.containsKey("FilterName"), "Unsupported conversion");
+
+    final XStorable storable = Lo.qi(XStorable.class, document);
+    try {
+      if (useStreamAdapters) {
+        try (FileOutputStream outputStream = new FileOutputStream(targetFile)) {
+          storeProps.put("OutputStream", new OutputStreamToXOutputStreamAdapter(outputStream));
+          storable.storeToURL("private:stream", toUnoProperties(storeProps));
+        } catch (IOException exception) {
+          throw new OfficeException(ERROR_MESSAGE_STORE + targetFile.getName(), exception);
+        }
+      } else {
+        storable.storeToURL(toUrl(targetFile), toUnoProperties(storeProps));
+      }
+    } catch (ErrorCodeIOException exception) {
+      throw new OfficeException(
+          ERROR_MESSAGE_STORE + targetFile.getName() + "; errorCode: " + exception.ErrCode,
+          exception);
+    } catch (com.sun.star.uno.Exception exception) {
+      throw new OfficeException(ERROR_MESSAGE_STORE + targetFile.getName(), exception);
+    }
+  }
+
   // Closes the specified document.
   protected void closeDocument(final @Nullable XComponent document) {
 
@@ -264,6 +479,22 @@ public abstract class AbstractLocalOfficeTask extends AbstractOfficeTask {
         }
       }
     }
+
+    // The document no longer needs its source stream, if any.
+    closeSourceStream();
+  }
+
+  // Closes the stream the source document was loaded from, if any.
+  private void closeSourceStream() {
+
+    if (sourceStream != null) {
+      try {
+        sourceStream.closeInput();
+      } catch (com.sun.star.io.IOException ex) {
+        LOGGER.debug("Could not close the source document stream", ex);
+      }
+      sourceStream = null;
+    }
   }
 
   private void handlePasswordProtection(
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A bounded buffer between office and the output stream of a target document, counting the bytes
+ * sent to the output stream so far. Closing this stream only flushes it: the output stream belongs
+ * to the target specifications, which decide whether it must be closed.
+ */
+/* default */ final class DirectOutputStream extends BufferedOutputStream {
+
+  private final CountingOutputStream counter;
+
+  /**
+   * Creates a new stream writing to the specified output stream.
+   *
+   * @param out The output stream of the target document.
+   * @param size The buffer size.
+   */
+  /* default */ DirectOutputStream(final @NonNull OutputStream out, final int size) {
+    this(new CountingOutputStream(out), size);
+  }
+
+  private DirectOutputStream(final CountingOutputStream counter, final int size) {
+    super(counter, size);
+
+    this.counter = counter;
+  }
+
+  /**
+   * Gets the number of bytes sent to the output stream of the target document so far. The bytes
+   * still held in the buffer are not counted.
+   *
+   * @return The byte count.
+   */
+  /* default */ synchronized long getByteCount() {
+    return counter.byteCount;
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+  }
+
+  /** Counts the bytes successfully written to the underlying output stream. */
+  private static final class CountingOutputStream extends FilterOutputStream {
+
+    // Only updated while the buffered stream, which writes to this stream, is locked.
+    private long byteCount;
+
+    private CountingOutputStream(final OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+
+      out.write(b);
+      byteCount++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+
+      out.write(b, off, len);
+      byteCount += len;
+    }
+  }
+}
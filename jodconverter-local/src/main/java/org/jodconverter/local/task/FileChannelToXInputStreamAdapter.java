@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.sun.star.io.BufferSizeExceededException;
+import com.sun.star.io.IOException;
+import com.sun.star.io.NotConnectedException;
+import com.sun.star.io.XInputStream;
+import com.sun.star.io.XSeekable;
+import com.sun.star.lang.IllegalArgumentException;
+import com.sun.star.lib.uno.helper.ComponentBase;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A seekable {@link XInputStream} reading a file on demand through a {@link FileChannel}. Unlike
+ * a byte array adapter, the document is never fully loaded into the java heap; office only pulls
+ * the bytes it needs, in whatever order it needs them.
+ */
+/* default */ final class FileChannelToXInputStreamAdapter extends ComponentBase
+    implements XInputStream, XSeekable {
+
+  private final FileChannel channel;
+  private final long length;
+  private long position;
+  private boolean closed;
+
+  /**
+   * Creates a new adapter opening the specified file for reading.
+   *
+   * @param file The file to read.
+   * @throws java.io.IOException If the file cannot be opened.
+   */
+  /* default */ FileChannelToXInputStreamAdapter(final @NonNull File file)
+      throws java.io.IOException {
+    super();
+
+    this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    this.length = channel.size();
+  }
+
+  @Override
+  public synchronized int readBytes(final byte[][] data, final int bytesToRead)
+      throws NotConnectedException, BufferSizeExceededException, IOException {
+
+    checkConnected();
+    if (bytesToRead < 0) {
+      throw new BufferSizeExceededException("Invalid number of bytes to read: " + bytesToRead);
+    }
+
+    final int count = (int) Math.min(bytesToRead, length - position);
+    final ByteBuffer buffer = ByteBuffer.allocate(count);
+    try {
+      // Positional reads never move the channel position, so the
+      // stream position is the only state to maintain.
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, position + buffer.position()) < 0) {
+          break; // The file has been truncated since it was opened
+        }
+      }
+    } catch (java.io.IOException ex) {
+      throw new IOException(ex.getMessage(), this);
+    }
+
+    final int read = buffer.position();
+    position += read;
+    data[0] = read == count ? buffer.array() : Arrays.copyOf(buffer.array(), read);
+    return read;
+  }
+
+  @Override
+  public int readSomeBytes(final byte[][] data, final int maxBytesToRead)
+      throws NotConnectedException, BufferSizeExceededException, IOException {
+
+    return readBytes(data, maxBytesToRead);
+  }
+
+  @Override
+  public synchronized void skipBytes(final int bytesToSkip)
+      throws NotConnectedException, BufferSizeExceededException, IOException {
+
+    checkConnected();
+    if (bytesToSkip < 0) {
+      throw new BufferSizeExceededException("Invalid number of bytes to skip: " + bytesToSkip);
+    }
+
+    position = Math.min(length, position + bytesToSkip);
+  }
+
+  @Override
+  public synchronized int available() throws NotConnectedException, IOException {
+
+    checkConnected();
+    return (int) Math.min(Integer.MAX_VALUE, length - position);
+  }
+
+  @Override
+  public synchronized void closeInput() throws NotConnectedException, IOException {
+
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      channel.close();
+    } catch (java.io.IOException ex) {
+      throw new IOException(ex.getMessage(), this);
+    }
+  }
+
+  @Override
+  public synchronized void seek(final long location) throws IllegalArgumentException, IOException {
+
+    checkConnected();
+    if (location < 0 || location > length) {
+      throw new IllegalArgumentException("Invalid seek location: " + location, this, (short) 0);
+    }
+
+    position = location;
+  }
+
+  @Override
+  public synchronized long getPosition() throws IOException {
+
+    checkConnected();
+    return position;
+  }
+
+  @Override
+  public synchronized long getLength() throws IOException {
+
+    checkConnected();
+    return length;
+  }
+
+  // Ensures the stream has not been closed yet.
+  private void checkConnected() throws NotConnectedException {
+
+    if (closed) {
+      throw new NotConnectedException("The input stream has been closed", this);
+    }
+  }
+}
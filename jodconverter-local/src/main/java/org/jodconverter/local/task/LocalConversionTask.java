@@ -21,11 +21,9 @@
 package org.jodconverter.local.task;
 
 import static org.jodconverter.local.office.LocalOfficeUtils.toUnoProperties;
-import static org.jodconverter.local.office.LocalOfficeUtils.toUrl;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -33,7 +31,6 @@ import java.util.Optional;
 import com.sun.star.frame.XStorable;
 import com.sun.star.lang.XComponent;
 import com.sun.star.lib.uno.adapter.OutputStreamToXOutputStreamAdapter;
-import com.sun.star.task.ErrorCodeIOException;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
@@ -45,6 +42,7 @@ import org.jodconverter.core.job.SourceDocumentSpecs;
 import org.jodconverter.core.job.TargetDocumentSpecs;
 import org.jodconverter.core.office.OfficeContext;
 import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.task.ConversionTask;
 import org.jodconverter.core.util.AssertUtils;
 import org.jodconverter.local.filter.FilterChain;
 import org.jodconverter.local.filter.RefreshFilter;
@@ -53,15 +51,17 @@ import org.jodconverter.local.office.LocalOfficeUtils;
 import org.jodconverter.local.office.utils.Lo;
 
 /** Represents the default behavior for a local conversion task. */
-public class LocalConversionTask extends AbstractLocalOfficeTask {
+public class LocalConversionTask extends AbstractLocalOfficeTask implements ConversionTask {
 
-  private static final String ERROR_MESSAGE_STORE = "Could not store document: ";
+  // Size of the buffer between office and the output stream of a target document.
+  private static final int DIRECT_OUTPUT_BUFFER_SIZE = 64 * 1024;
 
   private static final Logger LOGGER = LoggerFactory.getLogger(LocalConversionTask.class);
 
   private final TargetDocumentSpecs target;
   private final FilterChain filterChain;
   private final Map<String, Object> storeProperties;
+  private final boolean directOutputStream;
 
   /**
    * Creates a new conversion task from a specified source to a specified target.
@@ -84,11 +84,45 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
       final @Nullable Map<@NonNull String, @NonNull Object> loadProperties,
       final @Nullable Map<@NonNull String, @NonNull Object> storeProperties,
       final @Nullable FilterChain filterChain) {
+    this(source, target, useStreamAdapters, loadProperties, storeProperties, filterChain, false);
+  }
+
+  /**
+   * Creates a new conversion task from a specified source to a specified target.
+   *
+   * @param source The source specifications for the conversion.
+   * @param target The target specifications for the conversion.
+   * @param useStreamAdapters Indicates whether document are loaded/stored using stream adapters.
+   * @param loadProperties The load properties to be applied when loading the document. These
+   *     properties are added after the load properties of the document format specified in the
+   *     {@code source} arguments.
+   * @param storeProperties The store properties to be applied when storing the document. These
+   *     properties are added after the store properties of the document format specified in the
+   *     {@code target} arguments.
+   * @param filterChain The filter chain to use with this task.
+   * @param directOutputStream Indicates whether, when stream adapters are used and the target
+   *     provides an output stream, the document is stored directly to that stream instead of a
+   *     temporary file.
+   */
+  public LocalConversionTask(
+      final @NonNull SourceDocumentSpecs source,
+      final @NonNull TargetDocumentSpecs target,
+      final boolean useStreamAdapters,
+      final @Nullable Map<@NonNull String, @NonNull Object> loadProperties,
+      final @Nullable Map<@NonNull String, @NonNull Object> storeProperties,
+      final @Nullable FilterChain filterChain,
+      final boolean directOutputStream) {
     super(source, useStreamAdapters, loadProperties);
 
     this.target = target;
     this.filterChain = Optional.ofNullable(filterChain).orElse(RefreshFilter.CHAIN).copy();
     this.storeProperties = storeProperties;
+    this.directOutputStream = directOutputStream;
+  }
+
+  @Override
+  public @NonNull TargetDocumentSpecs getTarget() {
+    return target;
   }
 
   @Override
@@ -108,51 +142,107 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
     }
     final LocalOfficeContext localContext = (LocalOfficeContext) context;
 
-    // Obtain a source file that can be loaded by office. If the source
-    // is an input stream, then a temporary file will be created from the
-    // stream. The temporary file will be deleted once the task is done.
-    final File sourceFile = source.getFile();
+    processSource(localContext, sourceLoader -> convert(localContext, sourceLoader));
+  }
+
+  // Converts the source document, loaded using the specified loader, to the target.
+  private void convert(final LocalOfficeContext context, final SourceLoader sourceLoader)
+      throws OfficeException {
+
+    // Store the document directly to the output stream of the target, if
+    // allowed, so the client receives the bytes as office produces them.
+    final OutputStream targetStream =
+        useStreamAdapters && directOutputStream ? target.getOutputStream() : null;
+    if (targetStream == null) {
+      convertToFile(context, sourceLoader);
+    } else {
+      convertToStream(context, sourceLoader, targetStream);
+    }
+  }
+
+  // Converts the source document to the target file.
+  private void convertToFile(final LocalOfficeContext context, final SourceLoader sourceLoader)
+      throws OfficeException {
+
+    // Get the target file (which is a temporary file if the
+    // output target is an output stream).
+    final File targetFile = target.getFile();
     if (LOGGER.isTraceEnabled()) {
-      LOGGER.trace("Local conversion source file: {}", sourceFile.getAbsolutePath());
+      LOGGER.trace("Local conversion target file: {}", targetFile.getAbsolutePath());
     }
+
+    XComponent document = null;
     try {
+      document = sourceLoader.load();
+      modifyDocument(context, document);
+      storeDocument(document, targetFile);
+
+      // onComplete on target will copy the temp file to
+      // the OutputStream and then delete the temp file
+      // if the output is an OutputStream
+      target.onComplete(targetFile);
+
+    } catch (OfficeException officeEx) {
+      LOGGER.error("Local conversion failed.", officeEx);
+      target.onFailure(targetFile, officeEx);
+      throw officeEx;
+    } catch (Exception ex) {
+      LOGGER.error("Local conversion failed.", ex);
+      final OfficeException officeEx = new OfficeException("Local conversion failed", ex);
+      target.onFailure(targetFile, officeEx);
+      throw officeEx;
+    } finally {
+      closeDocument(document);
+    }
+  }
 
-      // Get the target file (which is a temporary file if the
-      // output target is an output stream).
-      final File targetFile = target.getFile();
-      if (LOGGER.isTraceEnabled()) {
-        LOGGER.trace("Local conversion target file: {}", targetFile.getAbsolutePath());
-      }
+  // Converts the source document directly to the output stream of the target.
+  private void convertToStream(
+      final LocalOfficeContext context,
+      final SourceLoader sourceLoader,
+      final OutputStream targetStream)
+      throws OfficeException {
 
-      XComponent document = null;
-      try {
-        document = loadDocument(localContext, sourceFile);
-        modifyDocument(context, document);
-        storeDocument(document, targetFile);
-
-        // onComplete on target will copy the temp file to
-        // the OutputStream and then delete the temp file
-        // if the output is an OutputStream
-        target.onComplete(targetFile);
-
-      } catch (OfficeException officeEx) {
-        LOGGER.error("Local conversion failed.", officeEx);
-        target.onFailure(targetFile, officeEx);
-        throw officeEx;
-      } catch (Exception ex) {
-        LOGGER.error("Local conversion failed.", ex);
-        final OfficeException officeEx = new OfficeException("Local conversion failed", ex);
-        target.onFailure(targetFile, officeEx);
-        throw officeEx;
-      } finally {
-        closeDocument(document);
+    final DirectOutputStream outputStream =
+        new DirectOutputStream(targetStream, DIRECT_OUTPUT_BUFFER_SIZE);
+    XComponent document = null;
+    try {
+      document = sourceLoader.load();
+      modifyDocument(context, document);
+
+      final Map<String, Object> storeProps = getStoreProperties(document);
+
+      // FilterName must be specified.
+      AssertUtils.isTrue(storeProps.containsKey("FilterName"), "Unsupported conversion");
+      storeProps.put("OutputStream", new OutputStreamToXOutputStreamAdapter(outputStream));
+      Lo.qi(XStorable.class, document).storeToURL("private:stream", toUnoProperties(storeProps));
+      outputStream.flush();
+
+      target.onStreamComplete();
+
+    } catch (Exception ex) {
+      // Some bytes may already have reached the client, which must then
+      // know that the output it received is incomplete.
+      final long byteCount = outputStream.getByteCount();
+      final OfficeException officeEx;
+      if (byteCount > 0) {
+        officeEx =
+            new OfficeException(
+                String.format(
+                    "Local conversion failed after %d bytes were sent to the target stream;"
+                        + " the output is incomplete",
+                    byteCount),
+                ex);
+      } else if (ex instanceof OfficeException) {
+        officeEx = (OfficeException) ex;
+      } else {
+        officeEx = new OfficeException("Local conversion failed", ex);
       }
-
+      LOGGER.error("Local conversion failed.", officeEx);
+      target.onStreamFailure(officeEx);
+      throw officeEx;
     } finally {
-
-      // Here the source file is no longer required, so we can delete
-      // any temporary file that has been created if required.
-      source.onConsumed(sourceFile);
+      closeDocument(document);
     }
   }
 
@@ -183,36 +273,7 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
   protected void storeDocument(final @NonNull XComponent document, final @NonNull File targetFile)
       throws OfficeException {
 
-    final Map<String, Object> storeProps = getStoreProperties(document);
-
-    // FilterName must be specified.
-    AssertUtils.isTrue(storeProps.containsKey("FilterName"), "Unsupported conversion");
-
-    try {
-      storeDocumentToURL(Lo.qi(XStorable.class, document), targetFile, storeProps);
-    } catch (ErrorCodeIOException errorCodeIoEx) {
-      throw new OfficeException(
-          ERROR_MESSAGE_STORE + targetFile.getName() + "; errorCode: " + errorCodeIoEx.ErrCode,
-          errorCodeIoEx);
-    } catch (com.sun.star.uno.Exception ioEx) {
-      throw new OfficeException(ERROR_MESSAGE_STORE + targetFile.getName(), ioEx);
-    }
-  }
-
-  private void storeDocumentToURL(
-      final XStorable storable, final File targetFile, final Map<String, Object> storeProps)
-      throws com.sun.star.uno.Exception, OfficeException {
-
-    if (useStreamAdapters) {
-      try (FileOutputStream outputStream = new FileOutputStream(targetFile)) {
-        storeProps.put("OutputStream", new OutputStreamToXOutputStreamAdapter(outputStream));
-        storable.storeToURL("private:stream", toUnoProperties(storeProps));
-      } catch (IOException exception) {
-        throw new OfficeException(ERROR_MESSAGE_STORE + targetFile.getName(), exception);
-      }
-    } else {
-      storable.storeToURL(toUrl(targetFile), toUnoProperties(storeProps));
-    }
+    storeDocument(document, getStoreProperties(document), targetFile);
   }
 
   @Override
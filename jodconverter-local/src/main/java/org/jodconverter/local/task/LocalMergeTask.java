@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import static org.jodconverter.local.office.LocalOfficeUtils.toUnoProperties;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.document.XDocumentInsertable;
+import com.sun.star.lang.XComponent;
+import com.sun.star.sheet.XSpreadsheetDocument;
+import com.sun.star.sheet.XSpreadsheets2;
+import com.sun.star.style.BreakType;
+import com.sun.star.text.ControlCharacter;
+import com.sun.star.text.XText;
+import com.sun.star.text.XTextCursor;
+import com.sun.star.text.XTextDocument;
+import com.sun.star.util.CloseVetoException;
+import com.sun.star.util.XCloseable;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.job.TargetDocumentSpecs;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.task.ConversionTask;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.local.LocalConverter;
+import org.jodconverter.local.filter.FilterChain;
+import org.jodconverter.local.filter.RefreshFilter;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.jodconverter.local.office.utils.Lo;
+
+/**
+ * A local office task merging many source documents into one target document, in a single office
+ * session. The first source is loaded and becomes the merged document; every other source is then
+ * appended to it, in order, and the merged document, modified by the filter chain, is stored once.
+ *
+ * <p>The family of the first source determines how the other sources are merged:
+ *
+ * <ul>
+ *   <li>into a text document, any document that can be imported as text is inserted at the end of
+ *       the merged document, optionally starting on a new page;
+ *   <li>into a spreadsheet, the sheets of every other spreadsheet are imported after the last
+ *       sheet of the merged document.
+ * </ul>
+ *
+ * <p>A source that cannot be merged, like a presentation merged into a spreadsheet, makes the task
+ * fail with a message naming this source. When stream adapters are used, office reads every source
+ * through a stream, like the source of a conversion task; the sources that have not been merged
+ * when the task fails are discarded.
+ */
+public class LocalMergeTask extends AbstractLocalOfficeTask implements ConversionTask {
+
+  private static final String ERROR_MESSAGE_MERGE = "Could not merge document: ";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LocalMergeTask.class);
+
+  private final List<SourceDocumentSpecs> sources;
+  private final TargetDocumentSpecs target;
+  private final boolean pageBreaks;
+  private final Map<String, Object> storeProperties;
+  private final FilterChain filterChain;
+  private final List<Long> sourceTimes = new ArrayList<>();
+  private int consumedSources;
+
+  /**
+   * Creates a new task merging the specified sources into the specified target.
+   *
+   * @param sources The sources to merge, in order, at least one.
+   * @param target The target of the merged document.
+   * @param pageBreaks Indicates whether every source merged into a text document starts on a new
+   *     page.
+   */
+  public LocalMergeTask(
+      final @NonNull List<? extends @NonNull SourceDocumentSpecs> sources,
+      final @NonNull TargetDocumentSpecs target,
+      final boolean pageBreaks) {
+    this(sources, target, pageBreaks, false, null, null, null);
+  }
+
+  /**
+   * Creates a new task merging the specified sources into the specified target.
+   *
+   * @param sources The sources to merge, in order, at least one.
+   * @param target The target of the merged document.
+   * @param pageBreaks Indicates whether every source merged into a text document starts on a new
+   *     page.
+   * @param useStreamAdapters Indicates whether the sources are loaded, and the merged document is
+   *     stored, using stream adapters.
+   * @param loadProperties The load properties to be applied when loading the sources. These
+   *     properties are added after the load properties of the document format of the first source.
+   * @param storeProperties The store properties to be applied when storing the merged document.
+   *     These properties are added after the store properties of the document format of the
+   *     target.
+   * @param filterChain The filter chain applied to the merged document before it is stored.
+   */
+  public LocalMergeTask(
+      final @NonNull List<? extends @NonNull SourceDocumentSpecs> sources,
+      final @NonNull TargetDocumentSpecs target,
+      final boolean pageBreaks,
+      final boolean useStreamAdapters,
+      final @Nullable Map<@NonNull String, @NonNull Object> loadProperties,
+      final @Nullable Map<@NonNull String, @NonNull Object> storeProperties,
+      final @Nullable FilterChain filterChain) {
+    super(firstSource(sources), useStreamAdapters, loadProperties);
+
+    AssertUtils.notNull(target, "target must not be null");
+    this.sources = Collections.unmodifiableList(new ArrayList<>(sources));
+    this.target = target;
+    this.pageBreaks = pageBreaks;
+    this.storeProperties = storeProperties;
+    this.filterChain = Optional.ofNullable(filterChain).orElse(RefreshFilter.CHAIN).copy();
+  }
+
+  private static SourceDocumentSpecs firstSource(
+      final List<? extends SourceDocumentSpecs> sources) {
+
+    AssertUtils.notEmpty(sources, "sources must not be null nor empty");
+    return sources.get(0);
+  }
+
+  @Override
+  public @NonNull TargetDocumentSpecs getTarget() {
+    return target;
+  }
+
+  /**
+   * Gets the sources merged by this task.
+   *
+   * @return An unmodifiable list of the source specifications, in order.
+   */
+  public @NonNull List<@NonNull SourceDocumentSpecs> getSources() {
+    return sources;
+  }
+
+  /**
+   * Gets the time, in milliseconds, spent to merge each source, once the task has been executed.
+   * The time of the first source is the time spent to load it. If the task failed, the list only
+   * contains the times of the sources merged before the failure.
+   *
+   * @return An unmodifiable list of the times, in the order of the sources.
+   */
+  public @NonNull List<@NonNull Long> getSourceTimes() {
+    return Collections.unmodifiableList(sourceTimes);
+  }
+
+  @Override
+  public void execute(final @NonNull OfficeContext context) throws OfficeException {
+
+    LOGGER.info("Executing local merge task of {} sources...", sources.size());
+    final LocalOfficeContext localContext = (LocalOfficeContext) context;
+
+    try {
+      processSource(localContext, sourceLoader -> merge(localContext, sourceLoader));
+
+    } finally {
+      // The sources that have not been merged, because of a failure, are no longer required.
+      for (int i = consumedSources + 1; i < sources.size(); i++) {
+        sources.get(i).discardStaged();
+      }
+    }
+  }
+
+  // Merges the sources into the first one, loaded using the specified loader, and stores it.
+  private void merge(final LocalOfficeContext context, final SourceLoader sourceLoader)
+      throws OfficeException {
+
+    XComponent document = null;
+    try {
+      final long start = System.nanoTime();
+      document = sourceLoader.load();
+      addSourceTime(source, start);
+
+      final DocumentFamily family = LocalOfficeUtils.getDocumentFamily(document);
+      if (sources.size() > 1
+          && family != DocumentFamily.TEXT
+          && family != DocumentFamily.WEB
+          && family != DocumentFamily.SPREADSHEET) {
+        throw new OfficeException(
+            String.format(
+                "Could not merge documents; documents can only be merged into a text document "
+                    + "or a spreadsheet, not into a %s document",
+                family.name().toLowerCase(Locale.ROOT)));
+      }
+
+      mergeSources(context, document, family);
+      filterChain.doFilter(context, document);
+
+      // Get the target file (which is a temporary file if the
+      // output target is an output stream).
+      final File targetFile = target.getFile();
+      try {
+        storeDocument(document, getStoreProperties(family), targetFile);
+        target.onComplete(targetFile);
+      } catch (Exception ex) {
+        target.onFailure(targetFile, ex);
+        throw ex;
+      }
+
+    } catch (OfficeException officeEx) {
+      LOGGER.error("Local merge failed.", officeEx);
+      throw officeEx;
+    } catch (Exception ex) {
+      LOGGER.error("Local merge failed.", ex);
+      throw new OfficeException("Local merge failed", ex);
+    } finally {
+      closeDocument(document);
+    }
+  }
+
+  // Merges every other source than the first one into the merged document, in order.
+  private void mergeSources(
+      final LocalOfficeContext context, final XComponent document, final DocumentFamily family)
+      throws Exception {
+
+    for (final SourceDocumentSpecs mergedSource : sources.subList(1, sources.size())) {
+      final long start = System.nanoTime();
+
+      // The source is released by readSource, whether it is merged or not.
+      consumedSources++;
+      readSource(
+          mergedSource,
+          getFormatLoadProperties(mergedSource),
+          (name, url, loadProps) -> mergeDocument(context, document, family, name, url, loadProps));
+      addSourceTime(mergedSource, start);
+    }
+  }
+
+  private void addSourceTime(final SourceDocumentSpecs mergedSource, final long start) {
+
+    final long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    sourceTimes.add(time);
+    LOGGER.debug("Source {} merged in {} ms", mergedSource, time);
+  }
+
+  // Merges the specified source document into the merged document.
+  private void mergeDocument(
+      final LocalOfficeContext context,
+      final XComponent document,
+      final DocumentFamily family,
+      final String mergedName,
+      final String mergedUrl,
+      final Map<String, Object> loadProps)
+      throws OfficeException {
+
+    try {
+      if (family == DocumentFamily.SPREADSHEET) {
+        importSheets(context, document, mergedName, mergedUrl, loadProps);
+      } else {
+        insertText(document, mergedUrl, loadProps);
+      }
+    } catch (OfficeException officeEx) {
+      throw officeEx;
+    } catch (Exception ex) {
+      throw new OfficeException(ERROR_MESSAGE_MERGE + mergedName, ex);
+    }
+  }
+
+  // Inserts the specified source document at the end of the merged text document.
+  private void insertText(
+      final XComponent document, final String mergedUrl, final Map<String, Object> loadProps)
+      throws Exception {
+
+    final XText text = Lo.qi(XTextDocument.class, document).getText();
+
+    // We need the text cursor in order to go to the end of the document.
+    final XTextCursor textCursor = text.createTextCursor();
+    textCursor.gotoEnd(false);
+
+    if (pageBreaks) {
+      // The inserted document starts a new paragraph, on a new page.
+      text.insertControlCharacter(textCursor, ControlCharacter.PARAGRAPH_BREAK, false);
+      Lo.qi(XPropertySet.class, textCursor).setPropertyValue("BreakType", BreakType.PAGE_BEFORE);
+    }
+
+    Lo.qi(XDocumentInsertable.class, textCursor)
+        .insertDocumentFromURL(mergedUrl, toUnoProperties(loadProps));
+  }
+
+  // Imports every sheet of the specified source document after the last sheet of the merged
+  // document.
+  private void importSheets(
+      final LocalOfficeContext context,
+      final XComponent document,
+      final String mergedName,
+      final String mergedUrl,
+      final Map<String, Object> loadProps)
+      throws Exception {
+
+    appendProperties(
+        loadProps,
+        loadProperties == null ? LocalConverter.DEFAULT_LOAD_PROPERTIES : loadProperties);
+    final XComponent mergedDocument =
+        context
+            .getComponentLoader()
+            .loadComponentFromURL(mergedUrl, "_blank", 0, toUnoProperties(loadProps));
+    AssertUtils.notNull(mergedDocument, "Could not open document: " + mergedName);
+    try {
+      final DocumentFamily mergedFamily = LocalOfficeUtils.getDocumentFamily(mergedDocument);
+      if (mergedFamily != DocumentFamily.SPREADSHEET) {
+        throw new OfficeException(
+            String.format(
+                ERROR_MESSAGE_MERGE + "%s; a %s document cannot be merged into a spreadsheet",
+                mergedName,
+                mergedFamily.name().toLowerCase(Locale.ROOT)));
+      }
+
+      final XSpreadsheetDocument mergedSheets =
+          Lo.qi(XSpreadsheetDocument.class, mergedDocument);
+      final XSpreadsheets2 sheets =
+          Lo.qi(XSpreadsheets2.class, Lo.qi(XSpreadsheetDocument.class, document).getSheets());
+      int position = sheets.getElementNames().length;
+      for (final String name : mergedSheets.getSheets().getElementNames()) {
+        // Office renames an imported sheet whose name is already used.
+        sheets.importSheet(mergedSheets, name, position++);
+      }
+    } finally {
+      closeMergedDocument(mergedDocument);
+    }
+  }
+
+  // Gets the load properties of the document format of the specified source, if known.
+  private static Map<String, Object> getFormatLoadProperties(final SourceDocumentSpecs source) {
+
+    final Map<String, Object> loadProps = new HashMap<>();
+    if (source.getFormat() != null) {
+      appendProperties(loadProps, source.getFormat().getLoadProperties());
+    }
+    return loadProps;
+  }
+
+  // Closes a document loaded only to be merged. Unlike closeDocument, this
+  // leaves the stream the merged document was loaded from, if any, open.
+  private static void closeMergedDocument(final XComponent mergedDocument) {
+
+    final XCloseable closeable = Lo.qiOptional(XCloseable.class, mergedDocument).orElse(null);
+    if (closeable == null) {
+      mergedDocument.dispose();
+    } else {
+      try {
+        closeable.close(true);
+      } catch (CloseVetoException ignored) {
+        // whoever raised the veto should close the document
+      }
+    }
+  }
+
+  // Gets the office properties to apply when the merged document is stored.
+  private Map<String, Object> getStoreProperties(final DocumentFamily family) {
+    AssertUtils.notNull(target.getFormat(), "Target format must not be null");
+
+    final Map<String, Object> storeProps = new HashMap<>();
+    appendProperties(storeProps, target.getFormat().getStoreProperties(family));
+    appendProperties(storeProps, storeProperties);
+    return storeProps;
+  }
+
+  @Override
+  public @NonNull String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "sources="
+        + sources
+        + ", loadProperties="
+        + loadProperties
+        + ", target="
+        + target
+        + ", pageBreaks="
+        + pageBreaks
+        + ", storeProperties="
+        + storeProperties
+        + ", useStreamAdapters="
+        + useStreamAdapters
+        + '}';
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.sun.star.lang.XComponent;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.job.TargetDocumentSpecs;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.task.ConversionTask;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.local.filter.FilterChain;
+import org.jodconverter.local.filter.RefreshFilter;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+
+/**
+ * A local conversion task converting a source document to many targets. The document is loaded,
+ * and modified by the filter chain, only once; it is then stored to each target, in its own
+ * format. Loading the document is usually the most expensive part of a conversion, so this is
+ * much cheaper than a conversion task per target.
+ *
+ * <p>A target that cannot be stored does not prevent the document from being stored to the
+ * remaining targets; the task then fails with the exception raised by the first failing target.
+ */
+public class LocalMultiTargetConversionTask extends AbstractLocalOfficeTask
+    implements ConversionTask {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(LocalMultiTargetConversionTask.class);
+
+  private final List<TargetDocumentSpecs> targets;
+  private final FilterChain filterChain;
+  private final Map<String, Object> storeProperties;
+
+  /**
+   * Creates a new conversion task from a specified source to the specified targets.
+   *
+   * @param source The source specifications for the conversion.
+   * @param targets The target specifications for the conversion, at least one.
+   * @param useStreamAdapters Indicates whether document are loaded/stored using stream adapters.
+   * @param loadProperties The load properties to be applied when loading the document. These
+   *     properties are added after the load properties of the document format specified in the
+   *     {@code source} arguments.
+   * @param storeProperties The store properties to be applied when storing the document. These
+   *     properties are added after the store properties of the document format of each target.
+   * @param filterChain The filter chain to use with this task.
+   */
+  public LocalMultiTargetConversionTask(
+      final @NonNull SourceDocumentSpecs source,
+      final @NonNull List<? extends @NonNull TargetDocumentSpecs> targets,
+      final boolean useStreamAdapters,
+      final @Nullable Map<@NonNull String, @NonNull Object> loadProperties,
+      final @Nullable Map<@NonNull String, @NonNull Object> storeProperties,
+      final @Nullable FilterChain filterChain) {
+    super(source, useStreamAdapters, loadProperties);
+
+    AssertUtils.notNull(targets, "targets must not be null");
+    AssertUtils.isTrue(!targets.isEmpty(), "targets must not be empty");
+    this.targets = Collections.unmodifiableList(new ArrayList<>(targets));
+    this.filterChain = Optional.ofNullable(filterChain).orElse(RefreshFilter.CHAIN).copy();
+    this.storeProperties = storeProperties;
+  }
+
+  /**
+   * Gets the first target of the conversion.
+   *
+   * @return The first target specifications.
+   */
+  @Override
+  public @NonNull TargetDocumentSpecs getTarget() {
+    return targets.get(0);
+  }
+
+  /**
+   * Gets all the targets of the conversion.
+   *
+   * @return An unmodifiable list of the target specifications.
+   */
+  public @NonNull List<@NonNull TargetDocumentSpecs> getTargets() {
+    return targets;
+  }
+
+  @Override
+  public void execute(final @NonNull OfficeContext context) throws OfficeException {
+
+    LOGGER.info("Executing local conversion task to {} targets...", targets.size());
+    final LocalOfficeContext localContext = (LocalOfficeContext) context;
+
+    processSource(localContext, sourceLoader -> convert(localContext, sourceLoader));
+  }
+
+  // Converts the source document, loaded once using the specified loader, to every target.
+  private void convert(final LocalOfficeContext context, final SourceLoader sourceLoader)
+      throws OfficeException {
+
+    XComponent document = null;
+    try {
+      try {
+        document = sourceLoader.load();
+        filterChain.doFilter(context, document);
+      } catch (OfficeException officeEx) {
+        LOGGER.error("Local conversion failed.", officeEx);
+        throw officeEx;
+      } catch (Exception ex) {
+        LOGGER.error("Local conversion failed.", ex);
+        throw new OfficeException("Local conversion failed", ex);
+      }
+
+      final DocumentFamily family = LocalOfficeUtils.getDocumentFamily(document);
+      OfficeException failure = null;
+      for (final TargetDocumentSpecs target : targets) {
+        final OfficeException targetEx = store(document, family, target);
+        if (failure == null) {
+          failure = targetEx;
+        } else if (targetEx != null) {
+          failure.addSuppressed(targetEx);
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+
+    } finally {
+      closeDocument(document);
+    }
+  }
+
+  // Stores the document to the specified target, returning the failure, if any.
+  private @Nullable OfficeException store(
+      final XComponent document, final DocumentFamily family, final TargetDocumentSpecs target) {
+
+    // Get the target file (which is a temporary file if the
+    // output target is an output stream).
+    final File targetFile = target.getFile();
+    try {
+      storeDocument(document, getStoreProperties(family, target), targetFile);
+      target.onComplete(targetFile);
+      return null;
+
+    } catch (OfficeException officeEx) {
+      LOGGER.error("Local conversion to {} failed.", targetFile.getName(), officeEx);
+      target.onFailure(targetFile, officeEx);
+      return officeEx;
+    } catch (Exception ex) {
+      LOGGER.error("Local conversion to {} failed.", targetFile.getName(), ex);
+      final OfficeException officeEx = new OfficeException("Local conversion failed", ex);
+      target.onFailure(targetFile, officeEx);
+      return officeEx;
+    }
+  }
+
+  // Gets the office properties to apply when the converted
+  // document will be saved as the specified target.
+  private Map<String, Object> getStoreProperties(
+      final DocumentFamily family, final TargetDocumentSpecs target) {
+    AssertUtils.notNull(target.getFormat(), "Target format must not be null");
+
+    final Map<String, Object> storeProps = new HashMap<>();
+    appendProperties(storeProps, target.getFormat().getStoreProperties(family));
+    appendProperties(storeProps, storeProperties);
+
+    return storeProps;
+  }
+
+  @Override
+  public @NonNull String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "source="
+        + source
+        + ", loadProperties="
+        + loadProperties
+        + ", targets="
+        + targets
+        + ", storeProperties="
+        + storeProperties
+        + ", useStreamAdapters="
+        + useStreamAdapters
+        + '}';
+  }
+}
@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import static org.jodconverter.local.office.LocalOfficeUtils.toUnoProperties;
+import static org.jodconverter.local.office.LocalOfficeUtils.toUrl;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.sun.star.awt.Size;
+import com.sun.star.beans.PropertyValue;
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.document.XExporter;
+import com.sun.star.document.XFilter;
+import com.sun.star.drawing.XDrawPages;
+import com.sun.star.drawing.XDrawPagesSupplier;
+import com.sun.star.frame.XStorable;
+import com.sun.star.lang.XComponent;
+import com.sun.star.lib.uno.adapter.OutputStreamToXOutputStreamAdapter;
+import com.sun.star.view.XRenderable;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.job.TargetDocumentSpecs;
+import org.jodconverter.core.job.TargetDocumentSpecsFromFile;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.local.filter.FilterChain;
+import org.jodconverter.local.filter.RefreshFilter;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.jodconverter.local.office.utils.Lo;
+
+/**
+ * A local office task rendering the pages of a document to images, one image per page, while
+ * loading the document only once. The pages of drawings and presentations are rendered using the
+ * graphic export filter, page by page. The pages of text documents and spreadsheets are rendered
+ * using the image export filter of their family, restricted to one page at a time.
+ */
+public class LocalPageRenderingTask extends AbstractLocalOfficeTask {
+
+  /** The default resolution of the rendered images, in dots per inch. */
+  public static final int DEFAULT_RESOLUTION = 96;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LocalPageRenderingTask.class);
+
+  // Media types of the images a page can be rendered to.
+  private static final List<String> IMAGE_MEDIA_TYPES = Arrays.asList("image/png", "image/jpeg");
+  // Number of 1/100 mm in an inch, the unit of the page sizes.
+  private static final double HUNDREDTH_MM_PER_INCH = 2540.0;
+
+  private final DocumentFormat format;
+  private final PageTargetProvider targets;
+  private final int firstPage;
+  private final int lastPage;
+  private final int resolution;
+  private final FilterChain filterChain;
+  private int pageCount;
+  private int renderedPageCount;
+
+  /** Provides the target of the image of each rendered page. */
+  @FunctionalInterface
+  public interface PageTargetProvider {
+
+    /**
+     * Gets the target to which the image of the specified page is written.
+     *
+     * @param page The page number, starting at 1.
+     * @return The target specifications. If the target provides an output stream, the image is
+     *     written to this stream, otherwise it is written to the file of the target.
+     */
+    @NonNull
+    TargetDocumentSpecs getTarget(int page);
+  }
+
+  /** Writes the image of a page to a target stream or, when there is none, to a target file. */
+  @FunctionalInterface
+  private interface PageWriter {
+
+    void write(@Nullable OutputStream targetStream, @Nullable File targetFile) throws Exception;
+  }
+
+  /**
+   * Creates a provider writing the image of each page to a file of the specified directory, named
+   * after the specified base name, the page number and the extension of the specified format; for
+   * example {@code report-1.png}.
+   *
+   * @param directory The directory where the images are written.
+   * @param baseName The base name of the image files.
+   * @param format The format of the images.
+   * @return The provider.
+   */
+  public static @NonNull PageTargetProvider toDirectory(
+      final @NonNull File directory,
+      final @NonNull String baseName,
+      final @NonNull DocumentFormat format) {
+
+    return page ->
+        new TargetDocumentSpecsFromFile(
+            new File(
+                directory, String.format("%s-%d.%s", baseName, page, format.getExtension())));
+  }
+
+  /**
+   * Creates a new task rendering every page of the specified source document.
+   *
+   * @param source The source specifications of the document.
+   * @param format The format of the images, PNG or JPEG.
+   * @param targets The provider of the target of each image.
+   * @param resolution The resolution of the images, in dots per inch.
+   */
+  public LocalPageRenderingTask(
+      final @NonNull SourceDocumentSpecs source,
+      final @NonNull DocumentFormat format,
+      final @NonNull PageTargetProvider targets,
+      final int resolution) {
+    this(source, format, targets, 1, 0, resolution, false, null, null);
+  }
+
+  /**
+   * Creates a new task rendering a range of pages of the specified source document.
+   *
+   * @param source The source specifications of the document.
+   * @param format The format of the images, PNG or JPEG.
+   * @param targets The provider of the target of each image.
+   * @param firstPage The first page to render, starting at 1.
+   * @param lastPage The last page to render, or 0 to render every page up to the last one. A page
+   *     beyond the last page of the document is ignored.
+   * @param resolution The resolution of the images, in dots per inch.
+   * @param useStreamAdapters Indicates whether document are loaded/stored using stream adapters.
+   * @param loadProperties The load properties to be applied when loading the document. These
+   *     properties are added after the load properties of the document format specified in the
+   *     {@code source} arguments.
+   * @param filterChain The filter chain applied to the document before its pages are rendered.
+   */
+  public LocalPageRenderingTask(
+      final @NonNull SourceDocumentSpecs source,
+      final @NonNull DocumentFormat format,
+      final @NonNull PageTargetProvider targets,
+      final int firstPage,
+      final int lastPage,
+      final int resolution,
+      final boolean useStreamAdapters,
+      final @Nullable Map<@NonNull String, @NonNull Object> loadProperties,
+      final @Nullable FilterChain filterChain) {
+    super(source, useStreamAdapters, loadProperties);
+
+    AssertUtils.notNull(format, "format must not be null");
+    AssertUtils.notNull(targets, "targets must not be null");
+    AssertUtils.isTrue(
+        IMAGE_MEDIA_TYPES.contains(format.getMediaType()),
+        String.format("format %s must be PNG or JPEG", format.getName()));
+    AssertUtils.isTrue(
+        firstPage > 0, String.format("firstPage %s must be greater than 0", firstPage));
+    AssertUtils.isTrue(
+        lastPage == 0 || lastPage >= firstPage,
+        String.format("lastPage %s must be 0 or greater than or equal to firstPage", lastPage));
+    AssertUtils.isTrue(
+        resolution > 0, String.format("resolution %s must be greater than 0", resolution));
+    this.format = format;
+    this.targets = targets;
+    this.firstPage = firstPage;
+    this.lastPage = lastPage;
+    this.resolution = resolution;
+    this.filterChain = Optional.ofNullable(filterChain).orElse(RefreshFilter.CHAIN).copy();
+  }
+
+  /**
+   * Gets the number of pages of the document, once the task has been executed.
+   *
+   * @return The page count.
+   */
+  public int getPageCount() {
+    return pageCount;
+  }
+
+  /**
+   * Gets the number of pages rendered, once the task has been executed.
+   *
+   * @return The rendered page count.
+   */
+  public int getRenderedPageCount() {
+    return renderedPageCount;
+  }
+
+  @Override
+  public void execute(final @NonNull OfficeContext context) throws OfficeException {
+
+    LOGGER.info("Executing local page rendering task to {}...", format.getExtension());
+    final LocalOfficeContext localContext = (LocalOfficeContext) context;
+
+    processSource(localContext, sourceLoader -> render(localContext, sourceLoader));
+  }
+
+  // Renders the pages of the source document, loaded once using the specified loader.
+  private void render(final LocalOfficeContext context, final SourceLoader sourceLoader)
+      throws OfficeException {
+
+    XComponent document = null;
+    try {
+      document = sourceLoader.load();
+      filterChain.doFilter(context, document);
+
+      final DocumentFamily family = LocalOfficeUtils.getDocumentFamily(document);
+      if (family == DocumentFamily.DRAWING || family == DocumentFamily.PRESENTATION) {
+        renderDrawPages(context, document);
+      } else {
+        renderPrintedPages(document, family);
+      }
+
+    } catch (OfficeException officeEx) {
+      LOGGER.error("Local page rendering failed.", officeEx);
+      throw officeEx;
+    } catch (Exception ex) {
+      LOGGER.error("Local page rendering failed.", ex);
+      throw new OfficeException("Local page rendering failed", ex);
+    } finally {
+      closeDocument(document);
+    }
+  }
+
+  // Renders the draw pages of a drawing or a presentation using the graphic export filter.
+  private void renderDrawPages(final LocalOfficeContext context, final XComponent document)
+      throws Exception {
+
+    final XDrawPages drawPages = Lo.qi(XDrawPagesSupplier.class, document).getDrawPages();
+    pageCount = drawPages.getCount();
+    for (int page = firstPage; page <= getLastPage(); page++) {
+      final Object drawPage = drawPages.getByIndex(page - 1);
+      final XPropertySet pageProps = Lo.qi(XPropertySet.class, drawPage);
+      final Map<String, Object> filterData =
+          getFilterData(
+              (Integer) pageProps.getPropertyValue("Width"),
+              (Integer) pageProps.getPropertyValue("Height"));
+
+      final XExporter exporter =
+          Lo.createInstance(
+              context.getComponentContext(),
+              XExporter.class,
+              "com.sun.star.drawing.GraphicExportFilter");
+      AssertUtils.notNull(exporter, "The graphic export filter is not available");
+      exporter.setSourceDocument(Lo.qi(XComponent.class, drawPage));
+
+      final int pageNumber = page;
+      renderPage(
+          page,
+          (targetStream, targetFile) -> {
+            final Map<String, Object> props = new HashMap<>();
+            props.put("MediaType", format.getMediaType());
+            props.put("FilterData", filterData);
+            if (targetStream != null) {
+              props.put("OutputStream", new OutputStreamToXOutputStreamAdapter(targetStream));
+              exportPage(exporter, props, pageNumber);
+            } else if (useStreamAdapters) {
+              try (FileOutputStream outputStream = new FileOutputStream(targetFile)) {
+                props.put("OutputStream", new OutputStreamToXOutputStreamAdapter(outputStream));
+                exportPage(exporter, props, pageNumber);
+              }
+            } else {
+              props.put("URL", toUrl(targetFile));
+              exportPage(exporter, props, pageNumber);
+            }
+          });
+    }
+  }
+
+  // Exports a draw page using the graphic export filter it has been set to.
+  private static void exportPage(
+      final XExporter exporter, final Map<String, Object> props, final int page)
+      throws OfficeException {
+
+    if (!Lo.qi(XFilter.class, exporter).filter(toUnoProperties(props))) {
+      throw new OfficeException("Could not render page " + page);
+    }
+  }
+
+  // Renders the printed pages of a text document or a spreadsheet using
+  // the image export filter of the document family, one page at a time.
+  private void renderPrintedPages(final XComponent document, final DocumentFamily family)
+      throws Exception {
+
+    final Map<String, Object> formatProps = format.getStoreProperties(family);
+    AssertUtils.isTrue(
+        formatProps != null && formatProps.containsKey("FilterName"), "Unsupported conversion");
+
+    final XRenderable renderable = Lo.qi(XRenderable.class, document);
+    final PropertyValue[] options = new PropertyValue[0];
+    pageCount = renderable.getRendererCount(document, options);
+    for (int page = firstPage; page <= getLastPage(); page++) {
+      final Size pageSize = getPageSize(renderable.getRenderer(page - 1, document, options));
+      final Map<String, Object> filterData = getFilterData(pageSize.Width, pageSize.Height);
+      filterData.put("PageRange", String.valueOf(page));
+
+      renderPage(
+          page,
+          (targetStream, targetFile) -> {
+            final Map<String, Object> storeProps = new HashMap<>(formatProps);
+            storeProps.put("FilterData", filterData);
+            if (targetStream == null) {
+              storeDocument(document, storeProps, targetFile);
+            } else {
+              storeProps.put("OutputStream", new OutputStreamToXOutputStreamAdapter(targetStream));
+              Lo.qi(XStorable.class, document)
+                  .storeToURL("private:stream", toUnoProperties(storeProps));
+            }
+          });
+    }
+  }
+
+  // Writes the image of a page to its target.
+  private void renderPage(final int page, final PageWriter writer) throws OfficeException {
+
+    final TargetDocumentSpecs target = targets.getTarget(page);
+    final OutputStream targetStream = target.getOutputStream();
+    if (targetStream != null) {
+      try {
+        writer.write(targetStream, null);
+        target.onStreamComplete();
+      } catch (Exception ex) {
+        final OfficeException officeEx = toOfficeException(page, ex);
+        target.onStreamFailure(officeEx);
+        throw officeEx;
+      }
+      renderedPageCount++;
+      return;
+    }
+
+    final File targetFile = target.getFile();
+    try {
+      writer.write(null, targetFile);
+      target.onComplete(targetFile);
+    } catch (Exception ex) {
+      final OfficeException officeEx = toOfficeException(page, ex);
+      target.onFailure(targetFile, officeEx);
+      throw officeEx;
+    }
+    renderedPageCount++;
+  }
+
+  private static OfficeException toOfficeException(final int page, final Exception ex) {
+
+    return ex instanceof OfficeException
+        ? (OfficeException) ex
+        : new OfficeException("Could not render page " + page, ex);
+  }
+
+  // Gets the last page to render, which cannot be beyond the last page of the document.
+  private int getLastPage() {
+    return lastPage == 0 ? pageCount : Math.min(lastPage, pageCount);
+  }
+
+  // Gets the filter data setting the size, in pixels, of the image of a
+  // page whose size, in 1/100 mm, is specified.
+  private Map<String, Object> getFilterData(final int width, final int height) {
+
+    final Map<String, Object> filterData = new HashMap<>();
+    filterData.put("PixelWidth", (int) Math.round(width * resolution / HUNDREDTH_MM_PER_INCH));
+    filterData.put("PixelHeight", (int) Math.round(height * resolution / HUNDREDTH_MM_PER_INCH));
+    return filterData;
+  }
+
+  // Gets the size of a page from the properties of its renderer.
+  private static Size getPageSize(final PropertyValue[] rendererProps) throws OfficeException {
+
+    for (final PropertyValue prop : rendererProps) {
+      if ("PageSize".equals(prop.Name) && prop.Value instanceof Size) {
+        return (Size) prop.Value;
+      }
+    }
+    throw new OfficeException("Could not get the size of the page");
+  }
+
+  @Override
+  public @NonNull String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "source="
+        + source
+        + ", loadProperties="
+        + loadProperties
+        + ", format="
+        + format.getExtension()
+        + ", firstPage="
+        + firstPage
+        + ", lastPage="
+        + lastPage
+        + ", resolution="
+        + resolution
+        + ", useStreamAdapters="
+        + useStreamAdapters
+        + '}';
+  }
+}
@@ -0,0 +1,563 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.container.XIndexAccess;
+import com.sun.star.frame.XModel;
+import com.sun.star.lang.XComponent;
+import com.sun.star.sheet.XSpreadsheet;
+import com.sun.star.sheet.XSpreadsheetDocument;
+import com.sun.star.sheet.XSpreadsheetView;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.job.TargetDocumentSpecs;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.local.filter.FilterChain;
+import org.jodconverter.local.filter.RefreshFilter;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.jodconverter.local.office.utils.Lo;
+
+/**
+ * A local office task splitting a document into many target documents. The document is loaded,
+ * and modified by the filter chain, only once; each part of the document is then stored to its
+ * own target:
+ *
+ * <ul>
+ *   <li>a range of pages, or of slides, is stored using the {@code PageRange} filter data, which
+ *       is supported by the PDF and image export filters;
+ *   <li>a sheet of a spreadsheet is stored while the other sheets are hidden, which is supported
+ *       by the formats exporting only the visible or active sheets: PDF, CSV, TSV and HTML.
+ * </ul>
+ *
+ * <p>A part that cannot be stored does not prevent the remaining parts from being stored; the task
+ * then fails with the exception raised by the first failing part.
+ *
+ * <p>A single office process cannot store the same document concurrently. A huge source document
+ * can be split in parallel using {@link #partition(SourceDocumentSpecs, List, int, boolean, Map,
+ * Map, FilterChain)}, each task of the resulting {@link Partition} being executed by its own office
+ * process of a pooled office manager.
+ */
+public class LocalSplitTask extends AbstractLocalOfficeTask {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LocalSplitTask.class);
+
+  // Media types of the formats whose export filter supports the PageRange filter data.
+  private static final List<String> PAGE_RANGE_MEDIA_TYPES =
+      Arrays.asList("application/pdf", "image/png", "image/jpeg");
+  // Media types of the formats whose export filter skips the hidden sheets of a spreadsheet. Other
+  // formats, like XLSX or ODS, would keep the data of the hidden sheets.
+  private static final List<String> SHEET_MEDIA_TYPES =
+      Arrays.asList("application/pdf", "text/csv", "text/tab-separated-values", "text/html");
+
+  private final List<Part> parts;
+  private final FilterChain filterChain;
+  private final Map<String, Object> storeProperties;
+
+  /** A part of the split document, stored to its own target. */
+  public static final class Part {
+
+    private final String pageRange;
+    private final Integer sheet;
+    private final TargetDocumentSpecs target;
+
+    private Part(
+        final @Nullable String pageRange,
+        final @Nullable Integer sheet,
+        final @NonNull TargetDocumentSpecs target) {
+
+      AssertUtils.notNull(target, "target must not be null");
+      this.pageRange = pageRange;
+      this.sheet = sheet;
+      this.target = target;
+    }
+
+    /**
+     * Creates a part made of a range of pages, or of slides for a presentation.
+     *
+     * @param pageRange The page range, using the syntax of the print dialog; for example {@code
+     *     1-3;5}. First page is 1.
+     * @param target The target of the part. Its format must be PDF, PNG or JPEG.
+     * @return The part.
+     */
+    public static @NonNull Part pages(
+        final @NonNull String pageRange, final @NonNull TargetDocumentSpecs target) {
+
+      AssertUtils.notBlank(pageRange, "pageRange must not be null nor blank");
+      return new Part(pageRange, null, target);
+    }
+
+    /**
+     * Creates a part made of a single page, or of a single slide for a presentation.
+     *
+     * @param page The page number. First page is 1.
+     * @param target The target of the part. Its format must be PDF, PNG or JPEG.
+     * @return The part.
+     */
+    public static @NonNull Part page(final int page, final @NonNull TargetDocumentSpecs target) {
+
+      AssertUtils.isTrue(page > 0, String.format("page %s must be greater than 0", page));
+      return pages(String.valueOf(page), target);
+    }
+
+    /**
+     * Creates a part made of a single sheet of a spreadsheet.
+     *
+     * @param sheet The sheet number. First sheet is 1.
+     * @param target The target of the part. Its format must be PDF, CSV, TSV or HTML.
+     * @return The part.
+     */
+    public static @NonNull Part sheet(final int sheet, final @NonNull TargetDocumentSpecs target) {
+
+      AssertUtils.isTrue(sheet > 0, String.format("sheet %s must be greater than 0", sheet));
+      return new Part(null, sheet, target);
+    }
+
+    /**
+     * Gets the page range of the part.
+     *
+     * @return The page range, or {@code null} if the part is a sheet.
+     */
+    public @Nullable String getPageRange() {
+      return pageRange;
+    }
+
+    /**
+     * Gets the sheet number of the part.
+     *
+     * @return The sheet number, or {@code null} if the part is a page range.
+     */
+    public @Nullable Integer getSheet() {
+      return sheet;
+    }
+
+    /**
+     * Gets the target of the part.
+     *
+     * @return The target specifications.
+     */
+    public @NonNull TargetDocumentSpecs getTarget() {
+      return target;
+    }
+
+    @Override
+    public @NonNull String toString() {
+      return (pageRange == null ? "sheet " + sheet : "pages " + pageRange) + " to " + target;
+    }
+  }
+
+  /**
+   * The tasks of a split document, sharing the same source. The source is released once every task
+   * has been executed; if some tasks may never be executed, for instance because they were rejected
+   * or because the split was abandoned, the partition must be released once no task of the
+   * partition is being executed any longer.
+   */
+  public static final class Partition {
+
+    private final SharedSourceDocumentSpecs source;
+    private final List<LocalSplitTask> tasks;
+
+    private Partition(final SharedSourceDocumentSpecs source, final List<LocalSplitTask> tasks) {
+      this.source = source;
+      this.tasks = Collections.unmodifiableList(tasks);
+    }
+
+    /**
+     * Gets the tasks of the partition.
+     *
+     * @return An unmodifiable list of the tasks.
+     */
+    public @NonNull List<@NonNull LocalSplitTask> getTasks() {
+      return tasks;
+    }
+
+    /**
+     * Releases the source shared by the tasks of the partition, whether or not every task has been
+     * executed. Releasing a partition whose source has already been released has no effect.
+     */
+    public void release() {
+      source.release();
+    }
+  }
+
+  /**
+   * The source of the tasks of a partition. The tasks read the document from the same file, which
+   * is obtained once and released once every task has consumed it, or once the partition is
+   * released.
+   */
+  private static final class SharedSourceDocumentSpecs implements SourceDocumentSpecs {
+
+    private final SourceDocumentSpecs source;
+    private int pending;
+    private File file;
+    private boolean released;
+
+    private SharedSourceDocumentSpecs(final SourceDocumentSpecs source, final int tasks) {
+      this.source = source;
+      this.pending = tasks;
+    }
+
+    @Override
+    public synchronized @NonNull File getFile() {
+      AssertUtils.isTrue(!released, "The source of the partition has been released");
+      if (file == null) {
+        file = source.getFile();
+      }
+      return file;
+    }
+
+    @Override
+    public @Nullable DocumentFormat getFormat() {
+      return source.getFormat();
+    }
+
+    @Override
+    public synchronized void onConsumed(final @NonNull File consumedFile) {
+      if (--pending == 0) {
+        release();
+      }
+    }
+
+    @Override
+    public void stage() {
+      source.stage();
+    }
+
+    @Override
+    public synchronized void discardStaged() {
+      // A task that is never executed must not keep the file of the others.
+      if (--pending == 0) {
+        release();
+      }
+    }
+
+    // Releases the file obtained from the wrapped source, or its staged document if no task
+    // obtained the file.
+    private synchronized void release() {
+      if (released) {
+        return;
+      }
+      released = true;
+      if (file == null) {
+        source.discardStaged();
+      } else {
+        source.onConsumed(file);
+      }
+    }
+
+    @Override
+    public @NonNull String toString() {
+      return source.toString();
+    }
+  }
+
+  /**
+   * Creates tasks splitting the specified source document into the specified parts, the parts
+   * being distributed, in order, among at most the specified number of tasks. Each task loads the
+   * source document once; executing the tasks concurrently, using an office manager with as many
+   * office processes, splits a huge document in parallel.
+   *
+   * <p>The tasks read the document from the same file: a source stream is written to a single
+   * temporary file, which is released once every task has consumed it. When some tasks may not be
+   * executed, the returned partition must be released once the executed tasks are done.
+   *
+   * @param source The source specifications of the document, shared by the tasks.
+   * @param parts The parts of the document, at least one.
+   * @param count The maximum number of tasks to create.
+   * @param useStreamAdapters Indicates whether document are loaded/stored using stream adapters.
+   * @param loadProperties The load properties to be applied when loading the document.
+   * @param storeProperties The store properties to be applied when storing each part.
+   * @param filterChain The filter chain applied to the document once loaded, copied for each task.
+   * @return The partition holding the tasks.
+   */
+  public static @NonNull Partition partition(
+      final @NonNull SourceDocumentSpecs source,
+      final @NonNull List<@NonNull Part> parts,
+      final int count,
+      final boolean useStreamAdapters,
+      final @Nullable Map<@NonNull String, @NonNull Object> loadProperties,
+      final @Nullable Map<@NonNull String, @NonNull Object> storeProperties,
+      final @Nullable FilterChain filterChain) {
+
+    AssertUtils.notNull(source, "source must not be null");
+    AssertUtils.notEmpty(parts, "parts must not be null nor empty");
+    AssertUtils.isTrue(count > 0, String.format("count %s must be greater than 0", count));
+
+    final int size = (parts.size() + count - 1) / count;
+    final SharedSourceDocumentSpecs sharedSource =
+        new SharedSourceDocumentSpecs(source, (parts.size() + size - 1) / size);
+    final List<LocalSplitTask> tasks = new ArrayList<>();
+    for (int start = 0; start < parts.size(); start += size) {
+      tasks.add(
+          new LocalSplitTask(
+              sharedSource,
+              parts.subList(start, Math.min(start + size, parts.size())),
+              useStreamAdapters,
+              loadProperties,
+              storeProperties,
+              filterChain));
+    }
+    return new Partition(sharedSource, tasks);
+  }
+
+  /**
+   * Creates a new task splitting the specified source document into the specified parts.
+   *
+   * @param source The source specifications of the document.
+   * @param parts The parts of the document, at least one.
+   */
+  public LocalSplitTask(
+      final @NonNull SourceDocumentSpecs source, final @NonNull List<@NonNull Part> parts) {
+    this(source, parts, false, null, null, null);
+  }
+
+  /**
+   * Creates a new task splitting the specified source document into the specified parts.
+   *
+   * @param source The source specifications of the document.
+   * @param parts The parts of the document, at least one.
+   * @param useStreamAdapters Indicates whether document are loaded/stored using stream adapters.
+   * @param loadProperties The load properties to be applied when loading the document. These
+   *     properties are added after the load properties of the document format specified in the
+   *     {@code source} arguments.
+   * @param storeProperties The store properties to be applied when storing each part. These
+   *     properties are added after the store properties of the document format of each target.
+   * @param filterChain The filter chain applied to the document before it is split.
+   */
+  public LocalSplitTask(
+      final @NonNull SourceDocumentSpecs source,
+      final @NonNull List<@NonNull Part> parts,
+      final boolean useStreamAdapters,
+      final @Nullable Map<@NonNull String, @NonNull Object> loadProperties,
+      final @Nullable Map<@NonNull String, @NonNull Object> storeProperties,
+      final @Nullable FilterChain filterChain) {
+    super(source, useStreamAdapters, loadProperties);
+
+    AssertUtils.notEmpty(parts, "parts must not be null nor empty");
+    this.parts = Collections.unmodifiableList(new ArrayList<>(parts));
+    this.filterChain = Optional.ofNullable(filterChain).orElse(RefreshFilter.CHAIN).copy();
+    this.storeProperties = storeProperties;
+  }
+
+  /**
+   * Gets the parts of the split document.
+   *
+   * @return An unmodifiable list of the parts.
+   */
+  public @NonNull List<@NonNull Part> getParts() {
+    return parts;
+  }
+
+  @Override
+  public void execute(final @NonNull OfficeContext context) throws OfficeException {
+
+    LOGGER.info("Executing local split task to {} parts...", parts.size());
+    final LocalOfficeContext localContext = (LocalOfficeContext) context;
+
+    processSource(localContext, sourceLoader -> split(localContext, sourceLoader));
+  }
+
+  // Splits the source document, loaded once using the specified loader, into every part.
+  private void split(final LocalOfficeContext context, final SourceLoader sourceLoader)
+      throws OfficeException {
+
+    XComponent document = null;
+    try {
+      try {
+        document = sourceLoader.load();
+        filterChain.doFilter(context, document);
+      } catch (OfficeException officeEx) {
+        LOGGER.error("Local split failed.", officeEx);
+        throw officeEx;
+      } catch (Exception ex) {
+        LOGGER.error("Local split failed.", ex);
+        throw new OfficeException("Local split failed", ex);
+      }
+
+      final DocumentFamily family = LocalOfficeUtils.getDocumentFamily(document);
+      OfficeException failure = null;
+      for (final Part part : parts) {
+        final OfficeException partEx = store(document, family, part);
+        if (failure == null) {
+          failure = partEx;
+        } else if (partEx != null) {
+          failure.addSuppressed(partEx);
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+
+    } finally {
+      closeDocument(document);
+    }
+  }
+
+  // Stores the specified part of the document, returning the failure, if any.
+  private @Nullable OfficeException store(
+      final XComponent document, final DocumentFamily family, final Part part) {
+
+    // Get the target file (which is a temporary file if the
+    // output target is an output stream).
+    final TargetDocumentSpecs target = part.getTarget();
+    final File targetFile = target.getFile();
+    try {
+      final Map<String, Object> storeProps = getStoreProperties(family, target);
+      if (part.getSheet() == null) {
+        storePages(document, storeProps, part.getPageRange(), target, targetFile);
+      } else {
+        storeSheet(document, family, storeProps, part.getSheet(), target, targetFile);
+      }
+      target.onComplete(targetFile);
+      return null;
+
+    } catch (OfficeException officeEx) {
+      LOGGER.error("Local split of {} failed.", part, officeEx);
+      target.onFailure(targetFile, officeEx);
+      return officeEx;
+    } catch (Exception ex) {
+      LOGGER.error("Local split of {} failed.", part, ex);
+      final OfficeException officeEx = new OfficeException("Local split failed", ex);
+      target.onFailure(targetFile, officeEx);
+      return officeEx;
+    }
+  }
+
+  // Stores a range of pages using the PageRange filter data.
+  private void storePages(
+      final XComponent document,
+      final Map<String, Object> storeProps,
+      final String pageRange,
+      final TargetDocumentSpecs target,
+      final File targetFile)
+      throws OfficeException {
+
+    final DocumentFormat format = target.getFormat();
+    AssertUtils.isTrue(
+        PAGE_RANGE_MEDIA_TYPES.contains(format.getMediaType()),
+        String.format("A page range cannot be stored as %s", format.getName()));
+
+    final Map<String, Object> filterData = new HashMap<>();
+    final Object formatFilterData = storeProps.get("FilterData");
+    if (formatFilterData instanceof Map) {
+      @SuppressWarnings("unchecked")
+      final Map<String, Object> map = (Map<String, Object>) formatFilterData;
+      filterData.putAll(map);
+    }
+    filterData.put("PageRange", pageRange);
+    storeProps.put("FilterData", filterData);
+    storeDocument(document, storeProps, targetFile);
+  }
+
+  // Stores a single sheet of a spreadsheet, hiding the other sheets meanwhile.
+  private void storeSheet(
+      final XComponent document,
+      final DocumentFamily family,
+      final Map<String, Object> storeProps,
+      final int sheet,
+      final TargetDocumentSpecs target,
+      final File targetFile)
+      throws Exception {
+
+    final DocumentFormat format = target.getFormat();
+    AssertUtils.isTrue(
+        SHEET_MEDIA_TYPES.contains(format.getMediaType()),
+        String.format("A sheet cannot be stored as %s", format.getName()));
+    AssertUtils.isTrue(
+        family == DocumentFamily.SPREADSHEET, "A sheet can only be split from a spreadsheet");
+
+    final XIndexAccess sheets =
+        Lo.qi(XIndexAccess.class, Lo.qi(XSpreadsheetDocument.class, document).getSheets());
+    final int count = sheets.getCount();
+    if (sheet > count) {
+      throw new OfficeException(
+          String.format("Sheet %s does not exist, the document has %s sheets", sheet, count));
+    }
+
+    // The selected sheet must be active before the other sheets can be hidden.
+    Lo.qi(XSpreadsheetView.class, Lo.qi(XModel.class, document).getCurrentController())
+        .setActiveSheet(Lo.qi(XSpreadsheet.class, sheets.getByIndex(sheet - 1)));
+
+    final List<XPropertySet> hiddenSheets = new ArrayList<>();
+    try {
+      for (int i = 0; i < count; i++) {
+        final XPropertySet sheetProps = Lo.qi(XPropertySet.class, sheets.getByIndex(i));
+        if (i != sheet - 1 && Boolean.TRUE.equals(sheetProps.getPropertyValue("IsVisible"))) {
+          sheetProps.setPropertyValue("IsVisible", false);
+          hiddenSheets.add(sheetProps);
+        }
+      }
+      storeDocument(document, storeProps, targetFile);
+
+    } finally {
+      // Show the hidden sheets again, for the next parts.
+      for (final XPropertySet sheetProps : hiddenSheets) {
+        sheetProps.setPropertyValue("IsVisible", true);
+      }
+    }
+  }
+
+  // Gets the office properties to apply when the document is stored as the specified target.
+  private Map<String, Object> getStoreProperties(
+      final DocumentFamily family, final TargetDocumentSpecs target) {
+    AssertUtils.notNull(target.getFormat(), "Target format must not be null");
+
+    final Map<String, Object> storeProps = new HashMap<>();
+    appendProperties(storeProps, target.getFormat().getStoreProperties(family));
+    appendProperties(storeProps, storeProperties);
+    return storeProps;
+  }
+
+  @Override
+  public @NonNull String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "source="
+        + source
+        + ", loadProperties="
+        + loadProperties
+        + ", parts="
+        + parts
+        + ", storeProperties="
+        + storeProperties
+        + ", useStreamAdapters="
+        + useStreamAdapters
+        + '}';
+  }
+}
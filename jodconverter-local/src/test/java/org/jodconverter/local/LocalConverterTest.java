@@ -53,6 +53,7 @@ import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
 import org.jodconverter.core.document.DocumentFamily;
 import org.jodconverter.core.document.DocumentFormat;
 import org.jodconverter.core.document.SimpleDocumentFormatRegistry;
+import org.jodconverter.core.job.DocumentSpecs;
 import org.jodconverter.core.office.InstalledOfficeManagerHolder;
 import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.core.office.OfficeManager;
@@ -64,6 +65,7 @@ import org.jodconverter.local.office.utils.Lo;
 import org.jodconverter.local.office.utils.UnoRuntime;
 import org.jodconverter.local.task.LoadDocumentMode;
 import org.jodconverter.local.task.LocalConversionTask;
+import org.jodconverter.local.task.LocalMultiTargetConversionTask;
 
 /** Contains tests for the {@link LocalConverter} class. */
 @ExtendWith(MockUnoRuntimeExtension.class)
@@ -248,6 +250,29 @@ class LocalConverterTest {
           .satisfies(filters -> assertThat(filters.get(0)).isEqualTo(filter));
     }
 
+    @Test
+    void withAdditionalTargets_ShouldExecuteSingleTaskStoringEveryTarget(
+        final @TempDir File testFolder) throws Exception {
+
+      final File pdfFile = new File(testFolder, "test.pdf");
+      final File docxFile = new File(testFolder, "test.docx");
+
+      assertThatCode(
+              () ->
+                  LocalConverter.make(officeManager)
+                      .convert(SOURCE_FILE)
+                      .to(pdfFile)
+                      .and(docxFile)
+                      .execute())
+          .doesNotThrowAnyException();
+      final ArgumentCaptor<LocalMultiTargetConversionTask> arg =
+          ArgumentCaptor.forClass(LocalMultiTargetConversionTask.class);
+      verify(officeManager, times(1)).execute(arg.capture());
+      assertThat(arg.getValue().getTargets())
+          .extracting(DocumentSpecs::getFile)
+          .containsExactly(pdfFile, docxFile);
+    }
+
     @Test
     void withCustomLoadProperties_ShouldCreateConverterWithExpectedLoadProperties(
         final @TempDir File testFolder) throws OfficeException {
@@ -520,6 +545,29 @@ class LocalConverterTest {
       assertThat(arg.getValue()).extracting("useStreamAdapters").isEqualTo(true);
     }
 
+    @Test
+    void withDirectOutputStream_ShouldCreateTaskWithDirectOutputStreamTrue(
+        final @TempDir File testFolder) throws OfficeException {
+
+      final File targetFile = new File(testFolder, "test.pdf");
+      assertThatCode(
+              () ->
+                  LocalConverter.builder()
+                      .officeManager(officeManager)
+                      .directOutputStream(true)
+                      .build()
+                      .convert(SOURCE_FILE)
+                      .to(targetFile)
+                      .execute())
+          .doesNotThrowAnyException();
+
+      // Verify that the office manager has executed a task with the expected properties.
+      final ArgumentCaptor<LocalConversionTask> arg =
+          ArgumentCaptor.forClass(LocalConversionTask.class);
+      verify(officeManager, times(1)).execute(arg.capture());
+      assertThat(arg.getValue()).extracting("directOutputStream").isEqualTo(true);
+    }
+
     @Test
     void withCustomFilterNames_ShouldCreateConverterWithExpectedFilterNames(
         final @TempDir File testFolder, final UnoRuntime unoRuntime) throws OfficeException {
@@ -673,4 +721,34 @@ class LocalConverterTest {
       assertThat(arg.getValue()).extracting("loadProperties").isEqualTo(expectedProperties);
     }
   }
+
+  @Nested
+  class GetConfigurationFingerprint {
+
+    @Test
+    void withoutFilterChain_ShouldDescribeConfiguration() {
+
+      final LocalConverter converter =
+          LocalConverter.builder()
+              .officeManager(officeManager)
+              .storeProperty("Overwrite", true)
+              .build();
+
+      assertThat(converter.getConfigurationFingerprint())
+          .startsWith(LocalConverter.class.getName())
+          .contains("Overwrite=true");
+    }
+
+    @Test
+    void withFilterChain_ShouldReturnNull() {
+
+      final LocalConverter converter =
+          LocalConverter.builder()
+              .officeManager(officeManager)
+              .filterChain(mock(Filter.class))
+              .build();
+
+      assertThat(converter.getConfigurationFingerprint()).isNull();
+    }
+  }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/** Contains tests for the {@link DirectOutputStream} class. */
+class DirectOutputStreamTest {
+
+  @Nested
+  class GetByteCount {
+
+    @Test
+    void whenBytesAreBuffered_ShouldNotCountThem() throws IOException {
+
+      final ByteArrayOutputStream target = new ByteArrayOutputStream();
+      try (DirectOutputStream stream = new DirectOutputStream(target, 8)) {
+        stream.write(new byte[] {1, 2, 3}, 0, 3);
+        stream.write(4);
+
+        assertThat(target.size()).isZero();
+        assertThat(stream.getByteCount()).isZero();
+      }
+    }
+
+    @Test
+    void whenBytesAreSent_ShouldCountThem() throws IOException {
+
+      final ByteArrayOutputStream target = new ByteArrayOutputStream();
+      try (DirectOutputStream stream = new DirectOutputStream(target, 8)) {
+        stream.write(new byte[] {1, 2, 3}, 0, 3);
+        stream.flush();
+        assertThat(stream.getByteCount()).isEqualTo(3L);
+
+        // Writing more bytes than the buffer size bypasses the buffer.
+        stream.write(new byte[10], 0, 10);
+        assertThat(stream.getByteCount()).isEqualTo(13L);
+        assertThat(target.size()).isEqualTo(13);
+      }
+    }
+  }
+}
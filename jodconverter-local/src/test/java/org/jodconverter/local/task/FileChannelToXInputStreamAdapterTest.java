@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import com.sun.star.io.NotConnectedException;
+import com.sun.star.lang.IllegalArgumentException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Contains tests for the {@link FileChannelToXInputStreamAdapter} class. */
+class FileChannelToXInputStreamAdapterTest {
+
+  private static final byte[] CONTENT = "0123456789".getBytes();
+
+  private static FileChannelToXInputStreamAdapter createAdapter(final File testFolder)
+      throws Exception {
+
+    final File file = new File(testFolder, "test.txt");
+    Files.write(file.toPath(), CONTENT);
+    return new FileChannelToXInputStreamAdapter(file);
+  }
+
+  @Test
+  void readBytes_ShouldReadFromCurrentPosition(final @TempDir File testFolder) throws Exception {
+
+    final FileChannelToXInputStreamAdapter adapter = createAdapter(testFolder);
+    try {
+      final byte[][] data = new byte[1][];
+      assertThat(adapter.readBytes(data, 4)).isEqualTo(4);
+      assertThat(new String(data[0])).isEqualTo("0123");
+      assertThat(adapter.getPosition()).isEqualTo(4L);
+      assertThat(adapter.available()).isEqualTo(6);
+    } finally {
+      adapter.closeInput();
+    }
+  }
+
+  @Test
+  void readBytes_PastEnd_ShouldReturnRemainingBytes(final @TempDir File testFolder)
+      throws Exception {
+
+    final FileChannelToXInputStreamAdapter adapter = createAdapter(testFolder);
+    try {
+      adapter.skipBytes(8);
+      final byte[][] data = new byte[1][];
+      assertThat(adapter.readSomeBytes(data, 100)).isEqualTo(2);
+      assertThat(new String(data[0])).isEqualTo("89");
+      assertThat(adapter.readBytes(data, 100)).isZero();
+      assertThat(data[0]).isEmpty();
+    } finally {
+      adapter.closeInput();
+    }
+  }
+
+  @Test
+  void seek_ShouldMovePosition(final @TempDir File testFolder) throws Exception {
+
+    final FileChannelToXInputStreamAdapter adapter = createAdapter(testFolder);
+    try {
+      assertThat(adapter.getLength()).isEqualTo(10L);
+      adapter.seek(7);
+      final byte[][] data = new byte[1][];
+      adapter.readBytes(data, 2);
+      assertThat(new String(data[0])).isEqualTo("78");
+      adapter.seek(0);
+      adapter.readBytes(data, 1);
+      assertThat(new String(data[0])).isEqualTo("0");
+    } finally {
+      adapter.closeInput();
+    }
+  }
+
+  @Test
+  void seek_WithInvalidLocation_ShouldThrowIllegalArgumentException(
+      final @TempDir File testFolder) throws Exception {
+
+    final FileChannelToXInputStreamAdapter adapter = createAdapter(testFolder);
+    try {
+      assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> adapter.seek(11));
+      assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> adapter.seek(-1));
+    } finally {
+      adapter.closeInput();
+    }
+  }
+
+  @Test
+  void closeInput_ShouldDisconnectStream(final @TempDir File testFolder) throws Exception {
+
+    final FileChannelToXInputStreamAdapter adapter = createAdapter(testFolder);
+    adapter.closeInput();
+    adapter.closeInput();
+
+    assertThatExceptionOfType(NotConnectedException.class)
+        .isThrownBy(() -> adapter.readBytes(new byte[1][], 1));
+  }
+}
@@ -28,8 +28,12 @@ import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -230,6 +234,52 @@ class LocalConversionTaskTest {
     }
   }
 
+  @Nested
+  class Execute {
+
+    @Test
+    void withDirectOutputStreamAndUnsupportedFormat_ShouldThrowOfficeExceptionWithoutStoring(
+        final UnoRuntime unoRuntime, final @TempDir File testFolder) throws Exception {
+
+      final XServiceInfo serviceInfo = mock(XServiceInfo.class);
+      given(serviceInfo.supportsService("com.sun.star.text.GenericTextDocument")).willReturn(true);
+
+      final XStorable storable = mock(XStorable.class);
+      final XComponent document = mock(XComponent.class);
+      final XComponentLoader loader = mock(XComponentLoader.class);
+      given(
+              loader.loadComponentFromURL(
+                  isA(String.class), isA(String.class), isA(int.class), isA(PropertyValue[].class)))
+          .willReturn(document);
+      final LocalOfficeContext context = mock(LocalOfficeContext.class);
+      given(context.getComponentLoader()).willReturn(loader);
+      given(unoRuntime.queryInterface(XServiceInfo.class, document)).willReturn(serviceInfo);
+      given(unoRuntime.queryInterface(XStorable.class, document)).willReturn(storable);
+      given(unoRuntime.queryInterface(XComponent.class, document)).willReturn(document);
+
+      final ByteArrayOutputStream targetStream = new ByteArrayOutputStream();
+      final LocalConversionTask task =
+          new LocalConversionTask(
+              new FooSourceSpecs(SOURCE_FILE),
+              new FooTargetSpecsWithoutFilterFormat(new File(testFolder, ZIP_TARGET_FILENAME)) {
+                @Override
+                public OutputStream getOutputStream() {
+                  return targetStream;
+                }
+              },
+              true,
+              null,
+              null,
+              null,
+              true);
+
+      assertThatExceptionOfType(OfficeException.class)
+          .isThrownBy(() -> task.execute(context))
+          .withCauseExactlyInstanceOf(IllegalArgumentException.class);
+      verify(storable, never()).storeToURL(isA(String.class), isA(PropertyValue[].class));
+    }
+  }
+
   @Nested
   class ToString {
 
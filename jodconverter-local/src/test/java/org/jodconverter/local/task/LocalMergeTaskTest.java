@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.jodconverter.local.ResourceUtil.documentFile;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.sun.star.beans.PropertyValue;
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.document.XDocumentInsertable;
+import com.sun.star.frame.XComponentLoader;
+import com.sun.star.frame.XStorable;
+import com.sun.star.lang.XComponent;
+import com.sun.star.lang.XServiceInfo;
+import com.sun.star.text.XText;
+import com.sun.star.text.XTextCursor;
+import com.sun.star.text.XTextDocument;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.job.AbstractSourceDocumentSpecs;
+import org.jodconverter.core.job.AbstractTargetDocumentSpecs;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.local.MockUnoRuntimeExtension;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.utils.UnoRuntime;
+
+/** Contains tests for the {@link LocalMergeTask} class. */
+@ExtendWith(MockUnoRuntimeExtension.class)
+class LocalMergeTaskTest {
+
+  private static final File SOURCE_FILE = documentFile("test.txt");
+
+  @Nested
+  class New {
+
+    @Test
+    void withoutSources_ShouldThrowIllegalArgumentException(final @TempDir File testFolder) {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(
+              () ->
+                  new LocalMergeTask(
+                      Collections.emptyList(),
+                      new FooTargetSpecs(
+                          new File(testFolder, "test.pdf"), DefaultDocumentFormatRegistry.PDF),
+                      false));
+    }
+  }
+
+  @Nested
+  class Execute {
+
+    private XComponentLoader mockDocument(
+        final UnoRuntime unoRuntime,
+        final XComponent document,
+        final String service,
+        final XStorable storable,
+        final LocalOfficeContext context)
+        throws Exception {
+
+      final XServiceInfo serviceInfo = mock(XServiceInfo.class);
+      given(serviceInfo.supportsService(service)).willReturn(true);
+
+      final XComponentLoader loader = mock(XComponentLoader.class);
+      given(
+              loader.loadComponentFromURL(
+                  isA(String.class), isA(String.class), isA(int.class), isA(PropertyValue[].class)))
+          .willReturn(document);
+      given(context.getComponentLoader()).willReturn(loader);
+      given(unoRuntime.queryInterface(XServiceInfo.class, document)).willReturn(serviceInfo);
+      given(unoRuntime.queryInterface(XStorable.class, document)).willReturn(storable);
+      given(unoRuntime.queryInterface(XComponent.class, document)).willReturn(document);
+      return loader;
+    }
+
+    private XDocumentInsertable mockTextDocument(
+        final UnoRuntime unoRuntime, final XComponent document) throws Exception {
+
+      final XTextDocument textDocument = mock(XTextDocument.class);
+      final XText text = mock(XText.class);
+      final XTextCursor cursor = mock(XTextCursor.class);
+      final XDocumentInsertable insertable = mock(XDocumentInsertable.class);
+      given(unoRuntime.queryInterface(XTextDocument.class, document)).willReturn(textDocument);
+      given(textDocument.getText()).willReturn(text);
+      given(text.createTextCursor()).willReturn(cursor);
+      given(unoRuntime.queryInterface(XPropertySet.class, cursor))
+          .willReturn(mock(XPropertySet.class));
+      given(unoRuntime.queryInterface(XDocumentInsertable.class, cursor)).willReturn(insertable);
+      return insertable;
+    }
+
+    @Test
+    void withTextDocuments_ShouldInsertEverySourceAndStoreOnce(
+        final UnoRuntime unoRuntime, final @TempDir File testFolder) throws Exception {
+
+      final XComponent document = mock(XComponent.class);
+      final XStorable storable = mock(XStorable.class);
+      final LocalOfficeContext context = mock(LocalOfficeContext.class);
+      final XComponentLoader loader =
+          mockDocument(
+              unoRuntime,
+              document,
+              "com.sun.star.text.GenericTextDocument",
+              storable,
+              context);
+      final XDocumentInsertable insertable = mockTextDocument(unoRuntime, document);
+
+      final FooTargetSpecs target =
+          new FooTargetSpecs(new File(testFolder, "test.pdf"), DefaultDocumentFormatRegistry.PDF);
+      final LocalMergeTask task =
+          new LocalMergeTask(
+              Arrays.asList(
+                  new FooSourceSpecs(SOURCE_FILE),
+                  new FooSourceSpecs(SOURCE_FILE),
+                  new FooSourceSpecs(SOURCE_FILE)),
+              target,
+              true);
+      task.execute(context);
+
+      verify(loader, times(1))
+          .loadComponentFromURL(
+              isA(String.class), isA(String.class), isA(int.class), isA(PropertyValue[].class));
+      verify(insertable, times(2))
+          .insertDocumentFromURL(isA(String.class), isA(PropertyValue[].class));
+      verify(storable, times(1)).storeToURL(isA(String.class), isA(PropertyValue[].class));
+      assertThat(task.getSourceTimes()).hasSize(3);
+      assertThat(target.completed).isTrue();
+    }
+
+    @Test
+    void withStreamAdapters_ShouldInsertSourcesThroughStreams(
+        final UnoRuntime unoRuntime, final @TempDir File testFolder) throws Exception {
+
+      final XComponent document = mock(XComponent.class);
+      final XStorable storable = mock(XStorable.class);
+      final LocalOfficeContext context = mock(LocalOfficeContext.class);
+      mockDocument(
+          unoRuntime, document, "com.sun.star.text.GenericTextDocument", storable, context);
+      final XDocumentInsertable insertable = mockTextDocument(unoRuntime, document);
+
+      final FooSourceSpecs first = new FooSourceSpecs(SOURCE_FILE);
+      final FooSourceSpecs second = new FooSourceSpecs(SOURCE_FILE);
+      final FooTargetSpecs target =
+          new FooTargetSpecs(new File(testFolder, "test.pdf"), DefaultDocumentFormatRegistry.PDF);
+      final LocalMergeTask task =
+          new LocalMergeTask(Arrays.asList(first, second), target, false, true, null, null, null);
+      task.execute(context);
+
+      verify(insertable, times(1))
+          .insertDocumentFromURL(eq("private:stream"), isA(PropertyValue[].class));
+      assertThat(first.consumed).isEqualTo(1);
+      assertThat(second.consumed).isEqualTo(1);
+      assertThat(second.discarded).isZero();
+      assertThat(target.completed).isTrue();
+    }
+
+    @Test
+    void whenSourceCannotBeMerged_ShouldConsumeItOnceAndDiscardRemainingSources(
+        final UnoRuntime unoRuntime, final @TempDir File testFolder) throws Exception {
+
+      final XComponent document = mock(XComponent.class);
+      final XStorable storable = mock(XStorable.class);
+      final LocalOfficeContext context = mock(LocalOfficeContext.class);
+      mockDocument(
+          unoRuntime, document, "com.sun.star.text.GenericTextDocument", storable, context);
+      final XDocumentInsertable insertable = mockTextDocument(unoRuntime, document);
+      willThrow(new com.sun.star.io.IOException())
+          .given(insertable)
+          .insertDocumentFromURL(isA(String.class), isA(PropertyValue[].class));
+
+      final FooSourceSpecs second = new FooSourceSpecs(SOURCE_FILE);
+      final FooSourceSpecs third = new FooSourceSpecs(SOURCE_FILE);
+      final FooTargetSpecs target =
+          new FooTargetSpecs(new File(testFolder, "test.pdf"), DefaultDocumentFormatRegistry.PDF);
+      final LocalMergeTask task =
+          new LocalMergeTask(
+              Arrays.asList(new FooSourceSpecs(SOURCE_FILE), second, third), target, false);
+
+      assertThatExceptionOfType(OfficeException.class)
+          .isThrownBy(() -> task.execute(context))
+          .withMessageContaining(SOURCE_FILE.getName());
+      verify(storable, never()).storeToURL(isA(String.class), isA(PropertyValue[].class));
+      assertThat(second.consumed).isEqualTo(1);
+      assertThat(second.discarded).isZero();
+      assertThat(third.consumed).isZero();
+      assertThat(third.discarded).isEqualTo(1);
+    }
+
+    @Test
+    void withPresentation_ShouldThrowOfficeExceptionWithoutStoring(
+        final UnoRuntime unoRuntime, final @TempDir File testFolder) throws Exception {
+
+      final XComponent document = mock(XComponent.class);
+      final XStorable storable = mock(XStorable.class);
+      final LocalOfficeContext context = mock(LocalOfficeContext.class);
+      mockDocument(
+          unoRuntime,
+          document,
+          "com.sun.star.presentation.PresentationDocument",
+          storable,
+          context);
+
+      final FooTargetSpecs target =
+          new FooTargetSpecs(new File(testFolder, "test.pdf"), DefaultDocumentFormatRegistry.PDF);
+      final LocalMergeTask task =
+          new LocalMergeTask(
+              Arrays.asList(new FooSourceSpecs(SOURCE_FILE), new FooSourceSpecs(SOURCE_FILE)),
+              target,
+              false);
+
+      assertThatExceptionOfType(OfficeException.class)
+          .isThrownBy(() -> task.execute(context))
+          .withMessageContaining("presentation");
+      verify(storable, never()).storeToURL(isA(String.class), isA(PropertyValue[].class));
+      assertThat(task.getSourceTimes()).hasSize(1);
+    }
+  }
+
+  private static class FooSourceSpecs extends AbstractSourceDocumentSpecs {
+
+    private int consumed;
+    private int discarded;
+
+    public FooSourceSpecs(final File source) {
+      super(source);
+    }
+
+    @Override
+    public DocumentFormat getFormat() {
+      return DefaultDocumentFormatRegistry.TXT;
+    }
+
+    @Override
+    public void onConsumed(final File file) {
+      consumed++;
+    }
+
+    @Override
+    public void discardStaged() {
+      discarded++;
+    }
+  }
+
+  private static class FooTargetSpecs extends AbstractTargetDocumentSpecs {
+
+    private final DocumentFormat format;
+    private boolean completed;
+
+    public FooTargetSpecs(final File target, final DocumentFormat format) {
+      super(target);
+
+      this.format = format;
+    }
+
+    @Override
+    public DocumentFormat getFormat() {
+      return format;
+    }
+
+    @Override
+    public void onComplete(final File file) {
+      completed = true;
+    }
+  }
+}
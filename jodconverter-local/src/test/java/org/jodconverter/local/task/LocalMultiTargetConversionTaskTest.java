@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.jodconverter.local.ResourceUtil.documentFile;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.sun.star.beans.PropertyValue;
+import com.sun.star.frame.XComponentLoader;
+import com.sun.star.frame.XStorable;
+import com.sun.star.io.IOException;
+import com.sun.star.lang.XComponent;
+import com.sun.star.lang.XServiceInfo;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.job.AbstractSourceDocumentSpecs;
+import org.jodconverter.core.job.AbstractTargetDocumentSpecs;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.local.MockUnoRuntimeExtension;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.utils.UnoRuntime;
+
+/** Contains tests for the {@link LocalMultiTargetConversionTask} class. */
+@ExtendWith(MockUnoRuntimeExtension.class)
+class LocalMultiTargetConversionTaskTest {
+
+  private static final File SOURCE_FILE = documentFile("test.txt");
+
+  @Nested
+  class New {
+
+    @Test
+    void withoutTargets_ShouldThrowIllegalArgumentException() {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(
+              () ->
+                  new LocalMultiTargetConversionTask(
+                      new FooSourceSpecs(SOURCE_FILE),
+                      Collections.emptyList(),
+                      false,
+                      null,
+                      null,
+                      null));
+    }
+  }
+
+  @Nested
+  class Execute {
+
+    private XComponentLoader mockDocument(
+        final UnoRuntime unoRuntime, final XStorable storable, final LocalOfficeContext context)
+        throws Exception {
+
+      final XServiceInfo serviceInfo = mock(XServiceInfo.class);
+      given(serviceInfo.supportsService("com.sun.star.text.GenericTextDocument")).willReturn(true);
+
+      final XComponent document = mock(XComponent.class);
+      final XComponentLoader loader = mock(XComponentLoader.class);
+      given(
+              loader.loadComponentFromURL(
+                  isA(String.class), isA(String.class), isA(int.class), isA(PropertyValue[].class)))
+          .willReturn(document);
+      given(context.getComponentLoader()).willReturn(loader);
+      given(unoRuntime.queryInterface(XServiceInfo.class, document)).willReturn(serviceInfo);
+      given(unoRuntime.queryInterface(XStorable.class, document)).willReturn(storable);
+      given(unoRuntime.queryInterface(XComponent.class, document)).willReturn(document);
+      return loader;
+    }
+
+    @Test
+    void withManyTargets_ShouldLoadDocumentOnceAndStoreEveryTarget(
+        final UnoRuntime unoRuntime, final @TempDir File testFolder) throws Exception {
+
+      final XStorable storable = mock(XStorable.class);
+      final LocalOfficeContext context = mock(LocalOfficeContext.class);
+      final XComponentLoader loader = mockDocument(unoRuntime, storable, context);
+
+      final FooTargetSpecs pdf =
+          new FooTargetSpecs(new File(testFolder, "test.pdf"), DefaultDocumentFormatRegistry.PDF);
+      final FooTargetSpecs docx =
+          new FooTargetSpecs(new File(testFolder, "test.docx"), DefaultDocumentFormatRegistry.DOCX);
+      final LocalMultiTargetConversionTask task =
+          new LocalMultiTargetConversionTask(
+              new FooSourceSpecs(SOURCE_FILE), Arrays.asList(pdf, docx), false, null, null, null);
+      task.execute(context);
+
+      verify(loader, times(1))
+          .loadComponentFromURL(
+              isA(String.class), isA(String.class), isA(int.class), isA(PropertyValue[].class));
+      verify(storable, times(2)).storeToURL(isA(String.class), isA(PropertyValue[].class));
+      assertThat(pdf.completed).isTrue();
+      assertThat(docx.completed).isTrue();
+    }
+
+    @Test
+    void whenOneTargetFails_ShouldStoreOtherTargetsAndThrowOfficeException(
+        final UnoRuntime unoRuntime, final @TempDir File testFolder) throws Exception {
+
+      final XStorable storable = mock(XStorable.class);
+      doThrow(IOException.class)
+          .doNothing()
+          .when(storable)
+          .storeToURL(isA(String.class), isA(PropertyValue[].class));
+      final LocalOfficeContext context = mock(LocalOfficeContext.class);
+      mockDocument(unoRuntime, storable, context);
+
+      final FooTargetSpecs pdf =
+          new FooTargetSpecs(new File(testFolder, "test.pdf"), DefaultDocumentFormatRegistry.PDF);
+      final FooTargetSpecs docx =
+          new FooTargetSpecs(new File(testFolder, "test.docx"), DefaultDocumentFormatRegistry.DOCX);
+      final LocalMultiTargetConversionTask task =
+          new LocalMultiTargetConversionTask(
+              new FooSourceSpecs(SOURCE_FILE), Arrays.asList(pdf, docx), false, null, null, null);
+
+      assertThatExceptionOfType(OfficeException.class)
+          .isThrownBy(() -> task.execute(context))
+          .withCauseExactlyInstanceOf(IOException.class);
+      assertThat(pdf.failed).isTrue();
+      assertThat(docx.completed).isTrue();
+    }
+  }
+
+  private static class FooSourceSpecs extends AbstractSourceDocumentSpecs {
+
+    public FooSourceSpecs(final File source) {
+      super(source);
+    }
+
+    @Override
+    public DocumentFormat getFormat() {
+      return DefaultDocumentFormatRegistry.TXT;
+    }
+  }
+
+  private static class FooTargetSpecs extends AbstractTargetDocumentSpecs {
+
+    private final DocumentFormat format;
+    private boolean completed;
+    private boolean failed;
+
+    public FooTargetSpecs(final File target, final DocumentFormat format) {
+      super(target);
+
+      this.format = format;
+    }
+
+    @Override
+    public DocumentFormat getFormat() {
+      return format;
+    }
+
+    @Override
+    public void onComplete(final File file) {
+      completed = true;
+    }
+
+    @Override
+    public void onFailure(final File file, final Exception exception) {
+      failed = true;
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.jodconverter.local.ResourceUtil.documentFile;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sun.star.awt.Size;
+import com.sun.star.beans.PropertyValue;
+import com.sun.star.frame.XComponentLoader;
+import com.sun.star.frame.XStorable;
+import com.sun.star.lang.XComponent;
+import com.sun.star.lang.XServiceInfo;
+import com.sun.star.view.XRenderable;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.job.AbstractSourceDocumentSpecs;
+import org.jodconverter.core.job.TargetDocumentSpecsFromFile;
+import org.jodconverter.local.MockUnoRuntimeExtension;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.utils.UnoRuntime;
+
+/** Contains tests for the {@link LocalPageRenderingTask} class. */
+@ExtendWith(MockUnoRuntimeExtension.class)
+class LocalPageRenderingTaskTest {
+
+  private static final File SOURCE_FILE = documentFile("test.txt");
+
+  @Nested
+  class New {
+
+    @Test
+    void withNonImageFormat_ShouldThrowIllegalArgumentException(final @TempDir File testFolder) {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(
+              () ->
+                  new LocalPageRenderingTask(
+                      new FooSourceSpecs(SOURCE_FILE),
+                      DefaultDocumentFormatRegistry.PDF,
+                      LocalPageRenderingTask.toDirectory(
+                          testFolder, "test", DefaultDocumentFormatRegistry.PDF),
+                      LocalPageRenderingTask.DEFAULT_RESOLUTION));
+    }
+
+    @Test
+    void withInvalidPageRange_ShouldThrowIllegalArgumentException(final @TempDir File testFolder) {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(
+              () ->
+                  new LocalPageRenderingTask(
+                      new FooSourceSpecs(SOURCE_FILE),
+                      DefaultDocumentFormatRegistry.PNG,
+                      LocalPageRenderingTask.toDirectory(
+                          testFolder, "test", DefaultDocumentFormatRegistry.PNG),
+                      3,
+                      2,
+                      LocalPageRenderingTask.DEFAULT_RESOLUTION,
+                      false,
+                      null,
+                      null));
+    }
+
+    @Test
+    void withZeroResolution_ShouldThrowIllegalArgumentException(final @TempDir File testFolder) {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(
+              () ->
+                  new LocalPageRenderingTask(
+                      new FooSourceSpecs(SOURCE_FILE),
+                      DefaultDocumentFormatRegistry.PNG,
+                      LocalPageRenderingTask.toDirectory(
+                          testFolder, "test", DefaultDocumentFormatRegistry.PNG),
+                      0));
+    }
+  }
+
+  @Nested
+  class Execute {
+
+    @Test
+    void withTextDocument_ShouldLoadDocumentOnceAndStoreEveryPageOfRange(
+        final UnoRuntime unoRuntime, final @TempDir File testFolder) throws Exception {
+
+      final XServiceInfo serviceInfo = mock(XServiceInfo.class);
+      given(serviceInfo.supportsService("com.sun.star.text.GenericTextDocument")).willReturn(true);
+
+      final XComponent document = mock(XComponent.class);
+      final XComponentLoader loader = mock(XComponentLoader.class);
+      given(
+              loader.loadComponentFromURL(
+                  isA(String.class), isA(String.class), isA(int.class), isA(PropertyValue[].class)))
+          .willReturn(document);
+      final LocalOfficeContext context = mock(LocalOfficeContext.class);
+      given(context.getComponentLoader()).willReturn(loader);
+
+      final PropertyValue pageSize = new PropertyValue();
+      pageSize.Name = "PageSize";
+      pageSize.Value = new Size(21_000, 29_700);
+      final XRenderable renderable = mock(XRenderable.class);
+      given(renderable.getRendererCount(eq(document), isA(PropertyValue[].class))).willReturn(3);
+      given(renderable.getRenderer(isA(int.class), eq(document), isA(PropertyValue[].class)))
+          .willReturn(new PropertyValue[] {pageSize});
+      final XStorable storable = mock(XStorable.class);
+      given(unoRuntime.queryInterface(XServiceInfo.class, document)).willReturn(serviceInfo);
+      given(unoRuntime.queryInterface(XRenderable.class, document)).willReturn(renderable);
+      given(unoRuntime.queryInterface(XStorable.class, document)).willReturn(storable);
+      given(unoRuntime.queryInterface(XComponent.class, document)).willReturn(document);
+
+      final List<File> pages = new ArrayList<>();
+      final LocalPageRenderingTask task =
+          new LocalPageRenderingTask(
+              new FooSourceSpecs(SOURCE_FILE),
+              DefaultDocumentFormatRegistry.PNG,
+              page -> {
+                final File file = new File(testFolder, "test-" + page + ".png");
+                pages.add(file);
+                return new TargetDocumentSpecsFromFile(file);
+              },
+              2,
+              5,
+              LocalPageRenderingTask.DEFAULT_RESOLUTION,
+              false,
+              null,
+              null);
+      task.execute(context);
+
+      verify(loader, times(1))
+          .loadComponentFromURL(
+              isA(String.class), isA(String.class), isA(int.class), isA(PropertyValue[].class));
+      verify(storable, times(2)).storeToURL(isA(String.class), isA(PropertyValue[].class));
+      assertThat(task.getPageCount()).isEqualTo(3);
+      assertThat(task.getRenderedPageCount()).isEqualTo(2);
+      assertThat(pages)
+          .containsExactly(new File(testFolder, "test-2.png"), new File(testFolder, "test-3.png"));
+    }
+  }
+
+  private static class FooSourceSpecs extends AbstractSourceDocumentSpecs {
+
+    public FooSourceSpecs(final File source) {
+      super(source);
+    }
+
+    @Override
+    public DocumentFormat getFormat() {
+      return DefaultDocumentFormatRegistry.TXT;
+    }
+  }
+}
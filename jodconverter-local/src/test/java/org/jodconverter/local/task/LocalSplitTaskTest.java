@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.jodconverter.local.ResourceUtil.documentFile;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.sun.star.beans.PropertyValue;
+import com.sun.star.frame.XComponentLoader;
+import com.sun.star.frame.XStorable;
+import com.sun.star.lang.XComponent;
+import com.sun.star.lang.XServiceInfo;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.job.AbstractSourceDocumentSpecs;
+import org.jodconverter.core.job.AbstractTargetDocumentSpecs;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.local.MockUnoRuntimeExtension;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.utils.UnoRuntime;
+import org.jodconverter.local.task.LocalSplitTask.Part;
+
+/** Contains tests for the {@link LocalSplitTask} class. */
+@ExtendWith(MockUnoRuntimeExtension.class)
+class LocalSplitTaskTest {
+
+  private static final File SOURCE_FILE = documentFile("test.txt");
+
+  @Nested
+  class New {
+
+    @Test
+    void withoutParts_ShouldThrowIllegalArgumentException() {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(
+              () -> new LocalSplitTask(new FooSourceSpecs(SOURCE_FILE), Collections.emptyList()));
+    }
+
+    @Test
+    void withZeroPage_ShouldThrowIllegalArgumentException(final @TempDir File testFolder) {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(
+              () ->
+                  Part.page(
+                      0,
+                      new FooTargetSpecs(
+                          new File(testFolder, "test.pdf"), DefaultDocumentFormatRegistry.PDF)));
+    }
+  }
+
+  @Nested
+  class Partition {
+
+    @Test
+    void withManyParts_ShouldDistributePartsInOrder(final @TempDir File testFolder) {
+
+      final List<Part> parts =
+          Arrays.asList(
+              Part.page(1, pdfTarget(testFolder, 1)),
+              Part.page(2, pdfTarget(testFolder, 2)),
+              Part.page(3, pdfTarget(testFolder, 3)),
+              Part.page(4, pdfTarget(testFolder, 4)),
+              Part.page(5, pdfTarget(testFolder, 5)));
+
+      final List<LocalSplitTask> tasks =
+          LocalSplitTask.partition(
+                  new FooSourceSpecs(SOURCE_FILE), parts, 2, false, null, null, null)
+              .getTasks();
+
+      assertThat(tasks).hasSize(2);
+      assertThat(tasks.get(0).getParts()).containsExactlyElementsOf(parts.subList(0, 3));
+      assertThat(tasks.get(1).getParts()).containsExactlyElementsOf(parts.subList(3, 5));
+    }
+
+    @Test
+    void whenEveryTaskConsumedSource_ShouldConsumeSourceOnce(final @TempDir File testFolder) {
+
+      final FooSourceSpecs source = new FooSourceSpecs(SOURCE_FILE);
+      final List<Part> parts =
+          Arrays.asList(
+              Part.page(1, pdfTarget(testFolder, 1)), Part.page(2, pdfTarget(testFolder, 2)));
+      final List<LocalSplitTask> tasks =
+          LocalSplitTask.partition(source, parts, 2, false, null, null, null).getTasks();
+
+      final File first = tasks.get(0).getSource().getFile();
+      tasks.get(0).getSource().onConsumed(first);
+      assertThat(source.consumed).isZero();
+
+      final File second = tasks.get(1).getSource().getFile();
+      tasks.get(1).getSource().onConsumed(second);
+      assertThat(second).isEqualTo(first);
+      assertThat(source.consumed).isEqualTo(1);
+    }
+
+    @Test
+    void whenReleasedBeforeAnyTaskObtainedSource_ShouldDiscardStagedSourceOnce(
+        final @TempDir File testFolder) {
+
+      final FooSourceSpecs source = new FooSourceSpecs(SOURCE_FILE);
+      final List<Part> parts =
+          Arrays.asList(
+              Part.page(1, pdfTarget(testFolder, 1)), Part.page(2, pdfTarget(testFolder, 2)));
+      final LocalSplitTask.Partition partition =
+          LocalSplitTask.partition(source, parts, 2, false, null, null, null);
+
+      partition.release();
+      partition.release();
+
+      assertThat(source.discarded).isEqualTo(1);
+      assertThat(source.consumed).isZero();
+      assertThatIllegalArgumentException()
+          .isThrownBy(() -> partition.getTasks().get(0).getSource().getFile());
+    }
+  }
+
+  @Nested
+  class Execute {
+
+    private XComponentLoader mockDocument(
+        final UnoRuntime unoRuntime, final XStorable storable, final LocalOfficeContext context)
+        throws Exception {
+
+      final XServiceInfo serviceInfo = mock(XServiceInfo.class);
+      given(serviceInfo.supportsService("com.sun.star.text.GenericTextDocument")).willReturn(true);
+
+      final XComponent document = mock(XComponent.class);
+      final XComponentLoader loader = mock(XComponentLoader.class);
+      given(
+              loader.loadComponentFromURL(
+                  isA(String.class), isA(String.class), isA(int.class), isA(PropertyValue[].class)))
+          .willReturn(document);
+      given(context.getComponentLoader()).willReturn(loader);
+      given(unoRuntime.queryInterface(XServiceInfo.class, document)).willReturn(serviceInfo);
+      given(unoRuntime.queryInterface(XStorable.class, document)).willReturn(storable);
+      given(unoRuntime.queryInterface(XComponent.class, document)).willReturn(document);
+      return loader;
+    }
+
+    @Test
+    void withPageRanges_ShouldLoadDocumentOnceAndStoreEveryPart(
+        final UnoRuntime unoRuntime, final @TempDir File testFolder) throws Exception {
+
+      final XStorable storable = mock(XStorable.class);
+      final LocalOfficeContext context = mock(LocalOfficeContext.class);
+      final XComponentLoader loader = mockDocument(unoRuntime, storable, context);
+
+      final FooTargetSpecs first = pdfTarget(testFolder, 1);
+      final FooTargetSpecs second = pdfTarget(testFolder, 2);
+      final LocalSplitTask task =
+          new LocalSplitTask(
+              new FooSourceSpecs(SOURCE_FILE),
+              Arrays.asList(Part.pages("1-2", first), Part.pages("3;5", second)));
+      task.execute(context);
+
+      verify(loader, times(1))
+          .loadComponentFromURL(
+              isA(String.class), isA(String.class), isA(int.class), isA(PropertyValue[].class));
+      verify(storable, times(2)).storeToURL(isA(String.class), isA(PropertyValue[].class));
+      assertThat(first.completed).isTrue();
+      assertThat(second.completed).isTrue();
+    }
+
+    @Test
+    void withPageRangeToUnsupportedFormat_ShouldStoreOtherPartsAndThrowOfficeException(
+        final UnoRuntime unoRuntime, final @TempDir File testFolder) throws Exception {
+
+      final XStorable storable = mock(XStorable.class);
+      final LocalOfficeContext context = mock(LocalOfficeContext.class);
+      mockDocument(unoRuntime, storable, context);
+
+      final FooTargetSpecs docx =
+          new FooTargetSpecs(new File(testFolder, "test.docx"), DefaultDocumentFormatRegistry.DOCX);
+      final FooTargetSpecs pdf = pdfTarget(testFolder, 1);
+      final LocalSplitTask task =
+          new LocalSplitTask(
+              new FooSourceSpecs(SOURCE_FILE),
+              Arrays.asList(Part.page(1, docx), Part.page(1, pdf)));
+
+      assertThatExceptionOfType(OfficeException.class)
+          .isThrownBy(() -> task.execute(context))
+          .withCauseExactlyInstanceOf(IllegalArgumentException.class);
+      verify(storable, times(1)).storeToURL(isA(String.class), isA(PropertyValue[].class));
+      assertThat(docx.failed).isTrue();
+      assertThat(pdf.completed).isTrue();
+    }
+
+    @Test
+    void withSheetOfTextDocument_ShouldThrowOfficeException(
+        final UnoRuntime unoRuntime, final @TempDir File testFolder) throws Exception {
+
+      final XStorable storable = mock(XStorable.class);
+      final LocalOfficeContext context = mock(LocalOfficeContext.class);
+      mockDocument(unoRuntime, storable, context);
+
+      final FooTargetSpecs pdf = pdfTarget(testFolder, 1);
+      final LocalSplitTask task =
+          new LocalSplitTask(
+              new FooSourceSpecs(SOURCE_FILE), Collections.singletonList(Part.sheet(1, pdf)));
+
+      assertThatExceptionOfType(OfficeException.class).isThrownBy(() -> task.execute(context));
+      assertThat(pdf.failed).isTrue();
+    }
+
+    @Test
+    void withSheetToFormatKeepingHiddenSheets_ShouldThrowOfficeException(
+        final UnoRuntime unoRuntime, final @TempDir File testFolder) throws Exception {
+
+      final XStorable storable = mock(XStorable.class);
+      final LocalOfficeContext context = mock(LocalOfficeContext.class);
+      mockDocument(unoRuntime, storable, context);
+
+      final FooTargetSpecs xlsx =
+          new FooTargetSpecs(new File(testFolder, "test.xlsx"), DefaultDocumentFormatRegistry.XLSX);
+      final LocalSplitTask task =
+          new LocalSplitTask(
+              new FooSourceSpecs(SOURCE_FILE), Collections.singletonList(Part.sheet(1, xlsx)));
+
+      assertThatExceptionOfType(OfficeException.class)
+          .isThrownBy(() -> task.execute(context))
+          .withCauseExactlyInstanceOf(IllegalArgumentException.class)
+          .satisfies(
+              ex -> assertThat(ex.getCause()).hasMessageContaining("A sheet cannot be stored as"));
+      verify(storable, never()).storeToURL(isA(String.class), isA(PropertyValue[].class));
+      assertThat(xlsx.failed).isTrue();
+    }
+
+    @Test
+    void withPartitionPartiallyExecuted_ShouldConsumeSourceOnceReleased(
+        final UnoRuntime unoRuntime, final @TempDir File testFolder) throws Exception {
+
+      final XStorable storable = mock(XStorable.class);
+      final LocalOfficeContext context = mock(LocalOfficeContext.class);
+      mockDocument(unoRuntime, storable, context);
+
+      final FooSourceSpecs source = new FooSourceSpecs(SOURCE_FILE);
+      final List<Part> parts =
+          Arrays.asList(
+              Part.page(1, pdfTarget(testFolder, 1)),
+              Part.page(2, pdfTarget(testFolder, 2)),
+              Part.page(3, pdfTarget(testFolder, 3)));
+      final LocalSplitTask.Partition partition =
+          LocalSplitTask.partition(source, parts, 3, false, null, null, null);
+
+      // Only the first task is executed; the others are, for instance, rejected.
+      partition.getTasks().get(0).execute(context);
+      assertThat(source.consumed).isZero();
+
+      partition.release();
+      partition.release();
+      assertThat(source.consumed).isEqualTo(1);
+      assertThat(source.discarded).isZero();
+    }
+  }
+
+  private static FooTargetSpecs pdfTarget(final File testFolder, final int index) {
+    return new FooTargetSpecs(
+        new File(testFolder, "test-" + index + ".pdf"), DefaultDocumentFormatRegistry.PDF);
+  }
+
+  private static class FooSourceSpecs extends AbstractSourceDocumentSpecs {
+
+    private int consumed;
+    private int discarded;
+
+    public FooSourceSpecs(final File source) {
+      super(source);
+    }
+
+    @Override
+    public DocumentFormat getFormat() {
+      return DefaultDocumentFormatRegistry.TXT;
+    }
+
+    @Override
+    public void onConsumed(final File file) {
+      consumed++;
+    }
+
+    @Override
+    public void discardStaged() {
+      discarded++;
+    }
+  }
+
+  private static class FooTargetSpecs extends AbstractTargetDocumentSpecs {
+
+    private final DocumentFormat format;
+    private boolean completed;
+    private boolean failed;
+
+    public FooTargetSpecs(final File target, final DocumentFormat format) {
+      super(target);
+
+      this.format = format;
+    }
+
+    @Override
+    public DocumentFormat getFormat() {
+      return format;
+    }
+
+    @Override
+    public void onComplete(final File file) {
+      completed = true;
+    }
+
+    @Override
+    public void onFailure(final File file, final Exception exception) {
+      failed = true;
+    }
+  }
+}
@@ -21,12 +21,17 @@
 package org.jodconverter.remote.office;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -170,6 +175,241 @@ class RemoteOfficeManagerITest {
           // Check that the output file was created with the expected content.
           final String content = FileUtils.readFileToString(outputFile, StandardCharsets.UTF_8);
           assertThat(content).as("Check content: %s", content).contains("Test Document");
+
+          // Check that the input stream was streamed to the server, without temporary file.
+          wireMockServer.verify(
+              postRequestedFor(urlPathEqualTo("/lool/convert-to/txt"))
+                  .withHeader("Transfer-Encoding", equalTo("chunked")));
+        } finally {
+          manager.stop();
+        }
+      } finally {
+        wireMockServer.stop();
+      }
+    }
+
+    @Test
+    void withRequestCompression_ShouldSendCompressedDocument(final @TempDir File testFolder)
+        throws OfficeException, IOException {
+
+      final File inputFile = new File(SOURCE_FILE_PATH);
+      final File outputFile = new File(testFolder, "out.txt");
+
+      final WireMockServer wireMockServer = new WireMockServer(options().port(8000));
+      wireMockServer.start();
+      try {
+        final OfficeManager manager =
+            RemoteOfficeManager.builder()
+                .urlConnection("http://localhost:8000/lool/convert-to/")
+                .requestCompression(true)
+                .build();
+        try {
+          manager.start();
+          wireMockServer.stubFor(
+              post(urlPathEqualTo("/lool/convert-to/txt"))
+                  .willReturn(aResponse().withStatus(200).withBody("Test Document")));
+
+          // Try to converter the input document
+          RemoteConverter.make(manager).convert(inputFile).to(outputFile).execute();
+
+          // Check that the output file was created with the expected content.
+          final String content = FileUtils.readFileToString(outputFile, StandardCharsets.UTF_8);
+          assertThat(content).as("Check content: %s", content).contains("Test Document");
+
+          // Check that the document, which compresses well, was compressed and that compressed
+          // responses were accepted.
+          wireMockServer.verify(
+              postRequestedFor(urlPathEqualTo("/lool/convert-to/txt"))
+                  .withHeader("Content-Encoding", equalTo("gzip"))
+                  .withHeader("Accept-Encoding", containing("gzip")));
+        } finally {
+          manager.stop();
+        }
+      } finally {
+        wireMockServer.stop();
+      }
+    }
+
+    @Test
+    void withFailoverAndFailingEndpoint_ShouldRetryOnAnotherEndpoint(
+        final @TempDir File testFolder) throws OfficeException, IOException {
+
+      final File inputFile = new File(SOURCE_FILE_PATH);
+      final File outputFile = new File(testFolder, "out.txt");
+
+      final WireMockServer failingServer = new WireMockServer(options().port(8000));
+      final WireMockServer workingServer = new WireMockServer(options().port(8001));
+      failingServer.start();
+      workingServer.start();
+      try {
+        final RemoteOfficeManager manager =
+            RemoteOfficeManager.builder()
+                .endpoint("http://localhost:8000/lool/convert-to/", 1)
+                .endpoint("http://localhost:8001/lool/convert-to/", 1)
+                .failover(true)
+                .build();
+        try {
+          manager.start();
+          failingServer.stubFor(
+              post(urlPathEqualTo("/lool/convert-to/txt")).willReturn(aResponse().withStatus(503)));
+          workingServer.stubFor(
+              post(urlPathEqualTo("/lool/convert-to/txt"))
+                  .willReturn(aResponse().withStatus(200).withBody("Test Document")));
+
+          // Convert twice so both endpoints are chosen at least once.
+          for (int i = 0; i < 2; i++) {
+            RemoteConverter.make(manager).convert(inputFile).to(outputFile).execute();
+
+            final String content = FileUtils.readFileToString(outputFile, StandardCharsets.UTF_8);
+            assertThat(content).as("Check content: %s", content).contains("Test Document");
+          }
+        } finally {
+          manager.stop();
+        }
+      } finally {
+        failingServer.stop();
+        workingServer.stop();
+      }
+    }
+
+    @Test
+    void withFailoverAndInMemoryDocuments_ShouldRetryOnAnotherEndpoint()
+        throws OfficeException, IOException {
+
+      final byte[] source = Files.readAllBytes(new File(SOURCE_FILE_PATH).toPath());
+
+      final WireMockServer failingServer = new WireMockServer(options().port(8000));
+      final WireMockServer workingServer = new WireMockServer(options().port(8001));
+      failingServer.start();
+      workingServer.start();
+      try {
+        final RemoteOfficeManager manager =
+            RemoteOfficeManager.builder()
+                .endpoint("http://localhost:8000/lool/convert-to/", 1)
+                .endpoint("http://localhost:8001/lool/convert-to/", 1)
+                .failover(true)
+                .build();
+        try {
+          manager.start();
+          failingServer.stubFor(
+              post(urlPathEqualTo("/lool/convert-to/txt")).willReturn(aResponse().withStatus(503)));
+          workingServer.stubFor(
+              post(urlPathEqualTo("/lool/convert-to/txt"))
+                  .willReturn(aResponse().withStatus(200).withBody("Test Document")));
+
+          // Convert twice so both endpoints are chosen at least once.
+          for (int i = 0; i < 2; i++) {
+            final ByteArrayOutputStream target = new ByteArrayOutputStream();
+            RemoteConverter.make(manager)
+                .convert(source)
+                .as(DefaultDocumentFormatRegistry.DOC)
+                .to(target)
+                .as(DefaultDocumentFormatRegistry.TXT)
+                .execute();
+
+            final String content = new String(target.toByteArray(), StandardCharsets.UTF_8);
+            assertThat(content).as("Check content: %s", content).contains("Test Document");
+          }
+        } finally {
+          manager.stop();
+        }
+      } finally {
+        failingServer.stop();
+        workingServer.stop();
+      }
+    }
+
+    @Test
+    void withHealthChecks_ShouldEjectUnhealthyEndpoint() throws Exception {
+
+      final WireMockServer healthyServer = new WireMockServer(options().port(8000));
+      final WireMockServer unhealthyServer = new WireMockServer(options().port(8001));
+      healthyServer.start();
+      unhealthyServer.start();
+      try {
+        final RemoteOfficeManager manager =
+            RemoteOfficeManager.builder()
+                .endpoint("http://localhost:8000/lool/convert-to/", 1)
+                .endpoint("http://localhost:8001/lool/convert-to/", 1)
+                .healthCheckInterval(100L)
+                .build();
+        try {
+          healthyServer.stubFor(
+              get(urlPathEqualTo("/hosting/discovery")).willReturn(aResponse().withStatus(200)));
+          unhealthyServer.stubFor(
+              get(urlPathEqualTo("/hosting/discovery")).willReturn(aResponse().withStatus(500)));
+          manager.start();
+
+          // Let the health checker run at least once.
+          Thread.sleep(500L);
+
+          assertThat(manager.getHealthyEndpoints())
+              .extracting(RemoteEndpoint::getUrl)
+              .containsExactly("http://localhost:8000/lool/convert-to/");
+        } finally {
+          manager.stop();
+        }
+      } finally {
+        healthyServer.stop();
+        unhealthyServer.stop();
+      }
+    }
+
+    @Test
+    void withCapabilities_ShouldRejectUnsupportedConversionBeforeUpload(
+        final @TempDir File testFolder) throws Exception {
+
+      final File inputFile = new File(SOURCE_FILE_PATH);
+      final File outputFile = new File(testFolder, "out.txt");
+
+      final WireMockServer wireMockServer = new WireMockServer(options().port(8000));
+      wireMockServer.start();
+      try {
+        final RemoteOfficeManager manager =
+            RemoteOfficeManager.builder()
+                .urlConnection("http://localhost:8000/lool/convert-to/")
+                .capabilitiesTtl(60_000L)
+                .build();
+        try {
+          wireMockServer.stubFor(
+              get(urlPathEqualTo("/hosting/capabilities"))
+                  .willReturn(
+                      aResponse()
+                          .withStatus(200)
+                          .withBody(
+                              "{\"convert-to\":{\"available\":true},"
+                                  + "\"productName\":\"Test Online\","
+                                  + "\"productVersion\":\"1.2.3\"}")));
+          wireMockServer.stubFor(
+              get(urlPathEqualTo("/hosting/discovery"))
+                  .willReturn(
+                      aResponse()
+                          .withStatus(200)
+                          .withBody(
+                              "<wopi-discovery><net-zone name=\"external-http\">"
+                                  + "<app name=\"writer\">"
+                                  + "<action ext=\"odt\" name=\"edit\" urlsrc=\"\"/>"
+                                  + "<action ext=\"docx\" name=\"edit\" urlsrc=\"\"/>"
+                                  + "</app></net-zone></wopi-discovery>")));
+          manager.start();
+
+          assertThat(manager.getCapabilities())
+              .hasSize(1)
+              .hasEntrySatisfying(
+                  manager.getEndpoints().get(0),
+                  capabilities -> {
+                    assertThat(capabilities.isConvertAvailable()).isTrue();
+                    assertThat(capabilities.getProductName()).isEqualTo("Test Online");
+                    assertThat(capabilities.getProductVersion()).isEqualTo("1.2.3");
+                    assertThat(capabilities.getSupportedExtensions())
+                        .containsExactly("docx", "odt");
+                  });
+
+          // A .doc document is not supported, so it must not be sent to the server.
+          assertThatExceptionOfType(OfficeException.class)
+              .isThrownBy(
+                  () -> RemoteConverter.make(manager).convert(inputFile).to(outputFile).execute());
+          wireMockServer.verify(0, postRequestedFor(urlPathEqualTo("/lool/convert-to/txt")));
         } finally {
           manager.stop();
         }
@@ -28,10 +28,11 @@ import static org.jodconverter.remote.office.RemoteOfficeManager.DEFAULT_SOCKET_
 
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.util.Collections;
 
+import org.apache.http.impl.client.HttpClients;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.core.task.SimpleOfficeTask;
@@ -39,6 +40,12 @@ import org.jodconverter.core.task.SimpleOfficeTask;
 /** Contains tests for the {@link RemoteOfficeManagerPoolEntry} class. */
 class RemoteOfficeManagerPoolEntryITest {
 
+  private static RemoteEndpointSelector selector(final String url) {
+    return new RemoteEndpointSelector(
+        Collections.singletonList(new RemoteEndpoint(url, 1)),
+        LoadBalancingStrategy.LEAST_OUTSTANDING_REQUESTS);
+  }
+
   @Nested
   class DoExecute {
 
@@ -47,10 +54,12 @@ class RemoteOfficeManagerPoolEntryITest {
 
       final RemoteOfficeManagerPoolEntry manager =
           new RemoteOfficeManagerPoolEntry(
-              "localhost",
-              null,
+              selector("localhost"),
+              HttpClients::createDefault,
               DEFAULT_CONNECT_TIMEOUT,
               DEFAULT_SOCKET_TIMEOUT,
+              false,
+              false,
               DEFAULT_TASK_EXECUTION_TIMEOUT);
       try {
         manager.start();
@@ -71,10 +80,12 @@ class RemoteOfficeManagerPoolEntryITest {
 
       final RemoteOfficeManagerPoolEntry manager =
           new RemoteOfficeManagerPoolEntry(
-              "http://localhost/",
-              null,
+              selector("http://localhost/"),
+              HttpClients::createDefault,
               DEFAULT_CONNECT_TIMEOUT,
               DEFAULT_SOCKET_TIMEOUT,
+              false,
+              false,
               DEFAULT_TASK_EXECUTION_TIMEOUT);
       try {
         manager.start();
@@ -95,27 +106,18 @@ class RemoteOfficeManagerPoolEntryITest {
   class BuildUrl {
 
     @Test
-    void withAllValidUrlOptions_ShoulReturnProperUrlWithLoolExtension() {
-
-      final RemoteOfficeManagerPoolEntry manager =
-          new RemoteOfficeManagerPoolEntry(
-              "http://localhost/",
-              null,
-              DEFAULT_CONNECT_TIMEOUT,
-              DEFAULT_SOCKET_TIMEOUT,
-              DEFAULT_TASK_EXECUTION_TIMEOUT);
+    void withAllValidUrlOptions_ShoulReturnProperUrlWithLoolExtension() throws Exception {
+
+      assertThat(conversionUrl("http://localhost/lool/convert-to"))
+          .isEqualTo("http://localhost/lool/convert-to/");
+      assertThat(conversionUrl("http://localhost/lool/convert-to/"))
+          .isEqualTo("http://localhost/lool/convert-to/");
+      assertThat(conversionUrl("http://localhost")).isEqualTo("http://localhost/lool/convert-to/");
+      assertThat(conversionUrl("http://localhost/")).isEqualTo("http://localhost/lool/convert-to/");
+    }
 
-      String url =
-          ReflectionTestUtils.invokeMethod(manager, "buildUrl", "http://localhost/lool/convert-to");
-      assertThat(url).isEqualTo("http://localhost/lool/convert-to/");
-      url =
-          ReflectionTestUtils.invokeMethod(
-              manager, "buildUrl", "http://localhost/lool/convert-to/");
-      assertThat(url).isEqualTo("http://localhost/lool/convert-to/");
-      url = ReflectionTestUtils.invokeMethod(manager, "buildUrl", "http://localhost");
-      assertThat(url).isEqualTo("http://localhost/lool/convert-to/");
-      url = ReflectionTestUtils.invokeMethod(manager, "buildUrl", "http://localhost/");
-      assertThat(url).isEqualTo("http://localhost/lool/convert-to/");
+    private String conversionUrl(final String url) throws MalformedURLException {
+      return selector(url).getEndpoints().get(0).getConversionUrl();
     }
   }
 }
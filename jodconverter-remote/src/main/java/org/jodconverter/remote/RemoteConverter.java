@@ -21,6 +21,7 @@
 package org.jodconverter.remote;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
 import org.jodconverter.core.document.DocumentFormatRegistry;
@@ -37,7 +38,7 @@ import org.jodconverter.remote.task.RemoteConversionTask;
 
 /**
  * A remote converter will send conversion request to a LibreOffice Online server. It must be used
- * with an RemoteOfficeManager in order to work as expected.
+ * with an RemoteOfficeManager, or an AsyncRemoteOfficeManager, in order to work as expected.
  *
  * @see org.jodconverter.core.DocumentConverter
  * @see RemoteOfficeManager
@@ -78,8 +79,18 @@ public final class RemoteConverter extends AbstractConverter {
   }
 
   private RemoteConverter(
-      final OfficeManager officeManager, final DocumentFormatRegistry formatRegistry) {
-    super(officeManager, formatRegistry);
+      final OfficeManager officeManager,
+      final DocumentFormatRegistry formatRegistry,
+      final int inMemoryThreshold,
+      final boolean sniffSourceFormat) {
+    super(officeManager, formatRegistry, inMemoryThreshold, sniffSourceFormat);
+  }
+
+  @Override
+  protected @Nullable String getConfigurationFingerprint() {
+
+    // Nothing configured on a remote converter affects the result of a conversion.
+    return getClass().getName();
   }
 
   @Override
@@ -117,8 +128,12 @@ public final class RemoteConverter extends AbstractConverter {
     public void doExecute() throws OfficeException {
 
       // Create a default conversion task and execute it
-      final RemoteConversionTask task = new RemoteConversionTask(source, target);
-      officeManager.execute(task);
+      officeManager.execute(createTask());
+    }
+
+    @Override
+    protected @NonNull RemoteConversionTask createTask() {
+      return new RemoteConversionTask(source, target);
     }
   }
 
@@ -150,7 +165,9 @@ public final class RemoteConverter extends AbstractConverter {
       // Create the converter
       return new RemoteConverter(
           manager,
-          formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry);
+          formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry,
+          inMemoryThreshold,
+          sniffSourceFormat);
     }
   }
 }
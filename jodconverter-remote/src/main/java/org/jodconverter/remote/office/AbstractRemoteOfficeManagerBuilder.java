@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.office.AbstractOfficeManagerBuilder;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.core.util.StringUtils;
+import org.jodconverter.remote.ssl.SslConfig;
+
+/**
+ * A builder for constructing an office manager sending conversions to LibreOffice Online servers,
+ * holding the options shared by the {@link RemoteOfficeManager} and the {@link
+ * AsyncRemoteOfficeManager}.
+ *
+ * @see RemoteOfficeManager.Builder
+ * @see AsyncRemoteOfficeManager.Builder
+ */
+@SuppressWarnings("unchecked")
+public abstract class AbstractRemoteOfficeManagerBuilder<
+        B extends AbstractRemoteOfficeManagerBuilder<B>>
+    extends AbstractOfficeManagerBuilder<B> {
+
+  protected String urlConnection;
+  protected final List<RemoteEndpoint> endpoints = new ArrayList<>();
+  protected LoadBalancingStrategy loadBalancingStrategy =
+      RemoteOfficeManager.DEFAULT_LOAD_BALANCING_STRATEGY;
+  protected SslConfig sslConfig;
+  protected long keepAliveTimeout = RemoteOfficeManager.DEFAULT_KEEP_ALIVE_TIMEOUT;
+  protected long connectTimeout = RemoteOfficeManager.DEFAULT_CONNECT_TIMEOUT;
+  protected long socketTimeout = RemoteOfficeManager.DEFAULT_SOCKET_TIMEOUT;
+
+  // Protected constructor so only subclasses can initialize an instance of this builder.
+  protected AbstractRemoteOfficeManagerBuilder() {
+    super();
+  }
+
+  /**
+   * Gets all the endpoints of the manager: the endpoint specified by the URL connection, if any,
+   * followed by the endpoints added to this builder.
+   *
+   * @param poolSize The pool size of the endpoint specified by the URL connection.
+   * @return An unmodifiable list of the endpoints.
+   */
+  protected @NonNull List<@NonNull RemoteEndpoint> buildEndpoints(final int poolSize) {
+
+    // The URL connection, if any, is the first endpoint.
+    final List<RemoteEndpoint> allEndpoints = new ArrayList<>();
+    if (endpoints.isEmpty() || StringUtils.isNotBlank(urlConnection)) {
+      AssertUtils.notBlank(urlConnection, "urlConnection must not be null nor blank");
+      allEndpoints.add(new RemoteEndpoint(urlConnection, poolSize));
+    }
+    allEndpoints.addAll(endpoints);
+    return Collections.unmodifiableList(allEndpoints);
+  }
+
+  /**
+   * Specifies the URL connection of the manager.
+   *
+   * @param urlConnection The URL connection.
+   * @return This builder instance.
+   */
+  public @NonNull B urlConnection(final @Nullable String urlConnection) {
+
+    this.urlConnection = urlConnection;
+    return (B) this;
+  }
+
+  /**
+   * Adds an endpoint the manager can send conversions to, in addition to the endpoint specified by
+   * the URL connection, if any.
+   *
+   * @param url The URL to the LibreOffice Online server.
+   * @param poolSize The maximum number of conversions sent concurrently to this endpoint.
+   * @return This builder instance.
+   */
+  public @NonNull B endpoint(final @NonNull String url, final int poolSize) {
+
+    this.endpoints.add(new RemoteEndpoint(url, poolSize));
+    return (B) this;
+  }
+
+  /**
+   * Adds endpoints the manager can send conversions to, in addition to the endpoint specified by
+   * the URL connection, if any.
+   *
+   * @param endpoints The endpoints to add.
+   * @return This builder instance.
+   */
+  public @NonNull B endpoints(final @Nullable List<@NonNull RemoteEndpoint> endpoints) {
+
+    if (endpoints != null) {
+      this.endpoints.addAll(endpoints);
+    }
+    return (B) this;
+  }
+
+  /**
+   * Specifies how the manager chooses the endpoint a conversion is sent to.
+   *
+   * <p>&nbsp; <b><i>Default</i></b>: LEAST_OUTSTANDING_REQUESTS
+   *
+   * @param loadBalancingStrategy The load balancing strategy.
+   * @return This builder instance.
+   */
+  public @NonNull B loadBalancingStrategy(
+      final @Nullable LoadBalancingStrategy loadBalancingStrategy) {
+
+    if (loadBalancingStrategy != null) {
+      this.loadBalancingStrategy = loadBalancingStrategy;
+    }
+    return (B) this;
+  }
+
+  /**
+   * Specifies the SSL configuration to secure communication with LibreOffice Online.
+   *
+   * @param sslConfig The SSL configuration.
+   * @return This builder instance.
+   */
+  public @NonNull B sslConfig(final @Nullable SslConfig sslConfig) {
+
+    this.sslConfig = sslConfig;
+    return (B) this;
+  }
+
+  /**
+   * Specifies how long an idle connection is kept alive, when the server does not specify it,
+   * before being closed.
+   *
+   * <p>&nbsp; <b><i>Default</i></b>: 30000 (30 seconds)
+   *
+   * @param keepAliveTimeout The keep-alive timeout, in milliseconds.
+   * @return This builder instance.
+   */
+  public @NonNull B keepAliveTimeout(final @Nullable Long keepAliveTimeout) {
+
+    if (keepAliveTimeout != null) {
+      AssertUtils.isTrue(
+          keepAliveTimeout > 0,
+          String.format("keepAliveTimeout %s must be greater than 0", keepAliveTimeout));
+      this.keepAliveTimeout = keepAliveTimeout;
+    }
+    return (B) this;
+  }
+
+  /**
+   * The timeout in milliseconds until a connection is established. A timeout value of zero is
+   * interpreted as an infinite timeout.
+   *
+   * <p>&nbsp; <b><i>Default</i></b>: 60000 (1 minute)
+   *
+   * @param connectTimeout The "connect" timeout, in milliseconds.
+   * @return This builder instance.
+   */
+  public @NonNull B connectTimeout(final @Nullable Long connectTimeout) {
+
+    if (connectTimeout != null) {
+      AssertUtils.isTrue(
+          connectTimeout >= 0,
+          String.format("connectTimeout %s must greater than or equal to 0", connectTimeout));
+      this.connectTimeout = connectTimeout;
+    }
+    return (B) this;
+  }
+
+  /**
+   * Specifies the socket timeout ({@code SO_TIMEOUT}) in milliseconds, which is the timeout for
+   * waiting for data or, put differently, a maximum period inactivity between two consecutive data
+   * packets. A timeout value of zero is interpreted as an infinite timeout.
+   *
+   * <p>&nbsp; <b><i>Default</i></b>: 120000 (2 minutes)
+   *
+   * @param socketTimeout The socket timeout, in milliseconds.
+   * @return This builder instance.
+   */
+  public @NonNull B socketTimeout(final @Nullable Long socketTimeout) {
+
+    if (socketTimeout != null) {
+      AssertUtils.isTrue(
+          socketTimeout >= 0,
+          String.format("socketTimeout %s must greater than or equal to 0", socketTimeout));
+      this.socketTimeout = socketTimeout;
+    }
+    return (B) this;
+  }
+}
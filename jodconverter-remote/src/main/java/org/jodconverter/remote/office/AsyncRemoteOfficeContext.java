@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.office.OfficeContext;
+
+/** Represents an office context for non-blocking remote conversions. */
+public interface AsyncRemoteOfficeContext extends OfficeContext {
+
+  /**
+   * Gets the non-blocking HTTP client responsible for request execution to the office server.
+   *
+   * @return The client that will send the conversion request.
+   */
+  @NonNull
+  HttpAsyncClient getHttpAsyncClient();
+
+  /**
+   * Gets the request configuration.
+   *
+   * @return The request configuration.
+   */
+  @NonNull
+  RequestConfig getRequestConfig();
+
+  /**
+   * Gets the executor that must run the potentially blocking work of a task, like copying a result
+   * to an output stream, so that the I/O threads of the HTTP client are never blocked.
+   *
+   * @return The executor.
+   */
+  @NonNull
+  Executor getExecutor();
+
+  /**
+   * Schedules the specified action to run when the request of the task should be hedged, that is
+   * when a duplicate request should be sent to another server because the request is slower than
+   * most recent requests. Only idempotent requests, like conversions, should be hedged.
+   *
+   * <p>The default implementation does not support hedging and returns {@code null}.
+   *
+   * @param hedge The action sending the duplicate request.
+   * @return A future that can be used to cancel the action once the request is done, or {@code
+   *     null} if the request must not be hedged.
+   */
+  default @Nullable Future<?> scheduleHedge(final @NonNull Runnable hedge) {
+    return null;
+  }
+
+  /**
+   * Gets the request configuration to use to send a duplicate (hedged) request to another server.
+   *
+   * <p>The default implementation does not support hedging and returns {@code null}.
+   *
+   * @return The request configuration of the duplicate request, or {@code null} if the request
+   *     must not be hedged, for example because the hedging budget is exhausted.
+   */
+  default @Nullable RequestConfig getHedgeRequestConfig() {
+    return null;
+  }
+
+  /**
+   * Called once a hedged task is done, to record which request won.
+   *
+   * @param hedgeWon {@code true} if the duplicate request completed first, {@code false} if the
+   *     original request did, or if both failed.
+   */
+  default void onHedgeCompleted(final boolean hedgeWon) {
+    // Default behavior is to do nothing
+  }
+}
@@ -0,0 +1,833 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.office.InstalledOfficeManagerHolder;
+import org.jodconverter.core.office.NamedThreadFactory;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.office.OfficeUtils;
+import org.jodconverter.core.office.TemporaryFileMaker;
+import org.jodconverter.core.task.OfficeTask;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.core.util.StringUtils;
+import org.jodconverter.remote.ssl.SslConfig;
+import org.jodconverter.remote.task.AsyncRemoteOfficeTask;
+
+/**
+ * {@link OfficeManager} implementation that sends conversions to LibreOffice Online servers using a
+ * non-blocking HTTP client. Unlike the {@link RemoteOfficeManager}, which dedicates a thread to
+ * each conversion in progress, this manager keeps any number of conversions in flight with a few
+ * I/O threads; the pool size of each endpoint only bounds the number of conversions sent
+ * concurrently to that endpoint. Tasks exceeding this capacity wait in a queue, without holding a
+ * thread. A task still waiting for an endpoint once the task queue timeout expires, or still
+ * running once the task execution timeout expires, fails; its requests are then aborted.
+ *
+ * <p>Only {@link AsyncRemoteOfficeTask} tasks are supported. Use {@link
+ * #executeAsync(AsyncRemoteOfficeTask)} to execute a task without blocking; {@link
+ * #execute(OfficeTask)} blocks until the task is done.
+ *
+ * <p>When hedging is enabled, a conversion still running after the configured percentile of the
+ * recent conversion latencies is duplicated on another endpoint; the first response wins and the
+ * other request is cancelled. The proportion of hedged conversions is capped so that a slow
+ * cluster is not overloaded by duplicated requests.
+ */
+public final class AsyncRemoteOfficeManager implements OfficeManager, TemporaryFileMaker {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncRemoteOfficeManager.class);
+
+  // The default pool size, which is the number of conversions sent concurrently to an endpoint.
+  public static final int DEFAULT_POOL_SIZE = 50;
+  // The default number of I/O threads of the HTTP client.
+  public static final int DEFAULT_IO_THREAD_COUNT = 2;
+  // The default maximum number of tasks waiting for an endpoint, 0 meaning no limit.
+  public static final int DEFAULT_MAX_PENDING_TASKS = 0;
+  // The default latency percentile after which a conversion is hedged, 0 meaning no hedging.
+  public static final double DEFAULT_HEDGING_PERCENTILE = 0.0d;
+  // The default maximum ratio of conversions that can be hedged.
+  public static final double DEFAULT_MAX_HEDGE_RATIO = 0.1d;
+  // The number of recent latencies used to compute the hedging delay.
+  private static final int LATENCY_SAMPLES = 1000;
+  // The minimum number of latencies required before hedging conversions.
+  private static final int MIN_LATENCY_SAMPLES = 20;
+
+  private final File tempDir;
+  private final AtomicLong tempFileCounter = new AtomicLong(0);
+  private final RemoteEndpointSelector endpointSelector;
+  private final SslConfig sslConfig;
+  private final int ioThreadCount;
+  private final int maxPendingTasks;
+  private final long keepAliveTimeout;
+  private final long connectTimeout;
+  private final long socketTimeout;
+  private final long taskExecutionTimeout;
+  private final long taskQueueTimeout;
+  private final double hedgingPercentile;
+  private final double maxHedgeRatio;
+  private final LatencyTracker latencyTracker =
+      new LatencyTracker(LATENCY_SAMPLES, MIN_LATENCY_SAMPLES);
+  private final AtomicLong taskCount = new AtomicLong(0);
+  private final AtomicLong hedgedTaskCount = new AtomicLong(0);
+  private final AtomicLong hedgeWinCount = new AtomicLong(0);
+  private final Deque<PendingTask> pendingTasks = new ArrayDeque<>();
+  private final Set<PendingTask> inFlightTasks = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger dispatchRequests = new AtomicInteger(0);
+  private volatile CloseableHttpAsyncClient httpClient;
+  private volatile ExecutorService completionExecutor;
+  private volatile ScheduledExecutorService scheduler;
+
+  /** A task waiting for an endpoint to be available, or sent to an endpoint. */
+  private static final class PendingTask {
+
+    private final AsyncRemoteOfficeTask task;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final List<Future<?>> timers = new ArrayList<>();
+
+    private PendingTask(final AsyncRemoteOfficeTask task) {
+      this.task = task;
+
+      // The timers are no longer required once the task is done.
+      future.whenComplete((unused, ex) -> cancelTimers());
+    }
+
+    // Adds a timer expiring the task, which is cancelled once the task is done.
+    private void addTimer(final @Nullable Future<?> timer) {
+
+      if (timer == null) {
+        return;
+      }
+      synchronized (timers) {
+        timers.add(timer);
+      }
+      if (future.isDone()) {
+        cancelTimers();
+      }
+    }
+
+    private void cancelTimers() {
+
+      synchronized (timers) {
+        timers.forEach(timer -> timer.cancel(false));
+        timers.clear();
+      }
+    }
+  }
+
+  /** The context of a task sent to an endpoint. */
+  private final class EndpointContext implements AsyncRemoteOfficeContext {
+
+    private final HttpAsyncClient httpClient;
+    private final RequestConfig requestConfig;
+    private final Executor executor;
+    private final List<RemoteEndpointSelector.EndpointState> endpoints = new ArrayList<>();
+
+    private EndpointContext(
+        final HttpAsyncClient httpClient,
+        final RemoteEndpointSelector.EndpointState endpoint,
+        final Executor executor)
+        throws MalformedURLException {
+      this.httpClient = httpClient;
+      this.requestConfig =
+          new RequestConfig(endpoint.getConversionUrl(), connectTimeout, socketTimeout);
+      this.executor = executor;
+      this.endpoints.add(endpoint);
+    }
+
+    @Override
+    public @NonNull HttpAsyncClient getHttpAsyncClient() {
+      return httpClient;
+    }
+
+    @Override
+    public @NonNull RequestConfig getRequestConfig() {
+      return requestConfig;
+    }
+
+    @Override
+    public @NonNull Executor getExecutor() {
+      return executor;
+    }
+
+    @Override
+    public @Nullable Future<?> scheduleHedge(final @NonNull Runnable hedge) {
+
+      if (hedgingPercentile <= 0.0d || endpointSelector.getEndpoints().size() < 2) {
+        return null;
+      }
+      final long delay = latencyTracker.getPercentile(hedgingPercentile);
+      if (delay < 0L) {
+        return null;
+      }
+      return schedule(hedge, delay);
+    }
+
+    @Override
+    public @Nullable RequestConfig getHedgeRequestConfig() {
+
+      // Reserve a hedge without exceeding the hedging budget, even when many tasks are hedged at
+      // the same time.
+      long hedgedTasks;
+      do {
+        hedgedTasks = hedgedTaskCount.get();
+        if (hedgedTasks >= maxHedgeRatio * taskCount.get()) {
+          return null;
+        }
+      } while (!hedgedTaskCount.compareAndSet(hedgedTasks, hedgedTasks + 1));
+
+      synchronized (endpoints) {
+        final RemoteEndpointSelector.EndpointState endpoint =
+            endpointSelector.trySelect(endpoints);
+        if (endpoint == null) {
+          hedgedTaskCount.decrementAndGet();
+          return null;
+        }
+        endpoints.add(endpoint);
+        try {
+          return new RequestConfig(endpoint.getConversionUrl(), connectTimeout, socketTimeout);
+        } catch (MalformedURLException ex) {
+          LOGGER.warn("Invalid remote endpoint URL: {}", endpoint, ex);
+          hedgedTaskCount.decrementAndGet();
+          return null;
+        }
+      }
+    }
+
+    @Override
+    public void onHedgeCompleted(final boolean hedgeWon) {
+
+      if (hedgeWon) {
+        hedgeWinCount.incrementAndGet();
+      }
+    }
+
+    // Releases all the endpoints the task was sent to.
+    private void releaseEndpoints(final long latency, final boolean success) {
+
+      synchronized (endpoints) {
+        endpoints.forEach(endpoint -> endpointSelector.release(endpoint, latency, success));
+        endpoints.clear();
+      }
+    }
+  }
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static @NonNull Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a new {@link AsyncRemoteOfficeManager} with default configuration.
+   *
+   * @param urlConnection The URL to the LibreOfficeOnline server.
+   * @return A {@link AsyncRemoteOfficeManager} with default configuration.
+   */
+  public static @NonNull AsyncRemoteOfficeManager make(final @NonNull String urlConnection) {
+    return builder().urlConnection(urlConnection).build();
+  }
+
+  private AsyncRemoteOfficeManager(
+      final File workingDir,
+      final List<RemoteEndpoint> endpoints,
+      final LoadBalancingStrategy loadBalancingStrategy,
+      final SslConfig sslConfig,
+      final int ioThreadCount,
+      final int maxPendingTasks,
+      final long keepAliveTimeout,
+      final long connectTimeout,
+      final long socketTimeout,
+      final long taskExecutionTimeout,
+      final long taskQueueTimeout,
+      final double hedgingPercentile,
+      final double maxHedgeRatio) {
+
+    this.tempDir = new File(workingDir, ".jodconverter_" + UUID.randomUUID());
+    this.endpointSelector = new RemoteEndpointSelector(endpoints, loadBalancingStrategy);
+    this.sslConfig = sslConfig;
+    this.ioThreadCount = ioThreadCount;
+    this.maxPendingTasks = maxPendingTasks;
+    this.keepAliveTimeout = keepAliveTimeout;
+    this.connectTimeout = connectTimeout;
+    this.socketTimeout = socketTimeout;
+    this.taskExecutionTimeout = taskExecutionTimeout;
+    this.taskQueueTimeout = taskQueueTimeout;
+    this.hedgingPercentile = hedgingPercentile;
+    this.maxHedgeRatio = maxHedgeRatio;
+  }
+
+  /**
+   * Executes the specified task and blocks until the task terminates.
+   *
+   * @param task The task to execute, which must be an {@link AsyncRemoteOfficeTask}.
+   * @throws OfficeException If an error occurs.
+   */
+  @Override
+  public void execute(final @NonNull OfficeTask task) throws OfficeException {
+
+    if (!(task instanceof AsyncRemoteOfficeTask)) {
+      throw new OfficeException(
+          String.format("Task is not supported by a non-blocking remote manager: %s", task));
+    }
+
+    final CompletableFuture<Void> future = executeAsync((AsyncRemoteOfficeTask) task);
+    final long timeout = taskQueueTimeout + taskExecutionTimeout;
+    try {
+      future.get(timeout, TimeUnit.MILLISECONDS);
+
+    } catch (ExecutionException ex) {
+
+      // Rethrow the original (cause) exception
+      if (ex.getCause() instanceof OfficeException) {
+        throw (OfficeException) ex.getCause();
+      }
+      throw new OfficeException(String.format("Task did not complete: %s", task), ex.getCause());
+
+    } catch (InterruptedException ex) {
+
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new OfficeException(
+          String.format("Task was interrupted while executing: %s", task), ex);
+
+    } catch (TimeoutException ex) {
+
+      future.cancel(true);
+      throw new OfficeException(
+          String.format("Task did not complete within timeout (%s ms): %s", timeout, task), ex);
+    }
+  }
+
+  /**
+   * Executes the specified task without blocking. The task is sent to an endpoint as soon as one
+   * is available.
+   *
+   * @param task The task to execute.
+   * @return A future completed when the task terminates; it is completed exceptionally with an
+   *     {@link OfficeException} if the task fails. Cancelling the future aborts the task.
+   */
+  public @NonNull CompletableFuture<@Nullable Void> executeAsync(
+      final @NonNull AsyncRemoteOfficeTask task) {
+
+    final PendingTask pendingTask = new PendingTask(task);
+    if (!isRunning()) {
+      pendingTask.future.completeExceptionally(
+          new OfficeException("The office manager is not running"));
+      return pendingTask.future;
+    }
+
+    synchronized (pendingTasks) {
+      if (maxPendingTasks > 0 && pendingTasks.size() >= maxPendingTasks) {
+        pendingTask.future.completeExceptionally(
+            new OfficeException(
+                String.format(
+                    "Limit of %d tasks waiting for an endpoint reached", maxPendingTasks)));
+        return pendingTask.future;
+      }
+      pendingTasks.add(pendingTask);
+    }
+    dispatch();
+
+    // The task fails if it is still waiting for an endpoint once the queue timeout expires.
+    if (!pendingTask.future.isDone()) {
+      pendingTask.addTimer(schedule(() -> expireQueuedTask(pendingTask), taskQueueTimeout));
+    }
+    return pendingTask.future;
+  }
+
+  // Fails the specified task if it is still waiting for an endpoint.
+  private void expireQueuedTask(final PendingTask pendingTask) {
+
+    synchronized (pendingTasks) {
+      if (!pendingTasks.remove(pendingTask)) {
+        return;
+      }
+    }
+    pendingTask.future.completeExceptionally(
+        new OfficeException(
+            String.format("No endpoint available after %d millisec", taskQueueTimeout)));
+  }
+
+  // Fails the specified task, sent to an endpoint, if it is not done yet; its requests are
+  // aborted.
+  private void expireSentTask(final PendingTask pendingTask) {
+
+    pendingTask.future.completeExceptionally(
+        new OfficeException(
+            String.format(
+                "Task did not complete within timeout (%s ms): %s",
+                taskExecutionTimeout, pendingTask.task)));
+  }
+
+  // Schedules the specified action, unless the manager has been stopped meanwhile.
+  private @Nullable Future<?> schedule(final Runnable action, final long delay) {
+
+    final ScheduledExecutorService executor = scheduler;
+    if (executor == null) {
+      return null;
+    }
+    try {
+      return executor.schedule(action, delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Gets the number of tasks waiting for an endpoint to be available.
+   *
+   * @return The number of tasks.
+   */
+  public int getPendingTaskCount() {
+
+    synchronized (pendingTasks) {
+      return pendingTasks.size();
+    }
+  }
+
+  /**
+   * Gets all the endpoints of this manager.
+   *
+   * @return The endpoints.
+   */
+  public @NonNull List<@NonNull RemoteEndpoint> getEndpoints() {
+
+    return endpointSelector.getEndpoints().stream()
+        .map(RemoteEndpointSelector.EndpointState::getEndpoint)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Gets the number of tasks sent to an endpoint since this manager was created.
+   *
+   * @return The number of tasks.
+   */
+  public long getTaskCount() {
+    return taskCount.get();
+  }
+
+  /**
+   * Gets the number of tasks that were duplicated on another endpoint because they were slow.
+   *
+   * @return The number of hedged tasks.
+   */
+  public long getHedgedTaskCount() {
+    return hedgedTaskCount.get();
+  }
+
+  /**
+   * Gets the number of hedged tasks for which the duplicate request completed first.
+   *
+   * @return The number of hedged tasks won by the duplicate request.
+   */
+  public long getHedgeWinCount() {
+    return hedgeWinCount.get();
+  }
+
+  // Sends the pending tasks to the available endpoints. Only one thread dispatches at a time, a
+  // thread requesting a dispatch while another one is dispatching makes the latter loop again.
+  private void dispatch() {
+
+    int missed = dispatchRequests.incrementAndGet();
+    if (missed != 1) {
+      return;
+    }
+    do {
+      drainPendingTasks();
+      missed = dispatchRequests.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void drainPendingTasks() {
+
+    while (true) {
+      final PendingTask pendingTask;
+      final RemoteEndpointSelector.EndpointState endpoint;
+      synchronized (pendingTasks) {
+
+        // Discard the cancelled tasks.
+        while (!pendingTasks.isEmpty() && pendingTasks.peek().future.isDone()) {
+          pendingTasks.poll();
+        }
+        if (pendingTasks.isEmpty()) {
+          return;
+        }
+
+        // All the endpoints are busy; the tasks keep waiting until their queue timeout expires.
+        endpoint = endpointSelector.trySelect();
+        if (endpoint == null) {
+          return;
+        }
+        pendingTask = pendingTasks.poll();
+      }
+      send(pendingTask, endpoint);
+    }
+  }
+
+  private void send(
+      final PendingTask pendingTask, final RemoteEndpointSelector.EndpointState endpoint) {
+
+    final long startTime = System.nanoTime();
+    taskCount.incrementAndGet();
+    inFlightTasks.add(pendingTask);
+    EndpointContext context = null;
+    CompletableFuture<Void> taskFuture;
+    try {
+      context = new EndpointContext(httpClient, endpoint, this::executeCallback);
+      taskFuture = pendingTask.task.executeAsync(context);
+    } catch (MalformedURLException ex) {
+      taskFuture = new CompletableFuture<>();
+      taskFuture.completeExceptionally(
+          new OfficeException("Invalid remote endpoint URL: " + endpoint, ex));
+    } catch (RuntimeException ex) {
+      taskFuture = new CompletableFuture<>();
+      taskFuture.completeExceptionally(ex);
+    }
+
+    // The task fails if it is not done once the execution timeout expires. Cancelling or failing
+    // the pending task aborts the task.
+    final CompletableFuture<Void> future = taskFuture;
+    pendingTask.addTimer(schedule(() -> expireSentTask(pendingTask), taskExecutionTimeout));
+    pendingTask.future.whenComplete((unused, ex) -> future.cancel(true));
+
+    // Release the endpoints once the task is done, and send the next pending task, if any. This
+    // is never done by an I/O thread, unless the manager has been stopped meanwhile.
+    final EndpointContext taskContext = context;
+    future.whenCompleteAsync(
+        (unused, ex) -> {
+          inFlightTasks.remove(pendingTask);
+          final long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+          if (taskContext == null) {
+            endpointSelector.release(endpoint, latency, false);
+          } else {
+            taskContext.releaseEndpoints(latency, ex == null);
+          }
+          if (ex == null) {
+            latencyTracker.record(latency);
+            pendingTask.future.complete(null);
+          } else {
+            pendingTask.future.completeExceptionally(
+                ex instanceof OfficeException
+                    ? ex
+                    : new OfficeException(
+                        String.format("Task did not complete: %s", pendingTask.task), ex));
+          }
+          dispatch();
+        },
+        this::executeCallback);
+  }
+
+  // Executes a callback using the completion executor. Once the manager is stopped, the executor
+  // rejects new callbacks; they are then run by the calling thread, so the endpoints of the
+  // requests still in flight are released anyway.
+  private void executeCallback(final Runnable callback) {
+
+    try {
+      completionExecutor.execute(callback);
+    } catch (RejectedExecutionException ex) {
+      callback.run();
+    }
+  }
+
+  @Override
+  public void start() throws OfficeException {
+
+    synchronized (this) {
+      if (isRunning()) {
+        throw new IllegalStateException("This office manager is already running.");
+      }
+
+      // Create the temporary dir.
+      if (tempDir.exists()) {
+        LOGGER.warn("Temporary directory '{}' already exists; deleting", tempDir);
+        OfficeUtils.deleteOrRenameFile(tempDir, 0L, 0L);
+      }
+      tempDir.mkdirs();
+      if (!tempDir.isDirectory()) {
+        throw new OfficeException(String.format("Cannot create temporary directory: %s", tempDir));
+      }
+
+      final int maxConnections =
+          endpointSelector.getEndpoints().stream()
+              .mapToInt(state -> state.getEndpoint().getPoolSize())
+              .sum();
+      final CloseableHttpAsyncClient client =
+          RemoteHttpClientFactory.createHttpAsyncClient(
+              sslConfig,
+              maxConnections,
+              ioThreadCount,
+              keepAliveTimeout,
+              connectTimeout,
+              socketTimeout);
+      client.start();
+      completionExecutor =
+          Executors.newCachedThreadPool(new NamedThreadFactory("jodconverter-async", true));
+      scheduler =
+          Executors.newSingleThreadScheduledExecutor(
+              new NamedThreadFactory("jodconverter-async-scheduler", true));
+      httpClient = client;
+    }
+  }
+
+  @Override
+  public void stop() throws OfficeException {
+
+    synchronized (this) {
+      final CloseableHttpAsyncClient client = httpClient;
+      if (client == null) {
+        return;
+      }
+      httpClient = null;
+
+      LOGGER.info("Stopping the non-blocking remote office manager...");
+      final List<PendingTask> discardedTasks;
+      synchronized (pendingTasks) {
+        discardedTasks = new ArrayList<>(pendingTasks);
+        pendingTasks.clear();
+      }
+
+      // The tasks in flight are failed too; their requests are aborted when the client is closed.
+      discardedTasks.addAll(inFlightTasks);
+      for (final PendingTask pendingTask : discardedTasks) {
+        pendingTask.future.completeExceptionally(
+            new OfficeException("The office manager has been stopped"));
+      }
+
+      try {
+        client.close();
+      } catch (IOException ex) {
+        LOGGER.debug("Unable to close the HTTP client", ex);
+      } finally {
+        completionExecutor.shutdown();
+        scheduler.shutdownNow();
+        scheduler = null;
+        OfficeUtils.deleteOrRenameFile(tempDir, 0L, 0L);
+      }
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return httpClient != null;
+  }
+
+  @Override
+  public @NonNull File makeTemporaryFile() {
+    return makeTemporaryFile(null);
+  }
+
+  @Override
+  public @NonNull File makeTemporaryFile(final @Nullable String extension) {
+    return new File(
+        tempDir,
+        "tempfile_"
+            + tempFileCounter.getAndIncrement()
+            + (StringUtils.isBlank(extension) ? "" : "." + extension));
+  }
+
+  /**
+   * A builder for constructing an {@link AsyncRemoteOfficeManager}.
+   *
+   * @see AsyncRemoteOfficeManager
+   */
+  public static final class Builder extends AbstractRemoteOfficeManagerBuilder<Builder> {
+
+    private int poolSize = DEFAULT_POOL_SIZE;
+    private int ioThreadCount = DEFAULT_IO_THREAD_COUNT;
+    private int maxPendingTasks = DEFAULT_MAX_PENDING_TASKS;
+    private double hedgingPercentile = DEFAULT_HEDGING_PERCENTILE;
+    private double maxHedgeRatio = DEFAULT_MAX_HEDGE_RATIO;
+
+    // Private constructor so only AsyncRemoteOfficeManager can initialize an instance of this
+    // builder.
+    private Builder() {
+      super();
+    }
+
+    @Override
+    public @NonNull AsyncRemoteOfficeManager build() {
+
+      final List<RemoteEndpoint> allEndpoints = buildEndpoints(poolSize);
+
+      // Validate the working directory
+      OfficeUtils.validateWorkingDir(workingDir);
+
+      final AsyncRemoteOfficeManager manager =
+          new AsyncRemoteOfficeManager(
+              workingDir,
+              allEndpoints,
+              loadBalancingStrategy,
+              sslConfig,
+              ioThreadCount,
+              maxPendingTasks,
+              keepAliveTimeout,
+              connectTimeout,
+              socketTimeout,
+              taskExecutionTimeout,
+              taskQueueTimeout,
+              hedgingPercentile,
+              maxHedgeRatio);
+      if (install) {
+        InstalledOfficeManagerHolder.setInstance(manager);
+      }
+      return manager;
+    }
+
+    /**
+     * Specifies the pool size of the endpoint specified by the URL connection, which is the
+     * maximum number of conversions sent concurrently to this endpoint.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 50
+     *
+     * @param poolSize The pool size.
+     * @return This builder instance.
+     */
+    public @NonNull Builder poolSize(final @Nullable Integer poolSize) {
+
+      if (poolSize != null) {
+        AssertUtils.isTrue(
+            poolSize > 0 && poolSize <= RemoteOfficeManager.MAX_POOL_SIZE,
+            String.format(
+                "poolSize %s must be between %d and %d",
+                poolSize, 1, RemoteOfficeManager.MAX_POOL_SIZE));
+        this.poolSize = poolSize;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the number of I/O threads of the HTTP client, which send and receive the data of
+     * all the conversions in flight.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 2
+     *
+     * @param ioThreadCount The number of I/O threads.
+     * @return This builder instance.
+     */
+    public @NonNull Builder ioThreadCount(final @Nullable Integer ioThreadCount) {
+
+      if (ioThreadCount != null) {
+        AssertUtils.isTrue(
+            ioThreadCount > 0,
+            String.format("ioThreadCount %s must be greater than 0", ioThreadCount));
+        this.ioThreadCount = ioThreadCount;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the maximum number of tasks waiting for an endpoint. A task submitted while this
+     * limit is reached fails immediately. 0 means no limit.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 0 (no limit)
+     *
+     * @param maxPendingTasks The maximum number of pending tasks.
+     * @return This builder instance.
+     */
+    public @NonNull Builder maxPendingTasks(final @Nullable Integer maxPendingTasks) {
+
+      if (maxPendingTasks != null) {
+        AssertUtils.isTrue(
+            maxPendingTasks >= 0,
+            String.format("maxPendingTasks %s must greater than or equal to 0", maxPendingTasks));
+        this.maxPendingTasks = maxPendingTasks;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the percentile of the recent conversion latencies after which a conversion still
+     * running is hedged, that is duplicated on another endpoint. The first response wins and the
+     * other request is cancelled. 0 disables hedging. Hedging requires at least two endpoints and
+     * starts once enough conversions have completed to compute the percentile.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 0 (no hedging)
+     *
+     * @param hedgingPercentile The hedging percentile, at least 0 and less than 1, 0.95 for the
+     *     95th percentile for instance.
+     * @return This builder instance.
+     */
+    public @NonNull Builder hedgingPercentile(final @Nullable Double hedgingPercentile) {
+
+      if (hedgingPercentile != null) {
+        AssertUtils.isTrue(
+            hedgingPercentile >= 0.0d && hedgingPercentile < 1.0d,
+            String.format(
+                "hedgingPercentile %s must be at least 0 and less than 1", hedgingPercentile));
+        this.hedgingPercentile = hedgingPercentile;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the maximum ratio of conversions that can be hedged, which caps the additional
+     * load put on the servers by duplicated requests.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 0.1 (10% of the conversions)
+     *
+     * @param maxHedgeRatio The maximum hedge ratio, between 0 and 1.
+     * @return This builder instance.
+     */
+    public @NonNull Builder maxHedgeRatio(final @Nullable Double maxHedgeRatio) {
+
+      if (maxHedgeRatio != null) {
+        AssertUtils.isTrue(
+            maxHedgeRatio >= 0.0d && maxHedgeRatio <= 1.0d,
+            String.format("maxHedgeRatio %s must be between 0 and 1", maxHedgeRatio));
+        this.maxHedgeRatio = maxHedgeRatio;
+      }
+      return this;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of the most recent latencies of the conversions sent to the remote servers, in order
+ * to compute latency percentiles.
+ */
+class LatencyTracker {
+
+  private final long[] samples;
+  private final int minSamples;
+  private int count;
+  private int next;
+
+  /**
+   * Creates a new tracker.
+   *
+   * @param capacity The number of recent latencies kept by the tracker.
+   * @param minSamples The minimum number of latencies required to compute a percentile.
+   */
+  /* default */ LatencyTracker(final int capacity, final int minSamples) {
+
+    this.samples = new long[capacity];
+    this.minSamples = minSamples;
+  }
+
+  /**
+   * Records a latency, replacing the oldest one if the tracker is full.
+   *
+   * @param latency The latency, in milliseconds.
+   */
+  /* default */ synchronized void record(final long latency) {
+
+    samples[next] = latency;
+    next = (next + 1) % samples.length;
+    if (count < samples.length) {
+      count++;
+    }
+  }
+
+  /**
+   * Gets the specified percentile of the recorded latencies.
+   *
+   * @param percentile The percentile, greater than 0 and at most 1 (e.g. 0.95 for the 95th
+   *     percentile).
+   * @return The percentile, in milliseconds, or -1 if not enough latencies were recorded yet.
+   */
+  /* default */ long getPercentile(final double percentile) {
+
+    final long[] sorted;
+    synchronized (this) {
+      if (count < minSamples) {
+        return -1L;
+      }
+      sorted = Arrays.copyOf(samples, count);
+    }
+    Arrays.sort(sorted);
+    final int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.HttpClient;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.office.OfficeException;
+
+/**
+ * A remote office context that sends the requests of a task to an endpoint chosen by a {@link
+ * RemoteEndpointSelector}, optionally retrying failed requests on another endpoint.
+ */
+class LoadBalancedOfficeContext implements RemoteOfficeContext {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LoadBalancedOfficeContext.class);
+
+  private final HttpClient httpClient;
+  private final RemoteEndpointSelector selector;
+  private final long connectTimeout;
+  private final long socketTimeout;
+  private final boolean failover;
+  private final boolean requestCompression;
+  private final long endpointTimeout;
+  private final List<RemoteEndpointSelector.EndpointState> triedEndpoints = new ArrayList<>();
+  private RemoteEndpointSelector.EndpointState currentEndpoint;
+  private RequestConfig currentConfig;
+  private long startTime;
+
+  /**
+   * Creates a new context, choosing the endpoint of the first request.
+   *
+   * @param httpClient The HTTP client used to send the requests.
+   * @param selector The selector that chooses the endpoints.
+   * @param sourceExtension The extension of the document sent to the endpoints, if known; only
+   *     the endpoints supporting it are chosen.
+   * @param connectTimeout The connect timeout of the requests, in milliseconds.
+   * @param socketTimeout The socket timeout of the requests, in milliseconds.
+   * @param failover Whether failed requests can be retried on another endpoint.
+   * @param requestCompression Whether the body of the requests can be compressed.
+   * @param endpointTimeout The maximum time to wait for an endpoint while all the endpoints are
+   *     processing as many requests as their pool size, in milliseconds.
+   * @throws OfficeException If no endpoint is available or if the URL of the chosen endpoint is
+   *     not valid.
+   */
+  /* default */ LoadBalancedOfficeContext(
+      final HttpClient httpClient,
+      final RemoteEndpointSelector selector,
+      final String sourceExtension,
+      final long connectTimeout,
+      final long socketTimeout,
+      final boolean failover,
+      final boolean requestCompression,
+      final long endpointTimeout)
+      throws OfficeException {
+
+    this.httpClient = httpClient;
+    this.selector = selector;
+    this.connectTimeout = connectTimeout;
+    this.socketTimeout = socketTimeout;
+    this.failover = failover;
+    this.requestCompression = requestCompression;
+    this.endpointTimeout = endpointTimeout;
+
+    // The endpoints that do not support the document are never chosen.
+    selector.getEndpoints().stream()
+        .filter(endpoint -> !endpoint.supports(sourceExtension))
+        .forEach(triedEndpoints::add);
+
+    final RemoteEndpointSelector.EndpointState endpoint;
+    try {
+      endpoint = awaitEndpoint();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new OfficeException("Interrupted while waiting for a remote endpoint", ex);
+    }
+    if (endpoint == null) {
+      throw new OfficeException("No remote endpoint available");
+    }
+    try {
+      use(endpoint);
+    } catch (MalformedURLException ex) {
+      release(false);
+      throw new OfficeException("Invalid remote endpoint URL: " + endpoint, ex);
+    }
+  }
+
+  // Chooses an endpoint having less outstanding requests than its pool size, waiting
+  // for one, so that the pool size of an endpoint caps the requests sent to it.
+  private RemoteEndpointSelector.EndpointState awaitEndpoint() throws InterruptedException {
+    return selector.awaitSelect(triedEndpoints, endpointTimeout);
+  }
+
+  private void use(final RemoteEndpointSelector.EndpointState endpoint)
+      throws MalformedURLException {
+
+    currentEndpoint = endpoint;
+    triedEndpoints.add(endpoint);
+    startTime = System.nanoTime();
+    currentConfig =
+        new RequestConfig(
+            endpoint.getConversionUrl(), connectTimeout, socketTimeout, requestCompression);
+  }
+
+  @Override
+  public @NonNull HttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  @Override
+  public @NonNull RequestConfig getRequestConfig() {
+    return currentConfig;
+  }
+
+  @Override
+  public @Nullable RequestConfig getFailoverRequestConfig(
+      final @NonNull RequestConfig failedConfig) {
+
+    if (!failover) {
+      return null;
+    }
+
+    // Choose another endpoint, never retrying an endpoint that already failed. The failed
+    // endpoint is released first, so that it is not held while waiting for another one.
+    release(false);
+    final RemoteEndpointSelector.EndpointState endpoint;
+    try {
+      endpoint = awaitEndpoint();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+    if (endpoint == null) {
+      return null;
+    }
+
+    LOGGER.info(
+        "Request to {} failed; retrying on endpoint {}", failedConfig.getUrl(), endpoint);
+    try {
+      use(endpoint);
+    } catch (MalformedURLException ex) {
+      LOGGER.warn("Invalid remote endpoint URL: {}", endpoint, ex);
+      return getFailoverRequestConfig(failedConfig);
+    }
+    return currentConfig;
+  }
+
+  /**
+   * Releases the endpoint of the current request.
+   *
+   * @param successful Whether the request was successfully processed by the endpoint.
+   */
+  /* default */ void release(final boolean successful) {
+
+    if (currentEndpoint != null) {
+      selector.release(
+          currentEndpoint,
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime),
+          successful);
+      currentEndpoint = null;
+    }
+  }
+}
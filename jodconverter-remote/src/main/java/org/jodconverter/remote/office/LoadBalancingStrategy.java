@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+/** Defines how a {@link RemoteOfficeManager} chooses the endpoint a conversion is sent to. */
+public enum LoadBalancingStrategy {
+
+  /**
+   * Sends the conversion to the endpoint with the fewest outstanding requests, relative to the
+   * pool size of the endpoint.
+   */
+  LEAST_OUTSTANDING_REQUESTS,
+
+  /**
+   * Sends the conversion to the endpoint with the lowest expected latency, computed from the
+   * recent response times of the endpoint and its outstanding requests, relative to the pool size
+   * of the endpoint.
+   */
+  LATENCY_WEIGHTED
+}
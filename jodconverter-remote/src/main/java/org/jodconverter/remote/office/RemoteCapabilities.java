@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import org.jodconverter.core.util.StringUtils;
+
+/**
+ * Contains the capabilities of a LibreOffice Online server, as advertised by its capabilities
+ * ({@code /hosting/capabilities}) and discovery ({@code /hosting/discovery}) endpoints. A server
+ * that does not advertise its capabilities is assumed to support any conversion.
+ */
+public final class RemoteCapabilities {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RemoteCapabilities.class);
+
+  // The path of the capabilities endpoint, on the server.
+  private static final String CAPABILITIES_PATH = "/hosting/capabilities";
+  // The path of the discovery endpoint, on the server.
+  private static final String DISCOVERY_PATH = "/hosting/discovery";
+
+  private final boolean convertAvailable;
+  private final String productName;
+  private final String productVersion;
+  private final Set<String> supportedExtensions;
+
+  /**
+   * Constructs new capabilities with the specified arguments.
+   *
+   * @param convertAvailable Whether the server accepts conversion requests.
+   * @param productName The name of the server product, if known.
+   * @param productVersion The version of the server product, if known.
+   * @param supportedExtensions The extensions of the documents the server can load, empty if
+   *     unknown.
+   */
+  public RemoteCapabilities(
+      final boolean convertAvailable,
+      final @Nullable String productName,
+      final @Nullable String productVersion,
+      final @NonNull Set<@NonNull String> supportedExtensions) {
+
+    this.convertAvailable = convertAvailable;
+    this.productName = productName;
+    this.productVersion = productVersion;
+    this.supportedExtensions = Collections.unmodifiableSet(new TreeSet<>(supportedExtensions));
+  }
+
+  /**
+   * Gets whether the server accepts conversion requests.
+   *
+   * @return {@code true} if the server accepts conversion requests, {@code false} otherwise.
+   */
+  public boolean isConvertAvailable() {
+    return convertAvailable;
+  }
+
+  /**
+   * Gets the name of the server product.
+   *
+   * @return The product name, or {@code null} if unknown.
+   */
+  public @Nullable String getProductName() {
+    return productName;
+  }
+
+  /**
+   * Gets the version of the server product.
+   *
+   * @return The product version, or {@code null} if unknown.
+   */
+  public @Nullable String getProductVersion() {
+    return productVersion;
+  }
+
+  /**
+   * Gets the extensions of the documents the server can load.
+   *
+   * @return The extensions, in lower case, or an empty set if unknown.
+   */
+  public @NonNull Set<@NonNull String> getSupportedExtensions() {
+    return supportedExtensions;
+  }
+
+  /**
+   * Gets whether the server can convert a document with the specified extension.
+   *
+   * @param extension The extension of the document to convert, {@code null} if unknown.
+   * @return {@code true} if the server accepts conversions and can load the document, or if this
+   *     is unknown; {@code false} otherwise.
+   */
+  public boolean supports(final @Nullable String extension) {
+
+    return convertAvailable
+        && (extension == null
+            || supportedExtensions.isEmpty()
+            || supportedExtensions.contains(extension.toLowerCase(Locale.ROOT)));
+  }
+
+  /**
+   * Queries the capabilities of the server of the specified endpoint. A missing or unreadable
+   * capabilities or discovery document is not an error; the matching capabilities are then
+   * considered unknown.
+   *
+   * @param httpClient The client used to query the server.
+   * @param endpointUrl The URL of the endpoint.
+   * @return The capabilities of the server.
+   */
+  /* default */ static RemoteCapabilities load(
+      final CloseableHttpClient httpClient, final String endpointUrl) {
+
+    boolean convertAvailable = true;
+    String productName = null;
+    String productVersion = null;
+    final JsonObject capabilities =
+        get(httpClient, endpointUrl, CAPABILITIES_PATH, RemoteCapabilities::parseCapabilities);
+    if (capabilities != null) {
+      final JsonElement convertTo = capabilities.get("convert-to");
+      if (convertTo != null
+          && convertTo.isJsonObject()
+          && convertTo.getAsJsonObject().has("available")) {
+        convertAvailable = convertTo.getAsJsonObject().get("available").getAsBoolean();
+      }
+      productName = getString(capabilities, "productName");
+      productVersion = getString(capabilities, "productVersion");
+    }
+
+    final Set<String> extensions =
+        get(httpClient, endpointUrl, DISCOVERY_PATH, RemoteCapabilities::parseDiscovery);
+    return new RemoteCapabilities(
+        convertAvailable,
+        productName,
+        productVersion,
+        extensions == null ? Collections.emptySet() : extensions);
+  }
+
+  private static JsonObject parseCapabilities(final InputStream in) {
+
+    final JsonElement element =
+        JsonParser.parseReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    return element.isJsonObject() ? element.getAsJsonObject() : null;
+  }
+
+  private static String getString(final JsonObject object, final String name) {
+
+    final JsonElement element = object.get(name);
+    return element == null || !element.isJsonPrimitive() ? null : element.getAsString();
+  }
+
+  // Gets the extensions of all the actions listed by a WOPI discovery document.
+  private static Set<String> parseDiscovery(final InputStream in)
+      throws IOException, ParserConfigurationException, SAXException {
+
+    final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+    factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+    factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+    final NodeList actions = factory.newDocumentBuilder().parse(in).getElementsByTagName("action");
+
+    final Set<String> extensions = new TreeSet<>();
+    for (int i = 0; i < actions.getLength(); i++) {
+      final String extension = ((Element) actions.item(i)).getAttribute("ext");
+      if (StringUtils.isNotBlank(extension)) {
+        extensions.add(extension.toLowerCase(Locale.ROOT));
+      }
+    }
+    return extensions;
+  }
+
+  private static <T> T get(
+      final CloseableHttpClient httpClient,
+      final String endpointUrl,
+      final String path,
+      final ContentParser<T> parser) {
+
+    try {
+      final HttpGet request = new HttpGet(new URL(new URL(endpointUrl), path).toURI());
+      try (CloseableHttpResponse response = httpClient.execute(request)) {
+        final HttpEntity entity = response.getEntity();
+        if (response.getStatusLine().getStatusCode() >= 300 || entity == null) {
+          EntityUtils.consumeQuietly(entity);
+          LOGGER.debug(
+              "Endpoint {} does not provide {}: {}", endpointUrl, path, response.getStatusLine());
+          return null;
+        }
+        try (InputStream in = entity.getContent()) {
+          return parser.parse(in);
+        }
+      }
+    } catch (IOException
+        | URISyntaxException
+        | JsonParseException
+        | IllegalStateException
+        | ParserConfigurationException
+        | SAXException ex) {
+      LOGGER.debug("Unable to get {} from endpoint {}", path, endpointUrl, ex);
+      return null;
+    }
+  }
+
+  /** Parses the content of a response. */
+  @FunctionalInterface
+  private interface ContentParser<T> {
+
+    T parse(InputStream in) throws IOException, ParserConfigurationException, SAXException;
+  }
+
+  @Override
+  public @NonNull String toString() {
+    return getClass().getSimpleName()
+        + "{convertAvailable="
+        + convertAvailable
+        + ", productName="
+        + productName
+        + ", productVersion="
+        + productVersion
+        + ", supportedExtensions="
+        + supportedExtensions
+        + '}';
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import org.jodconverter.core.util.AssertUtils;
+
+/** Represents a LibreOffice Online server a {@link RemoteOfficeManager} can send requests to. */
+public final class RemoteEndpoint {
+
+  private final String url;
+  private final int poolSize;
+
+  /**
+   * Creates a new endpoint with the specified URL and pool size.
+   *
+   * @param url The URL to the LibreOffice Online server.
+   * @param poolSize The maximum number of conversions the manager sends concurrently to this
+   *     endpoint, which is also the number of pool entries created for this endpoint.
+   */
+  public RemoteEndpoint(final @NonNull String url, final int poolSize) {
+
+    AssertUtils.notBlank(url, "url must not be null nor blank");
+    AssertUtils.isTrue(
+        poolSize > 0 && poolSize <= RemoteOfficeManager.MAX_POOL_SIZE,
+        String.format(
+            "poolSize %s must be between %d and %d",
+            poolSize, 1, RemoteOfficeManager.MAX_POOL_SIZE));
+    this.url = url;
+    this.poolSize = poolSize;
+  }
+
+  /**
+   * Gets the URL to the LibreOffice Online server.
+   *
+   * @return The URL.
+   */
+  public @NonNull String getUrl() {
+    return url;
+  }
+
+  /**
+   * Gets the maximum number of conversions the manager sends concurrently to this endpoint.
+   *
+   * @return The pool size.
+   */
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  @Override
+  public @NonNull String toString() {
+    return getClass().getSimpleName() + "{" + "url=" + url + ", poolSize=" + poolSize + '}';
+  }
+}
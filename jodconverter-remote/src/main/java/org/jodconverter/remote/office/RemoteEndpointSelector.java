@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.util.StringUtils;
+
+/**
+ * Chooses the endpoint a conversion is sent to, according to a {@link LoadBalancingStrategy}, and
+ * keeps track of the health of the endpoints.
+ */
+class RemoteEndpointSelector {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RemoteEndpointSelector.class);
+
+  // The weight of the last response time in the average latency of an endpoint.
+  private static final double LATENCY_SMOOTHING_FACTOR = 0.3d;
+
+  private final List<EndpointState> endpoints;
+  private final LoadBalancingStrategy strategy;
+
+  /** Holds the runtime state of an endpoint. */
+  /* default */ static final class EndpointState {
+
+    private final RemoteEndpoint endpoint;
+    private final AtomicInteger outstandingRequests = new AtomicInteger(0);
+    private volatile double averageLatency;
+    private volatile boolean healthy = true;
+    private volatile RemoteCapabilities capabilities;
+
+    /* default */ EndpointState(final RemoteEndpoint endpoint) {
+      this.endpoint = endpoint;
+    }
+
+    /* default */ RemoteEndpoint getEndpoint() {
+      return endpoint;
+    }
+
+    /* default */ boolean isHealthy() {
+      return healthy;
+    }
+
+    /* default */ int getOutstandingRequests() {
+      return outstandingRequests.get();
+    }
+
+    /* default */ double getAverageLatency() {
+      return averageLatency;
+    }
+
+    /* default */ RemoteCapabilities getCapabilities() {
+      return capabilities;
+    }
+
+    /**
+     * Gets whether the endpoint can convert a document with the specified extension, according to
+     * the last known capabilities of its server.
+     *
+     * @param extension The extension of the document to convert, {@code null} if unknown.
+     * @return {@code true} if the endpoint supports the conversion or if its capabilities are
+     *     unknown, {@code false} otherwise.
+     */
+    /* default */ boolean supports(final String extension) {
+
+      final RemoteCapabilities current = capabilities;
+      return current == null || current.supports(extension);
+    }
+
+    /**
+     * Gets the URL where conversion requests are sent.
+     *
+     * @return The conversion URL.
+     * @throws MalformedURLException If the URL of the endpoint is not valid.
+     */
+    /* default */ String getConversionUrl() throws MalformedURLException {
+
+      // An example URL is like:
+      // http://localhost:9980/lool/convert-to/docx
+
+      final String connectionUrl = endpoint.getUrl();
+      final URL url = new URL(connectionUrl);
+      final String path = url.toExternalForm().toLowerCase(Locale.ROOT);
+      if (StringUtils.endsWithAny(path, "lool/convert-to", "lool/convert-to/")) {
+        return StringUtils.appendIfMissing(connectionUrl, "/");
+      } else if (StringUtils.endsWithAny(path, "lool", "lool/")) {
+        return StringUtils.appendIfMissing(connectionUrl, "/") + "convert-to/";
+      }
+      return StringUtils.appendIfMissing(connectionUrl, "/") + "lool/convert-to/";
+    }
+
+    private double score(final LoadBalancingStrategy strategy) {
+
+      final double capacity = Math.max(1, endpoint.getPoolSize());
+      if (strategy == LoadBalancingStrategy.LATENCY_WEIGHTED) {
+        return (averageLatency + 1.0d) * (outstandingRequests.get() + 1) / capacity;
+      }
+      return outstandingRequests.get() / capacity;
+    }
+
+    private synchronized void recordLatency(final long latency) {
+
+      averageLatency =
+          averageLatency == 0.0d
+              ? latency
+              : LATENCY_SMOOTHING_FACTOR * latency
+                  + (1.0d - LATENCY_SMOOTHING_FACTOR) * averageLatency;
+    }
+
+    @Override
+    public String toString() {
+      return endpoint.getUrl();
+    }
+  }
+
+  /**
+   * Creates a new selector for the specified endpoints.
+   *
+   * @param endpoints The endpoints.
+   * @param strategy The strategy used to choose an endpoint.
+   */
+  /* default */ RemoteEndpointSelector(
+      final List<RemoteEndpoint> endpoints, final LoadBalancingStrategy strategy) {
+
+    this.endpoints = endpoints.stream().map(EndpointState::new).collect(Collectors.toList());
+    this.strategy = strategy;
+  }
+
+  /**
+   * Chooses the endpoint the next request is sent to. Healthy endpoints are always preferred; an
+   * unhealthy endpoint is only chosen when no healthy endpoint is left. The outstanding requests of
+   * the chosen endpoint are incremented, and the caller must call {@link #release} once the request
+   * is done.
+   *
+   * @param excluded The endpoints that must not be chosen, for example because they already failed
+   *     to process the request.
+   * @return The chosen endpoint, or {@code null} if all the endpoints are excluded.
+   */
+  /* default */ synchronized EndpointState select(final Collection<EndpointState> excluded) {
+    return select(excluded, false);
+  }
+
+  /**
+   * Chooses the endpoint the next request is sent to, like {@link #select}, but only among the
+   * endpoints having less outstanding requests than their pool size.
+   *
+   * @return The chosen endpoint, or {@code null} if all the endpoints are busy.
+   */
+  /* default */ EndpointState trySelect() {
+    return trySelect(Collections.emptyList());
+  }
+
+  /**
+   * Chooses the endpoint the next request is sent to, like {@link #select}, but only among the
+   * endpoints having less outstanding requests than their pool size. An unhealthy endpoint is only
+   * chosen when no healthy endpoint is left, not when the healthy endpoints are busy.
+   *
+   * @param excluded The endpoints that must not be chosen.
+   * @return The chosen endpoint, or {@code null} if all the endpoints are busy or excluded.
+   */
+  /* default */ synchronized EndpointState trySelect(final Collection<EndpointState> excluded) {
+    return select(excluded, true);
+  }
+
+  /**
+   * Chooses the endpoint the next request is sent to, like {@link #trySelect(Collection)}, waiting
+   * for an endpoint to be released while all the endpoints are busy.
+   *
+   * @param excluded The endpoints that must not be chosen.
+   * @param timeout The maximum time to wait for an endpoint, in milliseconds.
+   * @return The chosen endpoint, or {@code null} if all the endpoints are excluded or if no
+   *     endpoint was released within the timeout.
+   * @throws InterruptedException If the current thread is interrupted while waiting.
+   */
+  /* default */ synchronized EndpointState awaitSelect(
+      final Collection<EndpointState> excluded, final long timeout) throws InterruptedException {
+
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+    EndpointState selected = select(excluded, true);
+    while (selected == null && !excluded.containsAll(endpoints)) {
+      final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+      if (remaining <= 0) {
+        return null;
+      }
+      wait(remaining);
+      selected = select(excluded, true);
+    }
+    return selected;
+  }
+
+  private EndpointState select(final Collection<EndpointState> excluded, final boolean bounded) {
+
+    EndpointState selected = select(excluded, true, bounded);
+    if (selected == null && !(bounded && hasHealthyEndpoint(excluded))) {
+      selected = select(excluded, false, bounded);
+    }
+    if (selected != null) {
+      selected.outstandingRequests.incrementAndGet();
+    }
+    return selected;
+  }
+
+  private boolean hasHealthyEndpoint(final Collection<EndpointState> excluded) {
+    return endpoints.stream().anyMatch(state -> state.healthy && !excluded.contains(state));
+  }
+
+  private EndpointState select(
+      final Collection<EndpointState> excluded,
+      final boolean healthyOnly,
+      final boolean bounded) {
+
+    EndpointState selected = null;
+    double selectedScore = Double.MAX_VALUE;
+    for (final EndpointState state : endpoints) {
+      if (excluded.contains(state)
+          || healthyOnly && !state.healthy
+          || bounded && state.outstandingRequests.get() >= state.endpoint.getPoolSize()) {
+        continue;
+      }
+      final double score = state.score(strategy);
+      if (score < selectedScore) {
+        selected = state;
+        selectedScore = score;
+      }
+    }
+    return selected;
+  }
+
+  /**
+   * Releases an endpoint previously chosen by {@link #select}.
+   *
+   * @param state The endpoint to release.
+   * @param latency The time spent processing the request, in milliseconds.
+   * @param successful Whether the request was successfully processed by the endpoint.
+   */
+  /* default */ synchronized void release(
+      final EndpointState state, final long latency, final boolean successful) {
+
+    state.outstandingRequests.decrementAndGet();
+    if (successful) {
+      state.recordLatency(latency);
+    }
+
+    // Wake up the requests waiting for an endpoint.
+    notifyAll();
+  }
+
+  /**
+   * Checks the health of all the endpoints, ejecting the endpoints that do not respond properly and
+   * re-admitting the endpoints that respond properly again.
+   *
+   * @param httpClient The client used to send the health check requests.
+   * @param healthCheckPath The path, on the endpoint server, of the health check request.
+   */
+  /* default */ void checkHealth(
+      final CloseableHttpClient httpClient, final String healthCheckPath) {
+
+    for (final EndpointState state : endpoints) {
+      final boolean healthy = isHealthy(httpClient, state, healthCheckPath);
+      if (healthy != state.healthy) {
+        if (healthy) {
+          LOGGER.info("Endpoint {} is healthy again; re-admitting it", state);
+        } else {
+          LOGGER.warn("Endpoint {} failed its health check; ejecting it", state);
+        }
+        state.healthy = healthy;
+        synchronized (this) {
+          // Wake up the requests waiting for an endpoint.
+          notifyAll();
+        }
+      }
+    }
+  }
+
+  /**
+   * Queries the capabilities of the servers of all the endpoints, replacing the previously known
+   * capabilities.
+   *
+   * @param httpClient The client used to query the servers.
+   */
+  /* default */ void refreshCapabilities(final CloseableHttpClient httpClient) {
+
+    for (final EndpointState state : endpoints) {
+      state.capabilities = RemoteCapabilities.load(httpClient, state.endpoint.getUrl());
+      LOGGER.debug("Capabilities of endpoint {}: {}", state, state.capabilities);
+    }
+  }
+
+  private boolean isHealthy(
+      final CloseableHttpClient httpClient,
+      final EndpointState state,
+      final String healthCheckPath) {
+
+    try {
+      final HttpGet request =
+          new HttpGet(new URL(new URL(state.endpoint.getUrl()), healthCheckPath).toURI());
+      try (CloseableHttpResponse response = httpClient.execute(request)) {
+        EntityUtils.consumeQuietly(response.getEntity());
+        // A server error means the endpoint is not able to process conversions.
+        return response.getStatusLine().getStatusCode() < 500;
+      }
+    } catch (IOException | URISyntaxException ex) {
+      LOGGER.debug("Health check of endpoint {} failed", state, ex);
+      return false;
+    }
+  }
+
+  /**
+   * Gets the state of all the endpoints.
+   *
+   * @return The endpoints.
+   */
+  /* default */ List<EndpointState> getEndpoints() {
+    return endpoints;
+  }
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.security.KeyManagementException;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.TrustStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.ssl.PrivateKeyDetails;
+import org.apache.http.ssl.PrivateKeyStrategy;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.http.ssl.SSLContexts;
+
+import org.jodconverter.core.office.NamedThreadFactory;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.remote.ssl.SslConfig;
+
+/**
+ * Creates the HTTP clients shared by all the conversions of a {@link RemoteOfficeManager} or an
+ * {@link AsyncRemoteOfficeManager}. The clients use a pool of connections, so connections to the
+ * LibreOffice Online servers are kept alive and reused between conversions instead of paying a new
+ * TCP and TLS handshake for each conversion.
+ */
+final class RemoteHttpClientFactory {
+
+  /** Strategy that selects a private key by its alias. */
+  private static final class SelectByAlias implements PrivateKeyStrategy {
+
+    private final String keyAlias;
+
+    /**
+     * Create a new instance of the strategy.
+     *
+     * @param keyAlias The alias of the private key to select.
+     */
+    public SelectByAlias(final String keyAlias) {
+      this.keyAlias = keyAlias;
+    }
+
+    @Override
+    public String chooseAlias(final Map<String, PrivateKeyDetails> aliases, final Socket socket) {
+
+      return aliases.keySet().stream()
+          .filter(key -> key.equalsIgnoreCase(keyAlias))
+          .findFirst()
+          .orElse(null);
+    }
+  }
+
+  /** Strategy that trust all certificates. */
+  private static final class TrustAllStrategy implements TrustStrategy {
+
+    private static final TrustAllStrategy INSTANCE = new TrustAllStrategy();
+
+    @Override
+    public boolean isTrusted(final X509Certificate[] chain, final String authType) {
+      return true;
+    }
+  }
+
+  // Taken from Spring org.springframework.util.ClassUtils class.
+  @SuppressWarnings("PMD")
+  private static ClassLoader getDefaultClassLoader() {
+
+    ClassLoader cl = null;
+    try {
+      cl = Thread.currentThread().getContextClassLoader();
+    } catch (Throwable ignored) {
+      // Cannot access thread context ClassLoader - falling back...
+    }
+    if (cl == null) {
+      // No thread context class loader -> use class loader of this class.
+      cl = RemoteHttpClientFactory.class.getClassLoader();
+      if (cl == null) {
+        // getClassLoader() returning null indicates the bootstrap ClassLoader
+        try {
+          cl = ClassLoader.getSystemClassLoader();
+        } catch (Throwable ignored) {
+          // Cannot access system ClassLoader - oh well, maybe the caller can live with null...
+        }
+      }
+    }
+    return cl;
+  }
+
+  // Taken from spring org.springframework.util.ResourceUtils class
+  private static File getFile(final URL url) {
+
+    try {
+      return new File(new URI(url.toString().replace(" ", "%20")).getSchemeSpecificPart());
+    } catch (URISyntaxException ex) {
+      // Fallback for URLs that are not valid URIs (should hardly ever happen).
+      return new File(url.getFile());
+    }
+  }
+
+  // Taken from spring org.springframework.util.ResourceUtils class
+  private static File getFile(final String resourceLocation) throws FileNotFoundException {
+
+    AssertUtils.notNull(resourceLocation, "resourceLocation must not be null");
+    if (resourceLocation.startsWith("classpath:")) {
+      final String path = resourceLocation.substring("classpath:".length());
+      final String description = "class path resource [" + path + "]";
+      final ClassLoader cl = getDefaultClassLoader();
+      final URL url = cl == null ? ClassLoader.getSystemResource(path) : cl.getResource(path);
+      if (url == null) {
+        throw new FileNotFoundException(
+            description + " cannot be resolved to absolute file path because it does not exist");
+      }
+      return getFile(url.toString());
+    }
+
+    try {
+      // try URL
+      return getFile(new URL(resourceLocation));
+    } catch (MalformedURLException ex) {
+      // no URL -> treat as file path
+      return new File(resourceLocation);
+    }
+  }
+
+  private static void configureKeyMaterial(
+      final SslConfig sslConfig, final SSLContextBuilder sslBuilder)
+      throws UnrecoverableKeyException, NoSuchAlgorithmException, KeyStoreException,
+          CertificateException, IOException, NoSuchProviderException {
+
+    final KeyStore keystore =
+        loadStore(
+            sslConfig.getKeyStore(),
+            sslConfig.getKeyStorePassword(),
+            sslConfig.getKeyStoreType(),
+            sslConfig.getKeyStoreProvider());
+    if (keystore != null) {
+      sslBuilder.loadKeyMaterial(
+          keystore,
+          sslConfig.getKeyPassword() == null
+              ? Objects.requireNonNull(sslConfig.getKeyStorePassword()).toCharArray()
+              : sslConfig.getKeyPassword().toCharArray(),
+          sslConfig.getKeyAlias() == null ? null : new SelectByAlias(sslConfig.getKeyAlias()));
+    }
+  }
+
+  /**
+   * Creates the SSL context used to secure communication with the remote servers.
+   *
+   * @param sslConfig The SSL configuration, may be {@code null}.
+   * @return The SSL context, or {@code null} if SSL is not enabled.
+   * @throws OfficeException If the SSL context cannot be created.
+   */
+  private static SSLContext createSslContext(final SslConfig sslConfig) throws OfficeException {
+
+    if (sslConfig == null || !sslConfig.isEnabled()) {
+      return null;
+    }
+
+    try {
+      final SSLContextBuilder sslBuilder = SSLContexts.custom();
+      sslBuilder.setProtocol(sslConfig.getProtocol());
+      configureKeyMaterial(sslConfig, sslBuilder);
+      configureTrustMaterial(sslConfig, sslBuilder);
+
+      return sslBuilder.build();
+
+    } catch (IOException
+        | KeyManagementException
+        | NoSuchAlgorithmException
+        | KeyStoreException
+        | CertificateException
+        | UnrecoverableKeyException
+        | NoSuchProviderException ex) {
+      throw new OfficeException("Could not create SSL context.", ex);
+    }
+  }
+
+  private static HostnameVerifier getHostnameVerifier(final SslConfig sslConfig) {
+
+    return sslConfig.isVerifyHostname()
+        ? SSLConnectionSocketFactory.getDefaultHostnameVerifier()
+        : NoopHostnameVerifier.INSTANCE;
+  }
+
+  private static void configureTrustMaterial(
+      final SslConfig sslConfig, final SSLContextBuilder sslBuilder)
+      throws NoSuchAlgorithmException, KeyStoreException, CertificateException, IOException,
+          NoSuchProviderException {
+
+    if (sslConfig.isTrustAll()) {
+      sslBuilder.loadTrustMaterial(null, TrustAllStrategy.INSTANCE);
+    } else {
+      final KeyStore truststore =
+          loadStore(
+              sslConfig.getTrustStore(),
+              sslConfig.getTrustStorePassword(),
+              sslConfig.getTrustStoreType(),
+              sslConfig.getTrustStoreProvider());
+      if (truststore != null) {
+        sslBuilder.loadTrustMaterial(truststore, null);
+      }
+    }
+  }
+
+  private static KeyStore loadStore(
+      final String store,
+      final String storePassword,
+      final String storeType,
+      final String storeProvider)
+      throws NoSuchAlgorithmException, CertificateException, IOException, KeyStoreException,
+          NoSuchProviderException {
+
+    if (store != null) {
+      AssertUtils.notNull(
+          storePassword, String.format("storePassword of store %s must not be null", store));
+
+      KeyStore keyStore;
+
+      final String type = storeType == null ? KeyStore.getDefaultType() : storeType;
+      if (storeProvider == null) {
+        keyStore = KeyStore.getInstance(type);
+      } else {
+        keyStore = KeyStore.getInstance(type, storeProvider);
+      }
+
+      try (InputStream instream = Files.newInputStream(getFile(store).toPath())) {
+        keyStore.load(instream, storePassword.toCharArray());
+      }
+
+      return keyStore;
+    }
+    return null;
+  }
+
+  /**
+   * Creates a new HTTP client backed by a pool of connections.
+   *
+   * @param sslConfig The SSL configuration, may be {@code null}.
+   * @param maxConnections The maximum number of connections of the pool, which is also the maximum
+   *     number of connections to a single server.
+   * @param keepAliveTimeout How long an idle connection is kept alive when the server does not
+   *     specify it, in milliseconds.
+   * @param connectTimeout The default connect timeout, in milliseconds.
+   * @param socketTimeout The default socket timeout, in milliseconds.
+   * @return The client.
+   * @throws OfficeException If the SSL context cannot be created.
+   */
+  /* default */ static CloseableHttpClient createHttpClient(
+      final SslConfig sslConfig,
+      final int maxConnections,
+      final long keepAliveTimeout,
+      final long connectTimeout,
+      final long socketTimeout)
+      throws OfficeException {
+
+    // The SSL context is created once, so key and trust stores are loaded only once.
+    final SSLContext sslContext = createSslContext(sslConfig);
+    final SSLConnectionSocketFactory sslFactory =
+        sslContext == null
+            ? SSLConnectionSocketFactory.getSocketFactory()
+            : new SSLConnectionSocketFactory(
+                sslContext,
+                sslConfig.getEnabledProtocols(),
+                sslConfig.getCiphers(),
+                getHostnameVerifier(sslConfig));
+    final Registry<ConnectionSocketFactory> registry =
+        RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+            .register("https", sslFactory)
+            .build();
+
+    final PoolingHttpClientConnectionManager connectionManager =
+        new PoolingHttpClientConnectionManager(registry);
+    connectionManager.setMaxTotal(maxConnections);
+    connectionManager.setDefaultMaxPerRoute(maxConnections);
+
+    return HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setKeepAliveStrategy(getKeepAliveStrategy(keepAliveTimeout))
+        .evictExpiredConnections()
+        .evictIdleConnections(keepAliveTimeout, TimeUnit.MILLISECONDS)
+        .setDefaultRequestConfig(getRequestConfig(connectTimeout, socketTimeout))
+        .build();
+  }
+
+  /**
+   * Creates a new non-blocking HTTP client. The client is not started.
+   *
+   * @param sslConfig The SSL configuration, may be {@code null}.
+   * @param maxConnections The maximum number of connections of the client, which is also the
+   *     maximum number of connections to a single server.
+   * @param ioThreadCount The number of I/O threads of the client.
+   * @param keepAliveTimeout How long an idle connection is kept alive when the server does not
+   *     specify it, in milliseconds.
+   * @param connectTimeout The default connect timeout, in milliseconds.
+   * @param socketTimeout The default socket timeout, in milliseconds.
+   * @return The client.
+   * @throws OfficeException If the SSL context cannot be created.
+   */
+  /* default */ static CloseableHttpAsyncClient createHttpAsyncClient(
+      final SslConfig sslConfig,
+      final int maxConnections,
+      final int ioThreadCount,
+      final long keepAliveTimeout,
+      final long connectTimeout,
+      final long socketTimeout)
+      throws OfficeException {
+
+    final HttpAsyncClientBuilder builder =
+        HttpAsyncClients.custom()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnections)
+            .setKeepAliveStrategy(getKeepAliveStrategy(keepAliveTimeout))
+            .setDefaultIOReactorConfig(
+                IOReactorConfig.custom().setIoThreadCount(ioThreadCount).build())
+            .setThreadFactory(new NamedThreadFactory("jodconverter-async-io", true))
+            .setDefaultRequestConfig(getRequestConfig(connectTimeout, socketTimeout));
+
+    final SSLContext sslContext = createSslContext(sslConfig);
+    if (sslContext != null) {
+      builder.setSSLStrategy(
+          new SSLIOSessionStrategy(
+              sslContext,
+              sslConfig.getEnabledProtocols(),
+              sslConfig.getCiphers(),
+              getHostnameVerifier(sslConfig)));
+    }
+    return builder.build();
+  }
+
+  private static ConnectionKeepAliveStrategy getKeepAliveStrategy(final long keepAliveTimeout) {
+
+    // Honor the keep-alive duration sent by the server, if any.
+    return (response, context) -> {
+      final long duration =
+          DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+      return duration > 0 ? duration : keepAliveTimeout;
+    };
+  }
+
+  private static RequestConfig getRequestConfig(
+      final long connectTimeout, final long socketTimeout) {
+
+    return RequestConfig.custom()
+        .setConnectTimeout(Math.toIntExact(connectTimeout))
+        .setSocketTimeout(Math.toIntExact(socketTimeout))
+        .build();
+  }
+
+  // Private constructor to prevent instantiation
+  private RemoteHttpClientFactory() {
+    throw new AssertionError("Utility class must not be instantiated");
+  }
+}
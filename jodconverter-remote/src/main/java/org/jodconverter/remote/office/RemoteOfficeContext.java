@@ -22,6 +22,7 @@ package org.jodconverter.remote.office;
 
 import org.apache.http.client.HttpClient;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import org.jodconverter.core.office.OfficeContext;
 
@@ -43,4 +44,20 @@ public interface RemoteOfficeContext extends OfficeContext {
    */
   @NonNull
   RequestConfig getRequestConfig();
+
+  /**
+   * Gets the request configuration to use to retry a request on another server, after the server
+   * targeted by the specified configuration failed to process the request. Only idempotent
+   * requests, like conversions, should be retried.
+   *
+   * <p>The default implementation does not support retries and returns {@code null}.
+   *
+   * @param failedConfig The request configuration of the failed request.
+   * @return The request configuration to use to retry the request, or {@code null} if the request
+   *     must not be retried.
+   */
+  default @Nullable RequestConfig getFailoverRequestConfig(
+      final @NonNull RequestConfig failedConfig) {
+    return null;
+  }
 }
@@ -21,25 +21,50 @@
 package org.jodconverter.remote.office;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.jodconverter.core.office.AbstractOfficeManagerPool;
+import org.jodconverter.core.office.ConversionCostModel;
 import org.jodconverter.core.office.InstalledOfficeManagerHolder;
+import org.jodconverter.core.office.NamedThreadFactory;
+import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.core.office.OfficeUtils;
 import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.core.util.StringUtils;
 import org.jodconverter.remote.ssl.SslConfig;
 
 /**
  * {@link org.jodconverter.core.office.OfficeManager} pool implementation that does not depend on an
  * office installation to process conversion taks.
+ *
+ * <p>The manager can send conversions to several LibreOffice Online servers (endpoints). Each
+ * conversion is sent to an endpoint chosen according to the configured {@link
+ * LoadBalancingStrategy}, and endpoints can be periodically health checked so unhealthy endpoints
+ * stop receiving conversions until they recover.
+ *
+ * <p>The manager can also discover the capabilities of the servers when it starts, and refresh them
+ * periodically. A conversion that no server supports is then rejected before the document is sent.
  */
 public final class RemoteOfficeManager
     extends AbstractOfficeManagerPool<RemoteOfficeManagerPoolEntry> {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(RemoteOfficeManager.class);
+
   // The default pool size.
   public static final int DEFAULT_POOL_SIZE = 1;
   // The maximum size of the pool.
@@ -48,6 +73,37 @@ public final class RemoteOfficeManager
   public static final long DEFAULT_CONNECT_TIMEOUT = 60_000L; // 2 minutes
   // The default socket timeout
   public static final long DEFAULT_SOCKET_TIMEOUT = 120_000L; // 2 minutes
+  // The default load balancing strategy
+  public static final LoadBalancingStrategy DEFAULT_LOAD_BALANCING_STRATEGY =
+      LoadBalancingStrategy.LEAST_OUTSTANDING_REQUESTS;
+  // The default interval between two health checks of the endpoints, 0 meaning no health check
+  public static final long DEFAULT_HEALTH_CHECK_INTERVAL = 0L;
+  // The default path of the health check request, on the endpoint server
+  public static final String DEFAULT_HEALTH_CHECK_PATH = "/hosting/discovery";
+  // The default failover behavior
+  public static final boolean DEFAULT_FAILOVER = false;
+  // The default request compression behavior
+  public static final boolean DEFAULT_REQUEST_COMPRESSION = false;
+  // The default maximum number of pooled connections, 0 meaning the total pool size, plus one for
+  // the health checks
+  public static final int DEFAULT_MAX_CONNECTIONS = 0;
+  // The default time an idle pooled connection is kept alive
+  public static final long DEFAULT_KEEP_ALIVE_TIMEOUT = 30_000L; // 30 seconds
+  // The default time the discovered capabilities of the endpoints are cached, 0 meaning no
+  // discovery
+  public static final long DEFAULT_CAPABILITIES_TTL = 0L;
+
+  private final RemoteEndpointSelector endpointSelector;
+  private final SslConfig sslConfig;
+  private final long connectTimeout;
+  private final long socketTimeout;
+  private final int maxConnections;
+  private final long keepAliveTimeout;
+  private final long healthCheckInterval;
+  private final String healthCheckPath;
+  private final long capabilitiesTtl;
+  private ScheduledExecutorService maintenanceExecutor;
+  private volatile CloseableHttpClient httpClient;
 
   /**
    * Creates a new builder instance.
@@ -83,41 +139,187 @@ public final class RemoteOfficeManager
   }
 
   private RemoteOfficeManager(
-      final int poolSize,
       final File workingDir,
-      final String urlConnection,
+      final List<RemoteEndpoint> endpoints,
+      final LoadBalancingStrategy loadBalancingStrategy,
+      final long healthCheckInterval,
+      final String healthCheckPath,
+      final long capabilitiesTtl,
+      final boolean failover,
+      final boolean requestCompression,
       final SslConfig sslConfig,
+      final int maxConnections,
+      final long keepAliveTimeout,
       final long connectTimeout,
       final long socketTimeout,
       final long taskExecutionTimeout,
-      final long taskQueueTimeout) {
-    super(poolSize, workingDir, taskQueueTimeout);
+      final long taskQueueTimeout,
+      final int maxBatchSize,
+      final ConversionCostModel costModel) {
+    super(
+        endpoints.stream().mapToInt(RemoteEndpoint::getPoolSize).sum(),
+        workingDir,
+        taskQueueTimeout,
+        maxBatchSize,
+        costModel);
+
+    this.endpointSelector = new RemoteEndpointSelector(endpoints, loadBalancingStrategy);
+    this.sslConfig = sslConfig;
+    this.maxConnections =
+        maxConnections > 0
+            ? maxConnections
+            : endpoints.stream().mapToInt(RemoteEndpoint::getPoolSize).sum() + 1;
+    this.keepAliveTimeout = keepAliveTimeout;
+    this.connectTimeout = connectTimeout;
+    this.socketTimeout = socketTimeout;
+    this.healthCheckInterval = healthCheckInterval;
+    this.healthCheckPath = healthCheckPath;
+    this.capabilitiesTtl = capabilitiesTtl;
 
+    // The entries are not bound to an endpoint; the endpoint is chosen for each task, the pool
+    // size of the endpoints limiting the number of tasks sent concurrently to each endpoint.
     setEntries(
-        IntStream.range(0, poolSize)
+        IntStream.range(0, endpoints.stream().mapToInt(RemoteEndpoint::getPoolSize).sum())
             .mapToObj(
                 i ->
                     new RemoteOfficeManagerPoolEntry(
-                        urlConnection,
-                        sslConfig,
+                        endpointSelector,
+                        this::getHttpClient,
                         connectTimeout,
                         socketTimeout,
+                        failover,
+                        requestCompression,
                         taskExecutionTimeout))
             .collect(Collectors.toList()));
   }
 
+  /**
+   * Gets all the endpoints of this manager.
+   *
+   * @return The endpoints.
+   */
+  public @NonNull List<@NonNull RemoteEndpoint> getEndpoints() {
+    return endpointSelector.getEndpoints().stream()
+        .map(RemoteEndpointSelector.EndpointState::getEndpoint)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Gets the endpoints of this manager that passed their last health check. When health checks
+   * are disabled, all the endpoints are considered healthy.
+   *
+   * @return The healthy endpoints.
+   */
+  public @NonNull List<@NonNull RemoteEndpoint> getHealthyEndpoints() {
+    return endpointSelector.getEndpoints().stream()
+        .filter(RemoteEndpointSelector.EndpointState::isHealthy)
+        .map(RemoteEndpointSelector.EndpointState::getEndpoint)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Gets the last discovered capabilities of the endpoints of this manager. The capabilities are
+   * only discovered when a capabilities TTL is configured.
+   *
+   * @return The capabilities of the endpoints, by endpoint. An endpoint whose capabilities were
+   *     not discovered yet is not included.
+   */
+  public @NonNull Map<@NonNull RemoteEndpoint, @NonNull RemoteCapabilities> getCapabilities() {
+
+    final Map<RemoteEndpoint, RemoteCapabilities> capabilities = new LinkedHashMap<>();
+    for (final RemoteEndpointSelector.EndpointState state : endpointSelector.getEndpoints()) {
+      final RemoteCapabilities endpointCapabilities = state.getCapabilities();
+      if (endpointCapabilities != null) {
+        capabilities.put(state.getEndpoint(), endpointCapabilities);
+      }
+    }
+    return Collections.unmodifiableMap(capabilities);
+  }
+
+  /**
+   * Gets the HTTP client shared by all the entries of this manager.
+   *
+   * @return The client, or {@code null} if the manager is not running.
+   */
+  private CloseableHttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  @Override
+  protected void doStart() throws OfficeException {
+
+    // A single client, backed by a pool of connections, is used for all the conversions so
+    // connections (and TLS sessions) to the endpoints are reused.
+    final CloseableHttpClient client =
+        RemoteHttpClientFactory.createHttpClient(
+            sslConfig, maxConnections, keepAliveTimeout, connectTimeout, socketTimeout);
+    httpClient = client;
+
+    // Discover the capabilities of the endpoints before accepting any conversion.
+    if (capabilitiesTtl > 0) {
+      endpointSelector.refreshCapabilities(client);
+    }
+    if (healthCheckInterval <= 0 && capabilitiesTtl <= 0) {
+      return;
+    }
+
+    maintenanceExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            new NamedThreadFactory("jodconverter-remote-maintenance", true));
+
+    // Check the health of the endpoints periodically.
+    if (healthCheckInterval > 0) {
+      maintenanceExecutor.scheduleWithFixedDelay(
+          () -> endpointSelector.checkHealth(client, healthCheckPath),
+          0L,
+          healthCheckInterval,
+          TimeUnit.MILLISECONDS);
+    }
+
+    // Refresh the capabilities once they expire.
+    if (capabilitiesTtl > 0) {
+      maintenanceExecutor.scheduleWithFixedDelay(
+          () -> endpointSelector.refreshCapabilities(client),
+          capabilitiesTtl,
+          capabilitiesTtl,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Override
+  protected void doStop() {
+
+    if (maintenanceExecutor != null) {
+      maintenanceExecutor.shutdownNow();
+      maintenanceExecutor = null;
+    }
+    final CloseableHttpClient client = httpClient;
+    httpClient = null;
+    if (client != null) {
+      try {
+        client.close();
+      } catch (IOException ex) {
+        LOGGER.debug("Unable to close the HTTP client", ex);
+      }
+    }
+  }
+
   /**
    * A builder for constructing a {@link RemoteOfficeManager}.
    *
    * @see RemoteOfficeManager
    */
-  public static final class Builder extends AbstractOfficeManagerPoolBuilder<Builder> {
+  public static final class Builder extends AbstractRemoteOfficeManagerBuilder<Builder> {
 
     private int poolSize = DEFAULT_POOL_SIZE;
-    private String urlConnection;
-    private SslConfig sslConfig;
-    private long connectTimeout = DEFAULT_CONNECT_TIMEOUT;
-    private long socketTimeout = DEFAULT_SOCKET_TIMEOUT;
+    private long healthCheckInterval = DEFAULT_HEALTH_CHECK_INTERVAL;
+    private String healthCheckPath = DEFAULT_HEALTH_CHECK_PATH;
+    private long capabilitiesTtl = DEFAULT_CAPABILITIES_TTL;
+    private boolean failover = DEFAULT_FAILOVER;
+    private boolean requestCompression = DEFAULT_REQUEST_COMPRESSION;
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private int maxBatchSize = AbstractOfficeManagerPool.DEFAULT_MAX_BATCH_SIZE;
+    private ConversionCostModel costModel;
 
     // Private constructor so only RemoteOfficeManager can initialize an instance of this builder.
     private Builder() {
@@ -127,21 +329,36 @@ public final class RemoteOfficeManager
     @Override
     public @NonNull RemoteOfficeManager build() {
 
-      AssertUtils.notBlank(urlConnection, "urlConnection must not be null nor blank");
+      final List<RemoteEndpoint> allEndpoints = buildEndpoints(poolSize);
+      final int totalPoolSize = allEndpoints.stream().mapToInt(RemoteEndpoint::getPoolSize).sum();
+      AssertUtils.isTrue(
+          totalPoolSize <= MAX_POOL_SIZE,
+          String.format(
+              "The total pool size %s of the endpoints must not exceed %d",
+              totalPoolSize, MAX_POOL_SIZE));
 
       // Validate the working directory
       OfficeUtils.validateWorkingDir(workingDir);
 
       final RemoteOfficeManager manager =
           new RemoteOfficeManager(
-              poolSize,
               workingDir,
-              urlConnection,
+              allEndpoints,
+              loadBalancingStrategy,
+              healthCheckInterval,
+              healthCheckPath,
+              capabilitiesTtl,
+              failover,
+              requestCompression,
               sslConfig,
+              maxConnections,
+              keepAliveTimeout,
               connectTimeout,
               socketTimeout,
               taskExecutionTimeout,
-              taskQueueTimeout);
+              taskQueueTimeout,
+              maxBatchSize,
+              costModel);
       if (install) {
         InstalledOfficeManagerHolder.setInstance(manager);
       }
@@ -149,7 +366,8 @@ public final class RemoteOfficeManager
     }
 
     /**
-     * Specifies the pool size of the manager.
+     * Specifies the pool size of the manager, which is the pool size of the endpoint specified by
+     * the URL connection.
      *
      * @param poolSize The pool size.
      * @return This builder instance.
@@ -166,70 +384,166 @@ public final class RemoteOfficeManager
     }
 
     /**
-     * Specifies the URL connection of the manager.
+     * Specifies the interval between two health checks of the endpoints. An endpoint failing its
+     * health check no longer receives conversions, as long as other endpoints are healthy, until it
+     * passes a health check again. 0 disables the health checks.
      *
-     * @param urlConnection The URL connection.
+     * <p>&nbsp; <b><i>Default</i></b>: 0 (no health check)
+     *
+     * @param healthCheckInterval The health check interval, in milliseconds.
      * @return This builder instance.
      */
-    public @NonNull Builder urlConnection(final @Nullable String urlConnection) {
+    public @NonNull Builder healthCheckInterval(final @Nullable Long healthCheckInterval) {
 
-      this.urlConnection = urlConnection;
+      if (healthCheckInterval != null) {
+        AssertUtils.isTrue(
+            healthCheckInterval >= 0,
+            String.format(
+                "healthCheckInterval %s must greater than or equal to 0", healthCheckInterval));
+        this.healthCheckInterval = healthCheckInterval;
+      }
       return this;
     }
 
     /**
-     * Specifies the SSL configuration to secure communication with LibreOffice Online.
+     * Specifies how long the capabilities of the endpoint servers are cached. When set, the
+     * capabilities are discovered when the manager starts, using the {@code /hosting/capabilities}
+     * and {@code /hosting/discovery} endpoints of the servers, and refreshed once expired. A
+     * conversion is only sent to an endpoint that accepts conversions and can load the source
+     * document; a conversion that no endpoint supports fails without sending the document. A
+     * server that does not advertise its capabilities is assumed to support any conversion. 0
+     * disables the discovery.
      *
-     * @param sslConfig The SSL configuration.
+     * <p>&nbsp; <b><i>Default</i></b>: 0 (no discovery)
+     *
+     * @param capabilitiesTtl The capabilities time to live, in milliseconds.
      * @return This builder instance.
      */
-    public @NonNull Builder sslConfig(final @Nullable SslConfig sslConfig) {
+    public @NonNull Builder capabilitiesTtl(final @Nullable Long capabilitiesTtl) {
 
-      this.sslConfig = sslConfig;
+      if (capabilitiesTtl != null) {
+        AssertUtils.isTrue(
+            capabilitiesTtl >= 0,
+            String.format("capabilitiesTtl %s must greater than or equal to 0", capabilitiesTtl));
+        this.capabilitiesTtl = capabilitiesTtl;
+      }
       return this;
     }
 
     /**
-     * The timeout in milliseconds until a connection is established. A timeout value of zero is
-     * interpreted as an infinite timeout. A negative value is interpreted as undefined (system
-     * default).
+     * Specifies the path of the health check request, relative to the root of the endpoint
+     * server. An endpoint is considered healthy when this request does not fail with a server
+     * error.
      *
-     * <p>&nbsp; <b><i>Default</i></b>: 60000 (1 minute)
+     * <p>&nbsp; <b><i>Default</i></b>: /hosting/discovery
      *
-     * @param connectTimeout The "connect" timeout, in milliseconds.
+     * @param healthCheckPath The health check path.
      * @return This builder instance.
      */
-    public @NonNull Builder connectTimeout(final @Nullable Long connectTimeout) {
+    public @NonNull Builder healthCheckPath(final @Nullable String healthCheckPath) {
 
-      if (connectTimeout != null) {
+      if (StringUtils.isNotBlank(healthCheckPath)) {
+        this.healthCheckPath = healthCheckPath;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies whether a conversion that failed because of an I/O or server error is retried on
+     * another endpoint. Conversions are idempotent, so retrying them is safe.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: false
+     *
+     * @param failover {@code true} to retry failed conversions on another endpoint, {@code false}
+     *     otherwise.
+     * @return This builder instance.
+     */
+    public @NonNull Builder failover(final @Nullable Boolean failover) {
+
+      if (failover != null) {
+        this.failover = failover;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies whether the documents sent to the server are gzip compressed when they compress
+     * well, that is when they are text based (flat ODF, RTF, HTML, CSV, text...) or when a sample
+     * of their first bytes compresses well. Other documents, such as OOXML or ODF packages, which
+     * are already compressed, are sent as is. The server must support compressed requests ({@code
+     * Content-Encoding: gzip}). Compressed responses are always accepted.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: false
+     *
+     * @param requestCompression {@code true} to compress the documents sent to the server, {@code
+     *     false} otherwise.
+     * @return This builder instance.
+     */
+    public @NonNull Builder requestCompression(final @Nullable Boolean requestCompression) {
+
+      if (requestCompression != null) {
+        this.requestCompression = requestCompression;
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the maximum number of connections kept in the pool of connections shared by all
+     * the conversions. 0 means the total pool size of the endpoints, plus one connection for the
+     * health checks.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 0
+     *
+     * @param maxConnections The maximum number of connections.
+     * @return This builder instance.
+     */
+    public @NonNull Builder maxConnections(final @Nullable Integer maxConnections) {
+
+      if (maxConnections != null) {
         AssertUtils.isTrue(
-            connectTimeout >= 0,
-            String.format("connectTimeout %s must greater than or equal to 0", connectTimeout));
-        this.connectTimeout = connectTimeout;
+            maxConnections >= 0,
+            String.format("maxConnections %s must greater than or equal to 0", maxConnections));
+        this.maxConnections = maxConnections;
       }
       return this;
     }
 
     /**
-     * Specifies the socket timeout ({@code SO_TIMEOUT}) in milliseconds, which is the timeout for
-     * waiting for data or, put differently, a maximum period inactivity between two consecutive
-     * data packets. A timeout value of zero is interpreted as an infinite timeout. A negative value
-     * is interpreted as undefined (system default).
+     * Specifies the maximum number of tasks of a batch an office manager entry executes before it
+     * is returned to the pool. Larger values reduce the per-task overhead of a batch while smaller
+     * values let other submitters access the entry sooner.
      *
-     * <p>&nbsp; <b><i>Default</i></b>: 120000 (2 minutes)
+     * <p>&nbsp; <b><i>Default</i></b>: 50
      *
-     * @param socketTimeout The socket timeout, in milliseconds.
+     * @param maxBatchSize The maximum batch size.
      * @return This builder instance.
      */
-    public @NonNull Builder socketTimeout(final @Nullable Long socketTimeout) {
+    public @NonNull Builder maxBatchSize(final @Nullable Integer maxBatchSize) {
 
-      if (socketTimeout != null) {
+      if (maxBatchSize != null) {
         AssertUtils.isTrue(
-            socketTimeout >= 0,
-            String.format("socketTimeout %s must greater than or equal to 0", socketTimeout));
-        this.socketTimeout = socketTimeout;
+            maxBatchSize > 0,
+            String.format("maxBatchSize %s must be greater than 0", maxBatchSize));
+        this.maxBatchSize = maxBatchSize;
       }
       return this;
     }
+
+    /**
+     * Specifies the model used to learn the duration of the conversions executed by the manager.
+     * When the model is configured to compute adaptive timeouts, the execution timeout of a task is
+     * computed from the recorded durations of similar conversions instead of using the {@link
+     * #taskExecutionTimeout(Long)}, which is then only used until the model has enough samples.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: null (no cost model)
+     *
+     * @param costModel The cost model.
+     * @return This builder instance.
+     */
+    public @NonNull Builder costModel(final @Nullable ConversionCostModel costModel) {
+
+      this.costModel = costModel;
+      return this;
+    }
   }
 }
@@ -28,6 +28,7 @@ public class RequestConfig {
   private final String url;
   private final long connectTimeout;
   private final long socketTimeout;
+  private final boolean requestCompression;
 
   /**
    * Constructs a new configuration with the specified arguments.
@@ -43,10 +44,33 @@ public class RequestConfig {
    */
   public RequestConfig(
       final @NonNull String url, final long connectTimeout, final long socketTimeout) {
+    this(url, connectTimeout, socketTimeout, false);
+  }
+
+  /**
+   * Constructs a new configuration with the specified arguments.
+   *
+   * @param url The URL for the conversion.
+   * @param connectTimeout The timeout in milliseconds until a connection is established. A timeout
+   *     value of zero is interpreted as an infinite timeout. A negative value is interpreted as
+   *     undefined (system default).
+   * @param socketTimeout The socket timeout ({@code SO_TIMEOUT}) in milliseconds, which is the
+   *     timeout for waiting for data or, put differently, a maximum period inactivity between two
+   *     consecutive data packets. A timeout value of zero is interpreted as an infinite timeout. A
+   *     negative value is interpreted as undefined (system default).
+   * @param requestCompression Whether the body of the request can be gzip compressed when the
+   *     document compresses well.
+   */
+  public RequestConfig(
+      final @NonNull String url,
+      final long connectTimeout,
+      final long socketTimeout,
+      final boolean requestCompression) {
 
     this.url = url;
     this.connectTimeout = connectTimeout;
     this.socketTimeout = socketTimeout;
+    this.requestCompression = requestCompression;
   }
 
   /**
@@ -87,4 +111,16 @@ public class RequestConfig {
   public long getSocketTimeout() {
     return socketTimeout;
   }
+
+  /**
+   * Gets whether the body of the request can be gzip compressed. The server must then support
+   * compressed requests ({@code Content-Encoding: gzip}).
+   *
+   * <p>Default: {@code false}
+   *
+   * @return {@code true} if the request can be compressed, {@code false} otherwise.
+   */
+  public boolean isRequestCompression() {
+    return requestCompression;
+  }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.task;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.task.OfficeTask;
+import org.jodconverter.remote.office.AsyncRemoteOfficeContext;
+
+/**
+ * Represents a remote office task that can be executed without blocking a thread while waiting for
+ * the remote server, see {@link org.jodconverter.remote.office.AsyncRemoteOfficeManager}.
+ */
+public interface AsyncRemoteOfficeTask extends OfficeTask {
+
+  /**
+   * Starts the execution of the task in the specified context. This method must not block while
+   * waiting for the remote server.
+   *
+   * @param context The office context.
+   * @return A future completed when the task is done. Cancelling this future aborts the task.
+   */
+  @NonNull
+  CompletableFuture<@Nullable Void> executeAsync(@NonNull AsyncRemoteOfficeContext context);
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.task;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+import org.jodconverter.core.document.DocumentFormat;
+
+/**
+ * Decides whether a document is worth compressing before being sent to a remote server. Text based
+ * documents compress well; packages (OOXML, ODF), images and PDF are already compressed. The
+ * documents of any other format are sniffed: a sample of their first bytes is compressed to
+ * estimate how well they compress.
+ */
+final class Compressibility {
+
+  // The extensions of the text based formats, which compress well.
+  private static final Set<String> COMPRESSIBLE_EXTENSIONS =
+      new HashSet<>(
+          Arrays.asList(
+              "csv", "fodg", "fodp", "fods", "fodt", "htm", "html", "rtf", "svg", "tsv", "txt",
+              "xhtml", "xml"));
+  // The extensions of the formats that are already compressed.
+  private static final Set<String> COMPRESSED_EXTENSIONS =
+      new HashSet<>(
+          Arrays.asList(
+              "docx", "dotx", "gif", "jpeg", "jpg", "odg", "odp", "ods", "odt", "otg", "otp", "ots",
+              "ott", "pdf", "png", "potx", "pptx", "swf", "sxc", "sxi", "sxw", "vsdx", "xlsx",
+              "xltx"));
+  // The number of bytes sniffed to estimate how well a document compresses.
+  private static final int SAMPLE_SIZE = 1024;
+  // The maximum compressed size of a sample, relative to its size, for a document to be
+  // compressed.
+  private static final double MAX_COMPRESSION_RATIO = 0.8d;
+
+  /**
+   * Gets whether the specified document is worth compressing.
+   *
+   * @param format The format of the document, may be null.
+   * @param file The document file, may be null if the document is a stream; a stream is only
+   *     compressed if its format is known to compress well.
+   * @return {@code true} if the document is worth compressing, {@code false} otherwise.
+   */
+  /* default */ static boolean isCompressible(final DocumentFormat format, final File file) {
+
+    final String extension =
+        format == null ? null : format.getExtension().toLowerCase(Locale.ROOT);
+    if (extension != null && COMPRESSIBLE_EXTENSIONS.contains(extension)) {
+      return true;
+    }
+    if (file == null || extension != null && COMPRESSED_EXTENSIONS.contains(extension)) {
+      return false;
+    }
+    return sniff(file);
+  }
+
+  // Compresses the first bytes of the file to estimate how well the file compresses.
+  private static boolean sniff(final File file) {
+
+    final byte[] sample = new byte[SAMPLE_SIZE];
+    int length = 0;
+    try (InputStream in = Files.newInputStream(file.toPath())) {
+      int read;
+      while (length < sample.length
+          && (read = in.read(sample, length, sample.length - length)) > 0) {
+        length += read;
+      }
+    } catch (IOException ex) {
+      return false;
+    }
+    if (length == 0) {
+      return false;
+    }
+
+    final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(sample, 0, length);
+      deflater.finish();
+      final byte[] buffer = new byte[SAMPLE_SIZE * 2];
+      int compressedLength = 0;
+      while (!deflater.finished()) {
+        compressedLength += deflater.deflate(buffer);
+      }
+      return compressedLength <= length * MAX_COMPRESSION_RATIO;
+    } finally {
+      deflater.end();
+    }
+  }
+
+  // Suppresses default constructor, ensuring non-instantiability.
+  private Compressibility() {
+    throw new AssertionError("Utility class must not be instantiated");
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.task;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.FileContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Produces a {@code multipart/form-data} POST request holding a single file part, without blocking.
+ * The file is streamed from disk, using zero-copy transfers when the connection supports them, so
+ * it is never loaded in memory.
+ */
+final class MultipartAsyncRequestProducer implements HttpAsyncRequestProducer {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final URI uri;
+  private final File file;
+  private final long fileLength;
+  private final long connectTimeout;
+  private final long socketTimeout;
+  private final String boundary;
+  private final byte[] head;
+  private final byte[] tail;
+  private ByteBuffer headBuffer;
+  private ByteBuffer fileBuffer;
+  private ByteBuffer tailBuffer;
+  private FileChannel channel;
+  private long position;
+
+  /**
+   * Creates a new producer.
+   *
+   * @param uri The URI the request is sent to.
+   * @param partName The name of the file part.
+   * @param file The file to send.
+   * @param connectTimeout The connect timeout of the request, in milliseconds.
+   * @param socketTimeout The socket timeout of the request, in milliseconds.
+   */
+  /* default */ MultipartAsyncRequestProducer(
+      final URI uri,
+      final String partName,
+      final File file,
+      final long connectTimeout,
+      final long socketTimeout) {
+
+    this.uri = uri;
+    this.file = file;
+    this.fileLength = file.length();
+    this.connectTimeout = connectTimeout;
+    this.socketTimeout = socketTimeout;
+    this.boundary = UUID.randomUUID().toString().replace("-", "");
+    this.head =
+        ("--"
+                + boundary
+                + "\r\nContent-Disposition: form-data; name=\""
+                + partName
+                + "\"; filename=\""
+                + file.getName()
+                + "\"\r\nContent-Type: application/octet-stream\r\n\r\n")
+            .getBytes(StandardCharsets.UTF_8);
+    this.tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+    resetBuffers();
+  }
+
+  private void resetBuffers() {
+
+    headBuffer = ByteBuffer.wrap(head);
+    tailBuffer = ByteBuffer.wrap(tail);
+    fileBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+    fileBuffer.flip();
+    position = 0L;
+  }
+
+  @Override
+  public HttpHost getTarget() {
+    return URIUtils.extractHost(uri);
+  }
+
+  @Override
+  public HttpRequest generateRequest() {
+
+    // The entity only describes the content, which is produced by produceContent.
+    final BasicHttpEntity entity = new BasicHttpEntity();
+    entity.setContentLength(head.length + fileLength + tail.length);
+    entity.setContentType("multipart/form-data; boundary=" + boundary);
+
+    final HttpPost request = new HttpPost(uri);
+    request.setEntity(entity);
+    request.setConfig(
+        RequestConfig.custom()
+            .setConnectTimeout(Math.toIntExact(connectTimeout))
+            .setSocketTimeout(Math.toIntExact(socketTimeout))
+            .build());
+    return request;
+  }
+
+  @Override
+  public void produceContent(final ContentEncoder encoder, final IOControl ioControl)
+      throws IOException {
+
+    // Each step returns when the encoder cannot accept more data; this method is then called
+    // again once the connection is writable.
+    if (headBuffer.hasRemaining()) {
+      encoder.write(headBuffer);
+      if (headBuffer.hasRemaining()) {
+        return;
+      }
+    }
+    if (!produceFile(encoder)) {
+      return;
+    }
+    encoder.write(tailBuffer);
+    if (!tailBuffer.hasRemaining()) {
+      encoder.complete();
+      closeChannel();
+    }
+  }
+
+  private boolean produceFile(final ContentEncoder encoder) throws IOException {
+
+    if (channel == null) {
+      channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    }
+
+    while (position < fileLength) {
+      final long written;
+      if (encoder instanceof FileContentEncoder) {
+        written =
+            ((FileContentEncoder) encoder).transfer(channel, position, fileLength - position);
+      } else {
+        if (!fileBuffer.hasRemaining()) {
+          fileBuffer.clear();
+          if (channel.read(fileBuffer, position) < 0) {
+            throw new IOException("Unexpected end of file: " + file);
+          }
+          fileBuffer.flip();
+        }
+        written = encoder.write(fileBuffer);
+      }
+      if (written <= 0) {
+        return false;
+      }
+      position += written;
+    }
+    return true;
+  }
+
+  @Override
+  public void requestCompleted(final HttpContext context) {
+    closeChannel();
+  }
+
+  @Override
+  public void failed(final Exception ex) {
+    closeChannel();
+  }
+
+  @Override
+  public boolean isRepeatable() {
+    return true;
+  }
+
+  @Override
+  public void resetRequest() {
+
+    closeChannel();
+    resetBuffers();
+  }
+
+  @Override
+  public void close() {
+    closeChannel();
+  }
+
+  private void closeChannel() {
+
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException ignored) {
+        // Nothing we can do here.
+      }
+      channel = null;
+    }
+  }
+}
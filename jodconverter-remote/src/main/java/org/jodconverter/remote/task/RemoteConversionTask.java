@@ -21,32 +21,65 @@
 package org.jodconverter.remote.task;
 
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.entity.GzipCompressingEntity;
 import org.apache.http.client.fluent.Executor;
 import org.apache.http.client.fluent.Request;
+import org.apache.http.client.fluent.Response;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.ByteArrayBody;
+import org.apache.http.entity.mime.content.ContentBody;
 import org.apache.http.entity.mime.content.FileBody;
+import org.apache.http.entity.mime.content.InputStreamBody;
+import org.apache.http.nio.client.methods.ZeroCopyConsumer;
+import org.apache.http.util.EntityUtils;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.jodconverter.core.document.DocumentFormat;
 import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.job.SourceDocumentSpecsFromBytes;
 import org.jodconverter.core.job.TargetDocumentSpecs;
 import org.jodconverter.core.office.OfficeContext;
 import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.task.ConversionTask;
+import org.jodconverter.core.util.FileUtils;
 import org.jodconverter.core.util.StringUtils;
+import org.jodconverter.remote.office.AsyncRemoteOfficeContext;
 import org.jodconverter.remote.office.RemoteOfficeContext;
 import org.jodconverter.remote.office.RequestConfig;
 
 /** Represents the default behavior for a remote conversion task. */
-public class RemoteConversionTask extends AbstractRemoteOfficeTask {
+public class RemoteConversionTask extends AbstractRemoteOfficeTask
+    implements ConversionTask, AsyncRemoteOfficeTask {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(RemoteConversionTask.class);
   private static final String FILTER_DATA = "FilterData";
@@ -95,84 +128,256 @@ public class RemoteConversionTask extends AbstractRemoteOfficeTask {
     }
   }
 
+  @Override
+  public @NonNull TargetDocumentSpecs getTarget() {
+    return target;
+  }
+
   @Override
   public void execute(final @NonNull OfficeContext context) throws OfficeException {
 
     LOGGER.info("Executing remote conversion task...");
     final RemoteOfficeContext remoteContext = (RemoteOfficeContext) context;
 
-    // Obtain a source file that can be loaded by office. If the source
-    // is an input stream, then a temporary file will be created from the
-    // stream. The temporary file will be deleted once the task is done.
-    final File sourceFile = source.getFile();
+    // Stream the source directly to the server when possible. Otherwise, obtain a source
+    // file; if the source is an input stream, then a temporary file will be created from
+    // the stream. The temporary file will be deleted once the task is done.
+    final InputStream sourceStream = source.getInputStream();
+    final File sourceFile = sourceStream == null ? source.getFile() : null;
     try {
 
-      // Get the target file (which is a temporary file if the
-      // output target is an output stream).
-      final File targetFile = target.getFile();
+      // Stream the response directly to the target when possible. Otherwise, get the
+      // target file (which is a temporary file if the output target is an output stream).
+      final OutputStream targetStream = target.getOutputStream();
+      final File targetFile = targetStream == null ? target.getFile() : null;
 
       try {
         // TODO: Add the ability to pass on a custom charset to FileBody
 
+        // A document held in memory is sent as is, so it can be sent again. Any other stream
+        // has no known length, so it is sent using chunked transfer encoding.
+        final ReadTrackingInputStream trackedSource;
+        final ContentBody sourceBody;
+        if (sourceStream == null) {
+          trackedSource = null;
+          sourceBody = new FileBody(sourceFile);
+        } else if (source instanceof SourceDocumentSpecsFromBytes) {
+          trackedSource = null;
+          sourceBody =
+              new ByteArrayBody(
+                  ((SourceDocumentSpecsFromBytes) source).toByteArray(),
+                  ContentType.DEFAULT_BINARY,
+                  getSourceFilename());
+        } else {
+          trackedSource = new ReadTrackingInputStream(sourceStream);
+          sourceBody =
+              new InputStreamBody(trackedSource, ContentType.DEFAULT_BINARY, getSourceFilename());
+        }
+        final WriteTrackingOutputStream trackedTarget =
+            targetStream == null ? null : new WriteTrackingOutputStream(targetStream);
+
         // See https://github.com/LibreOffice/online/blob/master/wsd/reference.txt
-        final HttpEntity entity =
+        final HttpEntity multipartEntity =
             MultipartEntityBuilder.create()
                 .setLaxMode()
                 .setCharset(StandardCharsets.UTF_8)
-                .addPart("data", new FileBody(sourceFile))
+                .addPart("data", sourceBody)
                 .build();
 
-        // Use the fluent API to post the file and save the response into the target file.
-        final RequestConfig requestConfig = remoteContext.getRequestConfig();
-        final URIBuilder uriBuilder = new URIBuilder(buildUrl(requestConfig.getUrl()));
-
-        // We suppose that the server supports custom load properties, but LibreOffice Online
-        // does not support custom load properties, only the sample web service do.
-        addPropertiesToBuilder(
-            uriBuilder,
-            LOAD_PROPERTIES_PREFIX_PARAM,
-            Objects.requireNonNull(target.getFormat()).getLoadProperties());
-
-        // We suppose that the server supports custom store properties, but LibreOffice Online
-        // does not support custom store properties, only the sample web service do.
-        Optional.ofNullable(source.getFormat())
-            .map(DocumentFormat::getInputFamily)
-            .ifPresent(
-                family ->
-                    addPropertiesToBuilder(
-                        uriBuilder,
-                        STORE_PROPERTIES_PREFIX_PARAM,
-                        target.getFormat().getStoreProperties(family)));
+        // Compress the document on the fly if it compresses well. The response is decompressed
+        // transparently by the client, which accepts gzip and deflate encoded responses.
+        RequestConfig requestConfig = remoteContext.getRequestConfig();
+        final HttpEntity entity =
+            requestConfig.isRequestCompression()
+                    && Compressibility.isCompressible(source.getFormat(), sourceFile)
+                ? new GzipCompressingEntity(multipartEntity)
+                : multipartEntity;
 
+        // Use the fluent API to post the document and save the response into the target.
+        // The request is retried on another server as long as the context provides one. A
+        // stream can neither be read again nor rewound, so the request is not retried once a
+        // byte has been read from the source stream or written to the target stream.
+        while (true) {
+          try {
+            post(remoteContext, requestConfig, entity, targetFile, trackedTarget);
+            break;
+          } catch (IOException ex) {
+            final boolean retryable =
+                (trackedSource == null || !trackedSource.read)
+                    && (trackedTarget == null || !trackedTarget.written);
+            final RequestConfig failoverConfig =
+                retryable && isRetryable(ex)
+                    ? remoteContext.getFailoverRequestConfig(requestConfig)
+                    : null;
+            if (failoverConfig == null) {
+              throw ex;
+            }
+            LOGGER.warn("Remote conversion failed; retrying on another server.", ex);
+            requestConfig = failoverConfig;
+          }
+        }
+
+        if (targetStream == null) {
+          // onComplete on target will copy the temp file to
+          // the OutputStream and then delete the temp file
+          // if the output is an OutputStream
+          target.onComplete(targetFile);
+        } else {
+          target.onStreamComplete();
+        }
+
+      } catch (Exception ex) {
+        LOGGER.error("Remote conversion failed.", ex);
+        final OfficeException officeEx = new OfficeException("Remote conversion failed", ex);
+        if (targetStream == null) {
+          target.onFailure(targetFile, officeEx);
+        } else {
+          target.onStreamFailure(officeEx);
+        }
+        throw officeEx;
+      }
+
+    } finally {
+
+      // Here the source is no longer required, so we can delete
+      // any temporary file that has been created if required.
+      if (sourceStream == null) {
+        source.onConsumed(sourceFile);
+      } else {
+        source.onStreamConsumed();
+      }
+    }
+  }
+
+  private String getSourceFilename() {
+
+    // The server may rely on the file extension to detect the format of the document.
+    return Optional.ofNullable(source.getFormat())
+        .map(format -> "document." + format.getExtension())
+        .orElse("document");
+  }
+
+  // Only I/O and server errors are worth retrying on another server.
+  private boolean isRetryable(final IOException ex) {
+    return !(ex instanceof HttpResponseException)
+        || ((HttpResponseException) ex).getStatusCode() >= 500;
+  }
+
+  private void post(
+      final RemoteOfficeContext remoteContext,
+      final RequestConfig requestConfig,
+      final HttpEntity entity,
+      final File targetFile,
+      final OutputStream targetStream)
+      throws IOException, URISyntaxException {
+
+    final Response response =
         Executor.newInstance(remoteContext.getHttpClient())
             .execute(
-                // Request.Post(buildUrl(requestConfig.getUrl()))
-                Request.Post(uriBuilder.build())
+                Request.Post(buildUri(requestConfig))
                     .connectTimeout(Math.toIntExact(requestConfig.getConnectTimeout()))
                     .socketTimeout(Math.toIntExact(requestConfig.getSocketTimeout()))
-                    .body(entity))
-            .saveContent(targetFile);
+                    .body(entity));
+    if (targetStream == null) {
+      response.saveContent(targetFile);
+      return;
+    }
+
+    // Pipe the response to the target stream.
+    response.handleResponse(
+        httpResponse -> {
+          final StatusLine status = httpResponse.getStatusLine();
+          final HttpEntity responseEntity = httpResponse.getEntity();
+          if (status.getStatusCode() >= 300) {
+            EntityUtils.consume(responseEntity);
+            throw new HttpResponseException(status.getStatusCode(), status.getReasonPhrase());
+          }
+          if (responseEntity != null) {
+            responseEntity.writeTo(targetStream);
+          }
+          return null;
+        });
+  }
 
-        // onComplete on target will copy the temp file to
-        // the OutputStream and then delete the temp file
-        // if the output is an OutputStream
-        target.onComplete(targetFile);
+  @Override
+  public @NonNull CompletableFuture<@Nullable Void> executeAsync(
+      final @NonNull AsyncRemoteOfficeContext context) {
 
-      } catch (Exception ex) {
-        LOGGER.error("Remote conversion failed.", ex);
-        final OfficeException officeEx = new OfficeException("Remote conversion failed", ex);
+    LOGGER.info("Executing asynchronous remote conversion task...");
+    final CompletableFuture<Void> result = new CompletableFuture<>();
+
+    File sourceFile = null;
+    File targetFile = null;
+    try {
+      sourceFile = source.getFile();
+      targetFile = target.getFile();
+      new AsyncConversion(context, result, sourceFile, targetFile).start();
+    } catch (Exception ex) {
+      complete(result, sourceFile, targetFile, ex);
+    }
+    return result;
+  }
+
+  private void complete(
+      final CompletableFuture<Void> result,
+      final File sourceFile,
+      final File targetFile,
+      final Exception failure) {
+
+    try {
+      if (failure != null) {
+        throw failure;
+      }
+
+      // onComplete on target will copy the temp file to
+      // the OutputStream and then delete the temp file
+      // if the output is an OutputStream
+      target.onComplete(targetFile);
+      result.complete(null);
+
+    } catch (Exception ex) {
+      LOGGER.error("Remote conversion failed.", ex);
+      final OfficeException officeEx = new OfficeException("Remote conversion failed", ex);
+      if (targetFile != null) {
         target.onFailure(targetFile, officeEx);
-        throw officeEx;
       }
+      result.completeExceptionally(officeEx);
 
     } finally {
 
       // Here the source file is no longer required, so we can delete
       // any temporary file that has been created if required.
-      source.onConsumed(sourceFile);
+      if (sourceFile != null) {
+        source.onConsumed(sourceFile);
+      }
     }
   }
 
+  private URI buildUri(final RequestConfig requestConfig) throws URISyntaxException {
+
+    final URIBuilder uriBuilder = new URIBuilder(buildUrl(requestConfig.getUrl()));
+
+    // We suppose that the server supports custom load properties, but LibreOffice Online
+    // does not support custom load properties, only the sample web service do.
+    addPropertiesToBuilder(
+        uriBuilder,
+        LOAD_PROPERTIES_PREFIX_PARAM,
+        Objects.requireNonNull(target.getFormat()).getLoadProperties());
+
+    // We suppose that the server supports custom store properties, but LibreOffice Online
+    // does not support custom store properties, only the sample web service do.
+    Optional.ofNullable(source.getFormat())
+        .map(DocumentFormat::getInputFamily)
+        .ifPresent(
+            family ->
+                addPropertiesToBuilder(
+                    uriBuilder,
+                    STORE_PROPERTIES_PREFIX_PARAM,
+                    target.getFormat().getStoreProperties(family)));
+
+    return uriBuilder.build();
+  }
+
   private String buildUrl(final String connectionUrl) {
 
     // an example URL is like:
@@ -182,6 +387,265 @@ public class RemoteConversionTask extends AbstractRemoteOfficeTask {
         + Objects.requireNonNull(target.getFormat()).getExtension();
   }
 
+  /** Writes a successful response to a file, without copying it through the Java heap. */
+  private static final class TargetFileConsumer extends ZeroCopyConsumer<File> {
+
+    private TargetFileConsumer(final File file) throws FileNotFoundException {
+      super(file);
+    }
+
+    @Override
+    protected File process(final HttpResponse response, final File file, final ContentType type)
+        throws HttpResponseException {
+
+      final StatusLine status = response.getStatusLine();
+      if (status.getStatusCode() >= 300) {
+        throw new HttpResponseException(status.getStatusCode(), status.getReasonPhrase());
+      }
+      return file;
+    }
+  }
+
+  /**
+   * A conversion sent to the server without blocking. The source file is streamed to the server and
+   * the response is streamed to the target file by the I/O threads of the client; no thread waits
+   * for the server meanwhile.
+   *
+   * <p>If the context asks for it, the request is hedged: a duplicate request, writing to its own
+   * file, is sent to another server and the first successful response wins, the other request
+   * being cancelled.
+   */
+  private final class AsyncConversion {
+
+    private final AsyncRemoteOfficeContext context;
+    private final CompletableFuture<Void> result;
+    private final File sourceFile;
+    private final File targetFile;
+    private final File hedgeFile;
+    private final List<Future<File>> requests = new ArrayList<>();
+    private Future<?> hedgeTimer;
+    private int pendingRequests;
+    private boolean hedged;
+    private boolean done;
+    private Boolean hedgeWon;
+    private Exception failure;
+
+    private AsyncConversion(
+        final AsyncRemoteOfficeContext context,
+        final CompletableFuture<Void> result,
+        final File sourceFile,
+        final File targetFile) {
+
+      this.context = context;
+      this.result = result;
+      this.sourceFile = sourceFile;
+      this.targetFile = targetFile;
+      this.hedgeFile = new File(targetFile.getPath() + ".hedge");
+    }
+
+    private void start() {
+
+      synchronized (this) {
+        pendingRequests++;
+      }
+      send(context.getRequestConfig(), targetFile, false);
+      final Future<?> timer = context.scheduleHedge(this::hedge);
+      synchronized (this) {
+        hedgeTimer = timer;
+        if (done && timer != null) {
+          timer.cancel(false);
+        }
+      }
+
+      // Cancelling the task aborts the requests.
+      result.whenComplete(
+          (unused, ex) -> {
+            if (result.isCancelled()) {
+              cancelRequests();
+            }
+          });
+    }
+
+    private void hedge() {
+
+      final RequestConfig hedgeConfig;
+      synchronized (this) {
+        if (done || hedgeWon != null) {
+          return;
+        }
+        hedgeConfig = context.getHedgeRequestConfig();
+        if (hedgeConfig == null) {
+          return;
+        }
+        hedged = true;
+
+        // The hedge request is pending as soon as its endpoint is reserved, so that the
+        // conversion cannot complete before the hedge request is done.
+        pendingRequests++;
+      }
+      LOGGER.debug("Remote conversion is slow; hedging it on {}", hedgeConfig.getUrl());
+      send(hedgeConfig, hedgeFile, true);
+    }
+
+    // Sends a request, which must already be counted in the pending requests.
+    private void send(final RequestConfig requestConfig, final File file, final boolean hedge) {
+
+      try {
+        final Future<File> request =
+            context
+                .getHttpAsyncClient()
+                .execute(
+                    new MultipartAsyncRequestProducer(
+                        buildUri(requestConfig),
+                        "data",
+                        sourceFile,
+                        requestConfig.getConnectTimeout(),
+                        requestConfig.getSocketTimeout()),
+                    new TargetFileConsumer(file),
+                    new FutureCallback<File>() {
+                      @Override
+                      public void completed(final File responseFile) {
+                        context.getExecutor().execute(() -> onRequestDone(hedge, null));
+                      }
+
+                      @Override
+                      public void failed(final Exception ex) {
+                        context.getExecutor().execute(() -> onRequestDone(hedge, ex));
+                      }
+
+                      @Override
+                      public void cancelled() {
+                        context
+                            .getExecutor()
+                            .execute(
+                                () ->
+                                    onRequestDone(
+                                        hedge, new CancellationException("Request cancelled")));
+                      }
+                    });
+        synchronized (this) {
+          requests.add(request);
+          if (hedgeWon != null || result.isCancelled()) {
+            request.cancel(true);
+          }
+        }
+      } catch (Exception ex) {
+        onRequestDone(hedge, ex);
+      }
+    }
+
+    private synchronized void cancelRequests() {
+
+      requests.forEach(request -> request.cancel(true));
+      if (hedgeTimer != null) {
+        hedgeTimer.cancel(false);
+      }
+    }
+
+    private void onRequestDone(final boolean hedge, final Exception ex) {
+
+      synchronized (this) {
+        pendingRequests--;
+        if (ex == null && hedgeWon == null) {
+          // The first successful response wins; the other request is no longer required.
+          hedgeWon = hedge;
+          cancelRequests();
+        } else if (ex != null && failure == null) {
+          failure = ex;
+        }
+        if (pendingRequests > 0) {
+          return;
+        }
+        done = true;
+        if (hedgeTimer != null) {
+          hedgeTimer.cancel(false);
+        }
+      }
+
+      // All the requests are done: keep the winning response, if any.
+      Exception outcome = hedgeWon == null ? failure : null;
+      if (Boolean.TRUE.equals(hedgeWon)) {
+        try {
+          Files.move(hedgeFile.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException moveEx) {
+          outcome = moveEx;
+        }
+      } else if (hedged) {
+        FileUtils.deleteQuietly(hedgeFile);
+      }
+      if (hedged) {
+        context.onHedgeCompleted(Boolean.TRUE.equals(hedgeWon));
+      }
+      complete(result, sourceFile, targetFile, outcome);
+    }
+  }
+
+  /** Tells whether a byte has been read from the underlying input stream. */
+  private static final class ReadTrackingInputStream extends FilterInputStream {
+
+    private volatile boolean read;
+
+    private ReadTrackingInputStream(final InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+
+      final int result = super.read();
+      if (result >= 0) {
+        read = true;
+      }
+      return result;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+
+      final int count = super.read(b, off, len);
+      if (count > 0) {
+        read = true;
+      }
+      return count;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+
+      final long count = super.skip(n);
+      if (count > 0) {
+        read = true;
+      }
+      return count;
+    }
+  }
+
+  /** Tells whether a byte has been written to the underlying output stream. */
+  private static final class WriteTrackingOutputStream extends FilterOutputStream {
+
+    private volatile boolean written;
+
+    private WriteTrackingOutputStream(final OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+
+      written = true;
+      out.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+
+      if (len > 0) {
+        written = true;
+      }
+      out.write(b, off, len);
+    }
+  }
+
   @Override
   public @NonNull String toString() {
     return getClass().getSimpleName() + "{" + "source=" + source + ", target=" + target + '}';
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.jodconverter.core.office.AbstractOfficeManagerPool.DEFAULT_TASK_EXECUTION_TIMEOUT;
+import static org.jodconverter.core.office.AbstractOfficeManagerPool.DEFAULT_TASK_QUEUE_TIMEOUT;
+import static org.jodconverter.remote.office.AsyncRemoteOfficeManager.DEFAULT_HEDGING_PERCENTILE;
+import static org.jodconverter.remote.office.AsyncRemoteOfficeManager.DEFAULT_IO_THREAD_COUNT;
+import static org.jodconverter.remote.office.AsyncRemoteOfficeManager.DEFAULT_MAX_HEDGE_RATIO;
+import static org.jodconverter.remote.office.AsyncRemoteOfficeManager.DEFAULT_MAX_PENDING_TASKS;
+import static org.jodconverter.remote.office.AsyncRemoteOfficeManager.DEFAULT_POOL_SIZE;
+import static org.jodconverter.remote.office.RemoteOfficeManager.DEFAULT_CONNECT_TIMEOUT;
+import static org.jodconverter.remote.office.RemoteOfficeManager.DEFAULT_SOCKET_TIMEOUT;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.remote.task.AsyncRemoteOfficeTask;
+
+/** Contains tests for the {@link AsyncRemoteOfficeManager} class. */
+class AsyncRemoteOfficeManagerTest {
+
+  @Nested
+  class Make {
+
+    @Test
+    void shouldInitializedManagerWithDefaultValues() {
+
+      final AsyncRemoteOfficeManager manager = AsyncRemoteOfficeManager.make("localhost");
+
+      assertThat(manager.isRunning()).isFalse();
+      assertThat(manager)
+          .extracting(
+              "ioThreadCount",
+              "maxPendingTasks",
+              "connectTimeout",
+              "socketTimeout",
+              "taskExecutionTimeout",
+              "taskQueueTimeout",
+              "hedgingPercentile",
+              "maxHedgeRatio")
+          .containsExactly(
+              DEFAULT_IO_THREAD_COUNT,
+              DEFAULT_MAX_PENDING_TASKS,
+              DEFAULT_CONNECT_TIMEOUT,
+              DEFAULT_SOCKET_TIMEOUT,
+              DEFAULT_TASK_EXECUTION_TIMEOUT,
+              DEFAULT_TASK_QUEUE_TIMEOUT,
+              DEFAULT_HEDGING_PERCENTILE,
+              DEFAULT_MAX_HEDGE_RATIO);
+      assertThat(manager.getEndpoints())
+          .extracting(RemoteEndpoint::getUrl, RemoteEndpoint::getPoolSize)
+          .containsExactly(tuple("localhost", DEFAULT_POOL_SIZE));
+    }
+  }
+
+  @Nested
+  class Build {
+
+    @Test
+    void withCustomValues_ShouldInitializedManagerWithCustomValues() {
+
+      final AsyncRemoteOfficeManager manager =
+          AsyncRemoteOfficeManager.builder()
+              .urlConnection("http://server1")
+              .poolSize(200)
+              .endpoint("http://server2", 300)
+              .ioThreadCount(4)
+              .maxPendingTasks(1000)
+              .connectTimeout(502L)
+              .socketTimeout(503L)
+              .taskExecutionTimeout(504L)
+              .taskQueueTimeout(505L)
+              .hedgingPercentile(0.95d)
+              .maxHedgeRatio(0.2d)
+              .build();
+
+      assertThat(manager)
+          .extracting(
+              "ioThreadCount",
+              "maxPendingTasks",
+              "connectTimeout",
+              "socketTimeout",
+              "taskExecutionTimeout",
+              "taskQueueTimeout",
+              "hedgingPercentile",
+              "maxHedgeRatio")
+          .containsExactly(4, 1000, 502L, 503L, 504L, 505L, 0.95d, 0.2d);
+      assertThat(manager.getEndpoints())
+          .extracting(RemoteEndpoint::getUrl, RemoteEndpoint::getPoolSize)
+          .containsExactly(tuple("http://server1", 200), tuple("http://server2", 300));
+    }
+
+    @Test
+    void withoutUrlConnection_ShouldThrowIllegalArgumentException() {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(() -> AsyncRemoteOfficeManager.builder().build());
+    }
+
+    @Test
+    void withInvalidIoThreadCount_ShouldThrowIllegalArgumentException() {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(() -> AsyncRemoteOfficeManager.builder().ioThreadCount(0));
+    }
+
+    @Test
+    void withInvalidHedgingPercentile_ShouldThrowIllegalArgumentException() {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(() -> AsyncRemoteOfficeManager.builder().hedgingPercentile(1.0d));
+    }
+
+    @Test
+    void withInvalidMaxHedgeRatio_ShouldThrowIllegalArgumentException() {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(() -> AsyncRemoteOfficeManager.builder().maxHedgeRatio(1.5d));
+    }
+  }
+
+  @Nested
+  class ExecuteAsync {
+
+    @Test
+    void whenNotRunning_ShouldCompleteExceptionally() {
+
+      final AsyncRemoteOfficeManager manager = AsyncRemoteOfficeManager.make("localhost");
+
+      assertThatExceptionOfType(ExecutionException.class)
+          .isThrownBy(() -> manager.executeAsync(mock(AsyncRemoteOfficeTask.class)).get())
+          .withCauseExactlyInstanceOf(OfficeException.class);
+    }
+
+    @Test
+    void whenNoEndpointAvailable_ShouldFailOnceQueueTimeoutExpires() throws OfficeException {
+
+      final AsyncRemoteOfficeManager manager =
+          AsyncRemoteOfficeManager.builder()
+              .urlConnection("http://localhost:9980")
+              .poolSize(1)
+              .taskQueueTimeout(100L)
+              .build();
+      final AsyncRemoteOfficeTask task = mock(AsyncRemoteOfficeTask.class);
+      given(task.executeAsync(any())).willReturn(new CompletableFuture<>());
+
+      manager.start();
+      try {
+        manager.executeAsync(task);
+        final CompletableFuture<Void> future = manager.executeAsync(task);
+
+        // No other task completes, so the queued task only fails because of its timeout.
+        assertThatExceptionOfType(ExecutionException.class)
+            .isThrownBy(() -> future.get(5L, TimeUnit.SECONDS))
+            .withCauseExactlyInstanceOf(OfficeException.class);
+        assertThat(manager.getPendingTaskCount()).isZero();
+      } finally {
+        manager.stop();
+      }
+    }
+
+    @Test
+    void whenTaskTooLong_ShouldFailOnceExecutionTimeoutExpires() throws OfficeException {
+
+      final AsyncRemoteOfficeManager manager =
+          AsyncRemoteOfficeManager.builder()
+              .urlConnection("http://localhost:9980")
+              .taskExecutionTimeout(100L)
+              .build();
+      final CompletableFuture<Void> request = new CompletableFuture<>();
+      final AsyncRemoteOfficeTask task = mock(AsyncRemoteOfficeTask.class);
+      given(task.executeAsync(any())).willReturn(request);
+
+      manager.start();
+      try {
+        final CompletableFuture<Void> future = manager.executeAsync(task);
+
+        assertThatExceptionOfType(ExecutionException.class)
+            .isThrownBy(() -> future.get(5L, TimeUnit.SECONDS))
+            .withCauseExactlyInstanceOf(OfficeException.class);
+        assertThat(request).isCancelled();
+      } finally {
+        manager.stop();
+      }
+    }
+  }
+
+  @Nested
+  class Stop {
+
+    @Test
+    void whenTaskInFlight_ShouldFailTaskAndReleaseEndpoint() throws OfficeException {
+
+      final AsyncRemoteOfficeManager manager =
+          AsyncRemoteOfficeManager.make("http://localhost:9980");
+      final CompletableFuture<Void> request = new CompletableFuture<>();
+      final AsyncRemoteOfficeTask task = mock(AsyncRemoteOfficeTask.class);
+      given(task.executeAsync(any())).willReturn(request);
+
+      manager.start();
+      final CompletableFuture<Void> future = manager.executeAsync(task);
+      manager.stop();
+
+      assertThatExceptionOfType(ExecutionException.class)
+          .isThrownBy(future::get)
+          .withCauseExactlyInstanceOf(OfficeException.class);
+
+      // The request completing after the manager is stopped releases its endpoint.
+      request.complete(null);
+      final RemoteEndpointSelector selector =
+          (RemoteEndpointSelector) ReflectionTestUtils.getField(manager, "endpointSelector");
+      assertThat(selector.getEndpoints().get(0).getOutstandingRequests()).isZero();
+    }
+  }
+}
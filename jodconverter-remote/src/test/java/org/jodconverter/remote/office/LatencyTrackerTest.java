@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/** Contains tests for the {@link LatencyTracker} class. */
+class LatencyTrackerTest {
+
+  @Nested
+  class GetPercentile {
+
+    @Test
+    void withNotEnoughSamples_ShouldReturnMinusOne() {
+
+      final LatencyTracker tracker = new LatencyTracker(10, 3);
+      tracker.record(100L);
+      tracker.record(200L);
+
+      assertThat(tracker.getPercentile(0.5d)).isEqualTo(-1L);
+    }
+
+    @Test
+    void withEnoughSamples_ShouldReturnPercentile() {
+
+      final LatencyTracker tracker = new LatencyTracker(100, 10);
+      for (long latency = 100L; latency > 0L; latency--) {
+        tracker.record(latency);
+      }
+
+      assertThat(tracker.getPercentile(0.5d)).isEqualTo(50L);
+      assertThat(tracker.getPercentile(0.95d)).isEqualTo(95L);
+      assertThat(tracker.getPercentile(1.0d)).isEqualTo(100L);
+    }
+
+    @Test
+    void whenFull_ShouldOnlyKeepMostRecentSamples() {
+
+      final LatencyTracker tracker = new LatencyTracker(3, 1);
+      tracker.record(1000L);
+      tracker.record(1L);
+      tracker.record(2L);
+      tracker.record(3L);
+
+      assertThat(tracker.getPercentile(1.0d)).isEqualTo(3L);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/** Contains tests for the {@link RemoteCapabilities} class. */
+class RemoteCapabilitiesTest {
+
+  @Nested
+  class Supports {
+
+    @Test
+    void withUnknownExtensions_ShouldSupportAnyDocument() {
+
+      final RemoteCapabilities capabilities =
+          new RemoteCapabilities(true, null, null, Collections.emptySet());
+
+      assertThat(capabilities.supports("doc")).isTrue();
+      assertThat(capabilities.supports(null)).isTrue();
+    }
+
+    @Test
+    void withKnownExtensions_ShouldOnlySupportListedDocuments() {
+
+      final RemoteCapabilities capabilities =
+          new RemoteCapabilities(true, null, null, new HashSet<>(Arrays.asList("odt", "docx")));
+
+      assertThat(capabilities.supports("ODT")).isTrue();
+      assertThat(capabilities.supports("doc")).isFalse();
+      assertThat(capabilities.supports(null)).isTrue();
+    }
+
+    @Test
+    void whenConvertNotAvailable_ShouldSupportNoDocument() {
+
+      final RemoteCapabilities capabilities =
+          new RemoteCapabilities(false, null, null, Collections.emptySet());
+
+      assertThat(capabilities.supports("odt")).isFalse();
+      assertThat(capabilities.supports(null)).isFalse();
+    }
+  }
+}
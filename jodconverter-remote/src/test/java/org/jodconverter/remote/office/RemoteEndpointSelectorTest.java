@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/** Contains tests for the {@link RemoteEndpointSelector} class. */
+class RemoteEndpointSelectorTest {
+
+  private static RemoteEndpointSelector selector(final LoadBalancingStrategy strategy) {
+    return new RemoteEndpointSelector(
+        Arrays.asList(
+            new RemoteEndpoint("http://server1", 1), new RemoteEndpoint("http://server2", 2)),
+        strategy);
+  }
+
+  @Nested
+  class Select {
+
+    @Test
+    void withLeastOutstandingRequests_ShouldChooseLeastLoadedEndpoint() {
+
+      final RemoteEndpointSelector selector =
+          selector(LoadBalancingStrategy.LEAST_OUTSTANDING_REQUESTS);
+
+      final RemoteEndpointSelector.EndpointState first = selector.select(Collections.emptyList());
+      final RemoteEndpointSelector.EndpointState second = selector.select(Collections.emptyList());
+      final RemoteEndpointSelector.EndpointState third = selector.select(Collections.emptyList());
+
+      assertThat(first.getEndpoint().getUrl()).isEqualTo("http://server1");
+      assertThat(second.getEndpoint().getUrl()).isEqualTo("http://server2");
+      // server1 is full (1/1) while server2 is half full (1/2).
+      assertThat(third.getEndpoint().getUrl()).isEqualTo("http://server2");
+      assertThat(third.getOutstandingRequests()).isEqualTo(2);
+
+      selector.release(first, 10L, true);
+      assertThat(first.getOutstandingRequests()).isZero();
+    }
+
+    @Test
+    void withLatencyWeighted_ShouldChooseFastestEndpoint() {
+
+      final RemoteEndpointSelector selector = selector(LoadBalancingStrategy.LATENCY_WEIGHTED);
+      final RemoteEndpointSelector.EndpointState server1 = selector.getEndpoints().get(0);
+      final RemoteEndpointSelector.EndpointState server2 = selector.getEndpoints().get(1);
+
+      selector.release(selector.select(Collections.singletonList(server2)), 10L, true);
+      selector.release(selector.select(Collections.singletonList(server1)), 1_000L, true);
+
+      assertThat(server1.getAverageLatency()).isEqualTo(10.0d);
+      assertThat(server2.getAverageLatency()).isEqualTo(1_000.0d);
+      assertThat(selector.select(Collections.emptyList())).isSameAs(server1);
+    }
+
+    @Test
+    void whenAllEndpointsExcluded_ShouldReturnNull() {
+
+      final RemoteEndpointSelector selector =
+          selector(LoadBalancingStrategy.LEAST_OUTSTANDING_REQUESTS);
+
+      assertThat(selector.select(selector.getEndpoints())).isNull();
+    }
+  }
+
+  @Nested
+  class TrySelect {
+
+    @Test
+    void whenAllEndpointsAreFull_ShouldReturnNull() {
+
+      final RemoteEndpointSelector selector =
+          selector(LoadBalancingStrategy.LEAST_OUTSTANDING_REQUESTS);
+
+      // 3 requests fill both endpoints (1 + 2).
+      assertThat(selector.trySelect()).isNotNull();
+      assertThat(selector.trySelect()).isNotNull();
+      final RemoteEndpointSelector.EndpointState third = selector.trySelect();
+      assertThat(third).isNotNull();
+      assertThat(selector.trySelect()).isNull();
+
+      selector.release(third, 10L, true);
+      assertThat(selector.trySelect()).isSameAs(third);
+    }
+  }
+
+  @Nested
+  class AwaitSelect {
+
+    @Test
+    void whenEndpointReleased_ShouldChooseReleasedEndpoint() throws InterruptedException {
+
+      final RemoteEndpointSelector selector =
+          selector(LoadBalancingStrategy.LEAST_OUTSTANDING_REQUESTS);
+      final RemoteEndpointSelector.EndpointState first = selector.trySelect();
+      selector.trySelect();
+      selector.trySelect();
+
+      final Thread releaser =
+          new Thread(
+              () -> {
+                try {
+                  Thread.sleep(100L);
+                } catch (InterruptedException ignored) {
+                  Thread.currentThread().interrupt();
+                }
+                selector.release(first, 10L, true);
+              });
+      releaser.start();
+
+      assertThat(selector.awaitSelect(Collections.emptyList(), 5_000L)).isSameAs(first);
+      releaser.join();
+    }
+
+    @Test
+    void whenNoEndpointReleased_ShouldReturnNullAfterTimeout() throws InterruptedException {
+
+      final RemoteEndpointSelector selector =
+          selector(LoadBalancingStrategy.LEAST_OUTSTANDING_REQUESTS);
+      selector.trySelect();
+      selector.trySelect();
+      selector.trySelect();
+
+      assertThat(selector.awaitSelect(Collections.emptyList(), 50L)).isNull();
+      // Both endpoints are still capped by their pool size.
+      assertThat(selector.getEndpoints())
+          .extracting(RemoteEndpointSelector.EndpointState::getOutstandingRequests)
+          .containsExactly(1, 2);
+    }
+
+    @Test
+    void whenAllEndpointsExcluded_ShouldReturnNullWithoutWaiting() throws InterruptedException {
+
+      final RemoteEndpointSelector selector =
+          selector(LoadBalancingStrategy.LEAST_OUTSTANDING_REQUESTS);
+
+      assertThat(selector.awaitSelect(selector.getEndpoints(), 60_000L)).isNull();
+    }
+  }
+}
@@ -23,9 +23,11 @@ package org.jodconverter.remote.office;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.jodconverter.core.office.AbstractOfficeManagerPool.DEFAULT_TASK_EXECUTION_TIMEOUT;
 import static org.jodconverter.core.office.AbstractOfficeManagerPool.DEFAULT_TASK_QUEUE_TIMEOUT;
 import static org.jodconverter.remote.office.RemoteOfficeManager.DEFAULT_CONNECT_TIMEOUT;
+import static org.jodconverter.remote.office.RemoteOfficeManager.DEFAULT_KEEP_ALIVE_TIMEOUT;
 import static org.jodconverter.remote.office.RemoteOfficeManager.DEFAULT_SOCKET_TIMEOUT;
 import static org.jodconverter.remote.office.RemoteOfficeManager.MAX_POOL_SIZE;
 
@@ -72,18 +74,14 @@ class RemoteOfficeManagerTest {
               o ->
                   assertThat(o)
                       .isInstanceOf(RemoteOfficeManagerPoolEntry.class)
-                      .extracting(
-                          "taskExecutionTimeout",
-                          "connectionUrl",
-                          "sslConfig",
-                          "connectTimeout",
-                          "socketTimeout")
+                      .extracting("taskExecutionTimeout", "connectTimeout", "socketTimeout")
                       .containsExactly(
                           DEFAULT_TASK_EXECUTION_TIMEOUT,
-                          "localhost",
-                          null,
                           DEFAULT_CONNECT_TIMEOUT,
                           DEFAULT_SOCKET_TIMEOUT));
+      assertThat(manager)
+          .extracting("sslConfig", "maxConnections", "keepAliveTimeout")
+          .containsExactly(null, 2, DEFAULT_KEEP_ALIVE_TIMEOUT);
     }
   }
 
@@ -120,6 +118,8 @@ class RemoteOfficeManagerTest {
               .urlConnection("localhost")
               .connectTimeout(null)
               .socketTimeout(null)
+              .maxConnections(null)
+              .keepAliveTimeout(null)
               .build();
 
       assertThat(manager).isInstanceOf(RemoteOfficeManager.class);
@@ -141,18 +141,14 @@ class RemoteOfficeManagerTest {
               o ->
                   assertThat(o)
                       .isInstanceOf(RemoteOfficeManagerPoolEntry.class)
-                      .extracting(
-                          "taskExecutionTimeout",
-                          "connectionUrl",
-                          "sslConfig",
-                          "connectTimeout",
-                          "socketTimeout")
+                      .extracting("taskExecutionTimeout", "connectTimeout", "socketTimeout")
                       .containsExactly(
                           DEFAULT_TASK_EXECUTION_TIMEOUT,
-                          "localhost",
-                          null,
                           DEFAULT_CONNECT_TIMEOUT,
                           DEFAULT_SOCKET_TIMEOUT));
+      assertThat(manager)
+          .extracting("sslConfig", "maxConnections", "keepAliveTimeout")
+          .containsExactly(null, 2, DEFAULT_KEEP_ALIVE_TIMEOUT);
     }
 
     @Test
@@ -172,6 +168,10 @@ class RemoteOfficeManagerTest {
               .sslConfig(null)
               .connectTimeout(502L)
               .socketTimeout(503L)
+              .maxConnections(10)
+              .keepAliveTimeout(504L)
+              .requestCompression(true)
+              .capabilitiesTtl(505L)
               .build();
 
       assertThat(manager).isInstanceOf(RemoteOfficeManager.class);
@@ -191,11 +191,52 @@ class RemoteOfficeManagerTest {
                       .isInstanceOf(RemoteOfficeManagerPoolEntry.class)
                       .extracting(
                           "taskExecutionTimeout",
-                          "connectionUrl",
-                          "sslConfig",
                           "connectTimeout",
-                          "socketTimeout")
-                      .containsExactly(500L, "localhost", null, 502L, 503L));
+                          "socketTimeout",
+                          "requestCompression")
+                      .containsExactly(500L, 502L, 503L, true));
+      assertThat(manager)
+          .extracting("sslConfig", "maxConnections", "keepAliveTimeout", "capabilitiesTtl")
+          .containsExactly(null, 10, 504L, 505L);
+      assertThat(((RemoteOfficeManager) manager).getEndpoints())
+          .extracting(RemoteEndpoint::getUrl, RemoteEndpoint::getPoolSize)
+          .containsExactly(tuple("localhost", 2));
+    }
+
+    @Test
+    void withEndpoints_ShouldCreateEntriesForAllEndpoints() {
+
+      final RemoteOfficeManager manager =
+          RemoteOfficeManager.builder()
+              .urlConnection("http://server1")
+              .poolSize(2)
+              .endpoint("http://server2", 3)
+              .loadBalancingStrategy(LoadBalancingStrategy.LATENCY_WEIGHTED)
+              .build();
+
+      assertThat(manager.getEndpoints())
+          .extracting(RemoteEndpoint::getUrl, RemoteEndpoint::getPoolSize)
+          .containsExactly(tuple("http://server1", 2), tuple("http://server2", 3));
+      assertThat(manager.getHealthyEndpoints()).hasSize(2);
+      assertThat(manager).extracting("entries").asList().hasSize(5);
+    }
+
+    @Test
+    void withEndpointsOnly_ShouldNotRequireUrlConnection() {
+
+      final RemoteOfficeManager manager =
+          RemoteOfficeManager.builder().endpoint("http://server1", 1).build();
+
+      assertThat(manager.getEndpoints())
+          .extracting(RemoteEndpoint::getUrl)
+          .containsExactly("http://server1");
+    }
+
+    @Test
+    void whenInvalidHealthCheckInterval_ShouldThrowIllegalArgumentException() {
+
+      assertThatIllegalArgumentException()
+          .isThrownBy(() -> RemoteOfficeManager.builder().healthCheckInterval(-1L));
     }
 
     @Test
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2004 - 2012; Mirko Nasato and contributors
+ *               2016 - 2022; Simon Braconnier and contributors
+ *               2022 - present; JODConverter
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+
+/** Contains tests for the {@link Compressibility} class. */
+class CompressibilityTest {
+
+  private static final File SOURCE_FILE = new File("src/test/resources/documents/test.txt");
+
+  @Nested
+  class IsCompressible {
+
+    @Test
+    void withTextFormat_ShouldReturnTrue() {
+
+      assertThat(Compressibility.isCompressible(DefaultDocumentFormatRegistry.CSV, null)).isTrue();
+    }
+
+    @Test
+    void withCompressedFormat_ShouldReturnFalse() {
+
+      assertThat(Compressibility.isCompressible(DefaultDocumentFormatRegistry.DOCX, SOURCE_FILE))
+          .isFalse();
+    }
+
+    @Test
+    void withUnknownFormatAndNoFile_ShouldReturnFalse() {
+
+      assertThat(Compressibility.isCompressible(DefaultDocumentFormatRegistry.DOC, null)).isFalse();
+    }
+
+    @Test
+    void withUnknownFormatAndCompressibleFile_ShouldReturnTrue(final @TempDir File testFolder)
+        throws IOException {
+
+      final File file = new File(testFolder, "test.doc");
+      final StringBuilder content = new StringBuilder();
+      for (int i = 0; i < 100; i++) {
+        content.append("Lorem ipsum dolor sit amet. ");
+      }
+      Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+
+      assertThat(Compressibility.isCompressible(DefaultDocumentFormatRegistry.DOC, file)).isTrue();
+      assertThat(Compressibility.isCompressible(null, file)).isTrue();
+    }
+
+    @Test
+    void withUnknownFormatAndRandomFile_ShouldReturnFalse(final @TempDir File testFolder)
+        throws IOException {
+
+      final File file = new File(testFolder, "test.doc");
+      final byte[] content = new byte[4096];
+      new Random(0L).nextBytes(content);
+      Files.write(file.toPath(), content);
+
+      assertThat(Compressibility.isCompressible(DefaultDocumentFormatRegistry.DOC, file)).isFalse();
+    }
+
+    @Test
+    void withUnknownFormatAndEmptyFile_ShouldReturnFalse(final @TempDir File testFolder)
+        throws IOException {
+
+      final File file = new File(testFolder, "test.doc");
+      Files.write(file.toPath(), new byte[0]);
+
+      assertThat(Compressibility.isCompressible(null, file)).isFalse();
+    }
+  }
+}